@@ -0,0 +1,93 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.internal.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures looking up services from a task scoped registry, where the services are provided by the build, project and task scopes.
+ */
+@Fork(2)
+@Threads(4)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class DefaultServiceRegistryBenchmark {
+
+    private DefaultServiceRegistry taskScope;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        DefaultServiceRegistry buildScope = new DefaultServiceRegistry("build");
+        buildScope.addProvider(new BuildScopeServices());
+        DefaultServiceRegistry projectScope = new DefaultServiceRegistry("project", buildScope);
+        projectScope.addProvider(new ProjectScopeServices());
+        taskScope = new DefaultServiceRegistry("task", projectScope);
+        taskScope.addProvider(new TaskScopeServices());
+    }
+
+    @Benchmark
+    public BuildScopeService buildScopedService() {
+        return taskScope.get(BuildScopeService.class);
+    }
+
+    @Benchmark
+    public ProjectScopeService projectScopedService() {
+        return taskScope.get(ProjectScopeService.class);
+    }
+
+    @Benchmark
+    public TaskScopeService taskScopedService() {
+        return taskScope.get(TaskScopeService.class);
+    }
+
+    public static class BuildScopeService {
+    }
+
+    public static class ProjectScopeService {
+    }
+
+    public static class TaskScopeService {
+    }
+
+    private static class BuildScopeServices {
+        BuildScopeService createBuildScopeService() {
+            return new BuildScopeService();
+        }
+    }
+
+    private static class ProjectScopeServices {
+        ProjectScopeService createProjectScopeService(BuildScopeService buildScopeService) {
+            return new ProjectScopeService();
+        }
+    }
+
+    private static class TaskScopeServices {
+        TaskScopeService createTaskScopeService(ProjectScopeService projectScopeService) {
+            return new TaskScopeService();
+        }
+    }
+}
@@ -33,13 +33,15 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Formatter;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -73,12 +75,16 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
     private final static ServiceRegistry[] NO_PARENTS = new ServiceRegistry[0];
     private final static Service[] NO_DEPENDENTS = new Service[0];
     private final static Object[] NO_PARAMS = new Object[0];
+    private final static ConcurrentMap<Class<?>, List<Class<?>>> SERVICE_TYPES_CACHE = new ConcurrentHashMap<Class<?>, List<Class<?>>>();
 
     private final OwnServices ownServices;
     private final ServiceProvider allServices;
     private final ServiceProvider parentServices;
     private final String displayName;
     private final ServiceProvider thisAsServiceProvider;
+    // Services that have been located in this registry or its parents, which do not change once the registry is no longer mutable.
+    // Only used when all parents are also DefaultServiceRegistry instances, as other registries may return different services over time.
+    private final ConcurrentMap<Type, SingletonService> locatedServices;
 
     private AtomicReference<State> state = new AtomicReference<State>(State.INIT);
 
@@ -105,6 +111,7 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
             parentServices = setupParentServices(parents);
             allServices = new CompositeServiceProvider(ownServices, parentServices);
         }
+        this.locatedServices = allDefaultServiceRegistries(parents) ? new ConcurrentHashMap<Type, SingletonService>(16, 0.75f, 1) : null;
 
         findProviderMethods(this);
     }
@@ -123,6 +130,15 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
         return parentServices;
     }
 
+    private static boolean allDefaultServiceRegistries(ServiceRegistry[] registries) {
+        for (ServiceRegistry registry : registries) {
+            if (!(registry instanceof DefaultServiceRegistry)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private ServiceProvider asProvider() {
         return thisAsServiceProvider;
     }
@@ -257,6 +273,10 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
 
     private void serviceRequested() {
         noLongerMutable();
+        assertNotClosed();
+    }
+
+    private void assertNotClosed() {
         if (state.get() == State.CLOSED) {
             throw new IllegalStateException(String.format("%s has been closed.", getDisplayName()));
         }
@@ -293,8 +313,23 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
     }
 
     private Service getService(Type serviceType) {
+        if (locatedServices == null) {
+            serviceRequested();
+            return find(serviceType, allServices);
+        }
+        SingletonService located = locatedServices.get(serviceType);
+        if (located != null) {
+            // Fast path, this registry and the one that owns the service are known to be no longer mutable
+            assertNotClosed();
+            located.owner.assertNotClosed();
+            return located;
+        }
         serviceRequested();
-        return find(serviceType, allServices);
+        Service service = find(serviceType, allServices);
+        if (service instanceof SingletonService) {
+            locatedServices.putIfAbsent(serviceType, (SingletonService) service);
+        }
+        return service;
     }
 
     @Override
@@ -500,23 +535,9 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
         }
 
         private class ProviderAnalyser {
-            private Set<Class<?>> seen = new HashSet<Class<?>>(4, 0.5f);
-
             public void addProviderForClassHierarchy(Class<?> serviceType, ServiceProvider serviceProvider) {
-                analyseType(serviceType, serviceProvider);
-                seen.clear();
-            }
-
-            private void analyseType(Class<?> type, ServiceProvider serviceProvider) {
-                if (type == null || type == Object.class) {
-                    return;
-                }
-                if (seen.add(type)) {
+                for (Class<?> type : getServiceTypes(serviceType)) {
                     putServiceType(type, serviceProvider);
-                    analyseType(type.getSuperclass(), serviceProvider);
-                    for (Class<?> iface : type.getInterfaces()) {
-                        analyseType(iface, serviceProvider);
-                    }
                 }
             }
 
@@ -531,6 +552,32 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
         }
     }
 
+    /**
+     * Returns the types that a service of the given class can be located by. These are calculated once for each class and shared by all registries.
+     */
+    private static List<Class<?>> getServiceTypes(Class<?> serviceClass) {
+        List<Class<?>> serviceTypes = SERVICE_TYPES_CACHE.get(serviceClass);
+        if (serviceTypes == null) {
+            Set<Class<?>> seen = new LinkedHashSet<Class<?>>();
+            collectServiceTypes(serviceClass, seen);
+            serviceTypes = Collections.unmodifiableList(new ArrayList<Class<?>>(seen));
+            SERVICE_TYPES_CACHE.putIfAbsent(serviceClass, serviceTypes);
+        }
+        return serviceTypes;
+    }
+
+    private static void collectServiceTypes(Class<?> type, Set<Class<?>> seen) {
+        if (type == null || type == Object.class) {
+            return;
+        }
+        if (seen.add(type)) {
+            collectServiceTypes(type.getSuperclass(), seen);
+            for (Class<?> iface : type.getInterfaces()) {
+                collectServiceTypes(iface, seen);
+            }
+        }
+    }
+
     private static Class<?> unwrap(Type type) {
         if (type instanceof Class) {
             return (Class) type;
@@ -1164,6 +1164,25 @@ class DefaultServiceRegistryTest extends Specification {
         e.message == "TestRegistry has been closed."
     }
 
+    def "cannot lookup parent service previously located via child when parent is closed"() {
+        given:
+        def parent = new DefaultServiceRegistry("parent")
+        parent.add(String, "value")
+        def child = new DefaultServiceRegistry(parent)
+
+        expect:
+        child.get(String) == "value"
+        child.get(CharSequence) == "value"
+
+        when:
+        parent.close()
+        child.get(String)
+
+        then:
+        IllegalStateException e = thrown()
+        e.message == "parent has been closed."
+    }
+
     def cannotLookupFactoriesWhenClosed() {
         given:
         registry.getFactory(BigDecimal)
@@ -46,6 +46,7 @@ dependencies {
         }
     }
 
+    jmh(project(":core"))
     jmh("io.airlift:aircompressor:0.8")
     jmh("org.iq80.snappy:snappy:0.4")
     jmh("org.kamranzafar:jtar:2.3")
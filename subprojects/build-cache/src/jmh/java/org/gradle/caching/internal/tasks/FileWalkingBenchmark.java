@@ -17,6 +17,19 @@
 package org.gradle.caching.internal.tasks;
 
 import org.apache.commons.io.FileUtils;
+import org.gradle.api.file.FileVisitDetails;
+import org.gradle.api.file.FileVisitor;
+import org.gradle.api.file.RelativePath;
+import org.gradle.api.internal.file.collections.DirectoryWalker;
+import org.gradle.api.internal.file.collections.ReproducibleDirectoryWalker;
+import org.gradle.api.internal.file.collections.jdk7.DirectoryListingExecutor;
+import org.gradle.api.internal.file.collections.jdk7.Jdk7DirectoryWalker;
+import org.gradle.api.internal.file.collections.jdk7.ParallelDirectoryWalker;
+import org.gradle.api.specs.Specs;
+import org.gradle.internal.concurrent.DefaultExecutorFactory;
+import org.gradle.internal.nativeintegration.filesystem.FileSystem;
+import org.gradle.internal.nativeintegration.services.FileSystems;
+import org.gradle.internal.nativeintegration.services.NativeServices;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Fork;
 import org.openjdk.jmh.annotations.Level;
@@ -33,6 +46,7 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Fork(1)
 @Warmup(iterations = 5)
@@ -109,4 +123,83 @@ public class FileWalkingBenchmark {
         Path path = missing ? missingPath : existingPath;
         blackhole.consume(Files.exists(path));
     }
+
+    @Benchmark
+    public void jdk7DirectoryWalker(LargeDirectoryTree tree, Blackhole blackhole) {
+        walk(new Jdk7DirectoryWalker(tree.fileSystem), tree, blackhole);
+    }
+
+    @Benchmark
+    public void reproducibleDirectoryWalker(LargeDirectoryTree tree, Blackhole blackhole) {
+        walk(new ReproducibleDirectoryWalker(tree.fileSystem), tree, blackhole);
+    }
+
+    @Benchmark
+    public void parallelDirectoryWalker(LargeDirectoryTree tree, Blackhole blackhole) {
+        walk(new ParallelDirectoryWalker(tree.fileSystem, false), tree, blackhole);
+    }
+
+    @Benchmark
+    public void parallelReproducibleDirectoryWalker(LargeDirectoryTree tree, Blackhole blackhole) {
+        walk(new ParallelDirectoryWalker(tree.fileSystem, true), tree, blackhole);
+    }
+
+    private static void walk(DirectoryWalker walker, LargeDirectoryTree tree, final Blackhole blackhole) {
+        walker.walkDir(tree.root, RelativePath.EMPTY_ROOT, new FileVisitor() {
+            @Override
+            public void visitDir(FileVisitDetails dirDetails) {
+                blackhole.consume(dirDetails.getLastModified());
+            }
+
+            @Override
+            public void visitFile(FileVisitDetails fileDetails) {
+                blackhole.consume(fileDetails.getSize());
+            }
+        }, Specs.satisfyAll(), new AtomicBoolean(), false);
+    }
+
+    @State(Scope.Benchmark)
+    public static class LargeDirectoryTree {
+        private static final int FILES_PER_DIRECTORY = 20;
+        private static final int DIRECTORIES_PER_DIRECTORY = 6;
+
+        @Param({"2", "4"})
+        int depth;
+
+        File tempDir;
+        File root;
+        FileSystem fileSystem;
+        DefaultExecutorFactory executorFactory;
+        DirectoryListingExecutor listingExecutor;
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            tempDir = Files.createTempDirectory("file-tree-walking").toFile();
+            NativeServices.initialize(tempDir);
+            fileSystem = FileSystems.getDefault();
+            root = new File(tempDir, "tree");
+            populate(root, depth);
+            executorFactory = new DefaultExecutorFactory();
+            listingExecutor = new DirectoryListingExecutor(executorFactory, Runtime.getRuntime().availableProcessors());
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            listingExecutor.stop();
+            executorFactory.stop();
+            FileUtils.forceDelete(tempDir);
+        }
+
+        private static void populate(File dir, int depth) throws IOException {
+            FileUtils.forceMkdir(dir);
+            for (int i = 0; i < FILES_PER_DIRECTORY; i++) {
+                Files.write(new File(dir, "file" + i + ".txt").toPath(), ("content " + i).getBytes());
+            }
+            if (depth > 0) {
+                for (int i = 0; i < DIRECTORIES_PER_DIRECTORY; i++) {
+                    populate(new File(dir, "dir" + i), depth - 1);
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.changedetection.state
+
+import org.gradle.internal.concurrent.DefaultExecutorFactory
+import org.gradle.internal.filewatch.DefaultFileWatcherFactory
+import org.gradle.internal.filewatch.FileWatcherEvent
+import org.gradle.internal.filewatch.FileWatcherFactory
+import org.gradle.internal.filewatch.FileWatcherListener
+import org.gradle.internal.nativeintegration.filesystem.FileSystem
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.gradle.util.Requires
+import org.gradle.util.SetSystemProperties
+import org.gradle.util.TestPrecondition
+import org.gradle.util.UsesNativeServices
+import org.junit.Rule
+import spock.lang.Specification
+
+@UsesNativeServices
+@Requires(TestPrecondition.LINUX)
+class DefaultFileSystemMirrorFileWatchingTest extends Specification {
+    @Rule
+    TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+    @Rule
+    SetSystemProperties systemProperties = new SetSystemProperties()
+
+    DefaultFileWatcherFactory fileWatcherFactory = new DefaultFileWatcherFactory(new DefaultExecutorFactory(), Stub(FileSystem))
+    FileWatcherListener listener
+    DefaultFileSystemMirror mirror
+
+    def setup() {
+        System.setProperty(DefaultFileSystemMirror.RETAIN_STATE_PROPERTY, "true")
+        def recordingFileWatcherFactory = [
+            watch: { onError, FileWatcherListener listener ->
+                this.listener = listener
+                fileWatcherFactory.watch(onError, listener)
+            }
+        ] as FileWatcherFactory
+        mirror = new DefaultFileSystemMirror(new DefaultWellKnownFileLocations([]), recordingFileWatcherFactory)
+    }
+
+    def cleanup() {
+        mirror.stop()
+        fileWatcherFactory.stop()
+    }
+
+    def "retains state about watched files between builds until they change"() {
+        def dir = tmpDir.createDir("dir")
+        def file = dir.createFile("a")
+        def otherFile = dir.createFile("b")
+
+        when:
+        2.times {
+            build {
+                mirror.putFile(fileSnapshot(file))
+                mirror.putFile(fileSnapshot(otherFile))
+            }
+        }
+        mirror.afterStart()
+
+        then:
+        mirror.getFile(file.path) != null
+        mirror.getFile(otherFile.path) != null
+
+        when:
+        mirror.beforeComplete()
+        file.text = "changed"
+        mirror.afterStart()
+
+        then:
+        mirror.getFile(file.path) == null
+        mirror.getFile(otherFile.path) != null
+    }
+
+    def "discards retained state about files that change just before a build starts"() {
+        def dir = tmpDir.createDir("dir")
+        def files = (1..20).collect { dir.createFile("file$it") }
+
+        given:
+        2.times {
+            build {
+                files.each { mirror.putFile(fileSnapshot(it)) }
+            }
+        }
+
+        expect:
+        files.each { file ->
+            file.text = "changed"
+            mirror.afterStart()
+            assert mirror.getFile(file.path) == null
+            mirror.putFile(fileSnapshot(file))
+            mirror.beforeComplete()
+        }
+    }
+
+    def "discards retained directory tree when a file in the tree changes"() {
+        def dir = tmpDir.createDir("dir")
+        def file = dir.createFile("sub/a")
+
+        when:
+        2.times {
+            build {
+                mirror.putDirectory(treeSnapshot(dir, file))
+            }
+        }
+        mirror.afterStart()
+
+        then:
+        mirror.getDirectoryTree(dir.path) != null
+
+        when:
+        mirror.beforeComplete()
+        file.delete()
+        mirror.afterStart()
+
+        then:
+        mirror.getDirectoryTree(dir.path) == null
+    }
+
+    def "does not retain state reached through a symbolic link"() {
+        def outside = tmpDir.createDir("outside")
+        def target = outside.createFile("target")
+        def dir = tmpDir.createDir("dir")
+        def file = dir.createFile("a")
+        def fileLink = dir.file("fileLink")
+        fileLink.createLink(target)
+        def dirLink = dir.file("dirLink")
+        dirLink.createLink(outside)
+        def fileInLinkedDir = dirLink.file("target")
+        def tree = dir.createDir("tree")
+        tree.file("link").createLink(target)
+
+        when:
+        2.times {
+            build {
+                [file, fileLink, fileInLinkedDir].each { mirror.putFile(fileSnapshot(it)) }
+                mirror.putContent(fileLink.path, Stub(Snapshot))
+                mirror.putDirectory(treeSnapshot(dirLink))
+                mirror.putDirectory(treeSnapshot(tree, tree.file("link")))
+            }
+        }
+        mirror.afterStart()
+
+        then:
+        mirror.getFile(file.path) != null
+        mirror.getFile(fileLink.path) == null
+        mirror.getFile(fileInLinkedDir.path) == null
+        mirror.getContent(fileLink.path) == null
+        mirror.getDirectoryTree(dirLink.path) == null
+        mirror.getDirectoryTree(tree.path) == null
+    }
+
+    def "discards all retained state when the watcher overflows"() {
+        def file = tmpDir.createDir("dir").createFile("a")
+
+        when:
+        2.times {
+            build {
+                mirror.putFile(fileSnapshot(file))
+            }
+        }
+        mirror.afterStart()
+
+        then:
+        mirror.getFile(file.path) != null
+
+        when:
+        mirror.beforeComplete()
+        listener.onChange(null, FileWatcherEvent.undefined())
+        mirror.afterStart()
+
+        then:
+        mirror.getFile(file.path) == null
+    }
+
+    private void build(Closure action) {
+        mirror.afterStart()
+        action()
+        mirror.beforeComplete()
+    }
+
+    private FileSnapshot fileSnapshot(File file) {
+        return Stub(FileSnapshot) {
+            getPath() >> file.path
+        }
+    }
+
+    private FileTreeSnapshot treeSnapshot(File dir, File... descendants) {
+        def descendantSnapshots = descendants.collect { fileSnapshot(it) }
+        return Stub(FileTreeSnapshot) {
+            getPath() >> dir.path
+            getDescendants() >> descendantSnapshots
+        }
+    }
+}
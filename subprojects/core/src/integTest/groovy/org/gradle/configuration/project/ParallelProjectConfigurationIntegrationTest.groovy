@@ -0,0 +1,174 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.configuration.project
+
+import org.gradle.integtests.fixtures.AbstractIntegrationSpec
+
+class ParallelProjectConfigurationIntegrationTest extends AbstractIntegrationSpec {
+
+    def setup() {
+        settingsFile << """
+            rootProject.name = 'root'
+            include 'a', 'b', 'a:child'
+        """
+        buildFile << """
+            ext.started = new java.util.concurrent.CountDownLatch(2)
+            ext.configuredBeforeChildren = true
+        """
+        executer.withArguments("--parallel", "--max-workers=4", "-D${ParallelProjectEvaluator.PARALLEL_CONFIGURATION_PROPERTY}=true")
+    }
+
+    def "configures sibling projects concurrently after their parent"() {
+        given:
+        file("a/build.gradle") << waitForSibling() + """
+            ext.fromParent = rootProject.configuredBeforeChildren
+        """
+        file("b/build.gradle") << waitForSibling()
+        file("a/child/build.gradle") << """
+            assert project(':a').fromParent
+            println "configured " + path
+        """
+
+        when:
+        succeeds 'help'
+
+        then:
+        outputContains("configured :a:child")
+    }
+
+    def "configures project that another project depends on first"() {
+        given:
+        file("a/build.gradle") << """
+            evaluationDependsOn(':b')
+            assert project(':b').configured
+        """
+        file("b/build.gradle") << """
+            ext.configured = true
+        """
+
+        expect:
+        succeeds 'help'
+    }
+
+    def "reports circular evaluation dependencies between projects configured in parallel"() {
+        given:
+        file("a/build.gradle") << "evaluationDependsOn(':b')"
+        file("b/build.gradle") << "evaluationDependsOn(':a')"
+
+        when:
+        fails 'help'
+
+        then:
+        failure.assertHasCause("Circular referencing during evaluation for project ':")
+    }
+
+    def "reports configuration of another project while projects are configured in parallel"() {
+        given:
+        file("b/build.gradle") << """
+            project(':a') {
+                ext.fromB = true
+            }
+        """
+
+        when:
+        fails 'help'
+
+        then:
+        failure.assertHasCause("project ':b' cannot configure project ':a' while projects are configured in parallel. A project can only configure the projects below it that have not been configured yet. " +
+            "Move this configuration to the build script of project ':a' or of a project above it, or disable parallel configuration.")
+    }
+
+    def "allows a project to configure the projects below it that have not been configured yet"() {
+        given:
+        file("a/build.gradle") << waitForSibling() + """
+            subprojects {
+                ext.fromSubprojects = true
+            }
+            allprojects {
+                ext.fromAllprojects = true
+            }
+            project(':a:child') {
+                ext.fromProject = true
+            }
+        """
+        file("b/build.gradle") << waitForSibling()
+        file("a/child/build.gradle") << """
+            assert fromSubprojects
+            assert fromAllprojects
+            assert fromProject
+            println "configured " + path
+        """
+
+        when:
+        succeeds 'help'
+
+        then:
+        outputContains("configured :a:child")
+    }
+
+    def "configures the parent of a project that another project depends on first"() {
+        given:
+        file("a/build.gradle") << """
+            subprojects {
+                ext.fromParent = true
+            }
+        """
+        file("b/build.gradle") << """
+            evaluationDependsOn(':a:child')
+            assert project(':a:child').fromParent
+        """
+
+        expect:
+        succeeds 'help'
+    }
+
+    def "reports configuration of a project below that has already been configured"() {
+        given:
+        file("a/build.gradle") << """
+            evaluationDependsOn(':a:child')
+            subprojects {
+                ext.fromParent = true
+            }
+        """
+
+        when:
+        fails 'help'
+
+        then:
+        failure.assertHasCause("project ':a' cannot configure project ':a:child' while projects are configured in parallel.")
+    }
+
+    def "allows looking up another project by path while projects are configured in parallel"() {
+        given:
+        file("b/build.gradle") << """
+            configurations { compile }
+            dependencies { compile project(':a') }
+            assert project(':a').path == ':a'
+        """
+
+        expect:
+        succeeds 'help'
+    }
+
+    private static String waitForSibling() {
+        return """
+            rootProject.started.countDown()
+            assert rootProject.started.await(30, java.util.concurrent.TimeUnit.SECONDS) : "sibling project was not configured concurrently"
+        """
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.file.archive;
+
+import org.apache.tools.zip.ZipOutputStream;
+import org.gradle.api.file.RelativePath;
+import org.gradle.api.internal.DocumentationRegistry;
+import org.gradle.api.internal.file.CopyActionProcessingStreamAction;
+import org.gradle.api.internal.file.copy.CopyActionProcessingStream;
+import org.gradle.api.internal.file.copy.DefaultZipCompressor;
+import org.gradle.api.internal.file.copy.FileCopyDetailsInternal;
+import org.gradle.internal.concurrent.DefaultExecutorFactory;
+import org.gradle.internal.nativeintegration.filesystem.FileSystem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares writing a jar with many small class files sequentially with compressing its entries concurrently.
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class ZipCopyActionBenchmark {
+    private static final String[] CLASS_FILE_TOKENS = {
+        "java/lang/Object", "java/lang/String", "<init>", "()V", "Code", "LineNumberTable", "LocalVariableTable", "this", "StackMapTable",
+        "org/gradle/api/internal/", "SourceFile", "getName", "(Ljava/lang/String;)V", "Ljava/util/List;", "RuntimeVisibleAnnotations"
+    };
+
+    @Param({"2000", "20000"})
+    int classFiles;
+
+    @Param({"DEFLATED", "STORED"})
+    String compression;
+
+    private final ZipEntryCompressionExecutor compressionExecutor = new ZipEntryCompressionExecutor(new DefaultExecutorFactory(), Runtime.getRuntime().availableProcessors());
+    private final DocumentationRegistry documentationRegistry = new DocumentationRegistry();
+    private File tempDir;
+    private File jarFile;
+    private List<FileCopyDetailsInternal> entries;
+
+    @Setup
+    public void setup() throws IOException {
+        tempDir = Files.createTempDirectory("zip-copy-action").toFile();
+        jarFile = new File(tempDir, "test.jar");
+        entries = new ArrayList<FileCopyDetailsInternal>();
+        Random random = new Random(1234);
+        for (int i = 0; i < classFiles; i++) {
+            String packageName = "org/gradle/package" + i / 100;
+            if (i % 100 == 0) {
+                entries.add(entry(packageName, null));
+            }
+            entries.add(entry(packageName + "/Class" + i + ".class", classFile(random)));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        jarFile.delete();
+        tempDir.delete();
+        compressionExecutor.stop();
+    }
+
+    @Benchmark
+    public File sequential() {
+        return write(new ZipCopyAction(jarFile, compressor(), documentationRegistry, "UTF-8", false));
+    }
+
+    @Benchmark
+    public File concurrent() {
+        return write(new ZipCopyAction(jarFile, compressor(), documentationRegistry, "UTF-8", false, compressionExecutor));
+    }
+
+    private DefaultZipCompressor compressor() {
+        return new DefaultZipCompressor(false, compression.equals("STORED") ? ZipOutputStream.STORED : ZipOutputStream.DEFLATED);
+    }
+
+    private File write(ZipCopyAction action) {
+        action.execute(new CopyActionProcessingStream() {
+            @Override
+            public void process(CopyActionProcessingStreamAction action) {
+                for (FileCopyDetailsInternal entry : entries) {
+                    action.processFile(entry);
+                }
+            }
+        });
+        return jarFile;
+    }
+
+    private static byte[] classFile(Random random) {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        content.write(0xCA);
+        content.write(0xFE);
+        content.write(0xBA);
+        content.write(0xBE);
+        int size = 500 + random.nextInt(3500);
+        while (content.size() < size) {
+            if (random.nextBoolean()) {
+                byte[] token = CLASS_FILE_TOKENS[random.nextInt(CLASS_FILE_TOKENS.length)].getBytes();
+                content.write(token, 0, token.length);
+            } else {
+                content.write(random.nextInt(256));
+            }
+        }
+        return content.toByteArray();
+    }
+
+    /**
+     * Creates the details of a file or, when the content is null, a directory. Only the methods that {@link ZipCopyAction} uses are implemented.
+     */
+    private static FileCopyDetailsInternal entry(final String path, final byte[] content) {
+        final RelativePath relativePath = RelativePath.parse(content != null, path);
+        return (FileCopyDetailsInternal) Proxy.newProxyInstance(ZipCopyActionBenchmark.class.getClassLoader(), new Class<?>[]{FileCopyDetailsInternal.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                String name = method.getName();
+                if (name.equals("getRelativePath")) {
+                    return relativePath;
+                } else if (name.equals("isDirectory")) {
+                    return content == null;
+                } else if (name.equals("getMode")) {
+                    return content == null ? FileSystem.DEFAULT_DIR_MODE : FileSystem.DEFAULT_FILE_MODE;
+                } else if (name.equals("getLastModified")) {
+                    return 0L;
+                } else if (name.equals("getSize")) {
+                    return content == null ? 0L : (long) content.length;
+                } else if (name.equals("copyTo") && method.getParameterTypes()[0] == OutputStream.class) {
+                    ((OutputStream) args[0]).write(content);
+                    return null;
+                } else if (name.equals("toString")) {
+                    return path;
+                }
+                throw new UnsupportedOperationException(name);
+            }
+        });
+    }
+}
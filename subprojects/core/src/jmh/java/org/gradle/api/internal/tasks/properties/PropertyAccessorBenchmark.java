@@ -0,0 +1,88 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.tasks.properties;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares reading bean properties through the generated accessors with reading them reflectively.
+ */
+@Fork(2)
+@Warmup(iterations = 10)
+@State(Scope.Benchmark)
+public class PropertyAccessorBenchmark {
+
+    private final Bean bean = new Bean();
+    private List<PropertyAccessor> generatedAccessors;
+    private List<Method> getters;
+
+    @Setup
+    public void setup() throws Exception {
+        getters = new ArrayList<Method>();
+        getters.add(Bean.class.getMethod("getName"));
+        getters.add(Bean.class.getMethod("getInputFile"));
+        getters.add(Bean.class.getMethod("getCount"));
+        getters.add(Bean.class.getMethod("isEnabled"));
+        generatedAccessors = new PropertyAccessorFactory().createAccessors(Bean.class, getters);
+    }
+
+    @Benchmark
+    public void reflective(Blackhole bh) throws Exception {
+        for (Method getter : getters) {
+            bh.consume(getter.invoke(bean));
+        }
+    }
+
+    @Benchmark
+    public void generated(Blackhole bh) {
+        for (PropertyAccessor accessor : generatedAccessors) {
+            bh.consume(accessor.getValue(bean));
+        }
+    }
+
+    public static class Bean {
+        private final File inputFile = new File("input.txt");
+
+        public String getName() {
+            return "name";
+        }
+
+        public File getInputFile() {
+            return inputFile;
+        }
+
+        public int getCount() {
+            return 42;
+        }
+
+        public boolean isEnabled() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.operations.notify;
+
+import org.gradle.internal.event.DefaultListenerManager;
+import org.gradle.internal.operations.BuildOperationDescriptor;
+import org.gradle.internal.operations.BuildOperationListener;
+import org.gradle.internal.operations.DefaultBuildOperationListenerManager;
+import org.gradle.internal.operations.OperationFinishEvent;
+import org.gradle.internal.operations.OperationIdentifier;
+import org.gradle.internal.operations.OperationProgressEvent;
+import org.gradle.internal.operations.OperationStartEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures the throughput of build operation notifications sent from many threads at once to a registered notification listener.
+ *
+ * With {@code serialized} set, every notification is passed to the listener while holding a single monitor, as the bridge did before its
+ * notification methods stopped being synchronized.
+ */
+@Fork(2)
+@Threads(16)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class BuildOperationNotificationBridgeBenchmark {
+
+    private static final Object DETAILS = new Object();
+
+    @Param({"true", "false"})
+    boolean serialized;
+
+    @Param({"0", "50"})
+    long listenerWork;
+
+    private final AtomicLong threads = new AtomicLong();
+    private BuildOperationNotificationBridge bridge;
+    private BuildOperationListener broadcaster;
+
+    @Setup
+    public void setup() {
+        DefaultBuildOperationListenerManager buildOperationListenerManager = new DefaultBuildOperationListenerManager();
+        bridge = new BuildOperationNotificationBridge(buildOperationListenerManager, new DefaultListenerManager());
+        bridge.getValve().start();
+        BuildOperationNotificationListener2 listener = new WorkingListener(listenerWork);
+        bridge.getRegistrar().register(serialized ? new SerializedListener(listener) : listener);
+        broadcaster = buildOperationListenerManager.getBroadcaster();
+    }
+
+    @TearDown
+    public void tearDown() {
+        bridge.getValve().stop();
+    }
+
+    @State(Scope.Thread)
+    public static class Operations {
+        private long nextId;
+
+        @Setup
+        public void setup(BuildOperationNotificationBridgeBenchmark benchmark) {
+            // Give each thread its own range of operation ids
+            nextId = benchmark.threads.incrementAndGet() << 40;
+        }
+    }
+
+    @Benchmark
+    public void notifyOperation(Operations operations) {
+        OperationIdentifier id = new OperationIdentifier(++operations.nextId);
+        BuildOperationDescriptor descriptor = BuildOperationDescriptor.displayName("operation").details(DETAILS).build(id, null);
+        broadcaster.started(descriptor, new OperationStartEvent(0));
+        broadcaster.progress(id, new OperationProgressEvent(0, DETAILS));
+        broadcaster.finished(descriptor, new OperationFinishEvent(0, 0, null, null));
+    }
+
+    private static class WorkingListener implements BuildOperationNotificationListener2 {
+        private final long work;
+
+        WorkingListener(long work) {
+            this.work = work;
+        }
+
+        @Override
+        public void started(BuildOperationStartedNotification notification) {
+            Blackhole.consumeCPU(work);
+        }
+
+        @Override
+        public void progress(BuildOperationProgressNotification notification) {
+            Blackhole.consumeCPU(work);
+        }
+
+        @Override
+        public void finished(BuildOperationFinishedNotification notification) {
+            Blackhole.consumeCPU(work);
+        }
+    }
+
+    private static class SerializedListener implements BuildOperationNotificationListener2 {
+        private final BuildOperationNotificationListener2 delegate;
+
+        SerializedListener(BuildOperationNotificationListener2 delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public synchronized void started(BuildOperationStartedNotification notification) {
+            delegate.started(notification);
+        }
+
+        @Override
+        public synchronized void progress(BuildOperationProgressNotification notification) {
+            delegate.progress(notification);
+        }
+
+        @Override
+        public synchronized void finished(BuildOperationFinishedNotification notification) {
+            delegate.finished(notification);
+        }
+    }
+}
@@ -16,17 +16,42 @@
 
 package org.gradle.api.internal.changedetection.state;
 
+import com.google.common.collect.Sets;
 import org.gradle.api.internal.tasks.execution.TaskOutputChangesListener;
 import org.gradle.initialization.RootBuildLifecycleListener;
+import org.gradle.internal.concurrent.Stoppable;
+import org.gradle.internal.filewatch.FileWatcherFactory;
+import org.gradle.internal.os.OperatingSystem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * See {@link DefaultFileSystemSnapshotter} for some more details
+ *
+ * <p>By default, all state is discarded at the end of each build. When {@value #RETAIN_STATE_PROPERTY} is set, the state about files that do not live
+ * in an append-only cache is instead retained for the next build, and the file system is watched so that only the state of the paths which changed in
+ * the meantime is discarded. State is only retained for paths that were already watched when the state was captured, as changes before that point are
+ * not reported. State of paths that are reached through a symbolic link below a watched directory is not retained either, as changes to the target of
+ * the link are not reported. At the start of a build, changes that were made but not reported yet are waited for, see
+ * {@link FileSystemMirrorWatcher#awaitPendingChanges()}. When this takes too long, or the watcher overflows or fails, all state is discarded.</p>
+ *
+ * <p>State is only retained on Linux. On macOS the JDK watch service polls and reports changes only after a delay, and on Windows the changes of
+ * different directories are reported independently of each other, so there is no way to wait for all pending changes.</p>
  */
-public class DefaultFileSystemMirror implements FileSystemMirror, TaskOutputChangesListener, RootBuildLifecycleListener {
+public class DefaultFileSystemMirror implements FileSystemMirror, TaskOutputChangesListener, RootBuildLifecycleListener, Stoppable {
+    public static final String RETAIN_STATE_PROPERTY = "org.gradle.internal.filesystem.retain";
+    private static final Logger LOGGER = LoggerFactory.getLogger(DefaultFileSystemMirror.class);
+
     // Maps from interned absolute path for a file to known details for the file.
     private final Map<String, FileSnapshot> files = new ConcurrentHashMap<String, FileSnapshot>();
     private final Map<String, FileSnapshot> cacheFiles = new ConcurrentHashMap<String, FileSnapshot>();
@@ -37,9 +62,16 @@ public class DefaultFileSystemMirror implements FileSystemMirror, TaskOutputChan
     private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<String, Snapshot>();
     private final Map<String, Snapshot> cacheSnapshots = new ConcurrentHashMap<String, Snapshot>();
     private final WellKnownFileLocations wellKnownFileLocations;
+    private final FileWatcherFactory fileWatcherFactory;
+    private FileSystemMirrorWatcher watcher;
 
     public DefaultFileSystemMirror(WellKnownFileLocations wellKnownFileLocations) {
+        this(wellKnownFileLocations, null);
+    }
+
+    public DefaultFileSystemMirror(WellKnownFileLocations wellKnownFileLocations, @Nullable FileWatcherFactory fileWatcherFactory) {
         this.wellKnownFileLocations = wellKnownFileLocations;
+        this.fileWatcherFactory = fileWatcherFactory;
     }
 
     @Nullable
@@ -114,11 +146,170 @@ public class DefaultFileSystemMirror implements FileSystemMirror, TaskOutputChan
 
     @Override
     public void afterStart() {
+        if (watcher == null) {
+            return;
+        }
+        if (!shouldRetainState()) {
+            LOGGER.debug("File system state is no longer retained between builds, discarding retained state.");
+            stopWatching();
+            discardState();
+        } else if (!awaitPendingChanges() || watcher.isChangesLost()) {
+            LOGGER.info("Some file system changes may not have been reported since the previous build, discarding retained file system state.");
+            stopWatching();
+            discardState();
+        } else {
+            Set<String> changedPaths = watcher.takeChangedPaths();
+            if (!changedPaths.isEmpty()) {
+                Set<String> changedPathsAndAncestors = Sets.newHashSet();
+                for (String changedPath : changedPaths) {
+                    for (String path = changedPath; path != null; path = FileSystemMirrorWatcher.parentOf(path)) {
+                        if (!changedPathsAndAncestors.add(path)) {
+                            break;
+                        }
+                    }
+                }
+                discardChanged(files, changedPaths, changedPathsAndAncestors);
+                discardChanged(trees, changedPaths, changedPathsAndAncestors);
+                discardChanged(snapshots, changedPaths, changedPathsAndAncestors);
+                LOGGER.debug("Discarded retained file system state for {} changed paths.", changedPaths.size());
+            }
+        }
     }
 
     @Override
     public void beforeComplete() {
-        // We throw away all state between builds
+        // State about files in the caches is always thrown away, as these may be cleaned up between builds
+        cacheFiles.clear();
+        cacheTrees.clear();
+        cacheSnapshots.clear();
+
+        if (!shouldRetainState()) {
+            // We throw away all state between builds
+            discardState();
+            return;
+        }
+
+        try {
+            if (watcher == null) {
+                watcher = new FileSystemMirrorWatcher(fileWatcherFactory);
+            }
+            // Changes to paths that were not watched when their state was captured may have been missed, so start watching them for the next build
+            Set<String> unwatchedDirectories = Sets.newHashSet();
+            discardUnwatched(files, unwatchedDirectories, false);
+            discardUnwatched(snapshots, unwatchedDirectories, false);
+            discardUnwatched(trees, unwatchedDirectories, true);
+            discardLinked();
+            watcher.watch(unwatchedDirectories);
+        } catch (Exception e) {
+            LOGGER.info("Could not watch the file system for changes, file system state will not be retained between builds.", e);
+            stopWatching();
+            discardState();
+        }
+    }
+
+    @Override
+    public void stop() {
+        stopWatching();
+    }
+
+    private boolean shouldRetainState() {
+        return fileWatcherFactory != null && Boolean.getBoolean(RETAIN_STATE_PROPERTY) && OperatingSystem.current().isLinux();
+    }
+
+    private boolean awaitPendingChanges() {
+        try {
+            return watcher.awaitPendingChanges();
+        } catch (IOException e) {
+            LOGGER.debug("Could not wait for pending file system changes.", e);
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void discardLinked() {
+        Map<String, Boolean> linkedPaths = new HashMap<String, Boolean>();
+        discardLinked(files, linkedPaths);
+        discardLinked(snapshots, linkedPaths);
+        Iterator<FileTreeSnapshot> treeIterator = trees.values().iterator();
+        while (treeIterator.hasNext()) {
+            FileTreeSnapshot tree = treeIterator.next();
+            if (isLinked(tree.getPath(), linkedPaths) || hasLinkedDescendant(tree, linkedPaths)) {
+                treeIterator.remove();
+            }
+        }
+    }
+
+    private void discardLinked(Map<String, ?> state, Map<String, Boolean> linkedPaths) {
+        Iterator<String> paths = state.keySet().iterator();
+        while (paths.hasNext()) {
+            if (isLinked(paths.next(), linkedPaths)) {
+                paths.remove();
+            }
+        }
+    }
+
+    private boolean hasLinkedDescendant(FileTreeSnapshot tree, Map<String, Boolean> linkedPaths) {
+        for (FileSnapshot descendant : tree.getDescendants()) {
+            if (isLinked(descendant.getPath(), linkedPaths)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns true when the given path, or one of its ancestors below the watched directory it lives in, is a symbolic link. Links above the watched
+     * directory do not matter, as the watched directory itself is watched wherever it lives.
+     */
+    private boolean isLinked(String path, Map<String, Boolean> linkedPaths) {
+        if (watcher.isWatchRoot(path)) {
+            return false;
+        }
+        Boolean linked = linkedPaths.get(path);
+        if (linked == null) {
+            String parent = FileSystemMirrorWatcher.parentOf(path);
+            linked = Files.isSymbolicLink(Paths.get(path)) || (parent != null && isLinked(parent, linkedPaths));
+            linkedPaths.put(path, linked);
+        }
+        return linked;
+    }
+
+    private void discardUnwatched(Map<String, ?> state, Set<String> unwatchedDirectories, boolean pathsAreDirectories) {
+        Iterator<String> paths = state.keySet().iterator();
+        while (paths.hasNext()) {
+            String path = paths.next();
+            if (!watcher.isWatched(path)) {
+                paths.remove();
+                String directory = pathsAreDirectories ? path : FileSystemMirrorWatcher.parentOf(path);
+                if (directory != null) {
+                    unwatchedDirectories.add(directory);
+                }
+            }
+        }
+    }
+
+    private static void discardChanged(Map<String, ?> state, Set<String> changedPaths, Set<String> changedPathsAndAncestors) {
+        Iterator<String> paths = state.keySet().iterator();
+        while (paths.hasNext()) {
+            String path = paths.next();
+            if (changedPathsAndAncestors.contains(path) || hasAncestorIn(path, changedPaths)) {
+                paths.remove();
+            }
+        }
+    }
+
+    private static boolean hasAncestorIn(String path, Set<String> candidates) {
+        for (String ancestor = FileSystemMirrorWatcher.parentOf(path); ancestor != null; ancestor = FileSystemMirrorWatcher.parentOf(ancestor)) {
+            if (candidates.contains(ancestor)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void discardState() {
         files.clear();
         cacheFiles.clear();
         trees.clear();
@@ -126,4 +317,11 @@ public class DefaultFileSystemMirror implements FileSystemMirror, TaskOutputChan
         snapshots.clear();
         cacheSnapshots.clear();
     }
+
+    private void stopWatching() {
+        if (watcher != null) {
+            watcher.stop();
+            watcher = null;
+        }
+    }
 }
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.changedetection.state;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import org.gradle.api.Action;
+import org.gradle.api.internal.file.FileSystemSubset;
+import org.gradle.internal.concurrent.Stoppable;
+import org.gradle.internal.filewatch.FileWatcher;
+import org.gradle.internal.filewatch.FileWatcherEvent;
+import org.gradle.internal.filewatch.FileWatcherFactory;
+import org.gradle.internal.filewatch.FileWatcherListener;
+import org.gradle.util.GFileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the directories that contain the file system state retained by {@link DefaultFileSystemMirror} between builds, and collects the paths that
+ * changed in the meantime.
+ *
+ * <p>Directories are watched recursively. A path is considered watched once the directory it lives in, or one of that directory's ancestors, has been
+ * watched, as from then on every change to the path is reported.</p>
+ *
+ * <p>Changes are reported asynchronously, so a change made just before a build starts may not have been reported yet when the build starts. To wait
+ * for such changes, {@link #awaitPendingChanges()} creates a cookie file in a private directory that is watched as well, and waits until the creation
+ * of the cookie is reported. The JDK watch service on Linux reads the events of all watched directories from a single inotify queue in order, so every
+ * change made before the cookie was created has been reported by then.</p>
+ */
+class FileSystemMirrorWatcher implements Stoppable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileSystemMirrorWatcher.class);
+    private static final String COOKIE_PREFIX = "cookie-";
+    private static final long PENDING_CHANGES_TIMEOUT_MILLIS = 2000;
+
+    private final FileWatcher fileWatcher;
+    private final File cookieDirectory;
+    private final Set<String> watchedDirectories = Sets.newConcurrentHashSet();
+    private final Set<String> changedPaths = Sets.newConcurrentHashSet();
+    private final Object cookieLock = new Object();
+    private long lastCookie;
+    private long lastReportedCookie;
+    private volatile boolean changesLost;
+
+    FileSystemMirrorWatcher(FileWatcherFactory fileWatcherFactory) throws IOException {
+        cookieDirectory = Files.createTempDirectory("gradle-file-system-mirror").toFile().getCanonicalFile();
+        try {
+            fileWatcher = createFileWatcher(fileWatcherFactory);
+        } catch (RuntimeException e) {
+            GFileUtils.deleteQuietly(cookieDirectory);
+            throw e;
+        }
+        try {
+            watch(Collections.singleton(cookieDirectory.getPath()));
+        } catch (IOException e) {
+            stop();
+            throw e;
+        }
+    }
+
+    private FileWatcher createFileWatcher(FileWatcherFactory fileWatcherFactory) {
+        return fileWatcherFactory.watch(new Action<Throwable>() {
+            @Override
+            public void execute(Throwable failure) {
+                LOGGER.info("Watching the file system for changes failed, retained file system state will be discarded.", failure);
+                changesLost = true;
+            }
+        }, new FileWatcherListener() {
+            @Override
+            public void onChange(FileWatcher watcher, FileWatcherEvent event) {
+                if (event.getType() == FileWatcherEvent.Type.UNDEFINED || event.getFile() == null) {
+                    // The watcher overflowed, so we don't know what changed
+                    changesLost = true;
+                } else if (cookieDirectory.equals(event.getFile().getParentFile())) {
+                    cookieReported(event.getFile().getName());
+                } else {
+                    changedPaths.add(event.getFile().getAbsolutePath());
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns true when changes to the given absolute path are reported by this watcher.
+     */
+    boolean isWatched(String path) {
+        for (String current = path; current != null; current = parentOf(current)) {
+            if (watchedDirectories.contains(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Starts watching the given directories recursively. A directory that does not exist is watched by watching its closest existing ancestor instead, so that
+     * its creation is reported. A directory that is a symbolic link is not watched, as the directories below it would not be watched.
+     */
+    void watch(Collection<String> directories) throws IOException {
+        Set<String> existingDirectories = Sets.newHashSet();
+        for (String directory : directories) {
+            String existingDirectory = directory;
+            while (existingDirectory != null && !new File(existingDirectory).isDirectory()) {
+                existingDirectory = parentOf(existingDirectory);
+            }
+            if (existingDirectory != null && !isWatched(existingDirectory) && !Files.isSymbolicLink(Paths.get(existingDirectory))) {
+                existingDirectories.add(existingDirectory);
+            }
+        }
+        // A directory below another one is watched along with it, without following links, so it must not be recorded as watched in its own right
+        Iterator<String> iterator = existingDirectories.iterator();
+        while (iterator.hasNext()) {
+            for (String ancestor = parentOf(iterator.next()); ancestor != null; ancestor = parentOf(ancestor)) {
+                if (existingDirectories.contains(ancestor)) {
+                    iterator.remove();
+                    break;
+                }
+            }
+        }
+        if (existingDirectories.isEmpty()) {
+            return;
+        }
+        FileSystemSubset.Builder builder = FileSystemSubset.builder();
+        for (String directory : existingDirectories) {
+            builder.add(new File(directory));
+        }
+        fileWatcher.watch(builder.build());
+        watchedDirectories.addAll(existingDirectories);
+    }
+
+    /**
+     * Returns true when some changes may not have been reported, for example because the watcher overflowed or failed. The whole retained state must be
+     * discarded in this case.
+     */
+    boolean isChangesLost() {
+        return changesLost || !fileWatcher.isRunning();
+    }
+
+    /**
+     * Waits until all changes made before this method was called have been reported. Returns false when this did not happen within a reasonable time.
+     *
+     * <p>Two cookies are used, one after the other. The JDK watch service queues a directory again when it is reset after its events were taken, which can
+     * put the events of that directory behind the first cookie, but never behind the second one.</p>
+     */
+    boolean awaitPendingChanges() throws IOException, InterruptedException {
+        return awaitCookie() && awaitCookie();
+    }
+
+    private boolean awaitCookie() throws IOException, InterruptedException {
+        long cookie = ++lastCookie;
+        File cookieFile = new File(cookieDirectory, COOKIE_PREFIX + cookie);
+        if (!cookieFile.createNewFile()) {
+            throw new IOException(String.format("Could not create cookie file '%s'.", cookieFile));
+        }
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(PENDING_CHANGES_TIMEOUT_MILLIS);
+            synchronized (cookieLock) {
+                while (lastReportedCookie < cookie) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(cookieLock, remaining);
+                }
+            }
+            return true;
+        } finally {
+            GFileUtils.deleteQuietly(cookieFile);
+        }
+    }
+
+    private void cookieReported(String fileName) {
+        if (!fileName.startsWith(COOKIE_PREFIX)) {
+            return;
+        }
+        long cookie;
+        try {
+            cookie = Long.parseLong(fileName.substring(COOKIE_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return;
+        }
+        synchronized (cookieLock) {
+            if (cookie > lastReportedCookie) {
+                lastReportedCookie = cookie;
+                cookieLock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Returns the paths that changed since the last call of this method.
+     */
+    Set<String> takeChangedPaths() {
+        Set<String> result = ImmutableSet.copyOf(changedPaths);
+        changedPaths.removeAll(result);
+        return result;
+    }
+
+    /**
+     * Returns true when the given absolute path is a directory that is watched in its own right, rather than along with one of its ancestors.
+     */
+    boolean isWatchRoot(String path) {
+        return watchedDirectories.contains(path);
+    }
+
+    @Override
+    public void stop() {
+        fileWatcher.stop();
+        GFileUtils.deleteQuietly(cookieDirectory);
+    }
+
+    static String parentOf(String path) {
+        int separator = path.lastIndexOf(File.separatorChar);
+        if (separator <= 0 || separator == path.length() - 1) {
+            return null;
+        }
+        return path.substring(0, separator);
+    }
+}
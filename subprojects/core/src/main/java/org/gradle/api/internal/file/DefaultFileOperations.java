@@ -25,6 +25,7 @@ import org.gradle.api.file.DeleteSpec;
 import org.gradle.api.file.FileCollection;
 import org.gradle.api.file.FileTree;
 import org.gradle.api.internal.ProcessOperations;
+import org.gradle.api.internal.file.archive.ArchiveExpansionCache;
 import org.gradle.api.internal.file.archive.TarFileTree;
 import org.gradle.api.internal.file.archive.ZipFileTree;
 import org.gradle.api.internal.file.collections.DefaultConfigurableFileCollection;
@@ -42,6 +43,7 @@ import org.gradle.api.resources.internal.LocalResourceAdapter;
 import org.gradle.api.resources.internal.ReadableResourceInternal;
 import org.gradle.api.tasks.WorkResult;
 import org.gradle.internal.hash.FileHasher;
+import org.gradle.internal.hash.HashCode;
 import org.gradle.internal.hash.StreamHasher;
 import org.gradle.internal.nativeintegration.filesystem.FileSystem;
 import org.gradle.internal.reflect.Instantiator;
@@ -71,6 +73,7 @@ public class DefaultFileOperations implements FileOperations, ProcessOperations
     private final DefaultResourceHandler resourceHandler;
     private final StreamHasher streamHasher;
     private final FileHasher fileHasher;
+    private final ArchiveExpansionCache archiveExpansionCache;
     private final ExecFactory execFactory;
     private final FileCopier fileCopier;
     private final FileSystem fileSystem;
@@ -82,6 +85,10 @@ public class DefaultFileOperations implements FileOperations, ProcessOperations
     }
 
     public DefaultFileOperations(FileResolver fileResolver, @Nullable TaskResolver taskResolver, @Nullable TemporaryFileProvider temporaryFileProvider, Instantiator instantiator, FileLookup fileLookup, DirectoryFileTreeFactory directoryFileTreeFactory, StreamHasher streamHasher, FileHasher fileHasher, ExecFactory execFactory, @Nullable TextResourceLoader textResourceLoader) {
+        this(fileResolver, taskResolver, temporaryFileProvider, instantiator, fileLookup, directoryFileTreeFactory, streamHasher, fileHasher, temporaryExpansionCache(temporaryFileProvider), execFactory, textResourceLoader);
+    }
+
+    public DefaultFileOperations(FileResolver fileResolver, @Nullable TaskResolver taskResolver, @Nullable TemporaryFileProvider temporaryFileProvider, Instantiator instantiator, FileLookup fileLookup, DirectoryFileTreeFactory directoryFileTreeFactory, StreamHasher streamHasher, FileHasher fileHasher, ArchiveExpansionCache archiveExpansionCache, ExecFactory execFactory, @Nullable TextResourceLoader textResourceLoader) {
         this.fileResolver = fileResolver;
         this.taskResolver = taskResolver;
         this.temporaryFileProvider = temporaryFileProvider;
@@ -90,12 +97,28 @@ public class DefaultFileOperations implements FileOperations, ProcessOperations
         this.resourceHandler = new DefaultResourceHandler(this, temporaryFileProvider, textResourceLoader);
         this.streamHasher = streamHasher;
         this.fileHasher = fileHasher;
+        this.archiveExpansionCache = archiveExpansionCache;
         this.execFactory = execFactory;
         this.fileCopier = new FileCopier(this.instantiator, this.fileResolver, fileLookup, directoryFileTreeFactory);
         this.fileSystem = fileLookup.getFileSystem();
         this.deleter = new Deleter(fileResolver, fileSystem);
     }
 
+    /**
+     * Expands archives into the temporary directory, as was done before archives were expanded into the shared cache.
+     */
+    private static ArchiveExpansionCache temporaryExpansionCache(@Nullable final TemporaryFileProvider temporaryFileProvider) {
+        return new ArchiveExpansionCache() {
+            @Override
+            public File getExpandedDir(String archiveName, HashCode archiveHash) {
+                if (temporaryFileProvider == null) {
+                    throw new IllegalStateException("Cannot expand archive " + archiveName + " as no temporary file provider is available.");
+                }
+                return new File(temporaryFileProvider.newTemporaryFile("expandedArchives"), archiveName + "_" + archiveHash);
+            }
+        };
+    }
+
     @Override
     public File file(Object path) {
         return fileResolver.resolve(path);
@@ -143,7 +166,7 @@ public class DefaultFileOperations implements FileOperations, ProcessOperations
 
     @Override
     public FileTree zipTree(Object zipPath) {
-        return new FileTreeAdapter(new ZipFileTree(file(zipPath), getExpandDir(), fileSystem, directoryFileTreeFactory, fileHasher), fileResolver.getPatternSetFactory());
+        return new FileTreeAdapter(new ZipFileTree(file(zipPath), archiveExpansionCache, fileSystem, directoryFileTreeFactory, fileHasher), fileResolver.getPatternSetFactory());
     }
 
     @Override
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.file.archive;
+
+import org.gradle.internal.hash.HashCode;
+
+import java.io.File;
+
+/**
+ * Provides the directories that archives are expanded into. Archives with the same content share the same directory, regardless of which build or
+ * project expands them.
+ *
+ * <p>Entries are written into these directories lazily and concurrently by any number of processes, so each entry must be written atomically.</p>
+ */
+public interface ArchiveExpansionCache {
+    /**
+     * Returns the directory to expand the given archive into, and marks that directory as recently used.
+     *
+     * @param archiveName The file name of the archive.
+     * @param archiveHash The hash of the content of the archive.
+     */
+    File getExpandedDir(String archiveName, HashCode archiveHash);
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.file.archive;
+
+import org.gradle.cache.CacheBuilder;
+import org.gradle.cache.CacheRepository;
+import org.gradle.cache.FileLockManager;
+import org.gradle.cache.PersistentCache;
+import org.gradle.cache.internal.LeastRecentlyUsedCacheCleanup;
+import org.gradle.cache.internal.SingleDepthFilesFinder;
+import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.resource.local.FileAccessTimeJournal;
+import org.gradle.internal.resource.local.FileAccessTracker;
+import org.gradle.internal.resource.local.SingleDepthFileAccessTracker;
+
+import java.io.Closeable;
+import java.io.File;
+
+import static org.gradle.cache.internal.LeastRecentlyUsedCacheCleanup.DEFAULT_MAX_AGE_IN_DAYS_FOR_RECREATABLE_CACHE_ENTRIES;
+import static org.gradle.cache.internal.filelock.LockOptionsBuilder.mode;
+
+/**
+ * An {@link ArchiveExpansionCache} in the Gradle user home, laid out as {@code <hash>/<archive name>}. Entries that have not been used for a while are
+ * removed by {@link LeastRecentlyUsedCacheCleanup}.
+ */
+public class DefaultArchiveExpansionCache implements ArchiveExpansionCache, Closeable {
+
+    public static final String CACHE_KEY = "expanded-archives-1";
+    private static final int FILE_TREE_DEPTH_TO_TRACK_AND_CLEANUP = 1;
+
+    private final PersistentCache cache;
+    private final FileAccessTracker fileAccessTracker;
+
+    public DefaultArchiveExpansionCache(CacheRepository cacheRepository, FileAccessTimeJournal fileAccessTimeJournal) {
+        this.cache = cacheRepository
+            .cache(CACHE_KEY)
+            .withDisplayName("expanded archives")
+            .withCrossVersionCache(CacheBuilder.LockTarget.DefaultTarget)
+            .withLockOptions(mode(FileLockManager.LockMode.None))
+            .withCleanup(new LeastRecentlyUsedCacheCleanup(
+                new SingleDepthFilesFinder(FILE_TREE_DEPTH_TO_TRACK_AND_CLEANUP), fileAccessTimeJournal, DEFAULT_MAX_AGE_IN_DAYS_FOR_RECREATABLE_CACHE_ENTRIES))
+            .open();
+        this.fileAccessTracker = new SingleDepthFileAccessTracker(fileAccessTimeJournal, cache.getBaseDir(), FILE_TREE_DEPTH_TO_TRACK_AND_CLEANUP);
+    }
+
+    @Override
+    public File getExpandedDir(String archiveName, HashCode archiveHash) {
+        File expandedDir = new File(cache.getBaseDir(), archiveHash.toString() + '/' + archiveName);
+        fileAccessTracker.markAccessed(expandedDir);
+        return expandedDir;
+    }
+
+    @Override
+    public void close() {
+        cache.close();
+    }
+}
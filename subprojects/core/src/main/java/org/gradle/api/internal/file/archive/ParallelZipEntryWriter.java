@@ -0,0 +1,194 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.file.archive;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.gradle.api.file.FileCopyDetails;
+import org.gradle.internal.UncheckedException;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+
+/**
+ * Writes entries to a ZIP archive, compressing the content of files concurrently. The content of each file is read on the calling thread, so that the
+ * file details are only used while they are being visited, and is then compressed into a buffer by the executor. The entries are appended to the
+ * archive in the order in which they were added, so the archive does not depend on the order in which the compression finishes.
+ *
+ * <p>Files larger than {@link #MAX_BUFFERED_ENTRY_SIZE} are not buffered, but are compressed on the calling thread while being written.</p>
+ */
+class ParallelZipEntryWriter {
+    static final long MAX_BUFFERED_ENTRY_SIZE = 4 * 1024 * 1024;
+    private static final long MAX_PENDING_BYTES = 64 * 1024 * 1024;
+
+    private final ZipArchiveOutputStream outputStream;
+    private final int compressionMethod;
+    private final ExecutorService executor;
+    private final int maxPendingEntries;
+    private final Deque<PendingEntry> pendingEntries = new ArrayDeque<PendingEntry>();
+    private long pendingBytes;
+
+    ParallelZipEntryWriter(ZipArchiveOutputStream outputStream, int compressionMethod, ExecutorService executor, int maxPendingEntries) {
+        this.outputStream = outputStream;
+        this.compressionMethod = compressionMethod;
+        this.executor = executor;
+        this.maxPendingEntries = maxPendingEntries;
+    }
+
+    public void addDirectory(ZipArchiveEntry entry) throws IOException {
+        pendingEntries.add(new PendingEntry(entry, null, 0));
+        writeCompletedEntries();
+    }
+
+    public void addFile(final ZipArchiveEntry entry, FileCopyDetails fileDetails) throws IOException {
+        if (fileDetails.getSize() > MAX_BUFFERED_ENTRY_SIZE) {
+            writeAllEntries();
+            outputStream.putArchiveEntry(entry);
+            fileDetails.copyTo(outputStream);
+            outputStream.closeArchiveEntry();
+            return;
+        }
+
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        fileDetails.copyTo(content);
+        final byte[] bytes = content.toByteArray();
+        Future<byte[]> compressed = executor.submit(new Callable<byte[]>() {
+            @Override
+            public byte[] call() {
+                return compress(entry, bytes);
+            }
+        });
+        pendingEntries.add(new PendingEntry(entry, compressed, bytes.length));
+        pendingBytes += bytes.length;
+        writeCompletedEntries();
+    }
+
+    /**
+     * Waits for the remaining entries to be compressed and writes them to the archive.
+     */
+    public void finish() throws IOException {
+        writeAllEntries();
+    }
+
+    /**
+     * Discards the entries that have not been written yet, cancelling their compression. The executor is shared with other archives, so it is not
+     * left compressing entries of an archive that has failed.
+     */
+    public void cancel() {
+        for (PendingEntry pendingEntry : pendingEntries) {
+            if (pendingEntry.content != null) {
+                pendingEntry.content.cancel(false);
+            }
+        }
+        pendingEntries.clear();
+        pendingBytes = 0;
+    }
+
+    private void writeCompletedEntries() throws IOException {
+        while (!pendingEntries.isEmpty()) {
+            PendingEntry next = pendingEntries.peek();
+            if (!next.isDone() && pendingEntries.size() <= maxPendingEntries && pendingBytes <= MAX_PENDING_BYTES) {
+                return;
+            }
+            writeNextEntry();
+        }
+    }
+
+    private void writeAllEntries() throws IOException {
+        while (!pendingEntries.isEmpty()) {
+            writeNextEntry();
+        }
+    }
+
+    private void writeNextEntry() throws IOException {
+        PendingEntry next = pendingEntries.remove();
+        pendingBytes -= next.size;
+        if (next.content == null) {
+            outputStream.putArchiveEntry(next.entry);
+            outputStream.closeArchiveEntry();
+        } else {
+            outputStream.addRawArchiveEntry(next.entry, new ByteArrayInputStream(next.getContent()));
+        }
+    }
+
+    private byte[] compress(ZipArchiveEntry entry, byte[] content) {
+        CRC32 crc = new CRC32();
+        crc.update(content, 0, content.length);
+        entry.setCrc(crc.getValue());
+        entry.setSize(content.length);
+        entry.setMethod(compressionMethod);
+        if (compressionMethod == ZipEntry.STORED) {
+            entry.setCompressedSize(content.length);
+            return content;
+        }
+
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setInput(content);
+            deflater.finish();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.length / 2 + 64);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                int count = deflater.deflate(buffer);
+                compressed.write(buffer, 0, count);
+            }
+            entry.setCompressedSize(compressed.size());
+            return compressed.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static class PendingEntry {
+        private final ZipArchiveEntry entry;
+        @Nullable
+        private final Future<byte[]> content;
+        private final long size;
+
+        PendingEntry(ZipArchiveEntry entry, @Nullable Future<byte[]> content, long size) {
+            this.entry = entry;
+            this.content = content;
+            this.size = size;
+        }
+
+        boolean isDone() {
+            return content == null || content.isDone();
+        }
+
+        byte[] getContent() {
+            try {
+                return content.get();
+            } catch (InterruptedException e) {
+                throw UncheckedException.throwAsUncheckedException(e);
+            } catch (ExecutionException e) {
+                throw UncheckedException.throwAsUncheckedException(e.getCause());
+            }
+        }
+    }
+}
@@ -15,6 +15,8 @@
  */
 package org.gradle.api.internal.file.archive;
 
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
 import org.apache.tools.zip.UnixStat;
 import org.apache.tools.zip.Zip64RequiredException;
 import org.apache.tools.zip.ZipEntry;
@@ -34,7 +36,10 @@ import org.gradle.api.tasks.WorkResults;
 import org.gradle.api.tasks.bundling.Zip;
 import org.gradle.internal.IoActions;
 
+import javax.annotation.Nullable;
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
 import java.util.Calendar;
 import java.util.GregorianCalendar;
 
@@ -56,21 +61,55 @@ public class ZipCopyAction implements CopyAction {
      */
     public static final long CONSTANT_TIME_FOR_ZIP_ENTRIES = new GregorianCalendar(1980, Calendar.FEBRUARY, 1, 0, 0, 0).getTimeInMillis();
 
+    /**
+     * When set to true, archive tasks compress the entries of the archive concurrently.
+     */
+    public static final String PARALLEL_DEFLATE_PROPERTY = "org.gradle.internal.zip.parallel-deflate";
+
     private final File zipFile;
     private final ZipCompressor compressor;
     private final DocumentationRegistry documentationRegistry;
     private final String encoding;
     private final boolean preserveFileTimestamps;
+    @Nullable
+    private final ZipEntryCompressionExecutor compressionExecutor;
 
     public ZipCopyAction(File zipFile, ZipCompressor compressor, DocumentationRegistry documentationRegistry, String encoding, boolean preserveFileTimestamps) {
+        this(zipFile, compressor, documentationRegistry, encoding, preserveFileTimestamps, null);
+    }
+
+    /**
+     * @param compressionExecutor when not null, the entries are compressed concurrently on this executor.
+     */
+    public ZipCopyAction(File zipFile, ZipCompressor compressor, DocumentationRegistry documentationRegistry, String encoding, boolean preserveFileTimestamps, @Nullable ZipEntryCompressionExecutor compressionExecutor) {
         this.zipFile = zipFile;
         this.compressor = compressor;
         this.documentationRegistry = documentationRegistry;
         this.encoding = encoding;
         this.preserveFileTimestamps = preserveFileTimestamps;
+        this.compressionExecutor = compressionExecutor;
     }
 
     public WorkResult execute(final CopyActionProcessingStream stream) {
+        try {
+            if (compressionExecutor != null) {
+                writeConcurrently(stream, compressionExecutor);
+            } else {
+                write(stream);
+            }
+        } catch (UncheckedIOException e) {
+            if (e.getCause() instanceof Zip64RequiredException || e.getCause() instanceof org.apache.commons.compress.archivers.zip.Zip64RequiredException) {
+                throw new org.gradle.api.tasks.bundling.internal.Zip64RequiredException(
+                        String.format("%s\n\nTo build this archive, please enable the zip64 extension.\nSee: %s", e.getCause().getMessage(), documentationRegistry.getDslRefForProperty(Zip.class, "zip64"))
+                );
+            }
+            throw e;
+        }
+
+        return WorkResults.didWork(true);
+    }
+
+    private void write(final CopyActionProcessingStream stream) {
         final ZipOutputStream zipOutStr;
 
         try {
@@ -79,21 +118,41 @@ public class ZipCopyAction implements CopyAction {
             throw new GradleException(String.format("Could not create ZIP '%s'.", zipFile), e);
         }
 
-        try {
-            IoActions.withResource(zipOutStr, new Action<ZipOutputStream>() {
-                public void execute(ZipOutputStream outputStream) {
-                    stream.process(new StreamAction(outputStream, encoding));
-                }
-            });
-        } catch (UncheckedIOException e) {
-            if (e.getCause() instanceof Zip64RequiredException) {
-                throw new org.gradle.api.tasks.bundling.internal.Zip64RequiredException(
-                        String.format("%s\n\nTo build this archive, please enable the zip64 extension.\nSee: %s", e.getCause().getMessage(), documentationRegistry.getDslRefForProperty(Zip.class, "zip64"))
-                );
+        IoActions.withResource(zipOutStr, new Action<ZipOutputStream>() {
+            public void execute(ZipOutputStream outputStream) {
+                stream.process(new StreamAction(outputStream, encoding));
             }
+        });
+    }
+
+    private void writeConcurrently(final CopyActionProcessingStream stream, final ZipEntryCompressionExecutor compressionExecutor) {
+        final ZipArchiveOutputStream zipOutStr;
+
+        try {
+            zipOutStr = compressor.createRawArchiveOutputStream(zipFile);
+        } catch (Exception e) {
+            throw new GradleException(String.format("Could not create ZIP '%s'.", zipFile), e);
         }
 
-        return WorkResults.didWork(true);
+        IoActions.withResource(zipOutStr, new Action<ZipArchiveOutputStream>() {
+            public void execute(ZipArchiveOutputStream outputStream) {
+                // Use the same default as Ant's ZipOutputStream, which uses the platform encoding rather than UTF-8
+                outputStream.setEncoding(encoding != null ? encoding : Charset.defaultCharset().name());
+                ParallelZipEntryWriter writer = new ParallelZipEntryWriter(outputStream, compressor.getEntryCompressionMethod(), compressionExecutor.getExecutor(), compressionExecutor.getMaxPendingEntries());
+                boolean finished = false;
+                try {
+                    stream.process(new ConcurrentStreamAction(writer));
+                    writer.finish();
+                    finished = true;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } finally {
+                    if (!finished) {
+                        writer.cancel();
+                    }
+                }
+            }
+        });
     }
 
     private class StreamAction implements CopyActionProcessingStreamAction {
@@ -141,6 +200,48 @@ public class ZipCopyAction implements CopyAction {
         }
     }
 
+    private class ConcurrentStreamAction implements CopyActionProcessingStreamAction {
+        private final ParallelZipEntryWriter writer;
+
+        public ConcurrentStreamAction(ParallelZipEntryWriter writer) {
+            this.writer = writer;
+        }
+
+        public void processFile(FileCopyDetailsInternal details) {
+            if (details.isDirectory()) {
+                visitDir(details);
+            } else {
+                visitFile(details);
+            }
+        }
+
+        private void visitFile(FileCopyDetails fileDetails) {
+            ZipArchiveEntry archiveEntry = new ZipArchiveEntry(fileDetails.getRelativePath().getPathString());
+            archiveEntry.setTime(getArchiveTimeFor(fileDetails));
+            archiveEntry.setUnixMode(UnixStat.FILE_FLAG | fileDetails.getMode());
+            try {
+                writer.addFile(archiveEntry, fileDetails);
+            } catch (IOException e) {
+                // Failed to write to the archive, which may be caused by an entry other than this one
+                throw new UncheckedIOException(e);
+            } catch (Exception e) {
+                throw new GradleException(String.format("Could not add %s to ZIP '%s'.", fileDetails, zipFile), e);
+            }
+        }
+
+        private void visitDir(FileCopyDetails dirDetails) {
+            // Trailing slash in name indicates that entry is a directory
+            ZipArchiveEntry archiveEntry = new ZipArchiveEntry(dirDetails.getRelativePath().getPathString() + '/');
+            archiveEntry.setTime(getArchiveTimeFor(dirDetails));
+            archiveEntry.setUnixMode(UnixStat.DIR_FLAG | dirDetails.getMode());
+            try {
+                writer.addDirectory(archiveEntry);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
     private long getArchiveTimeFor(FileCopyDetails details) {
         return preserveFileTimestamps ? details.getLastModified() : CONSTANT_TIME_FOR_ZIP_ENTRIES;
     }
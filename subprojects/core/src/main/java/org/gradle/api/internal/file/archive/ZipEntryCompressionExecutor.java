@@ -0,0 +1,53 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.file.archive;
+
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.ManagedExecutor;
+import org.gradle.internal.concurrent.Stoppable;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * The executor that {@link ZipCopyAction} compresses entries on when {@link ZipCopyAction#PARALLEL_DEFLATE_PROPERTY} is set. It is shared by all
+ * archive tasks of the build session, uses at most as many threads as the build may use workers, and is stopped with the build session.
+ */
+public class ZipEntryCompressionExecutor implements Stoppable {
+    private final ManagedExecutor executor;
+    private final int maxThreads;
+
+    public ZipEntryCompressionExecutor(ExecutorFactory executorFactory, int maxThreads) {
+        this.executor = executorFactory.create("Compress ZIP entries", maxThreads);
+        this.maxThreads = maxThreads;
+    }
+
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * The number of entries that may be compressed or waiting to be written at any time, which bounds the memory used by compressed entries.
+     */
+    public int getMaxPendingEntries() {
+        return maxThreads * 4;
+    }
+
+    @Override
+    public void stop() {
+        executor.stop();
+    }
+}
@@ -33,10 +33,13 @@ import org.gradle.api.internal.file.collections.SingletonFileTree;
 import org.gradle.internal.hash.FileHasher;
 import org.gradle.internal.nativeintegration.filesystem.Chmod;
 import org.gradle.internal.nativeintegration.filesystem.FileSystem;
+import org.gradle.util.GFileUtils;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.Enumeration;
 import java.util.Iterator;
 import java.util.Map;
@@ -45,14 +48,14 @@ import java.util.concurrent.atomic.AtomicBoolean;
 
 public class ZipFileTree implements MinimalFileTree, FileSystemMirroringFileTree {
     private final File zipFile;
-    private final File tmpDir;
+    private final ArchiveExpansionCache expansionCache;
     private final Chmod chmod;
     private final DirectoryFileTreeFactory directoryFileTreeFactory;
     private final FileHasher fileHasher;
 
-    public ZipFileTree(File zipFile, File tmpDir, Chmod chmod, DirectoryFileTreeFactory directoryFileTreeFactory, FileHasher fileHasher) {
+    public ZipFileTree(File zipFile, ArchiveExpansionCache expansionCache, Chmod chmod, DirectoryFileTreeFactory directoryFileTreeFactory, FileHasher fileHasher) {
         this.zipFile = zipFile;
-        this.tmpDir = tmpDir;
+        this.expansionCache = expansionCache;
         this.chmod = chmod;
         this.directoryFileTreeFactory = directoryFileTreeFactory;
         this.fileHasher = fileHasher;
@@ -110,8 +113,7 @@ public class ZipFileTree implements MinimalFileTree, FileSystemMirroringFileTree
     }
 
     private File getExpandedDir() {
-        String expandedDirName = zipFile.getName() + "_" + fileHasher.hash(zipFile);
-        return new File(tmpDir, expandedDirName);
+        return expansionCache.getExpandedDir(zipFile.getName(), fileHasher.hash(zipFile));
     }
 
     private static class DetailsImpl extends AbstractFileTreeElement implements FileVisitDetails {
@@ -143,12 +145,45 @@ public class ZipFileTree implements MinimalFileTree, FileSystemMirroringFileTree
             if (file == null) {
                 file = new File(expandedDir, entry.getName());
                 if (!file.exists()) {
-                    copyTo(file);
+                    if (entry.isDirectory()) {
+                        copyTo(file);
+                    } else {
+                        expandAtomically(file);
+                    }
                 }
             }
             return file;
         }
 
+        /**
+         * The expanded directory is shared with other builds and projects, which may be expanding the same entry at the same time. So expand the
+         * entry next to the expanded directory and then move it into place, so that the file is never seen partially written.
+         */
+        private void expandAtomically(File target) {
+            File stagingDir = new File(expandedDir.getParentFile(), expandedDir.getName() + ".part");
+            GFileUtils.mkdirs(stagingDir);
+            File stagingFile;
+            try {
+                stagingFile = File.createTempFile("entry", null, stagingDir);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            try {
+                copyTo(stagingFile);
+                GFileUtils.mkdirs(target.getParentFile());
+                try {
+                    Files.move(stagingFile.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException e) {
+                    // Some file systems refuse to replace an existing file, which means that some other process has already expanded the entry
+                    if (!target.isFile()) {
+                        throw new UncheckedIOException(String.format("Could not expand %s to '%s'.", getDisplayName(), target), e);
+                    }
+                }
+            } finally {
+                GFileUtils.deleteQuietly(stagingFile);
+            }
+        }
+
         public long getLastModified() {
             return entry.getTime();
         }
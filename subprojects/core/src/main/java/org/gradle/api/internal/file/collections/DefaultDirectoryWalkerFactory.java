@@ -19,6 +19,7 @@ package org.gradle.api.internal.file.collections;
 import com.google.common.base.Charsets;
 import org.gradle.api.JavaVersion;
 import org.gradle.api.internal.file.collections.jdk7.Jdk7DirectoryWalker;
+import org.gradle.api.internal.file.collections.jdk7.ParallelDirectoryWalker;
 import org.gradle.internal.Factory;
 import org.gradle.internal.nativeintegration.services.FileSystems;
 import org.gradle.internal.nativeplatform.filesystem.FileSystem;
@@ -26,9 +27,15 @@ import org.gradle.internal.nativeplatform.filesystem.FileSystem;
 import java.nio.charset.Charset;
 
 public class DefaultDirectoryWalkerFactory implements Factory<DirectoryWalker> {
+    /**
+     * Set to true to list directories on the {@link org.gradle.api.internal.file.collections.jdk7.DirectoryListingExecutor} of the build session while walking directory trees.
+     */
+    public static final String PARALLEL_WALKER_PROPERTY = "org.gradle.internal.file.parallel-walker";
+
     private final JavaVersion javaVersion;
     private final FileSystem fileSystem;
     private DirectoryWalker instance;
+    private DirectoryWalker reproducibleInstance;
 
     public DefaultDirectoryWalkerFactory(JavaVersion javaVersion, FileSystem fileSystem) {
         this.javaVersion = javaVersion;
@@ -44,18 +51,42 @@ public class DefaultDirectoryWalkerFactory implements Factory<DirectoryWalker> {
         return instance;
     }
 
+    /**
+     * Creates a walker that visits the children of each directory in sorted order, for use where a reproducible file order is required.
+     */
+    public DirectoryWalker createReproducible() {
+        return reproducibleInstance;
+    }
+
     private void reset() {
         this.instance = createInstance();
+        this.reproducibleInstance = createReproducibleInstance();
     }
 
     private DirectoryWalker createInstance() {
-        if (javaVersion.isJava8Compatible() || (javaVersion.isJava7Compatible() && defaultEncodingContainsPlatformEncoding())) {
-            return new Jdk7DirectoryWalker(fileSystem);
+        if (canUseJdk7Walker()) {
+            return useParallelWalker() ? new ParallelDirectoryWalker(fileSystem, false) : new Jdk7DirectoryWalker(fileSystem);
         } else {
             return new DefaultDirectoryWalker(fileSystem);
         }
     }
 
+    private DirectoryWalker createReproducibleInstance() {
+        if (canUseJdk7Walker() && useParallelWalker()) {
+            return new ParallelDirectoryWalker(fileSystem, true);
+        } else {
+            return new ReproducibleDirectoryWalker(fileSystem);
+        }
+    }
+
+    private boolean canUseJdk7Walker() {
+        return javaVersion.isJava8Compatible() || (javaVersion.isJava7Compatible() && defaultEncodingContainsPlatformEncoding());
+    }
+
+    public static boolean useParallelWalker() {
+        return Boolean.getBoolean(PARALLEL_WALKER_PROPERTY);
+    }
+
     private boolean defaultEncodingContainsPlatformEncoding() {
         // sun.jnu.encoding is the platform encoding used to decode/encode file paths, command line arguments, etc.
         // it's derived from LANG/LC_ALL/LC_CTYPE on Unixes and should not be set by the user
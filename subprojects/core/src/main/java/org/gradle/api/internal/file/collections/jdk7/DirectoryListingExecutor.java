@@ -0,0 +1,57 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.file.collections.jdk7;
+
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.ManagedExecutor;
+import org.gradle.internal.concurrent.Stoppable;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The executor that the {@link ParallelDirectoryWalker} lists directories on. It is created by the build session services when the parallel walker
+ * is enabled, uses at most as many threads as the build may use workers, and is stopped with the build session.
+ */
+public class DirectoryListingExecutor implements Stoppable {
+    private static final AtomicReference<ExecutorService> CURRENT = new AtomicReference<ExecutorService>();
+
+    private final ManagedExecutor executor;
+    private final ExecutorService previous;
+
+    public DirectoryListingExecutor(ExecutorFactory executorFactory, int maxWorkerCount) {
+        executor = executorFactory.create("Directory listing", maxWorkerCount);
+        previous = CURRENT.getAndSet(executor);
+    }
+
+    /**
+     * Returns the executor of the current build session, or null when there is none.
+     */
+    @Nullable
+    static ExecutorService current() {
+        return CURRENT.get();
+    }
+
+    @Override
+    public void stop() {
+        // Restore the executor of an enclosing build session, if any
+        CURRENT.compareAndSet(executor, previous);
+        executor.stop();
+    }
+}
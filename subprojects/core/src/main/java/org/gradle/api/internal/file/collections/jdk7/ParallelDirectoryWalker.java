@@ -0,0 +1,270 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.file.collections.jdk7;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.file.FileTreeElement;
+import org.gradle.api.file.FileVisitDetails;
+import org.gradle.api.file.FileVisitor;
+import org.gradle.api.file.RelativePath;
+import org.gradle.api.internal.file.DefaultFileVisitDetails;
+import org.gradle.api.internal.file.UnauthorizedFileVisitDetails;
+import org.gradle.api.internal.file.collections.DirectoryWalker;
+import org.gradle.api.specs.Spec;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.nativeintegration.filesystem.FileSystem;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A directory walker that lists directories and reads the attributes of their children on the {@link DirectoryListingExecutor} of the build session,
+ * ahead of the walk.
+ *
+ * <p>Only the listing happens on other threads. The spec and the visitor are called on the walking thread, in the same order as
+ * {@link org.gradle.api.internal.file.collections.AbstractDirectoryWalker} uses: all files of a directory are visited before its subdirectories.
+ * When the children of each directory are sorted, the result is the same as that of {@link org.gradle.api.internal.file.collections.ReproducibleDirectoryWalker}.
+ * Listing of a subdirectory starts once the spec has accepted it, so the walk only runs ahead by the subdirectories of the directories it is currently in,
+ * and excluded subtrees are never listed.</p>
+ *
+ * <p>When there is no executor, for example outside of a build, directories are listed on the walking thread.</p>
+ */
+public class ParallelDirectoryWalker implements DirectoryWalker {
+    private final FileSystem fileSystem;
+    private final boolean sortChildren;
+
+    public ParallelDirectoryWalker(FileSystem fileSystem, boolean sortChildren) {
+        this.fileSystem = fileSystem;
+        this.sortChildren = sortChildren;
+    }
+
+    @Override
+    public void walkDir(File file, RelativePath path, FileVisitor visitor, Spec<? super FileTreeElement> spec, AtomicBoolean stopFlag, boolean postfix) {
+        Directory root = new Directory(file, path, null, fileKeyOf(file), null);
+        new Walk(DirectoryListingExecutor.current(), visitor, spec, stopFlag, postfix).visit(root);
+    }
+
+    @Nullable
+    private static Object fileKeyOf(File dir) {
+        try {
+            return Files.readAttributes(dir.toPath(), BasicFileAttributes.class).fileKey();
+        } catch (IOException e) {
+            // Listing the directory will fail later on
+            return null;
+        }
+    }
+
+    private List<Child> list(File dir, AtomicBoolean stopFlag) {
+        if (stopFlag.get()) {
+            return Collections.emptyList();
+        }
+        File[] children = dir.listFiles();
+        if (children == null) {
+            if (dir.isDirectory() && !dir.canRead()) {
+                throw new GradleException(String.format("Could not list contents of directory '%s' as it is not readable.", dir));
+            }
+            // else, might be a link which points to nothing, or has been removed while we're visiting, or ...
+            throw new GradleException(String.format("Could not list contents of '%s'.", dir));
+        }
+        if (sortChildren) {
+            Arrays.sort(children);
+        }
+        List<Child> result = new ArrayList<Child>(children.length);
+        for (File child : children) {
+            try {
+                result.add(new Child(child, Files.readAttributes(child.toPath(), BasicFileAttributes.class), null));
+            } catch (IOException e) {
+                result.add(new Child(child, null, e));
+            }
+        }
+        return result;
+    }
+
+    private class Walk {
+        private final ExecutorService executor;
+        private final FileVisitor visitor;
+        private final Spec<? super FileTreeElement> spec;
+        private final AtomicBoolean stopFlag;
+        private final boolean postfix;
+
+        Walk(@Nullable ExecutorService executor, FileVisitor visitor, Spec<? super FileTreeElement> spec, AtomicBoolean stopFlag, boolean postfix) {
+            this.executor = executor;
+            this.visitor = visitor;
+            this.spec = spec;
+            this.stopFlag = stopFlag;
+            this.postfix = postfix;
+        }
+
+        void visit(Directory directory) {
+            List<Child> children = directory.takeChildren(stopFlag);
+            List<FileVisitDetails> files = new ArrayList<FileVisitDetails>();
+            List<Directory> subdirectories = new ArrayList<Directory>();
+            try {
+                for (int i = 0; !stopFlag.get() && i < children.size(); i++) {
+                    Child child = children.get(i);
+                    if (child.attributes == null) {
+                        visitUnreadable(child.file, directory.path, child.failure);
+                        continue;
+                    }
+                    boolean isDirectory = child.attributes.isDirectory();
+                    RelativePath relativePath = directory.path.append(!isDirectory, child.file.getName());
+                    FileVisitDetails details = new DefaultFileVisitDetails(child.file, relativePath, stopFlag, fileSystem, fileSystem, isDirectory, child.attributes.lastModifiedTime().toMillis(), child.attributes.size());
+                    if (!spec.isSatisfiedBy(details)) {
+                        continue;
+                    }
+                    if (!isDirectory) {
+                        files.add(details);
+                    } else if (!directory.isLoop(child.attributes.fileKey())) {
+                        Directory subdirectory = new Directory(child.file, relativePath, details, child.attributes.fileKey(), directory);
+                        subdirectory.startListing(executor, stopFlag);
+                        subdirectories.add(subdirectory);
+                    }
+                }
+
+                for (int i = 0; !stopFlag.get() && i < files.size(); i++) {
+                    visitor.visitFile(files.get(i));
+                }
+                for (int i = 0; !stopFlag.get() && i < subdirectories.size(); i++) {
+                    Directory subdirectory = subdirectories.get(i);
+                    if (postfix) {
+                        visit(subdirectory);
+                        visitor.visitDir(subdirectory.details);
+                    } else {
+                        visitor.visitDir(subdirectory.details);
+                        visit(subdirectory);
+                    }
+                }
+            } finally {
+                // Do not list the subdirectories that are no longer visited, when the walk is stopped or fails
+                for (Directory subdirectory : subdirectories) {
+                    subdirectory.cancelListing();
+                }
+            }
+        }
+
+        private void visitUnreadable(File child, RelativePath parentPath, IOException failure) {
+            if (!spec.isSatisfiedBy(new UnauthorizedFileVisitDetails(child, parentPath.append(true, child.getName())))) {
+                return;
+            }
+            Path childPath = child.toPath();
+            if (failure instanceof NoSuchFileException && Files.isSymbolicLink(childPath)) {
+                throw new GradleException(String.format("Could not list contents of '%s'. Couldn't follow symbolic link.", child));
+            }
+            if (!Files.exists(childPath, LinkOption.NOFOLLOW_LINKS)) {
+                // Has been removed while we're visiting
+                return;
+            }
+            throw new GradleException(String.format("Could not read path '%s'.", childPath), failure);
+        }
+    }
+
+    private class Directory {
+        private final File dir;
+        private final RelativePath path;
+        private final FileVisitDetails details;
+        private final Object fileKey;
+        private final Directory parent;
+        private Future<List<Child>> listing;
+
+        Directory(File dir, RelativePath path, @Nullable FileVisitDetails details, @Nullable Object fileKey, @Nullable Directory parent) {
+            this.dir = dir;
+            this.path = path;
+            this.details = details;
+            this.fileKey = fileKey;
+            this.parent = parent;
+        }
+
+        void startListing(@Nullable ExecutorService executor, final AtomicBoolean stopFlag) {
+            if (executor == null) {
+                return;
+            }
+            try {
+                listing = executor.submit(new Callable<List<Child>>() {
+                    @Override
+                    public List<Child> call() {
+                        return list(dir, stopFlag);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // The build session has finished, list the directory when it is visited
+            }
+        }
+
+        List<Child> takeChildren(AtomicBoolean stopFlag) {
+            if (listing == null) {
+                return list(dir, stopFlag);
+            }
+            try {
+                return listing.get();
+            } catch (InterruptedException e) {
+                throw UncheckedException.throwAsUncheckedException(e);
+            } catch (ExecutionException e) {
+                throw UncheckedException.throwAsUncheckedException(e.getCause());
+            } finally {
+                listing = null;
+            }
+        }
+
+        void cancelListing() {
+            if (listing != null) {
+                listing.cancel(false);
+                listing = null;
+            }
+        }
+
+        boolean isLoop(@Nullable Object childFileKey) {
+            if (childFileKey == null) {
+                return false;
+            }
+            for (Directory ancestor = this; ancestor != null; ancestor = ancestor.parent) {
+                if (childFileKey.equals(ancestor.fileKey)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static class Child {
+        private final File file;
+        private final BasicFileAttributes attributes;
+        private final IOException failure;
+
+        Child(File file, @Nullable BasicFileAttributes attributes, @Nullable IOException failure) {
+            this.file = file;
+            this.attributes = attributes;
+            this.failure = failure;
+        }
+    }
+}
@@ -15,6 +15,7 @@
  */
 package org.gradle.api.internal.file.copy;
 
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
 import org.apache.commons.io.IOUtils;
 import org.apache.tools.zip.Zip64Mode;
 import org.apache.tools.zip.ZipOutputStream;
@@ -26,10 +27,16 @@ import java.io.IOException;
 public class DefaultZipCompressor implements ZipCompressor {
     private final int entryCompressionMethod;
     private final Zip64Mode zip64Mode;
+    private final org.apache.commons.compress.archivers.zip.Zip64Mode rawZip64Mode;
 
     public DefaultZipCompressor(boolean allowZip64Mode, int entryCompressionMethod) {
         this.entryCompressionMethod = entryCompressionMethod;
         zip64Mode = allowZip64Mode ? Zip64Mode.AsNeeded : Zip64Mode.Never;
+        rawZip64Mode = allowZip64Mode ? org.apache.commons.compress.archivers.zip.Zip64Mode.AsNeeded : org.apache.commons.compress.archivers.zip.Zip64Mode.Never;
+    }
+
+    public int getEntryCompressionMethod() {
+        return entryCompressionMethod;
     }
 
     public ZipOutputStream createArchiveOutputStream(File destination) throws IOException {
@@ -45,4 +52,17 @@ public class DefaultZipCompressor implements ZipCompressor {
         }
     }
 
+    public ZipArchiveOutputStream createRawArchiveOutputStream(File destination) throws IOException {
+        ZipArchiveOutputStream outStream = new ZipArchiveOutputStream(destination);
+        try {
+            outStream.setUseZip64(rawZip64Mode);
+            outStream.setMethod(entryCompressionMethod);
+            return outStream;
+        } catch (Exception e) {
+            IOUtils.closeQuietly(outStream);
+            String message = String.format("Unable to create ZIP output stream for file %s.", destination);
+            throw new UncheckedIOException(message, e);
+        }
+    }
+
 }
@@ -55,7 +55,7 @@ public class FileCopier {
     public WorkResult sync(Action<? super CopySpec> action) {
         DestinationRootCopySpec copySpec = createCopySpec(action);
         File destinationDir = copySpec.getDestinationDir();
-        return doCopy(copySpec, new SyncCopyActionDecorator(destinationDir, getCopyVisitor(destinationDir), directoryFileTreeFactory));
+        return doCopy(copySpec, new SyncCopyActionDecorator(destinationDir, getCopyVisitor(destinationDir), null, directoryFileTreeFactory, FileCopyAction.isParallelCopyEnabled() ? fileLookup.getFileSystem() : null));
     }
 
     private FileCopyAction getCopyVisitor(File destination) {
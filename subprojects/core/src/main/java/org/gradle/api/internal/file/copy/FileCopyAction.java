@@ -18,22 +18,60 @@ package org.gradle.api.internal.file.copy;
 import org.gradle.api.internal.file.CopyActionProcessingStreamAction;
 import org.gradle.api.tasks.WorkResult;
 import org.gradle.api.tasks.WorkResults;
+import org.gradle.internal.UncheckedException;
 import org.gradle.internal.file.PathToFileResolver;
 
+import javax.annotation.Nullable;
 import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 public class FileCopyAction implements CopyAction {
 
+    /**
+     * Set to true to copy files concurrently, using the {@link FileCopyExecutor} of the build session. Sync then also skips the files that are
+     * already up-to-date in the destination, see {@link SyncCopyActionDecorator}.
+     */
+    public static final String PARALLEL_COPY_PROPERTY = "org.gradle.internal.file.parallel-copy";
+
     private final PathToFileResolver fileResolver;
+    @Nullable
+    private final ExecutorService executor;
 
     public FileCopyAction(PathToFileResolver fileResolver) {
+        this(fileResolver, null);
+    }
+
+    /**
+     * @param executor when not null, files that are copied unchanged from the local file system are copied concurrently on this executor.
+     */
+    public FileCopyAction(PathToFileResolver fileResolver, @Nullable ExecutorService executor) {
         this.fileResolver = fileResolver;
+        this.executor = executor;
+    }
+
+    public static boolean isParallelCopyEnabled() {
+        return Boolean.getBoolean(PARALLEL_COPY_PROPERTY);
     }
 
     public WorkResult execute(CopyActionProcessingStream stream) {
-        FileCopyDetailsInternalAction action = new FileCopyDetailsInternalAction();
-        stream.process(action);
-        return WorkResults.didWork(action.didWork);
+        if (executor == null) {
+            FileCopyDetailsInternalAction action = new FileCopyDetailsInternalAction();
+            stream.process(action);
+            return WorkResults.didWork(action.didWork);
+        }
+
+        ConcurrentFileCopyDetailsInternalAction action = new ConcurrentFileCopyDetailsInternalAction(executor);
+        try {
+            stream.process(action);
+            return WorkResults.didWork(action.waitForCopies());
+        } finally {
+            action.cancelCopies();
+        }
     }
 
     private class FileCopyDetailsInternalAction implements CopyActionProcessingStreamAction {
@@ -47,4 +85,64 @@ public class FileCopyAction implements CopyAction {
             }
         }
     }
+
+    /**
+     * Copies the files that are copied unchanged from the local file system on the executor, and all other files and directories on the calling thread.
+     * A file that is copied to the same target as an earlier file is only copied once the earlier file has been copied, so that the last one wins.
+     */
+    private class ConcurrentFileCopyDetailsInternalAction implements CopyActionProcessingStreamAction {
+        private final ExecutorService executor;
+        private final Map<File, Future<Boolean>> copies = new LinkedHashMap<File, Future<Boolean>>();
+        private boolean didWork;
+
+        ConcurrentFileCopyDetailsInternalAction(ExecutorService executor) {
+            this.executor = executor;
+        }
+
+        public void processFile(final FileCopyDetailsInternal details) {
+            final File target = fileResolver.resolve(details.getRelativePath().getPathString());
+            Future<Boolean> previousCopy = copies.remove(target);
+            if (previousCopy != null) {
+                didWork |= waitFor(previousCopy);
+            }
+            if (details.isUnfilteredLocalFile()) {
+                copies.put(target, executor.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() {
+                        return details.copyTo(target);
+                    }
+                }));
+            } else {
+                didWork |= details.copyTo(target);
+            }
+        }
+
+        boolean waitForCopies() {
+            for (Future<Boolean> copy : copies.values()) {
+                didWork |= waitFor(copy);
+            }
+            copies.clear();
+            return didWork;
+        }
+
+        /**
+         * Cancels the copies that have not started when the stream fails, as the executor is shared with other tasks.
+         */
+        void cancelCopies() {
+            for (Future<Boolean> copy : copies.values()) {
+                copy.cancel(false);
+            }
+            copies.clear();
+        }
+
+        private boolean waitFor(Future<Boolean> copy) {
+            try {
+                return copy.get();
+            } catch (InterruptedException e) {
+                throw UncheckedException.throwAsUncheckedException(e);
+            } catch (ExecutionException e) {
+                throw UncheckedException.throwAsUncheckedException(e.getCause());
+            }
+        }
+    }
 }
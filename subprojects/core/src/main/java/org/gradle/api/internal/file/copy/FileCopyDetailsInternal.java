@@ -22,4 +22,10 @@ public interface FileCopyDetailsInternal extends FileCopyDetails {
 
     boolean isIncludeEmptyDirs();
 
+    /**
+     * Returns true when this is a file whose content is copied unchanged from a file in the local file system. Such a file can still be copied
+     * after it has been visited, and from any thread.
+     */
+    boolean isUnfilteredLocalFile();
+
 }
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.file.copy;
+
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.ManagedExecutor;
+import org.gradle.internal.concurrent.Stoppable;
+import org.gradle.internal.work.WorkerLeaseService;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * The executor that {@link FileCopyAction} copies files on when {@link FileCopyAction#PARALLEL_COPY_PROPERTY} is set. It is shared by all copy tasks
+ * of the build session, uses at most as many threads as the build may use workers, and is stopped with the build session.
+ */
+public class FileCopyExecutor implements Stoppable {
+    private final ManagedExecutor executor;
+
+    public FileCopyExecutor(ExecutorFactory executorFactory, WorkerLeaseService workerLeaseService) {
+        executor = executorFactory.create("Copy files", workerLeaseService.getMaxWorkerCount());
+    }
+
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    @Override
+    public void stop() {
+        executor.stop();
+    }
+}
@@ -118,6 +118,10 @@ public class NormalizingCopyActionDecorator implements CopyAction {
             return includeEmptyDirs;
         }
 
+        public boolean isUnfilteredLocalFile() {
+            return false;
+        }
+
         @Override
         public String getDisplayName() {
             return path.toString();
@@ -27,10 +27,14 @@ import org.gradle.api.tasks.WorkResult;
 import org.gradle.api.tasks.WorkResults;
 import org.gradle.api.tasks.util.PatternFilterable;
 import org.gradle.api.tasks.util.PatternSet;
+import org.gradle.internal.nativeintegration.filesystem.Stat;
 import org.gradle.util.GFileUtils;
 
+import javax.annotation.Nullable;
 import java.io.File;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 public class SyncCopyActionDecorator implements CopyAction {
@@ -38,32 +42,58 @@ public class SyncCopyActionDecorator implements CopyAction {
     private final CopyAction delegate;
     private final PatternFilterable preserveSpec;
     private final DirectoryFileTreeFactory directoryFileTreeFactory;
+    @Nullable
+    private final Stat stat;
 
     public SyncCopyActionDecorator(File baseDestDir, CopyAction delegate, DirectoryFileTreeFactory directoryFileTreeFactory) {
         this(baseDestDir, delegate, null, directoryFileTreeFactory);
     }
 
     public SyncCopyActionDecorator(File baseDestDir, CopyAction delegate, PatternFilterable preserveSpec, DirectoryFileTreeFactory directoryFileTreeFactory) {
+        this(baseDestDir, delegate, preserveSpec, directoryFileTreeFactory, null);
+    }
+
+    /**
+     * @param stat when not null, files that are copied unchanged from the local file system are skipped when the destination file has the same size,
+     * timestamp and mode. Files copied this way keep the timestamp of their source, so that they can be skipped by the next sync.
+     */
+    public SyncCopyActionDecorator(File baseDestDir, CopyAction delegate, PatternFilterable preserveSpec, DirectoryFileTreeFactory directoryFileTreeFactory, @Nullable Stat stat) {
         this.baseDestDir = baseDestDir;
         this.delegate = delegate;
         this.preserveSpec = preserveSpec;
         this.directoryFileTreeFactory = directoryFileTreeFactory;
+        this.stat = stat;
     }
 
     public WorkResult execute(final CopyActionProcessingStream stream) {
         final Set<RelativePath> visited = new HashSet<RelativePath>();
+        final Map<File, Long> copiedFileTimestamps = new HashMap<File, Long>();
 
         WorkResult didWork = delegate.execute(new CopyActionProcessingStream() {
             public void process(final CopyActionProcessingStreamAction action) {
                 stream.process(new CopyActionProcessingStreamAction() {
                     public void processFile(FileCopyDetailsInternal details) {
-                        visited.add(details.getRelativePath());
+                        boolean firstVisit = visited.add(details.getRelativePath());
+                        if (stat != null && !details.isDirectory()) {
+                            File target = new File(baseDestDir, details.getRelativePath().getPathString());
+                            if (!details.isUnfilteredLocalFile()) {
+                                copiedFileTimestamps.remove(target);
+                            } else if (firstVisit && isUpToDate(details, target)) {
+                                return;
+                            } else {
+                                copiedFileTimestamps.put(target, details.getLastModified());
+                            }
+                        }
                         action.processFile(details);
                     }
                 });
             }
         });
 
+        for (Map.Entry<File, Long> entry : copiedFileTimestamps.entrySet()) {
+            entry.getKey().setLastModified(entry.getValue());
+        }
+
         SyncCopyActionDecoratorFileVisitor fileVisitor = new SyncCopyActionDecoratorFileVisitor(visited, preserveSpec);
 
         MinimalFileTree walker = directoryFileTreeFactory.create(baseDestDir).postfix();
@@ -73,6 +103,13 @@ public class SyncCopyActionDecorator implements CopyAction {
         return WorkResults.didWork(didWork.getDidWork() || fileVisitor.didWork);
     }
 
+    private boolean isUpToDate(FileCopyDetailsInternal details, File target) {
+        return target.isFile()
+            && target.length() == details.getSize()
+            && target.lastModified() == details.getLastModified()
+            && stat.getUnixMode(target) == details.getMode();
+    }
+
     private static class SyncCopyActionDecoratorFileVisitor implements FileVisitor {
         private final Set<RelativePath> visited;
         private final Spec<FileTreeElement> preserveSpec;
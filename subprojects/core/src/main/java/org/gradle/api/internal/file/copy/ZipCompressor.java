@@ -15,6 +15,7 @@
  */
 package org.gradle.api.internal.file.copy;
 
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
 import org.apache.tools.zip.ZipOutputStream;
 import org.gradle.api.internal.file.archive.compression.ArchiveOutputStreamFactory;
 
@@ -25,4 +26,14 @@ public interface ZipCompressor extends ArchiveOutputStreamFactory {
 
     ZipOutputStream createArchiveOutputStream(File destination) throws IOException;
 
+    /**
+     * Creates an output stream that also accepts entries whose content has already been compressed.
+     */
+    ZipArchiveOutputStream createRawArchiveOutputStream(File destination) throws IOException;
+
+    /**
+     * Returns the compression method of the entries, either {@link ZipOutputStream#DEFLATED} or {@link ZipOutputStream#STORED}.
+     */
+    int getEntryCompressionMethod();
+
 }
@@ -37,11 +37,19 @@ class ClassLoaderScopeIdentifier {
     }
 
     ClassLoaderId localId() {
-        return new Id(this, false);
+        return new Id(this, false, false);
     }
 
     ClassLoaderId exportId() {
-        return new Id(this, true);
+        return new Id(this, true, false);
+    }
+
+    ClassLoaderId localMultiParentId() {
+        return new Id(this, false, true);
+    }
+
+    ClassLoaderId exportMultiParentId() {
+        return new Id(this, true, true);
     }
 
     @Override
@@ -84,10 +92,12 @@ class ClassLoaderScopeIdentifier {
     private static class Id implements ClassLoaderId {
         private final ClassLoaderScopeIdentifier identifier;
         private final boolean export;
+        private final boolean multiParent;
 
-        public Id(ClassLoaderScopeIdentifier identifier, boolean export) {
+        public Id(ClassLoaderScopeIdentifier identifier, boolean export, boolean multiParent) {
             this.identifier = identifier;
             this.export = export;
+            this.multiParent = multiParent;
         }
 
         @Override
@@ -100,19 +110,20 @@ class ClassLoaderScopeIdentifier {
             }
 
             Id id = (Id) o;
-            return export == id.export && identifier.equals(id.identifier);
+            return export == id.export && multiParent == id.multiParent && identifier.equals(id.identifier);
         }
 
         @Override
         public int hashCode() {
             int result = identifier.hashCode();
             result = 31 * result + (export ? 1 : 0);
+            result = 31 * result + (multiParent ? 1 : 0);
             return result;
         }
 
         @Override
         public String toString() {
-            return "ClassLoaderScopeIdentifier.Id{" + identifier.getPath() + "(" + (export ? "export" : "local") + ")}";
+            return "ClassLoaderScopeIdentifier.Id{" + identifier.getPath() + "(" + (export ? "export" : "local") + (multiParent ? ", multi-parent" : "") + ")}";
         }
     }
 }
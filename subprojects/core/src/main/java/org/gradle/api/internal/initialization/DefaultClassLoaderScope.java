@@ -58,21 +58,30 @@ public class DefaultClassLoaderScope extends AbstractClassLoaderScope {
         return loader(id, classPath);
     }
 
-    private ClassLoader buildLockedLoader(ClassLoaderId id, ClassLoader additional, ClassPath classPath) {
+    private ClassLoader buildLockedLoader(ClassLoaderId id, ClassLoaderId multiParentId, ClassLoader additional, ClassPath classPath) {
         if (classPath.isEmpty()) {
             return additional;
         }
-        return new CachingClassLoader(new MultiParentClassLoader(additional, loader(id, classPath)));
+        // Locked loaders never change, so scopes with the same parents can share a loader and the classes it has cached
+        List<ClassLoader> parents = new ArrayList<ClassLoader>(2);
+        parents.add(additional);
+        parents.add(loader(id, classPath));
+        return classLoaderCache.getMultiParent(multiParentId, parents);
     }
 
-    private ClassLoader buildLockedLoader(ClassLoaderId id, ClassPath classPath, List<ClassLoader> loaders) {
+    private ClassLoader buildLockedLoader(ClassLoaderId id, ClassLoaderId multiParentId, ClassPath classPath, List<ClassLoader> loaders) {
         if (loaders != null) {
-            return new CachingClassLoader(buildMultiLoader(id, classPath, loaders));
+            return classLoaderCache.getMultiParent(multiParentId, buildParents(id, classPath, loaders));
         }
+        classLoaderCache.remove(multiParentId);
         return buildLockedLoader(id, classPath);
     }
 
     private MultiParentClassLoader buildMultiLoader(ClassLoaderId id, ClassPath classPath, List<ClassLoader> loaders) {
+        return new MultiParentClassLoader(buildParents(id, classPath, loaders));
+    }
+
+    private List<ClassLoader> buildParents(ClassLoaderId id, ClassPath classPath, List<ClassLoader> loaders) {
         int numParents = 1;
         if (loaders != null) {
             numParents += loaders.size();
@@ -88,7 +97,7 @@ public class DefaultClassLoaderScope extends AbstractClassLoaderScope {
         if (!classPath.isEmpty()) {
             parents.add(loader(id, classPath));
         }
-        return new MultiParentClassLoader(parents);
+        return parents;
     }
 
     private void buildEffectiveLoaders() {
@@ -97,19 +106,24 @@ public class DefaultClassLoaderScope extends AbstractClassLoaderScope {
             boolean hasLocals = !local.isEmpty();
             if (locked) {
                 if (hasExports && hasLocals) {
-                    effectiveExportClassLoader = buildLockedLoader(id.exportId(), export, exportLoaders);
-                    effectiveLocalClassLoader = buildLockedLoader(id.localId(), effectiveExportClassLoader, local);
+                    effectiveExportClassLoader = buildLockedLoader(id.exportId(), id.exportMultiParentId(), export, exportLoaders);
+                    effectiveLocalClassLoader = buildLockedLoader(id.localId(), id.localMultiParentId(), effectiveExportClassLoader, local);
                 } else if (hasLocals) {
                     classLoaderCache.remove(id.exportId());
+                    classLoaderCache.remove(id.exportMultiParentId());
+                    classLoaderCache.remove(id.localMultiParentId());
                     effectiveLocalClassLoader = buildLockedLoader(id.localId(), local);
                     effectiveExportClassLoader = parent.getExportClassLoader();
                 } else if (hasExports) {
                     classLoaderCache.remove(id.localId());
-                    effectiveLocalClassLoader = buildLockedLoader(id.exportId(), export, exportLoaders);
+                    classLoaderCache.remove(id.localMultiParentId());
+                    effectiveLocalClassLoader = buildLockedLoader(id.exportId(), id.exportMultiParentId(), export, exportLoaders);
                     effectiveExportClassLoader = effectiveLocalClassLoader;
                 } else {
                     classLoaderCache.remove(id.localId());
                     classLoaderCache.remove(id.exportId());
+                    classLoaderCache.remove(id.localMultiParentId());
+                    classLoaderCache.remove(id.exportMultiParentId());
                     effectiveLocalClassLoader = parent.getExportClassLoader();
                     effectiveExportClassLoader = parent.getExportClassLoader();
                 }
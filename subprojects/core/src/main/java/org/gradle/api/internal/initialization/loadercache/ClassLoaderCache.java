@@ -21,6 +21,7 @@ import org.gradle.internal.classpath.ClassPath;
 import org.gradle.internal.hash.HashCode;
 
 import javax.annotation.Nullable;
+import java.util.List;
 
 public interface ClassLoaderCache {
 
@@ -49,6 +50,16 @@ public interface ClassLoaderCache {
      */
     ClassLoader get(ClassLoaderId id, ClassPath classPath, @Nullable ClassLoader parent, @Nullable FilteringClassLoader.Spec filterSpec, @Nullable HashCode implementationHash);
 
+    /**
+     * Returns an existing classloader that delegates to the given parents, in order, and caches the classes loaded through them, or creates it if it
+     * cannot be found. The classloader is shared by all ids that request the same parents, so the parents must not change afterwards.
+     *
+     * @param id the ID of the classloader.
+     * @param parents the parents to delegate to, in order.
+     * @return the classloader.
+     */
+    ClassLoader getMultiParent(ClassLoaderId id, List<ClassLoader> parents);
+
     /**
      * Adds or replaces a classloader. This should be called to register specialized classloaders that belong to the hierarchy, so they can be cleaned up as required.
      *
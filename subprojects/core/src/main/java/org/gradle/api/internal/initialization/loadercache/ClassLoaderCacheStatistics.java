@@ -0,0 +1,45 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.initialization.loadercache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the class loaders created by the {@link ClassLoaderCache} of a process, and the requests that were served by an existing class loader
+ * instead. Each reuse avoids loading and defining the classes of that loader again, so the counts give an indication of the metaspace saved.
+ */
+public class ClassLoaderCacheStatistics {
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong reused = new AtomicLong();
+
+    void loaderCreated() {
+        created.incrementAndGet();
+    }
+
+    void loaderReused() {
+        reused.incrementAndGet();
+    }
+
+    public long getCreatedCount() {
+        return created.get();
+    }
+
+    public long getReusedCount() {
+        return reused.get();
+    }
+}
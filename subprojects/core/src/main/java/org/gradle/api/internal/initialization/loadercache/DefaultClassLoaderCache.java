@@ -19,19 +19,23 @@ package org.gradle.api.internal.initialization.loadercache;
 import com.google.common.base.Joiner;
 import com.google.common.base.Objects;
 import com.google.common.collect.HashMultiset;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multiset;
 import org.gradle.api.logging.Logger;
 import org.gradle.api.logging.Logging;
+import org.gradle.internal.classloader.CachingClassLoader;
 import org.gradle.internal.classloader.ClassLoaderUtils;
 import org.gradle.internal.classloader.ClasspathHasher;
 import org.gradle.internal.classloader.FilteringClassLoader;
 import org.gradle.internal.classloader.HashingClassLoaderFactory;
+import org.gradle.internal.classloader.MultiParentClassLoader;
 import org.gradle.internal.classpath.ClassPath;
 import org.gradle.internal.concurrent.Stoppable;
 import org.gradle.internal.hash.HashCode;
 
 import javax.annotation.Nullable;
+import java.util.List;
 import java.util.Map;
 
 public class DefaultClassLoaderCache implements ClassLoaderCache, Stoppable {
@@ -42,10 +46,16 @@ public class DefaultClassLoaderCache implements ClassLoaderCache, Stoppable {
     private final Map<ClassLoaderSpec, CachedClassLoader> bySpec = Maps.newHashMap();
     private final ClasspathHasher classpathHasher;
     private final HashingClassLoaderFactory classLoaderFactory;
+    private final ClassLoaderCacheStatistics statistics;
 
     public DefaultClassLoaderCache(HashingClassLoaderFactory classLoaderFactory, ClasspathHasher classpathHasher) {
+        this(classLoaderFactory, classpathHasher, new ClassLoaderCacheStatistics());
+    }
+
+    public DefaultClassLoaderCache(HashingClassLoaderFactory classLoaderFactory, ClasspathHasher classpathHasher, ClassLoaderCacheStatistics statistics) {
         this.classLoaderFactory = classLoaderFactory;
         this.classpathHasher = classpathHasher;
+        this.statistics = statistics;
     }
 
     @Override
@@ -63,21 +73,46 @@ public class DefaultClassLoaderCache implements ClassLoaderCache, Stoppable {
         synchronized (lock) {
             CachedClassLoader cachedLoader = byId.get(id);
             if (cachedLoader == null || !cachedLoader.is(spec)) {
-                CachedClassLoader newLoader = getAndRetainLoader(classPath, spec, id);
-                byId.put(id, newLoader);
+                return replace(id, cachedLoader, getAndRetainLoader(classPath, spec, id));
+            } else {
+                return cachedLoader.classLoader;
+            }
+        }
+    }
 
-                if (cachedLoader != null) {
-                    LOGGER.debug("Releasing previous classloader for {}", id);
-                    cachedLoader.release(id);
-                }
+    @Override
+    public ClassLoader getMultiParent(ClassLoaderId id, List<ClassLoader> parents) {
+        MultiParentClassLoaderSpec spec = new MultiParentClassLoaderSpec(ImmutableList.copyOf(parents));
 
-                return newLoader.classLoader;
+        synchronized (lock) {
+            CachedClassLoader cachedLoader = byId.get(id);
+            if (cachedLoader == null || !cachedLoader.is(spec)) {
+                CachedClassLoader newLoader = bySpec.get(spec);
+                if (newLoader == null) {
+                    newLoader = new CachedClassLoader(new CachingClassLoader(new MultiParentClassLoader(spec.parents)), spec, null);
+                    bySpec.put(spec, newLoader);
+                    statistics.loaderCreated();
+                } else {
+                    statistics.loaderReused();
+                }
+                return replace(id, cachedLoader, newLoader.retain(id));
             } else {
                 return cachedLoader.classLoader;
             }
         }
     }
 
+    private ClassLoader replace(ClassLoaderId id, @Nullable CachedClassLoader previousLoader, CachedClassLoader newLoader) {
+        byId.put(id, newLoader);
+
+        if (previousLoader != null) {
+            LOGGER.debug("Releasing previous classloader for {}", id);
+            previousLoader.release(id);
+        }
+
+        return newLoader.classLoader;
+    }
+
     @Override
     public <T extends ClassLoader> T put(ClassLoaderId id, T classLoader) {
         synchronized (lock) {
@@ -114,6 +149,9 @@ public class DefaultClassLoaderCache implements ClassLoaderCache, Stoppable {
             }
             cachedLoader = new CachedClassLoader(classLoader, spec, parentCachedLoader);
             bySpec.put(spec, cachedLoader);
+            statistics.loaderCreated();
+        } else {
+            statistics.loaderReused();
         }
 
         return cachedLoader.retain(id);
@@ -194,6 +232,31 @@ public class DefaultClassLoaderCache implements ClassLoaderCache, Stoppable {
         }
     }
 
+    private static class MultiParentClassLoaderSpec extends ClassLoaderSpec {
+        private final List<ClassLoader> parents;
+
+        public MultiParentClassLoaderSpec(List<ClassLoader> parents) {
+            this.parents = parents;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o == this) {
+                return true;
+            }
+            if (o == null || o.getClass() != getClass()) {
+                return false;
+            }
+            MultiParentClassLoaderSpec that = (MultiParentClassLoaderSpec) o;
+            return this.parents.equals(that.parents);
+        }
+
+        @Override
+        public int hashCode() {
+            return parents.hashCode();
+        }
+    }
+
     private class CachedClassLoader {
         private final ClassLoader classLoader;
         private final ClassLoaderSpec spec;
@@ -755,7 +755,8 @@ public class DefaultProject extends AbstractPluginAware implements ProjectIntern
     }
 
     private Project evaluationDependsOn(DefaultProject projectToEvaluate) {
-        if (projectToEvaluate.getState().isConfiguring()) {
+        ProjectStateInternal state = projectToEvaluate.getState();
+        if (state.isConfiguring() && !state.isConfiguringOnOtherThread()) {
             throw new CircularReferenceException(String.format("Circular referencing during evaluation for %s.",
                 projectToEvaluate));
         }
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.project;
+
+import groovy.lang.Closure;
+import org.gradle.api.Action;
+import org.gradle.api.Project;
+import org.gradle.configuration.project.ParallelProjectEvaluator;
+
+/**
+ * Reports cross-project configuration of a project that may concurrently be configured by another thread.
+ *
+ * <p>Only configuration through {@code project(path) {}}, {@code subprojects {}} and {@code allprojects {}} is detected. Looking up another project with
+ * {@code project(path)} is not, as it is also how project dependencies are declared and how other projects are read. A build script that modifies the
+ * project returned by {@code project(path)}, as in {@code project(':other').someProperty = value}, is not reported and races with the thread configuring
+ * that project. Such a script should call {@code evaluationDependsOn()} first, or the build should not use parallel configuration.</p>
+ */
+public class ParallelConfigurationCrossProjectConfigurator implements CrossProjectConfigurator {
+    private final CrossProjectConfigurator delegate;
+    private final ParallelProjectEvaluator projectEvaluator;
+
+    public ParallelConfigurationCrossProjectConfigurator(CrossProjectConfigurator delegate, ParallelProjectEvaluator projectEvaluator) {
+        this.delegate = delegate;
+        this.projectEvaluator = projectEvaluator;
+    }
+
+    @Override
+    public Project project(Project project, Closure<? super Project> configureClosure) {
+        assertCanConfigure(project);
+        return delegate.project(project, configureClosure);
+    }
+
+    @Override
+    public Project project(Project project, Action<? super Project> configureAction) {
+        assertCanConfigure(project);
+        return delegate.project(project, configureAction);
+    }
+
+    @Override
+    public void subprojects(Iterable<Project> projects, Closure<? super Project> configureClosure) {
+        assertCanConfigure(projects);
+        delegate.subprojects(projects, configureClosure);
+    }
+
+    @Override
+    public void subprojects(Iterable<Project> projects, Action<? super Project> configureAction) {
+        assertCanConfigure(projects);
+        delegate.subprojects(projects, configureAction);
+    }
+
+    @Override
+    public void allprojects(Iterable<Project> projects, Closure<? super Project> configureClosure) {
+        assertCanConfigure(projects);
+        delegate.allprojects(projects, configureClosure);
+    }
+
+    @Override
+    public void allprojects(Iterable<Project> projects, Action<? super Project> configureAction) {
+        assertCanConfigure(projects);
+        delegate.allprojects(projects, configureAction);
+    }
+
+    @Override
+    public Project rootProject(Project project, Action<Project> buildOperationExecutor) {
+        return delegate.rootProject(project, buildOperationExecutor);
+    }
+
+    private void assertCanConfigure(Iterable<Project> projects) {
+        for (Project project : projects) {
+            assertCanConfigure(project);
+        }
+    }
+
+    private void assertCanConfigure(Project project) {
+        projectEvaluator.assertCanConfigure((ProjectInternal) project);
+    }
+}
@@ -37,7 +37,8 @@ public class ProjectStateInternal implements ProjectState {
         CONFIGURED
     }
 
-    private State state = State.UNCONFIGURED;
+    private volatile State state = State.UNCONFIGURED;
+    private volatile Thread configuringThread;
     private Throwable failure;
 
     @Override
@@ -53,12 +54,21 @@ public class ProjectStateInternal implements ProjectState {
         return state == State.IN_BEFORE_EVALUATE || state == State.IN_EVALUATE || state == State.IN_AFTER_EVALUATE;
     }
 
+    /**
+     * Whether the project is being configured by a thread other than the current thread. This only happens when projects are configured in parallel.
+     */
+    public boolean isConfiguringOnOtherThread() {
+        Thread thread = configuringThread;
+        return isConfiguring() && thread != null && thread != Thread.currentThread();
+    }
+
     public boolean isUnconfigured() {
         return state == State.UNCONFIGURED;
     }
 
     public void toBeforeEvaluate() {
         assert state == State.UNCONFIGURED;
+        configuringThread = Thread.currentThread();
         state = State.IN_BEFORE_EVALUATE;
     }
 
@@ -75,6 +85,7 @@ public class ProjectStateInternal implements ProjectState {
     public void configured() {
         assert state != State.CONFIGURED;
         state = State.CONFIGURED;
+        configuringThread = null;
     }
 
     public void failed(Throwable failure) {
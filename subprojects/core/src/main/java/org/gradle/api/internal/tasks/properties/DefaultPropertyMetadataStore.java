@@ -106,6 +106,7 @@ public class DefaultPropertyMetadataStore implements PropertyMetadataStore {
     private final Map<Class<? extends Annotation>, PropertyAnnotationHandler> annotationHandlers;
     private final Multimap<Class<? extends Annotation>, Class<? extends Annotation>> annotationOverrides;
     private final Set<Class<? extends Annotation>> relevantAnnotationTypes;
+    private final PropertyAccessorFactory accessorFactory = new PropertyAccessorFactory();
     private final LoadingCache<Class<?>, TypeMetadata> cache = CacheBuilder.newBuilder()
         .weakKeys()
         .build(new CacheLoader<Class<?>, TypeMetadata>() {
@@ -192,9 +193,22 @@ public class DefaultPropertyMetadataStore implements PropertyMetadataStore {
                 }
             }
         });
+        assignAccessors(type, propertyContexts.values());
         return new DefaultTypeMetadata(ImmutableSet.<PropertyMetadata>builder().addAll(propertyContexts.values()).build());
     }
 
+    private void assignAccessors(Class<?> type, Collection<DefaultPropertyMetadata> properties) {
+        List<Method> getters = Lists.newArrayListWithCapacity(properties.size());
+        for (DefaultPropertyMetadata property : properties) {
+            getters.add(property.getMethod());
+        }
+        List<PropertyAccessor> accessors = accessorFactory.createAccessors(type, getters);
+        int i = 0;
+        for (DefaultPropertyMetadata property : properties) {
+            property.accessor = accessors.get(i++);
+        }
+    }
+
     private Iterable<Annotation> mergeDeclaredAnnotations(Method method, @Nullable Field field, DefaultPropertyMetadata propertyContext) {
         Collection<Annotation> methodAnnotations = collectRelevantAnnotations(method.getDeclaredAnnotations());
         if (Modifier.isPrivate(method.getModifiers()) && !methodAnnotations.isEmpty()) {
@@ -355,6 +369,7 @@ public class DefaultPropertyMetadataStore implements PropertyMetadataStore {
         private final Set<Class<? extends Annotation>> propertyTypeAnnotations;
         private final String fieldName;
         private final Method method;
+        private PropertyAccessor accessor;
         private Class<? extends Annotation> propertyType;
         private final List<Annotation> annotations = Lists.newArrayList();
         private final List<String> validationMessages = Lists.newArrayList();
@@ -437,6 +452,11 @@ public class DefaultPropertyMetadataStore implements PropertyMetadataStore {
         public Method getMethod() {
             return method;
         }
+
+        @Override
+        public PropertyAccessor getAccessor() {
+            return accessor;
+        }
     }
 
 }
@@ -0,0 +1,249 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.tasks.properties;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import org.gradle.api.GradleException;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.reflect.DirectInstantiator;
+import org.gradle.model.internal.asm.AsmClassGenerator;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.objectweb.asm.Opcodes.ACC_FINAL;
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.ACC_SYNTHETIC;
+import static org.objectweb.asm.Opcodes.ALOAD;
+import static org.objectweb.asm.Opcodes.ARETURN;
+import static org.objectweb.asm.Opcodes.ATHROW;
+import static org.objectweb.asm.Opcodes.CHECKCAST;
+import static org.objectweb.asm.Opcodes.DUP;
+import static org.objectweb.asm.Opcodes.ILOAD;
+import static org.objectweb.asm.Opcodes.INVOKEINTERFACE;
+import static org.objectweb.asm.Opcodes.INVOKESPECIAL;
+import static org.objectweb.asm.Opcodes.INVOKESTATIC;
+import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
+import static org.objectweb.asm.Opcodes.NEW;
+import static org.objectweb.asm.Opcodes.RETURN;
+import static org.objectweb.asm.Opcodes.V1_6;
+
+/**
+ * Creates the {@link PropertyAccessor}s for the properties of a bean type. A single class implementing {@link GeneratedPropertyAccessors} is generated per bean type,
+ * which calls the getters directly so that reading property values does not go through reflection on every execution.
+ *
+ * <p>Getters that generated code cannot call, for example because the getter or its declaring type is not public, are read reflectively.
+ * The same happens for all the getters of a type when the accessor class cannot be defined in the class loader of the type.</p>
+ */
+public class PropertyAccessorFactory {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PropertyAccessorFactory.class);
+    private static final String CLASS_NAME_SUFFIX = "$$PropertyAccessors";
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+    private static final Type OBJECT_TYPE = Type.getType(Object.class);
+    private static final Type ACCESSORS_TYPE = Type.getType(GeneratedPropertyAccessors.class);
+    private static final Type ILLEGAL_ARGUMENT_EXCEPTION_TYPE = Type.getType(IllegalArgumentException.class);
+    private static final String GET_VALUE_DESCRIPTOR = Type.getMethodDescriptor(OBJECT_TYPE, Type.INT_TYPE, OBJECT_TYPE);
+    private static final String[] EMPTY_STRINGS = new String[0];
+
+    /**
+     * Returns an accessor for each of the given getters of the given type, in the same order.
+     */
+    public List<PropertyAccessor> createAccessors(Class<?> type, List<Method> getters) {
+        GeneratedPropertyAccessors generated = canGenerateFor(type) ? tryGenerate(type, getters) : null;
+        ImmutableList.Builder<PropertyAccessor> accessors = ImmutableList.builder();
+        for (int i = 0; i < getters.size(); i++) {
+            Method getter = getters.get(i);
+            if (generated != null && canBeCalledFromGeneratedCode(getter)) {
+                accessors.add(new GeneratedPropertyAccessor(generated, i));
+            } else {
+                accessors.add(new ReflectivePropertyAccessor(getter));
+            }
+        }
+        return accessors.build();
+    }
+
+    /**
+     * Generates the accessor class, or returns null when the class loader of the type cannot see the types the accessor class refers to.
+     * Any other failure indicates a problem with the generated class and is rethrown.
+     */
+    @Nullable
+    private static GeneratedPropertyAccessors tryGenerate(Class<?> type, List<Method> getters) {
+        try {
+            return generate(type, getters);
+        } catch (NoClassDefFoundError e) {
+            LOGGER.debug("Could not generate property accessors for {}, using reflection instead.", type, e);
+            return null;
+        } catch (RuntimeException e) {
+            // Class definition through a method handle wraps the error
+            if (e.getCause() instanceof NoClassDefFoundError) {
+                LOGGER.debug("Could not generate property accessors for {}, using reflection instead.", type, e);
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    private static boolean canGenerateFor(Class<?> type) {
+        return type.getClassLoader() != null && !type.getName().startsWith("java.") && !type.isArray() && !type.isPrimitive();
+    }
+
+    private static boolean canBeCalledFromGeneratedCode(Method getter) {
+        return Modifier.isPublic(getter.getModifiers())
+            && !Modifier.isStatic(getter.getModifiers())
+            && Modifier.isPublic(getter.getDeclaringClass().getModifiers());
+    }
+
+    private static GeneratedPropertyAccessors generate(Class<?> type, List<Method> getters) {
+        AsmClassGenerator classGenerator = new AsmClassGenerator(type, CLASS_NAME_SUFFIX + COUNTER.incrementAndGet());
+        ClassWriter visitor = classGenerator.getVisitor();
+        String generatedTypeName = classGenerator.getGeneratedType().getInternalName();
+        visitor.visit(V1_6, ACC_PUBLIC | ACC_FINAL | ACC_SYNTHETIC, generatedTypeName, null, OBJECT_TYPE.getInternalName(), new String[]{ACCESSORS_TYPE.getInternalName()});
+
+        MethodVisitor constructor = visitor.visitMethod(ACC_PUBLIC, "<init>", "()V", null, EMPTY_STRINGS);
+        constructor.visitCode();
+        constructor.visitVarInsn(ALOAD, 0);
+        constructor.visitMethodInsn(INVOKESPECIAL, OBJECT_TYPE.getInternalName(), "<init>", "()V", false);
+        constructor.visitInsn(RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+
+        MethodVisitor getValue = visitor.visitMethod(ACC_PUBLIC, "getValue", GET_VALUE_DESCRIPTOR, null, EMPTY_STRINGS);
+        getValue.visitCode();
+        Label defaultLabel = new Label();
+        Label[] labels = new Label[getters.size()];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = canBeCalledFromGeneratedCode(getters.get(i)) ? new Label() : defaultLabel;
+        }
+        if (labels.length > 0) {
+            getValue.visitVarInsn(ILOAD, 1);
+            getValue.visitTableSwitchInsn(0, labels.length - 1, defaultLabel, labels);
+        }
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i] == defaultLabel) {
+                continue;
+            }
+            Method getter = getters.get(i);
+            Class<?> declaringClass = getter.getDeclaringClass();
+            Type declaringType = Type.getType(declaringClass);
+            getValue.visitLabel(labels[i]);
+            getValue.visitVarInsn(ALOAD, 2);
+            getValue.visitTypeInsn(CHECKCAST, declaringType.getInternalName());
+            if (declaringClass.isInterface()) {
+                getValue.visitMethodInsn(INVOKEINTERFACE, declaringType.getInternalName(), getter.getName(), Type.getMethodDescriptor(getter), true);
+            } else {
+                getValue.visitMethodInsn(INVOKEVIRTUAL, declaringType.getInternalName(), getter.getName(), Type.getMethodDescriptor(getter), false);
+            }
+            boxIfRequired(getValue, Type.getType(getter.getReturnType()));
+            getValue.visitInsn(ARETURN);
+        }
+        getValue.visitLabel(defaultLabel);
+        getValue.visitTypeInsn(NEW, ILLEGAL_ARGUMENT_EXCEPTION_TYPE.getInternalName());
+        getValue.visitInsn(DUP);
+        getValue.visitMethodInsn(INVOKESPECIAL, ILLEGAL_ARGUMENT_EXCEPTION_TYPE.getInternalName(), "<init>", "()V", false);
+        getValue.visitInsn(ATHROW);
+        getValue.visitMaxs(0, 0);
+        getValue.visitEnd();
+
+        visitor.visitEnd();
+        Class<GeneratedPropertyAccessors> generatedClass = classGenerator.define();
+        return DirectInstantiator.INSTANCE.newInstance(generatedClass);
+    }
+
+    private static void boxIfRequired(MethodVisitor methodVisitor, Type valueType) {
+        Type boxedType;
+        switch (valueType.getSort()) {
+            case Type.BOOLEAN:
+                boxedType = Type.getType(Boolean.class);
+                break;
+            case Type.CHAR:
+                boxedType = Type.getType(Character.class);
+                break;
+            case Type.BYTE:
+                boxedType = Type.getType(Byte.class);
+                break;
+            case Type.SHORT:
+                boxedType = Type.getType(Short.class);
+                break;
+            case Type.INT:
+                boxedType = Type.getType(Integer.class);
+                break;
+            case Type.FLOAT:
+                boxedType = Type.getType(Float.class);
+                break;
+            case Type.LONG:
+                boxedType = Type.getType(Long.class);
+                break;
+            case Type.DOUBLE:
+                boxedType = Type.getType(Double.class);
+                break;
+            default:
+                return;
+        }
+        methodVisitor.visitMethodInsn(INVOKESTATIC, boxedType.getInternalName(), "valueOf", Type.getMethodDescriptor(boxedType, valueType), false);
+    }
+
+    @VisibleForTesting
+    static class GeneratedPropertyAccessor implements PropertyAccessor {
+        private final GeneratedPropertyAccessors accessors;
+        private final int propertyIndex;
+
+        GeneratedPropertyAccessor(GeneratedPropertyAccessors accessors, int propertyIndex) {
+            this.accessors = accessors;
+            this.propertyIndex = propertyIndex;
+        }
+
+        @Nullable
+        @Override
+        public Object getValue(Object bean) {
+            return accessors.getValue(propertyIndex, bean);
+        }
+    }
+
+    @VisibleForTesting
+    static class ReflectivePropertyAccessor implements PropertyAccessor {
+        private final Method method;
+
+        ReflectivePropertyAccessor(Method method) {
+            this.method = method;
+        }
+
+        @Nullable
+        @Override
+        public Object getValue(Object bean) {
+            try {
+                method.setAccessible(true);
+                return method.invoke(bean);
+            } catch (InvocationTargetException e) {
+                throw UncheckedException.throwAsUncheckedException(e.getCause());
+            } catch (Exception e) {
+                throw new GradleException(String.format("Could not call %s.%s() on %s", method.getDeclaringClass().getSimpleName(), method.getName(), bean), e);
+            }
+        }
+    }
+}
@@ -42,4 +42,6 @@ public interface PropertyMetadata {
     Class<?> getDeclaredType();
 
     Method getMethod();
+
+    PropertyAccessor getAccessor();
 }
@@ -39,6 +39,8 @@ import org.gradle.api.internal.file.copy.CopySpecInternal;
 import org.gradle.api.internal.file.copy.CopySpecResolver;
 import org.gradle.api.internal.file.copy.CopySpecSource;
 import org.gradle.api.internal.file.copy.DefaultCopySpec;
+import org.gradle.api.internal.file.copy.FileCopyAction;
+import org.gradle.api.internal.file.copy.FileCopyExecutor;
 import org.gradle.api.specs.Spec;
 import org.gradle.internal.nativeplatform.filesystem.FileSystem;
 import org.gradle.internal.reflect.Instantiator;
@@ -49,6 +51,7 @@ import java.io.FilterReader;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
 import java.util.regex.Pattern;
 
 /**
@@ -187,6 +190,14 @@ public abstract class AbstractCopyTask extends ConventionTask implements CopySpe
         return new CopyActionExecuter(instantiator, fileSystem, false);
     }
 
+    /**
+     * Returns the executor to copy files concurrently on, or null when files should be copied by the task's thread.
+     */
+    @Nullable
+    ExecutorService getConcurrentCopyExecutor() {
+        return FileCopyAction.isParallelCopyEnabled() ? getServices().get(FileCopyExecutor.class).getExecutor() : null;
+    }
+
     /**
      * Returns the source files for this task.
      * @return The source files. Never returns null.
@@ -74,7 +74,8 @@ public class Sync extends AbstractCopyTask {
         if (destinationDir == null) {
             throw new InvalidUserDataException("No copy destination directory has been specified, use 'into' to specify a target directory.");
         }
-        return new SyncCopyActionDecorator(destinationDir, new FileCopyAction(getFileLookup().getFileResolver(destinationDir)), preserveInDestination, getDirectoryFileTreeFactory());
+        FileCopyAction copyAction = new FileCopyAction(getFileLookup().getFileResolver(destinationDir), getConcurrentCopyExecutor());
+        return new SyncCopyActionDecorator(destinationDir, copyAction, preserveInDestination, getDirectoryFileTreeFactory(), FileCopyAction.isParallelCopyEnabled() ? getFileSystem() : null);
     }
 
     @Override
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.configuration.project;
+
+import com.google.common.collect.Maps;
+import org.gradle.api.CircularReferenceException;
+import org.gradle.api.InvalidUserCodeException;
+import org.gradle.api.Transformer;
+import org.gradle.api.internal.project.ProjectInternal;
+import org.gradle.api.internal.project.ProjectStateInternal;
+import org.gradle.internal.MutableBoolean;
+import org.gradle.internal.resources.ResourceLock;
+import org.gradle.internal.resources.ResourceLockCoordinationService;
+import org.gradle.internal.resources.ResourceLockState;
+import org.gradle.internal.work.WorkerLeaseService;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Map;
+
+import static org.gradle.internal.resources.ResourceLockState.Disposition.FINISHED;
+
+/**
+ * Coordinates the configuration of projects that are configured concurrently, each by a thread holding the project's lock.
+ *
+ * <p>A thread that is configuring a project under its lock and asks for another project to be evaluated, for example via {@code evaluationDependsOn()},
+ * first acquires the lock of that project, waiting for any other thread currently configuring it. Waiting threads are tracked so that a cycle of projects
+ * waiting on each other is reported as a {@link CircularReferenceException} instead of deadlocking.</p>
+ *
+ * <p>Projects are configured after their parents, so a project may configure its descendants that have not been configured yet. To keep this true when
+ * a project is evaluated early, its ancestors that are not configured yet, or that another thread is configuring, are evaluated first.</p>
+ *
+ * <p>Threads that do not hold a project lock, such as the main thread when projects are configured serially, evaluate projects directly as before.
+ * Unless parallel configuration is enabled with {@link #PARALLEL_CONFIGURATION_PROPERTY}, this evaluator only delegates.</p>
+ */
+public class ParallelProjectEvaluator implements ProjectEvaluator {
+    /**
+     * Enables configuring the projects of a build in parallel when parallel execution is enabled.
+     */
+    public static final String PARALLEL_CONFIGURATION_PROPERTY = "org.gradle.internal.parallel-configuration";
+
+    private final ProjectEvaluator delegate;
+    private final WorkerLeaseService workerLeaseService;
+    private final ResourceLockCoordinationService coordinationService;
+    private final boolean enabled = Boolean.getBoolean(PARALLEL_CONFIGURATION_PROPERTY);
+
+    // Guarded by this
+    private final Map<ProjectInternal, Thread> owners = Maps.newHashMap();
+    private final Map<Thread, Deque<ProjectInternal>> configuring = Maps.newHashMap();
+    private final Map<Thread, ProjectInternal> waiting = Maps.newHashMap();
+
+    public ParallelProjectEvaluator(ProjectEvaluator delegate, WorkerLeaseService workerLeaseService, ResourceLockCoordinationService coordinationService) {
+        this.delegate = delegate;
+        this.workerLeaseService = workerLeaseService;
+        this.coordinationService = coordinationService;
+    }
+
+    @Override
+    public void evaluate(final ProjectInternal project, final ProjectStateInternal state) {
+        if (!enabled) {
+            delegate.evaluate(project, state);
+            return;
+        }
+        ResourceLock projectLock = getProjectLock(project);
+        if (isLockedByCurrentThread(projectLock)) {
+            evaluateOwned(project, state);
+        } else if (isConfiguringInParallel()) {
+            evaluateAncestors(project);
+            startWaiting(project);
+            try {
+                workerLeaseService.withLocks(Collections.singleton(projectLock), new Runnable() {
+                    @Override
+                    public void run() {
+                        stopWaiting();
+                        evaluateOwned(project, state);
+                    }
+                });
+            } finally {
+                stopWaiting();
+            }
+        } else {
+            delegate.evaluate(project, state);
+        }
+    }
+
+    /**
+     * Fails when the current thread is configuring a project in parallel with other projects and the given project is neither locked by the current thread
+     * nor a descendant of the project being configured that has not been configured yet. Configuring such a project would race with the thread that
+     * configures it.
+     */
+    public void assertCanConfigure(ProjectInternal project) {
+        if (!enabled) {
+            return;
+        }
+        ProjectInternal current;
+        synchronized (this) {
+            Deque<ProjectInternal> projects = configuring.get(Thread.currentThread());
+            current = projects == null ? null : projects.peek();
+        }
+        if (current == null || isUnconfiguredDescendant(project, current) || isLockedByCurrentThread(getProjectLock(project))) {
+            return;
+        }
+        throw new InvalidUserCodeException(String.format("%s cannot configure %s while projects are configured in parallel. A project can only configure the projects below it that have not been configured yet. "
+            + "Move this configuration to the build script of %s or of a project above it, or disable parallel configuration.", current, project, project));
+    }
+
+    /**
+     * Whether the given project is below the given ancestor and not configured yet. No other thread starts configuring such a project while the ancestor is
+     * being configured: the projects of a level are only configured once the level above has been configured, and evaluating the project early waits for
+     * the ancestor, see {@link #evaluateAncestors(ProjectInternal)}.
+     */
+    private static boolean isUnconfiguredDescendant(ProjectInternal project, ProjectInternal ancestor) {
+        if (!project.getState().isUnconfigured()) {
+            return false;
+        }
+        for (ProjectInternal parent = project.getParent(); parent != null; parent = parent.getParent()) {
+            if (parent == ancestor) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Evaluates the ancestors of the given project that are not configured yet or that another thread is configuring, starting with the topmost one.
+     */
+    private void evaluateAncestors(ProjectInternal project) {
+        Deque<ProjectInternal> ancestors = new ArrayDeque<ProjectInternal>();
+        for (ProjectInternal parent = project.getParent(); parent != null; parent = parent.getParent()) {
+            ancestors.push(parent);
+        }
+        for (ProjectInternal ancestor : ancestors) {
+            ProjectStateInternal state = ancestor.getState();
+            if (state.isUnconfigured() || state.isConfiguringOnOtherThread()) {
+                evaluate(ancestor, state);
+            }
+        }
+    }
+
+    private void evaluateOwned(ProjectInternal project, ProjectStateInternal state) {
+        Thread thread = Thread.currentThread();
+        synchronized (this) {
+            Deque<ProjectInternal> projects = configuring.get(thread);
+            if (projects == null) {
+                projects = new ArrayDeque<ProjectInternal>();
+                configuring.put(thread, projects);
+            }
+            projects.push(project);
+            owners.put(project, thread);
+        }
+        try {
+            delegate.evaluate(project, state);
+        } finally {
+            synchronized (this) {
+                Deque<ProjectInternal> projects = configuring.get(thread);
+                projects.pop();
+                if (!projects.contains(project)) {
+                    owners.remove(project);
+                }
+                if (projects.isEmpty()) {
+                    configuring.remove(thread);
+                }
+            }
+        }
+    }
+
+    private synchronized boolean isConfiguringInParallel() {
+        return configuring.containsKey(Thread.currentThread());
+    }
+
+    private synchronized void startWaiting(ProjectInternal project) {
+        Thread current = Thread.currentThread();
+        Thread owner = owners.get(project);
+        while (owner != null) {
+            if (owner == current) {
+                throw new CircularReferenceException(String.format("Circular referencing during evaluation for %s.", project));
+            }
+            ProjectInternal awaited = waiting.get(owner);
+            owner = awaited == null ? null : owners.get(awaited);
+        }
+        waiting.put(current, project);
+    }
+
+    private synchronized void stopWaiting() {
+        waiting.remove(Thread.currentThread());
+    }
+
+    private boolean isLockedByCurrentThread(final ResourceLock lock) {
+        final MutableBoolean locked = new MutableBoolean();
+        coordinationService.withStateLock(new Transformer<ResourceLockState.Disposition, ResourceLockState>() {
+            @Override
+            public ResourceLockState.Disposition transform(ResourceLockState resourceLockState) {
+                locked.set(lock.isLockedByCurrentThread());
+                return FINISHED;
+            }
+        });
+        return locked.get();
+    }
+
+    private ResourceLock getProjectLock(ProjectInternal project) {
+        return workerLeaseService.getProjectLock(project.getGradle().getIdentityPath().toString(), project.getIdentityPath().toString());
+    }
+}
@@ -16,16 +16,35 @@
 
 package org.gradle.execution;
 
+import com.google.common.collect.Lists;
+import org.gradle.api.Action;
 import org.gradle.api.BuildCancelledException;
 import org.gradle.api.Project;
 import org.gradle.api.internal.project.ProjectInternal;
+import org.gradle.configuration.project.ParallelProjectEvaluator;
 import org.gradle.initialization.BuildCancellationToken;
+import org.gradle.internal.operations.BuildOperationContext;
+import org.gradle.internal.operations.BuildOperationDescriptor;
+import org.gradle.internal.operations.BuildOperationExecutor;
+import org.gradle.internal.operations.BuildOperationQueue;
+import org.gradle.internal.operations.RunnableBuildOperation;
+import org.gradle.internal.resources.ResourceLock;
+import org.gradle.internal.work.WorkerLeaseService;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 public class TaskPathProjectEvaluator implements ProjectConfigurer {
     private final BuildCancellationToken cancellationToken;
+    private final BuildOperationExecutor buildOperationExecutor;
+    private final WorkerLeaseService workerLeaseService;
+    private final boolean parallelConfiguration = Boolean.getBoolean(ParallelProjectEvaluator.PARALLEL_CONFIGURATION_PROPERTY);
 
-    public TaskPathProjectEvaluator(BuildCancellationToken cancellationToken) {
+    public TaskPathProjectEvaluator(BuildCancellationToken cancellationToken, BuildOperationExecutor buildOperationExecutor, WorkerLeaseService workerLeaseService) {
         this.cancellationToken = cancellationToken;
+        this.buildOperationExecutor = buildOperationExecutor;
+        this.workerLeaseService = workerLeaseService;
     }
 
     public void configure(ProjectInternal project) {
@@ -58,11 +77,39 @@ public class TaskPathProjectEvaluator implements ProjectConfigurer {
 
     public void configureHierarchy(ProjectInternal project) {
         configure(project);
+        if (parallelConfiguration && project.getGradle().getStartParameter().isParallelProjectExecutionEnabled()) {
+            configureChildrenInParallel(project);
+            return;
+        }
         for (Project sub : project.getSubprojects()) {
             configure((ProjectInternal) sub);
         }
     }
 
+    /**
+     * Configures the projects below the given project one level of the hierarchy at a time, so that a project is always configured after its parent.
+     * Each project is configured while holding its project lock.
+     */
+    private void configureChildrenInParallel(ProjectInternal project) {
+        Collection<Project> level = project.getChildProjects().values();
+        while (!level.isEmpty()) {
+            final Collection<Project> projects = level;
+            buildOperationExecutor.runAll(new Action<BuildOperationQueue<RunnableBuildOperation>>() {
+                @Override
+                public void execute(BuildOperationQueue<RunnableBuildOperation> queue) {
+                    for (Project child : projects) {
+                        queue.add(new ConfigureProjectWithLock((ProjectInternal) child));
+                    }
+                }
+            });
+            List<Project> nextLevel = Lists.newArrayList();
+            for (Project child : projects) {
+                nextLevel.addAll(child.getChildProjects().values());
+            }
+            level = nextLevel;
+        }
+    }
+
     @Override
     public void configureHierarchyFully(ProjectInternal project) {
         configureFully(project);
@@ -70,4 +117,28 @@ public class TaskPathProjectEvaluator implements ProjectConfigurer {
             configureFully((ProjectInternal) sub);
         }
     }
+
+    private class ConfigureProjectWithLock implements RunnableBuildOperation {
+        private final ProjectInternal project;
+
+        ConfigureProjectWithLock(ProjectInternal project) {
+            this.project = project;
+        }
+
+        @Override
+        public void run(BuildOperationContext context) {
+            ResourceLock projectLock = workerLeaseService.getProjectLock(project.getGradle().getIdentityPath().toString(), project.getIdentityPath().toString());
+            workerLeaseService.withLocks(Collections.singleton(projectLock), new Runnable() {
+                @Override
+                public void run() {
+                    configure(project);
+                }
+            });
+        }
+
+        @Override
+        public BuildOperationDescriptor.Builder description() {
+            return BuildOperationDescriptor.displayName("Configure " + project.getDisplayName() + " in parallel");
+        }
+    }
 }
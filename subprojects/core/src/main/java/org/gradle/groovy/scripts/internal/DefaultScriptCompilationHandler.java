@@ -17,6 +17,7 @@
 package org.gradle.groovy.scripts.internal;
 
 import com.google.common.base.Joiner;
+import com.google.common.io.Files;
 import groovy.lang.GroovyClassLoader;
 import groovy.lang.GroovyCodeSource;
 import groovy.lang.GroovyResourceLoader;
@@ -62,15 +63,23 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.lang.reflect.Field;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.security.CodeSource;
+import java.security.cert.Certificate;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class DefaultScriptCompilationHandler implements ScriptCompilationHandler {
+    /**
+     * Set to true to read all of the cached classes of a script at once when its class is first loaded, rather than locating each class separately.
+     */
+    public static final String BULK_LOAD_PROPERTY = "org.gradle.internal.scripts.bulk-load";
+
     private Logger logger = LoggerFactory.getLogger(DefaultScriptCompilationHandler.class);
     private static final NoOpGroovyResourceLoader NO_OP_GROOVY_RESOURCE_LOADER = new NoOpGroovyResourceLoader();
     private static final String METADATA_FILE_NAME = "metadata.bin";
@@ -351,7 +360,11 @@ public class DefaultScriptCompilationHandler implements ScriptCompilationHandler
                 }
                 try {
                     // Classloader scope will be handled by the cache, class will be released when the classloader is.
-                    ClassLoader loader = classLoaderCache.put(classLoaderId, new ScriptClassLoader(source, classLoader, DefaultClassPath.of(scriptCacheDir), sourceHashCode));
+                    ScriptClassLoader scriptClassLoader = new ScriptClassLoader(source, classLoader, DefaultClassPath.of(scriptCacheDir), sourceHashCode);
+                    if (Boolean.getBoolean(BULK_LOAD_PROPERTY)) {
+                        scriptClassLoader.preloadClasses(scriptCacheDir);
+                    }
+                    ClassLoader loader = classLoaderCache.put(classLoaderId, scriptClassLoader);
                     scriptClass = loader.loadClass(source.getClassName()).asSubclass(scriptBaseClass);
                 } catch (Exception e) {
                     File expectedClassFile = new File(scriptCacheDir, source.getClassName() + ".class");
@@ -371,6 +384,8 @@ public class DefaultScriptCompilationHandler implements ScriptCompilationHandler
     private static class ScriptClassLoader extends VisitableURLClassLoader implements ImplementationHashAware {
         private final ScriptSource scriptSource;
         private final HashCode implementationHash;
+        private Map<String, byte[]> preloadedClasses;
+        private CodeSource codeSource;
 
         ScriptClassLoader(ScriptSource scriptSource, ClassLoader parent, ClassPath classPath, HashCode implementationHash) {
             super(parent, classPath);
@@ -378,6 +393,37 @@ public class DefaultScriptCompilationHandler implements ScriptCompilationHandler
             this.implementationHash = implementationHash;
         }
 
+        /**
+         * Reads all of the classes in the given directory in one pass, so that each class can later be defined from memory.
+         * The classes of a script all live in the default package, so the directory is flat.
+         */
+        void preloadClasses(File classesDir) throws IOException {
+            Map<String, byte[]> classes = new ConcurrentHashMap<String, byte[]>();
+            File[] files = classesDir.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    String fileName = file.getName();
+                    if (fileName.endsWith(".class")) {
+                        classes.put(fileName.substring(0, fileName.length() - ".class".length()), Files.toByteArray(file));
+                    }
+                }
+            }
+            codeSource = new CodeSource(classesDir.toURI().toURL(), (Certificate[]) null);
+            preloadedClasses = classes;
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            if (preloadedClasses != null) {
+                // Each class is defined once, so its bytes are no longer needed afterwards
+                byte[] bytes = preloadedClasses.remove(name);
+                if (bytes != null) {
+                    return defineClass(name, bytes, 0, bytes.length, codeSource);
+                }
+            }
+            return super.findClass(name);
+        }
+
         @Override
         public HashCode getImplementationHash() {
             return implementationHash;
@@ -42,16 +42,21 @@ import org.objectweb.asm.Label;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A {@link ScriptClassCompiler} which compiles scripts to a cache directory, and loads them from there.
  */
 public class FileCacheBackedScriptClassCompiler implements ScriptClassCompiler, Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileCacheBackedScriptClassCompiler.class);
+
     private final ScriptCompilationHandler scriptCompilationHandler;
     private final ProgressLoggerFactory progressLoggerFactory;
     private final CacheRepository cacheRepository;
@@ -59,6 +64,9 @@ public class FileCacheBackedScriptClassCompiler implements ScriptClassCompiler,
     private final ScriptSourceHasher hasher;
     private final ClassLoaderCache classLoaderCache;
     private final ClassLoaderHierarchyHasher classLoaderHierarchyHasher;
+    private final AtomicInteger requestedCount = new AtomicInteger();
+    private final AtomicInteger remappedCount = new AtomicInteger();
+    private final AtomicInteger compiledCount = new AtomicInteger();
 
     public FileCacheBackedScriptClassCompiler(CacheRepository cacheRepository, CacheValidator validator, ScriptCompilationHandler scriptCompilationHandler,
                                               ProgressLoggerFactory progressLoggerFactory, ScriptSourceHasher hasher, ClassLoaderCache classLoaderCache,
@@ -83,6 +91,7 @@ public class FileCacheBackedScriptClassCompiler implements ScriptClassCompiler,
         if (source.getResource().getHasEmptyContent()) {
             return emptyCompiledScript(classLoaderId, operation);
         }
+        requestedCount.incrementAndGet();
 
         HashCode sourceHashCode = hasher.hash(source);
         final String sourceHash = HashUtil.compactStringFor(sourceHashCode);
@@ -123,6 +132,12 @@ public class FileCacheBackedScriptClassCompiler implements ScriptClassCompiler,
     }
 
     public void close() {
+        int requested = requestedCount.get();
+        if (requested > 0) {
+            int remapped = remappedCount.get();
+            int compiled = compiledCount.get();
+            LOGGER.info("Script classes: {} loaded from the script cache, {} reused from a script with the same content, {} compiled.", requested - remapped, remapped - compiled, compiled);
+        }
     }
 
     private File classesDir(PersistentCache cache) {
@@ -150,6 +165,7 @@ public class FileCacheBackedScriptClassCompiler implements ScriptClassCompiler,
         }
 
         public void execute(PersistentCache cache) {
+            compiledCount.incrementAndGet();
             File classesDir = classesDir(cache);
             File metadataDir = metadataDir(cache);
             scriptCompilationHandler.compileToDir(source, classLoader, classesDir, metadataDir, transformer, scriptBaseClass, verifier);
@@ -398,6 +414,7 @@ public class FileCacheBackedScriptClassCompiler implements ScriptClassCompiler,
         }
 
         public void execute(final PersistentCache remappedClassesCache) {
+            remappedCount.incrementAndGet();
             final PersistentCache cache = cacheRepository.cache("scripts/" + sourceHash + "/" + dslId + "/" + classpathHash)
                 .withValidator(validator)
                 .withDisplayName(dslId + " generic class cache for " + source.getDisplayName())
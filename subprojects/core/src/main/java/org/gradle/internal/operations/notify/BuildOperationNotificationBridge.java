@@ -292,6 +292,8 @@ public class BuildOperationNotificationBridge {
 
         private volatile BuildOperationNotificationListener2 listener = recordingListener;
 
+        // Notifications are serialized with replaying the stored events only until the real listener is attached,
+        // after which they are passed on concurrently as the listener is thread safe
         private final AtomicBoolean needLock = new AtomicBoolean(true);
         private final Lock lock = new ReentrantLock();
 
@@ -317,7 +319,7 @@ public class BuildOperationNotificationBridge {
         }
 
         @Override
-        public synchronized void started(BuildOperationStartedNotification notification) {
+        public void started(BuildOperationStartedNotification notification) {
             if (needLock.get()) {
                 lock.lock();
                 try {
@@ -331,7 +333,7 @@ public class BuildOperationNotificationBridge {
         }
 
         @Override
-        public synchronized void progress(BuildOperationProgressNotification notification) {
+        public void progress(BuildOperationProgressNotification notification) {
             if (needLock.get()) {
                 lock.lock();
                 try {
@@ -345,7 +347,7 @@ public class BuildOperationNotificationBridge {
         }
 
         @Override
-        public synchronized void finished(BuildOperationFinishedNotification notification) {
+        public void finished(BuildOperationFinishedNotification notification) {
             if (needLock.get()) {
                 lock.lock();
                 try {
@@ -44,6 +44,7 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.Writer;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -76,6 +77,11 @@ import static org.gradle.internal.Cast.uncheckedCast;
  * Generally, the simplified tree view is best for browsing.
  * The JSON tree view can be used for more detailed analysis — open in a JSON tree viewer, like Chrome.
  *
+ * The log is written incrementally as operations are notified, so writing it does not hold on to the operations.
+ * The two tree files are created from the log at the end of the build, which requires holding the whole tree in memory.
+ * For large builds, this can be skipped with `-Dorg.gradle.internal.operations.trace.tree=false`,
+ * and the tree files created later from the log by running this class's {@link #main(String[])} method with the «path-base» as argument.
+ *
  * The «path-base» param is optional.
  * If invoked as `-Dorg.gradle.internal.operations.trace`, a base value of "operations" will be used.
  *
@@ -89,10 +95,16 @@ public class BuildOperationTrace implements Stoppable {
 
     public static final String SYSPROP = "org.gradle.internal.operations.trace";
 
+    /**
+     * Set to false to only write the log during the build, and not the tree files.
+     */
+    public static final String TREE_SYSPROP = "org.gradle.internal.operations.trace.tree";
+
     private static final byte[] NEWLINE = "\n".getBytes();
     private static final byte[] INDENT = "    ".getBytes();
 
     private final String basePath;
+    private final boolean writeTrees;
     private final OutputStream logOutputStream;
 
     private final BuildOperationListenerManager buildOperationListenerManager;
@@ -105,12 +117,10 @@ public class BuildOperationTrace implements Stoppable {
         this.listenerManager = listenerManager;
 
         Map<String, String> sysProps = startParameter.getSystemPropertiesArgs();
-        String basePath = sysProps.get(SYSPROP);
-        if (basePath == null) {
-            basePath = System.getProperty(SYSPROP);
-        }
+        String basePath = systemProperty(sysProps, SYSPROP);
 
         this.basePath = basePath;
+        this.writeTrees = !Boolean.FALSE.toString().equals(systemProperty(sysProps, TREE_SYSPROP));
         if (this.basePath == null || basePath.equals(Boolean.FALSE.toString())) {
             this.logOutputStream = null;
             return;
@@ -145,26 +155,98 @@ public class BuildOperationTrace implements Stoppable {
                     logOutputStream.close();
                 }
 
-                final List<BuildOperationRecord> roots = readLogToTreeRoots(logFile(basePath));
-                writeDetailTree(roots);
-                writeSummaryTree(roots);
+                if (writeTrees) {
+                    writeTrees(basePath);
+                }
             } catch (IOException e) {
                 throw UncheckedException.throwAsUncheckedException(e);
             }
         }
     }
 
-    private void writeDetailTree(List<BuildOperationRecord> roots) throws IOException {
+    /**
+     * Creates the tree files from the log of a previous build, given the «path-base» used for that build as the only argument.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length > 1) {
+            System.err.println("Usage: BuildOperationTrace [«path-base»]");
+            System.exit(1);
+        }
+        writeTrees(args.length == 0 ? null : args[0]);
+    }
+
+    private static String systemProperty(Map<String, String> sysProps, String name) {
+        String value = sysProps.get(name);
+        if (value == null) {
+            value = System.getProperty(name);
+        }
+        return value;
+    }
+
+    private static void writeTrees(String basePath) throws IOException {
+        List<BuildOperationRecord> roots = readLogToTreeRoots(logFile(basePath));
+        writeDetailTree(basePath, roots);
+        writeSummaryTree(basePath, roots);
+    }
+
+    private static void writeDetailTree(String basePath, List<BuildOperationRecord> roots) throws IOException {
+        // The records are serialized lazily, so write each one as it is serialized rather than rendering the whole tree to a string first
+        Writer writer = Files.asCharSink(file(basePath, "-tree.json"), Charsets.UTF_8).openBufferedStream();
         try {
-            String rawJson = JsonOutput.toJson(BuildOperationTree.serialize(roots));
-            String prettyJson = JsonOutput.prettyPrint(rawJson);
-            Files.asCharSink(file(basePath, "-tree.json"), Charsets.UTF_8).write(prettyJson);
-        } catch (OutOfMemoryError e) {
-            System.err.println("Failed to write build operation trace JSON due to out of memory.");
+            writeJson(writer, BuildOperationTree.serialize(roots), 0);
+        } finally {
+            writer.close();
         }
     }
 
-    private void writeSummaryTree(final List<BuildOperationRecord> roots) throws IOException {
+    private static void writeJson(Writer writer, Object value, int depth) throws IOException {
+        if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            writer.write("{");
+            if (map.isEmpty()) {
+                // Same as JsonOutput.prettyPrint()
+                writer.write("\n");
+                writeIndent(writer, depth + 1);
+            }
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writer.write(first ? "\n" : ",\n");
+                first = false;
+                writeIndent(writer, depth + 1);
+                writer.write(JsonOutput.toJson(String.valueOf(entry.getKey())));
+                writer.write(": ");
+                writeJson(writer, entry.getValue(), depth + 1);
+            }
+            writer.write("\n");
+            writeIndent(writer, depth);
+            writer.write("}");
+        } else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            writer.write("[");
+            if (list.isEmpty()) {
+                writer.write("\n");
+                writeIndent(writer, depth + 1);
+            }
+            for (int i = 0; i < list.size(); i++) {
+                writer.write(i == 0 ? "\n" : ",\n");
+                writeIndent(writer, depth + 1);
+                writeJson(writer, list.get(i), depth + 1);
+            }
+            writer.write("\n");
+            writeIndent(writer, depth);
+            writer.write("]");
+        } else {
+            writer.write(JsonOutput.toJson(value));
+        }
+    }
+
+    private static void writeIndent(Writer writer, int depth) throws IOException {
+        for (int i = 0; i < depth; i++) {
+            writer.write("    ");
+        }
+    }
+
+    private static void writeSummaryTree(String basePath, final List<BuildOperationRecord> roots) throws IOException {
         Files.asCharSink(file(basePath, "-tree.txt"), Charsets.UTF_8).writeLines(new Iterable<String>() {
             @Override
             @Nonnull
@@ -390,9 +472,6 @@ public class BuildOperationTrace implements Stoppable {
 
         @Override
         public void started(BuildOperationDescriptor buildOperation, OperationStartEvent startEvent) {
-            if (buildOperation.getId().getId() == 11) {
-                int i = 1;
-            }
             new Entry(new SerializedOperationStart(buildOperation, startEvent), false).add();
         }
 
@@ -437,11 +516,6 @@ public class BuildOperationTrace implements Stoppable {
                     bufferLock.lock();
                     try {
                         if (buffering) {
-                            if (operation instanceof SerializedOperationStart) {
-                                if (((SerializedOperationStart) operation).id == 11) {
-                                    int i = 1;
-                                }
-                            }
                             buffer.add(this);
                         } else {
                             write();
@@ -42,7 +42,11 @@ import org.gradle.api.internal.changedetection.state.SplitFileHasher;
 import org.gradle.api.internal.changedetection.state.TaskHistoryStore;
 import org.gradle.api.internal.changedetection.state.isolation.IsolatableFactory;
 import org.gradle.api.internal.file.FileResolver;
+import org.gradle.api.internal.file.archive.ZipEntryCompressionExecutor;
+import org.gradle.api.internal.file.collections.DefaultDirectoryWalkerFactory;
 import org.gradle.api.internal.file.collections.DirectoryFileTreeFactory;
+import org.gradle.api.internal.file.collections.jdk7.DirectoryListingExecutor;
+import org.gradle.api.internal.file.copy.FileCopyExecutor;
 import org.gradle.api.internal.model.NamedObjectInstantiator;
 import org.gradle.api.internal.project.BuildOperationCrossProjectConfigurator;
 import org.gradle.api.internal.project.CrossProjectConfigurator;
@@ -64,6 +68,7 @@ import org.gradle.initialization.layout.BuildLayoutFactory;
 import org.gradle.initialization.layout.ProjectCacheDir;
 import org.gradle.internal.buildevents.BuildStartedTime;
 import org.gradle.internal.classpath.ClassPath;
+import org.gradle.internal.concurrent.ExecutorFactory;
 import org.gradle.internal.event.ListenerManager;
 import org.gradle.internal.filewatch.PendingChangesManager;
 import org.gradle.internal.hash.ContentHasherFactory;
@@ -85,6 +90,7 @@ import org.gradle.internal.service.ServiceRegistry;
 import org.gradle.internal.time.Clock;
 import org.gradle.internal.work.AsyncWorkTracker;
 import org.gradle.internal.work.DefaultAsyncWorkTracker;
+import org.gradle.internal.work.WorkerLeaseService;
 import org.gradle.plugin.use.internal.InjectedPluginClasspath;
 import org.gradle.process.internal.DefaultExecActionFactory;
 import org.gradle.process.internal.ExecFactory;
@@ -115,6 +121,18 @@ public class BuildSessionScopeServices extends DefaultServiceRegistry {
 
         // Must be no higher than this scope as needs cache repository services.
         addProvider(new ScopeIdsServices());
+
+        if (DefaultDirectoryWalkerFactory.useParallelWalker()) {
+            add(DirectoryListingExecutor.class, new DirectoryListingExecutor(parent.get(ExecutorFactory.class), startParameter.getMaxWorkerCount()));
+        }
+    }
+
+    FileCopyExecutor createFileCopyExecutor(ExecutorFactory executorFactory, WorkerLeaseService workerLeaseService) {
+        return new FileCopyExecutor(executorFactory, workerLeaseService);
+    }
+
+    ZipEntryCompressionExecutor createZipEntryCompressionExecutor(ExecutorFactory executorFactory, WorkerLeaseService workerLeaseService) {
+        return new ZipEntryCompressionExecutor(executorFactory, workerLeaseService.getMaxWorkerCount());
     }
 
     PendingChangesManager createPendingChangesManager(ListenerManager listenerManager) {
@@ -19,14 +19,18 @@ package org.gradle.api.internal.changedetection.state
 import org.gradle.BuildResult
 import org.gradle.api.internal.GradleInternal
 import org.gradle.internal.classpath.CachedJarFileStore
+import org.gradle.internal.filewatch.FileWatcherFactory
 import org.gradle.test.fixtures.file.TestFile
 import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.gradle.util.SetSystemProperties
 import org.junit.Rule
 import spock.lang.Specification
 
 class DefaultFileSystemMirrorTest extends Specification {
     @Rule
     TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+    @Rule
+    SetSystemProperties systemProperties = new SetSystemProperties()
 
     DefaultFileSystemMirror mirror
     TestFile cacheDir
@@ -141,4 +145,35 @@ class DefaultFileSystemMirrorTest extends Specification {
         mirror.getDirectoryTree(file.path) == null
         mirror.getContent(file.path) == null
     }
+
+    def "does not retain state between builds by default"() {
+        def file = tmpDir.createDir("dir").createFile("a")
+        def fileWatcherFactory = Mock(FileWatcherFactory)
+
+        given:
+        mirror = new DefaultFileSystemMirror(new DefaultWellKnownFileLocations([]), fileWatcherFactory)
+
+        when:
+        2.times {
+            build {
+                mirror.putFile(fileSnapshot(file))
+            }
+        }
+
+        then:
+        0 * fileWatcherFactory._
+        mirror.getFile(file.path) == null
+    }
+
+    private void build(Closure action) {
+        mirror.afterStart()
+        action()
+        mirror.beforeComplete()
+    }
+
+    private FileSnapshot fileSnapshot(File file) {
+        return Stub(FileSnapshot) {
+            getPath() >> file.path
+        }
+    }
 }
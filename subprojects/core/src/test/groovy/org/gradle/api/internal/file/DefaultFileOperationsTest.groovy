@@ -23,6 +23,7 @@ import org.gradle.api.PathValidation
 import org.gradle.api.file.ConfigurableFileCollection
 import org.gradle.api.file.FileTree
 import org.gradle.api.internal.file.archive.TarFileTree
+import org.gradle.api.internal.file.archive.ArchiveExpansionCache
 import org.gradle.api.internal.file.archive.ZipFileTree
 import org.gradle.api.internal.file.collections.DefaultConfigurableFileCollection
 import org.gradle.api.internal.file.collections.DefaultDirectoryFileTreeFactory
@@ -59,12 +60,13 @@ class DefaultFileOperationsTest extends Specification {
     private final DefaultDirectoryFileTreeFactory directoryFileTreeFactory = Mock()
     private final StreamHasher streamHasher = Mock()
     private final FileHasher fileHasher = Mock()
+    private final ArchiveExpansionCache archiveExpansionCache = Mock()
     private final ExecFactory execFactory = TestFiles.execFactory()
     private final TextResourceLoader textResourceLoader = Mock()
     private DefaultFileOperations fileOperations = instance()
 
     private DefaultFileOperations instance(FileResolver resolver = resolver) {
-        instantiator.newInstance(DefaultFileOperations, resolver, taskResolver, temporaryFileProvider, instantiator, fileLookup, directoryFileTreeFactory, streamHasher, fileHasher, execFactory, textResourceLoader)
+        instantiator.newInstance(DefaultFileOperations, resolver, taskResolver, temporaryFileProvider, instantiator, fileLookup, directoryFileTreeFactory, streamHasher, fileHasher, archiveExpansionCache, execFactory, textResourceLoader)
     }
 
     @Rule
@@ -162,13 +164,13 @@ class DefaultFileOperationsTest extends Specification {
 
     def createsZipFileTree() {
         expectPathResolved('path')
-        expectTempFileCreated()
         when:
         def zipTree = fileOperations.zipTree('path')
 
         then:
         zipTree instanceof FileTreeAdapter
         zipTree.tree instanceof ZipFileTree
+        zipTree.tree.expansionCache.is(archiveExpansionCache)
     }
 
     def createsTarFileTree() {
@@ -256,12 +258,6 @@ class DefaultFileOperationsTest extends Specification {
         return file.toURI()
     }
 
-    private TestFile expectTempFileCreated() {
-        TestFile file = tmpDir.file('expandedArchives')
-        temporaryFileProvider.newTemporaryFile('expandedArchives') >> file
-        return file
-    }
-
     def javaexec() {
         File testFile = tmpDir.file("someFile")
         fileOperations = instance(resolver())
@@ -24,6 +24,7 @@ import org.gradle.api.internal.file.copy.CopyActionProcessingStream
 import org.gradle.api.internal.file.copy.DefaultZipCompressor
 import org.gradle.api.internal.file.copy.FileCopyDetailsInternal
 import org.gradle.api.tasks.bundling.Zip
+import org.gradle.internal.concurrent.DefaultExecutorFactory
 import org.gradle.test.fixtures.archive.ZipTestFixture
 import org.gradle.test.fixtures.file.TestFile
 import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
@@ -31,6 +32,8 @@ import org.junit.Rule
 import org.junit.Test
 import spock.lang.Specification
 
+import java.util.zip.ZipFile
+
 import static org.gradle.api.internal.file.copy.CopyActionExecuterUtil.visit
 import static org.hamcrest.Matchers.equalTo
 
@@ -42,12 +45,17 @@ class ZipCopyActionTest extends Specification {
     ZipCopyAction visitor
     TestFile zipFile
     def encoding = 'UTF-8'
+    def compressionExecutor = new ZipEntryCompressionExecutor(new DefaultExecutorFactory(), 2)
 
     def setup() {
         zipFile = tmpDir.getTestDirectory().file("test.zip")
         visitor = new ZipCopyAction(zipFile, new DefaultZipCompressor(false, ZipOutputStream.STORED), new DocumentationRegistry(), encoding, false)
     }
 
+    def cleanup() {
+        compressionExecutor.stop()
+    }
+
     void createsZipFile() {
         given:
         zip(dir("dir"), file("dir/file1"), file("file2"))
@@ -74,6 +82,40 @@ class ZipCopyActionTest extends Specification {
         expandDir.file("file2").assertContents(equalTo("contents of file2"))
     }
 
+    def "creates the same archive when compressing entries concurrently"() {
+        given:
+        def sequentialZipFile = zipFile
+        zip(dir("dir"), file("dir/file1"), file("file2"), dir("dir2"), file("dir2/file3"))
+        def concurrentZipFile = tmpDir.getTestDirectory().file("concurrent.zip")
+        def otherConcurrentZipFile = tmpDir.getTestDirectory().file("concurrent-other.zip")
+
+        when:
+        visitor = new ZipCopyAction(concurrentZipFile, new DefaultZipCompressor(false, method), new DocumentationRegistry(), encoding, false, compressionExecutor)
+        zip(dir("dir"), file("dir/file1"), file("file2"), dir("dir2"), file("dir2/file3"))
+        visitor = new ZipCopyAction(otherConcurrentZipFile, new DefaultZipCompressor(false, method), new DocumentationRegistry(), encoding, false, compressionExecutor)
+        zip(dir("dir"), file("dir/file1"), file("file2"), dir("dir2"), file("dir2/file3"))
+
+        then:
+        concurrentZipFile.bytes == otherConcurrentZipFile.bytes
+        entryNames(concurrentZipFile) == entryNames(sequentialZipFile)
+        entryNames(concurrentZipFile) == ["dir/", "dir/file1", "file2", "dir2/", "dir2/file3"]
+
+        and:
+        TestFile expandDir = tmpDir.getTestDirectory().file("expanded")
+        concurrentZipFile.unzipTo(expandDir)
+        expandDir.file("dir/file1").assertContents(equalTo("contents of dir/file1"))
+        expandDir.file("file2").assertContents(equalTo("contents of file2"))
+        expandDir.file("dir2/file3").assertContents(equalTo("contents of dir2/file3"))
+
+        and:
+        def zipFixture = new ZipTestFixture(concurrentZipFile)
+        zipFixture.assertFileMode("dir/", 2)
+        zipFixture.assertFileMode("dir/file1", 1)
+
+        where:
+        method << [ZipOutputStream.DEFLATED, ZipOutputStream.STORED]
+    }
+
     void zipFileContainsExpectedPermissions() {
         given:
         zip(dir("dir"), file("file"))
@@ -144,6 +186,15 @@ class ZipCopyActionTest extends Specification {
         e.cause.is(failure)
     }
 
+    private static List<String> entryNames(File zipFile) {
+        def zip = new ZipFile(zipFile)
+        try {
+            return zip.entries().collect { it.name }
+        } finally {
+            zip.close()
+        }
+    }
+
     private void zip(final FileCopyDetailsInternal... files) {
         visitor.execute(new CopyActionProcessingStream() {
             void process(CopyActionProcessingStreamAction action) {
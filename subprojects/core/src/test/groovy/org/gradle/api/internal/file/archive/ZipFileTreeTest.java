@@ -17,14 +17,18 @@ package org.gradle.api.internal.file.archive;
 
 import org.gradle.api.GradleException;
 import org.gradle.api.InvalidUserDataException;
+import org.gradle.api.file.EmptyFileVisitor;
+import org.gradle.api.file.FileVisitDetails;
 import org.gradle.test.fixtures.file.TestFile;
 import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider;
 import org.gradle.util.Resources;
 import org.junit.Rule;
 import org.junit.Test;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.gradle.api.file.FileVisitorUtil.*;
@@ -41,7 +45,7 @@ public class ZipFileTreeTest {
     private final TestFile zipFile = tmpDir.getTestDirectory().file("test.zip");
     private final TestFile rootDir = tmpDir.getTestDirectory().file("root");
     private final TestFile expandDir = tmpDir.getTestDirectory().file("tmp");
-    private final ZipFileTree tree = new ZipFileTree(zipFile, expandDir, fileSystem(), directoryFileTreeFactory(), fileHasher());
+    private final ZipFileTree tree = new ZipFileTree(zipFile, archiveExpansionCache(expandDir), fileSystem(), directoryFileTreeFactory(), fileHasher());
 
     @Test
     public void displayName() {
@@ -129,10 +133,51 @@ public class ZipFileTreeTest {
         rootDir.zipTo(zipFile);
 
         assertVisits(tree, toList("file1.txt"), new ArrayList<String>());
-        TestFile content = expandDir.listFiles()[0].listFiles()[0];
+        TestFile content = expandDir.listFiles()[0].file("test.zip/file1.txt");
         content.makeOlder();
         TestFile.Snapshot snapshot = content.snapshot();
         assertVisits(tree, toList("file1.txt"), new ArrayList<String>());
         content.assertHasNotChangedSince(snapshot);
     }
+
+    @Test
+    public void expandsOnlyTheEntriesThatAreRequested() {
+        rootDir.file("file1.txt").write("content");
+        rootDir.file("subdir/file2.txt").write("content");
+        rootDir.zipTo(zipFile);
+
+        final List<String> expanded = new ArrayList<String>();
+        tree.visit(new EmptyFileVisitor() {
+            @Override
+            public void visitFile(FileVisitDetails fileDetails) {
+                if (fileDetails.getName().equals("file2.txt")) {
+                    expanded.add(fileDetails.getFile().getPath());
+                }
+            }
+        });
+
+        TestFile expandedDir = expandDir.listFiles()[0].file("test.zip");
+        assertThat(expanded, equalTo(toList(expandedDir.file("subdir/file2.txt").getPath())));
+        expandedDir.file("subdir/file2.txt").assertContents(equalTo("content"));
+        expandedDir.file("file1.txt").assertDoesNotExist();
+        expandDir.listFiles()[0].file("test.zip.part").assertIsEmptyDir();
+    }
+
+    @Test
+    public void sharesExpandedFilesBetweenZipFilesWithTheSameContent() {
+        rootDir.file("file1.txt").write("content");
+        rootDir.zipTo(zipFile);
+        TestFile otherZipFile = tmpDir.getTestDirectory().file("other/test.zip");
+        zipFile.copyTo(otherZipFile);
+        ZipFileTree otherTree = new ZipFileTree(otherZipFile, archiveExpansionCache(expandDir), fileSystem(), directoryFileTreeFactory(), fileHasher());
+
+        assertVisits(tree, toList("file1.txt"), new ArrayList<String>());
+        TestFile content = expandDir.listFiles()[0].file("test.zip/file1.txt");
+        content.makeOlder();
+        TestFile.Snapshot snapshot = content.snapshot();
+
+        assertVisits(otherTree, toList("file1.txt"), new ArrayList<String>());
+        assertThat(otherTree.getMirror().getDir(), equalTo((File) content.getParentFile()));
+        content.assertHasNotChangedSince(snapshot);
+    }
 }
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.file.collections.jdk7
+
+import org.gradle.api.JavaVersion
+import org.gradle.api.file.FileVisitDetails
+import org.gradle.api.file.FileVisitor
+import org.gradle.api.file.RelativePath
+import org.gradle.api.internal.file.TestFiles
+import org.gradle.api.internal.file.collections.DefaultDirectoryWalkerFactory
+import org.gradle.api.internal.file.collections.DirectoryFileTree
+import org.gradle.api.internal.file.collections.ReproducibleDirectoryWalker
+import org.gradle.api.specs.Spec
+import org.gradle.api.tasks.util.PatternSet
+import org.gradle.internal.Factory
+import org.gradle.internal.concurrent.DefaultExecutorFactory
+import org.gradle.internal.nativeintegration.services.FileSystems
+import org.gradle.test.fixtures.file.TestFile
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.gradle.util.SetSystemProperties
+import org.gradle.util.UsesNativeServices
+import org.junit.Rule
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.util.concurrent.atomic.AtomicBoolean
+
+@UsesNativeServices
+class ParallelDirectoryWalkerTest extends Specification {
+    @Rule
+    public final TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+
+    @Rule
+    SetSystemProperties setSystemPropertiesRule
+
+    def executorFactory = new DefaultExecutorFactory()
+    DirectoryListingExecutor listingExecutor
+
+    def cleanup() {
+        listingExecutor?.stop()
+        executorFactory.stop()
+    }
+
+    def "is only used when enabled"() {
+        when:
+        def factory = new DefaultDirectoryWalkerFactory(JavaVersion.current(), FileSystems.getDefault())
+
+        then:
+        factory.create() instanceof Jdk7DirectoryWalker
+        factory.createReproducible() instanceof ReproducibleDirectoryWalker
+
+        when:
+        System.setProperty(DefaultDirectoryWalkerFactory.PARALLEL_WALKER_PROPERTY, "true")
+        factory = new DefaultDirectoryWalkerFactory(JavaVersion.current(), FileSystems.getDefault())
+
+        then:
+        factory.create() instanceof ParallelDirectoryWalker
+        factory.createReproducible() instanceof ParallelDirectoryWalker
+    }
+
+    @Unroll
+    def "visits the same files in the same order as the reproducible walker - postfix: #postfix, executor: #withExecutor"() {
+        given:
+        def rootDir = tmpDir.createDir("root")
+        generateFilesAndSubDirectories(rootDir, 10, 5, 3, 1)
+        if (withExecutor) {
+            listingExecutor = new DirectoryListingExecutor(executorFactory, 4)
+        }
+
+        when:
+        def visitedWithReproducibleWalker = walkFiles(rootDir, new ReproducibleDirectoryWalker(TestFiles.fileSystem()), postfix)
+        def visitedWithParallelWalker = walkFiles(rootDir, new ParallelDirectoryWalker(TestFiles.fileSystem(), true), postfix)
+
+        then:
+        visitedWithParallelWalker.size() == 340
+        visitedWithParallelWalker*.relativePath == visitedWithReproducibleWalker*.relativePath
+        visitedWithParallelWalker*.directory == visitedWithReproducibleWalker*.directory
+        visitedWithParallelWalker.findAll { !it.directory }*.size == visitedWithReproducibleWalker.findAll { !it.directory }*.size
+
+        where:
+        postfix | withExecutor
+        false   | false
+        true    | false
+        false   | true
+        true    | true
+    }
+
+    def "calls the spec and the visitor on the walking thread only"() {
+        given:
+        def rootDir = tmpDir.createDir("root")
+        generateFilesAndSubDirectories(rootDir, 3, 3, 3, 1)
+        listingExecutor = new DirectoryListingExecutor(executorFactory, 4)
+        def threads = [] as Set
+        def spec = { threads << Thread.currentThread(); true } as Spec
+        def visitor = [visitFile: { threads << Thread.currentThread() }, visitDir: { threads << Thread.currentThread() }] as FileVisitor
+
+        when:
+        new ParallelDirectoryWalker(TestFiles.fileSystem(), false).walkDir(rootDir, RelativePath.EMPTY_ROOT, visitor, spec, new AtomicBoolean(), false)
+
+        then:
+        threads == [Thread.currentThread()] as Set
+    }
+
+    def "does not list directories excluded by the patterns"() {
+        given:
+        def rootDir = tmpDir.createDir("root")
+        rootDir.createFile("a/1.txt")
+        rootDir.createFile("b/2.txt")
+        rootDir.createFile("b/c/3.txt")
+        listingExecutor = new DirectoryListingExecutor(executorFactory, 4)
+        def fileTree = new DirectoryFileTree(rootDir, new PatternSet().exclude("b"), { new ParallelDirectoryWalker(TestFiles.fileSystem(), true) } as Factory, TestFiles.fileSystem(), false)
+        def visited = []
+        def visitor = [visitFile: { visited << it.relativePath.pathString }, visitDir: { visited << it.relativePath.pathString }] as FileVisitor
+
+        when:
+        rootDir.file("b").setReadable(false)
+        fileTree.visit(visitor)
+
+        then:
+        visited == ["a", "a/1.txt"]
+
+        cleanup:
+        rootDir.file("b").setReadable(true)
+    }
+
+    def "stops visiting when requested"() {
+        given:
+        def rootDir = tmpDir.createDir("root")
+        generateFilesAndSubDirectories(rootDir, 10, 5, 3, 1)
+        listingExecutor = new DirectoryListingExecutor(executorFactory, 4)
+        def fileTree = new DirectoryFileTree(rootDir, new PatternSet(), { new ParallelDirectoryWalker(TestFiles.fileSystem(), true) } as Factory, TestFiles.fileSystem(), false)
+        def visited = []
+        def visitor = [visitFile: { visited << it; if (visited.size() == 15) { it.stopVisiting() } }, visitDir: { visited << it }] as FileVisitor
+
+        when:
+        fileTree.visit(visitor)
+
+        then:
+        visited.size() == 15
+    }
+
+    def "lists directories on the walking thread once the build session has finished"() {
+        given:
+        def rootDir = tmpDir.createDir("root")
+        generateFilesAndSubDirectories(rootDir, 2, 2, 2, 1)
+        listingExecutor = new DirectoryListingExecutor(executorFactory, 4)
+        listingExecutor.stop()
+
+        expect:
+        DirectoryListingExecutor.current() == null
+        walkFiles(rootDir, new ParallelDirectoryWalker(TestFiles.fileSystem(), true), false).size() == 8
+    }
+
+    private static void generateFilesAndSubDirectories(TestFile parentDir, int fileCount, int dirCount, int maxDepth, int currentDepth) {
+        for (int i = 0; i < fileCount; i++) {
+            parentDir.createFile("file" + i) << ("x" * (i + currentDepth))
+        }
+        if (currentDepth < maxDepth) {
+            for (int i = 0; i < dirCount; i++) {
+                generateFilesAndSubDirectories(parentDir.createDir("dir" + i), fileCount, dirCount, maxDepth, currentDepth + 1)
+            }
+        }
+    }
+
+    private static List<FileVisitDetails> walkFiles(File rootDir, walker, boolean postfix) {
+        def fileTree = new DirectoryFileTree(rootDir, new PatternSet(), { walker } as Factory, TestFiles.fileSystem(), postfix)
+        def visited = []
+        def visitClosure = { visited << it }
+        fileTree.visit([visitFile: visitClosure, visitDir: visitClosure] as FileVisitor)
+        return visited
+    }
+}
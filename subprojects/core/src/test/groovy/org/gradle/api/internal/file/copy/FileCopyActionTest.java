@@ -16,8 +16,16 @@
 
 package org.gradle.api.internal.file.copy;
 
+import org.gradle.api.Action;
+import org.gradle.api.Transformer;
+import org.gradle.api.file.CopySpec;
 import org.gradle.api.file.RelativePath;
 import org.gradle.api.internal.file.TestFiles;
+import org.gradle.api.tasks.WorkResult;
+import org.gradle.internal.concurrent.DefaultExecutorFactory;
+import org.gradle.internal.concurrent.ManagedExecutor;
+import org.gradle.internal.reflect.DirectInstantiator;
+import org.gradle.test.fixtures.file.TestFile;
 import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider;
 import org.jmock.Expectations;
 import org.jmock.integration.junit4.JMock;
@@ -31,6 +39,8 @@ import java.io.File;
 import java.io.IOException;
 
 import static org.gradle.api.internal.file.copy.CopyActionExecuterUtil.visit;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(JMock.class)
 public class FileCopyActionTest {
@@ -54,6 +64,46 @@ public class FileCopyActionTest {
         );
     }
 
+    @Test
+    public void copiesUnfilteredFilesConcurrentlyAndDuplicatesInOrder() {
+        TestFile srcDir = tmpDir.getTestDirectory().file("src");
+        for (int i = 0; i < 50; i++) {
+            srcDir.file("dir" + i % 5 + "/file" + i + ".txt").write("content " + i);
+        }
+        TestFile otherSrcDir = tmpDir.getTestDirectory().file("other");
+        otherSrcDir.file("dir0/file0.txt").write("other content");
+
+        DefaultCopySpec copySpec = new DefaultCopySpec(TestFiles.resolver(tmpDir.getTestDirectory()), DirectInstantiator.INSTANCE);
+        copySpec.from(srcDir, otherSrcDir);
+        copySpec.from(srcDir.file("dir1/file1.txt"), new Action<CopySpec>() {
+            @Override
+            public void execute(CopySpec spec) {
+                spec.into("filtered");
+                spec.filter(new Transformer<String, String>() {
+                    @Override
+                    public String transform(String line) {
+                        return line.toUpperCase();
+                    }
+                });
+            }
+        });
+        ManagedExecutor executor = new DefaultExecutorFactory().create("Copy files", 4);
+        WorkResult result;
+        try {
+            FileCopyAction action = new FileCopyAction(TestFiles.resolver(destDir), executor);
+            result = new CopyActionExecuter(DirectInstantiator.INSTANCE, TestFiles.fileSystem(), false).execute(copySpec, action);
+        } finally {
+            executor.stop();
+        }
+
+        assertTrue(result.getDidWork());
+        for (int i = 1; i < 50; i++) {
+            new TestFile(destDir).file("dir" + i % 5 + "/file" + i + ".txt").assertContents(equalTo("content " + i));
+        }
+        new TestFile(destDir).file("dir0/file0.txt").assertContents(equalTo("other content"));
+        new TestFile(destDir).file("filtered/file1.txt").assertContents(equalTo("CONTENT 1"));
+    }
+
     private FileCopyDetailsInternal file(final RelativePath relativePath, final File targetFile) {
         final FileCopyDetailsInternal details = context.mock(FileCopyDetailsInternal.class, relativePath.getPathString());
         context.checking(new Expectations() {{
@@ -20,11 +20,16 @@ import org.gradle.api.internal.file.TestFiles
 import org.gradle.api.internal.file.collections.DefaultDirectoryFileTreeFactory
 import org.gradle.internal.reflect.DirectInstantiator
 import org.gradle.test.fixtures.file.WorkspaceTest
+import org.gradle.util.SetSystemProperties
 import org.gradle.util.UsesNativeServices
+import org.junit.Rule
 
 @UsesNativeServices
 class SyncCopyActionDecoratorTest extends WorkspaceTest {
 
+    @Rule
+    SetSystemProperties systemProperties = new SetSystemProperties()
+
     FileCopier copier
 
     def setup() {
@@ -57,4 +62,69 @@ class SyncCopyActionDecoratorTest extends WorkspaceTest {
         file("dest").assertHasDescendants("subdir/included.txt", "included.txt");
     }
 
+    def "skips files whose size, timestamp and mode match the destination when parallel copy is enabled"() {
+        given:
+        System.setProperty(FileCopyAction.PARALLEL_COPY_PROPERTY, "true")
+        def unchanged = file("src/unchanged.txt").createFile()
+        unchanged.text = "content"
+        def changed = file("src/changed.txt").createFile()
+        changed.text = "content"
+        sync()
+
+        expect:
+        file("dest/unchanged.txt").lastModified() == unchanged.lastModified()
+        file("dest/changed.txt").lastModified() == changed.lastModified()
+
+        when:
+        file("dest/unchanged.txt").text = "CONTENT"
+        file("dest/unchanged.txt").lastModified = unchanged.lastModified()
+        file("dest/changed.txt").text = "CONTENT"
+        file("dest/changed.txt").lastModified = changed.lastModified() - 2000
+        sync()
+
+        then:
+        file("dest/unchanged.txt").text == "CONTENT"
+        file("dest/changed.txt").text == "content"
+        file("dest/changed.txt").lastModified() == changed.lastModified()
+    }
+
+    def "does not skip filtered files"() {
+        given:
+        System.setProperty(FileCopyAction.PARALLEL_COPY_PROPERTY, "true")
+        def source = file("src/file.txt").createFile()
+        source.text = "content"
+        file("dest/file.txt").createFile().text = "CONTENT"
+        file("dest/file.txt").lastModified = source.lastModified()
+
+        when:
+        copier.sync({
+            it.from "src"
+            it.into "dest"
+            it.filter { String line -> line }
+        } as Action)
+
+        then:
+        file("dest/file.txt").text == "content"
+    }
+
+    def "does not skip files when parallel copy is not enabled"() {
+        given:
+        def source = file("src/file.txt").createFile()
+        source.text = "content"
+        file("dest/file.txt").createFile().text = "CONTENT"
+        file("dest/file.txt").lastModified = source.lastModified()
+
+        when:
+        sync()
+
+        then:
+        file("dest/file.txt").text == "content"
+    }
+
+    private void sync() {
+        copier.sync({
+            it.from "src"
+            it.into "dest"
+        } as Action)
+    }
 }
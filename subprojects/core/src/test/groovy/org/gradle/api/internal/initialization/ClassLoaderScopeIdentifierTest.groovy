@@ -27,6 +27,10 @@ class ClassLoaderScopeIdentifierTest extends Specification {
         root.localId() != root.exportId()
         root.exportId() != root.localId()
         root.exportId() == root.exportId()
+        root.localMultiParentId() == root.localMultiParentId()
+        root.localMultiParentId() != root.localId()
+        root.exportMultiParentId() != root.exportId()
+        root.exportMultiParentId() != root.localMultiParentId()
     }
 
     def "creates child"() {
@@ -302,19 +302,19 @@ class DefaultClassLoaderScopeTest extends Specification {
         root.createChild("c").local(c1).export(c2).lock().exportClassLoader
 
         then:
-        classLoaderCache.size() == 2
+        classLoaderCache.size() == 3
 
         when:
         root.createChild("d").local(c1).export(c2).lock().exportClassLoader
 
         then:
-        classLoaderCache.size() == 2
+        classLoaderCache.size() == 3
 
         when:
         root.createChild("c").local(c1).lock().exportClassLoader
 
         then:
-        classLoaderCache.size() == 2
+        classLoaderCache.size() == 3
 
         when:
         root.createChild("d").lock().exportClassLoader
@@ -383,6 +383,29 @@ class DefaultClassLoaderScopeTest extends Specification {
         scope.defines(exportLoader.loadClass(TestClass2.name))
     }
 
+    def "scopes with the same parents share export loader"() {
+        given:
+        def attachLoaderPath = file("attach")
+        copyTo(TestClass1, attachLoaderPath)
+        def attachLoader = isolatedLoader(attachLoaderPath)
+        def c1 = classPath("c1")
+
+        when:
+        def scope1 = root.createChild("child1").export(c1).export(attachLoader).lock()
+        def scope2 = root.createChild("child2").export(c1).export(attachLoader).lock()
+
+        then:
+        scope1.exportClassLoader.is scope2.exportClassLoader
+        scope1.exportClassLoader.loadClass(TestClass1.name).is scope2.exportClassLoader.loadClass(TestClass1.name)
+
+        when:
+        def child1 = scope1.createChild("child").local(c1).lock()
+        def child2 = scope2.createChild("child").local(c1).lock()
+
+        then:
+        child1.localClassLoader.is child2.localClassLoader
+    }
+
     def "can't add exported loader after lock"() {
         when:
         scope.lock().export(isolatedLoader(file("foo")))
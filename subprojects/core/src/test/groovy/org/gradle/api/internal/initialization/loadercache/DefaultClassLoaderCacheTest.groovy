@@ -29,7 +29,8 @@ import spock.lang.Specification
 class DefaultClassLoaderCacheTest extends Specification {
 
     def classpathHasher = new FileClasspathHasher()
-    def cache = new DefaultClassLoaderCache(new DefaultHashingClassLoaderFactory(classpathHasher), classpathHasher)
+    def statistics = new ClassLoaderCacheStatistics()
+    def cache = new DefaultClassLoaderCache(new DefaultHashingClassLoaderFactory(classpathHasher), classpathHasher, statistics)
     def id1 = new ClassLoaderId() {}
     def id2 = new ClassLoaderId() {}
 
@@ -67,6 +68,39 @@ class DefaultClassLoaderCacheTest extends Specification {
         cache.get(id1, classPath("c1"), root, null).is cache.get(id2, classPath("c1"), root, null)
     }
 
+    def "multi parent class loaders are reused when parents are the same"() {
+        def root1 = classLoader(classPath("root1"))
+        def root2 = classLoader(classPath("root2"))
+
+        expect:
+        cache.getMultiParent(id1, [root1, root2]).is cache.getMultiParent(id2, [root1, root2])
+        cache.size() == 1
+        !cache.getMultiParent(id2, [root2, root1]).is(cache.getMultiParent(id1, [root1, root2]))
+        cache.size() == 2
+
+        when:
+        cache.remove(id1)
+        cache.remove(id2)
+
+        then:
+        cache.size() == 0
+    }
+
+    def "counts created and reused class loaders"() {
+        def root = classLoader(classPath("root"))
+
+        when:
+        cache.get(id1, classPath("c1"), root, null)
+        cache.get(id1, classPath("c1"), root, null)
+        cache.get(id2, classPath("c1"), root, null)
+        cache.getMultiParent(id1, [root])
+        cache.getMultiParent(id2, [root])
+
+        then:
+        statistics.createdCount == 2
+        statistics.reusedCount == 2
+    }
+
     def "parents are respected"() {
         expect:
         def root1 = classLoader(classPath("root1"))
@@ -20,8 +20,12 @@ import org.gradle.internal.classloader.FilteringClassLoader;
 import org.gradle.internal.classpath.ClassPath;
 import org.gradle.internal.hash.HashCode;
 
+import org.gradle.internal.classloader.CachingClassLoader;
+import org.gradle.internal.classloader.MultiParentClassLoader;
+
 import javax.annotation.Nullable;
 import java.net.URLClassLoader;
+import java.util.List;
 
 public class DummyClassLoaderCache implements ClassLoaderCache {
 
@@ -35,6 +39,11 @@ public class DummyClassLoaderCache implements ClassLoaderCache {
         return get(id, classPath, parent, filterSpec, null);
     }
 
+    @Override
+    public ClassLoader getMultiParent(ClassLoaderId id, List<ClassLoader> parents) {
+        return new CachingClassLoader(new MultiParentClassLoader(parents));
+    }
+
     @Override
     public <T extends ClassLoader> T put(ClassLoaderId id, T classLoader) {
         return classLoader;
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.tasks.properties
+
+import spock.lang.Specification
+
+class PropertyAccessorFactoryTest extends Specification {
+    def factory = new PropertyAccessorFactory()
+
+    def "reads properties through generated accessors"() {
+        def getters = [Bean.getMethod("getName"), Bean.getMethod("getCount"), Bean.getMethod("isEnabled")]
+
+        when:
+        def accessors = factory.createAccessors(Bean, getters)
+
+        then:
+        accessors.size() == 3
+        accessors.every { it instanceof PropertyAccessorFactory.GeneratedPropertyAccessor }
+        accessors*.accessors*.getClass().unique().size() == 1
+        accessors[0].accessors.getClass().name.startsWith(Bean.name + '$$PropertyAccessors')
+        accessors[0].accessors.getClass().classLoader == Bean.classLoader
+        accessors*.getValue(new Bean()) == ["name", 42, true]
+    }
+
+    def "reads non-public properties reflectively"() {
+        def getters = [Bean.getMethod("getName"), Bean.getDeclaredMethod("getHidden")]
+
+        when:
+        def accessors = factory.createAccessors(Bean, getters)
+
+        then:
+        accessors[0] instanceof PropertyAccessorFactory.GeneratedPropertyAccessor
+        accessors[1] instanceof PropertyAccessorFactory.ReflectivePropertyAccessor
+        accessors*.getValue(new Bean()) == ["name", "hidden"]
+    }
+
+    def "rethrows exceptions thrown by the getter"() {
+        def accessors = factory.createAccessors(Bean, [Bean.getMethod("getBroken")])
+
+        when:
+        accessors[0].getValue(new Bean())
+
+        then:
+        def e = thrown(IllegalStateException)
+        e.message == "broken"
+    }
+
+    static class Bean {
+        String getName() {
+            return "name"
+        }
+
+        int getCount() {
+            return 42
+        }
+
+        boolean isEnabled() {
+            return true
+        }
+
+        private String getHidden() {
+            return "hidden"
+        }
+
+        String getBroken() {
+            throw new IllegalStateException("broken")
+        }
+    }
+}
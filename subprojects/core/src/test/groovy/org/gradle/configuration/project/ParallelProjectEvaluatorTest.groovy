@@ -0,0 +1,206 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.configuration.project
+
+import org.gradle.api.CircularReferenceException
+import org.gradle.api.InvalidUserCodeException
+import org.gradle.api.internal.GradleInternal
+import org.gradle.api.internal.project.ProjectInternal
+import org.gradle.api.internal.project.ProjectStateInternal
+import org.gradle.internal.concurrent.ParallelismConfigurationManagerFixture
+import org.gradle.internal.resources.DefaultResourceLockCoordinationService
+import org.gradle.internal.work.DefaultWorkerLeaseService
+import org.gradle.test.fixtures.concurrent.ConcurrentSpec
+import org.gradle.util.Path
+import org.gradle.util.SetSystemProperties
+import org.junit.Rule
+
+import java.util.concurrent.atomic.AtomicInteger
+
+class ParallelProjectEvaluatorTest extends ConcurrentSpec {
+    @Rule SetSystemProperties systemProperties = new SetSystemProperties((ParallelProjectEvaluator.PARALLEL_CONFIGURATION_PROPERTY): "true")
+    def coordinationService = new DefaultResourceLockCoordinationService()
+    def workerLeaseService = new DefaultWorkerLeaseService(coordinationService, new ParallelismConfigurationManagerFixture(true, 2))
+    def delegate = Mock(ProjectEvaluator)
+    def gradle = Stub(GradleInternal) {
+        getIdentityPath() >> Path.ROOT
+    }
+    def projectA = project(":a")
+    def projectB = project(":b")
+    def stateA = new ProjectStateInternal()
+    def stateB = new ProjectStateInternal()
+
+    def "evaluates directly when current thread is not configuring a project in parallel"() {
+        def evaluator = evaluator()
+
+        when:
+        evaluator.evaluate(projectA, stateA)
+
+        then:
+        1 * delegate.evaluate(projectA, stateA)
+    }
+
+    def "only delegates when parallel configuration is disabled"() {
+        System.clearProperty(ParallelProjectEvaluator.PARALLEL_CONFIGURATION_PROPERTY)
+        def evaluator = evaluator()
+
+        when:
+        withProjectLock(projectA) {
+            evaluator.evaluate(projectA, stateA)
+        }
+
+        then:
+        1 * delegate.evaluate(projectA, stateA) >> {
+            evaluator.assertCanConfigure(projectB)
+        }
+    }
+
+    def "acquires lock of project evaluated while configuring another project"() {
+        def evaluator = evaluator()
+
+        when:
+        withProjectLock(projectA) {
+            evaluator.evaluate(projectA, stateA)
+        }
+
+        then:
+        1 * delegate.evaluate(projectA, stateA) >> {
+            evaluator.evaluate(projectB, stateB)
+        }
+        1 * delegate.evaluate(projectB, stateB) >> {
+            evaluator.assertCanConfigure(projectA)
+            evaluator.assertCanConfigure(projectB)
+        }
+    }
+
+    def "waits for project that is configured by another thread"() {
+        def evaluator = evaluator()
+        def evaluationsOfA = new AtomicInteger()
+        delegate.evaluate(projectA, stateA) >> {
+            if (evaluationsOfA.getAndIncrement() == 0) {
+                instant.aStarted
+                thread.blockUntil.bWaiting
+                thread.block()
+                instant.aFinished
+            }
+        }
+        delegate.evaluate(projectB, stateB) >> {
+            instant.bWaiting
+            evaluator.evaluate(projectA, stateA)
+            instant.bFinished
+        }
+
+        when:
+        async {
+            start {
+                withProjectLock(projectA) {
+                    evaluator.evaluate(projectA, stateA)
+                }
+            }
+            start {
+                thread.blockUntil.aStarted
+                withProjectLock(projectB) {
+                    evaluator.evaluate(projectB, stateB)
+                }
+            }
+        }
+
+        then:
+        instant.bFinished > instant.aFinished
+        evaluationsOfA.get() == 2
+    }
+
+    def "fails when projects configured by different threads depend on each other"() {
+        def evaluator = evaluator()
+        def failures = [].asSynchronized()
+        def evaluationsOfA = new AtomicInteger()
+        def evaluationsOfB = new AtomicInteger()
+        delegate.evaluate(projectA, stateA) >> {
+            if (evaluationsOfA.getAndIncrement() == 0) {
+                instant.aStarted
+                thread.blockUntil.bStarted
+                evaluateRecordingFailure(evaluator, projectB, stateB, failures)
+            }
+        }
+        delegate.evaluate(projectB, stateB) >> {
+            if (evaluationsOfB.getAndIncrement() == 0) {
+                instant.bStarted
+                thread.blockUntil.aStarted
+                evaluateRecordingFailure(evaluator, projectA, stateA, failures)
+            }
+        }
+
+        when:
+        async {
+            start {
+                withProjectLock(projectA) {
+                    evaluator.evaluate(projectA, stateA)
+                }
+            }
+            start {
+                withProjectLock(projectB) {
+                    evaluator.evaluate(projectB, stateB)
+                }
+            }
+        }
+
+        then:
+        failures.size() == 1
+        failures[0] instanceof CircularReferenceException
+    }
+
+    def "fails when configuring a project that is not locked by the current thread"() {
+        def evaluator = evaluator()
+
+        when:
+        withProjectLock(projectA) {
+            evaluator.evaluate(projectA, stateA)
+        }
+
+        then:
+        1 * delegate.evaluate(projectA, stateA) >> {
+            evaluator.assertCanConfigure(projectB)
+        }
+        InvalidUserCodeException e = thrown()
+        e.message == "project ':a' cannot configure project ':b' while projects are configured in parallel. Use evaluationDependsOn() to configure project ':b' first, or disable parallel configuration."
+    }
+
+    private static void evaluateRecordingFailure(ParallelProjectEvaluator evaluator, ProjectInternal project, ProjectStateInternal state, List<Throwable> failures) {
+        try {
+            evaluator.evaluate(project, state)
+        } catch (CircularReferenceException e) {
+            failures << e
+        }
+    }
+
+    private ParallelProjectEvaluator evaluator() {
+        return new ParallelProjectEvaluator(delegate, workerLeaseService, coordinationService)
+    }
+
+    private void withProjectLock(ProjectInternal project, Closure action) {
+        workerLeaseService.withLocks([workerLeaseService.getProjectLock(":", project.identityPath.toString())], action as Runnable)
+    }
+
+    private ProjectInternal project(String path) {
+        return Stub(ProjectInternal) {
+            getGradle() >> gradle
+            getIdentityPath() >> Path.path(path)
+            toString() >> "project '${path}'"
+        }
+    }
+}
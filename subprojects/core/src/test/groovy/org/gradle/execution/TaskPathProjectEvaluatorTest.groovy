@@ -16,15 +16,27 @@
 
 package org.gradle.execution
 
+import org.gradle.StartParameter
 import org.gradle.api.BuildCancelledException
+import org.gradle.api.internal.GradleInternal
 import org.gradle.api.internal.project.ProjectInternal
+import org.gradle.configuration.project.ParallelProjectEvaluator
 import org.gradle.initialization.BuildCancellationToken
+import org.gradle.internal.operations.TestBuildOperationExecutor
+import org.gradle.internal.resources.ResourceLock
+import org.gradle.internal.work.WorkerLeaseService
+import org.gradle.util.Path
+import org.gradle.util.SetSystemProperties
+import org.junit.Rule
 import spock.lang.Specification
 
 class TaskPathProjectEvaluatorTest extends Specification {
+    @Rule SetSystemProperties systemProperties = new SetSystemProperties()
     private cancellationToken = Mock(BuildCancellationToken)
+    private buildOperationExecutor = new TestBuildOperationExecutor()
+    private workerLeaseService = Mock(WorkerLeaseService)
     private project = Mock(ProjectInternal)
-    private evaluator = new TaskPathProjectEvaluator(cancellationToken)
+    private evaluator = new TaskPathProjectEvaluator(cancellationToken, buildOperationExecutor, workerLeaseService)
 
     def "project configuration fails when cancelled"() {
         given:
@@ -60,4 +72,51 @@ class TaskPathProjectEvaluatorTest extends Specification {
         1 * child1.evaluate()
         0 * child2._
     }
+
+    def "configures project hierarchy one level at a time under project locks when parallel configuration is enabled"() {
+        System.setProperty(ParallelProjectEvaluator.PARALLEL_CONFIGURATION_PROPERTY, "true")
+        def evaluator = new TaskPathProjectEvaluator(cancellationToken, buildOperationExecutor, workerLeaseService)
+        def startParameter = new StartParameter()
+        startParameter.parallelProjectExecutionEnabled = true
+        def gradle = Stub(GradleInternal) {
+            getStartParameter() >> startParameter
+            getIdentityPath() >> Path.ROOT
+        }
+        def grandchild = project(gradle, ":child1:grandchild", [:])
+        def child1 = project(gradle, ":child1", [grandchild: grandchild])
+        def child2 = project(gradle, ":child2", [:])
+        def root = project(gradle, ":", [child1: child1, child2: child2])
+
+        when:
+        evaluator.configureHierarchy(root)
+
+        then:
+        1 * root.evaluate()
+
+        then:
+        1 * workerLeaseService.withLocks(_, _ as Runnable) >> { locks, Runnable action -> action.run() }
+        1 * child1.evaluate()
+
+        then:
+        1 * workerLeaseService.withLocks(_, _ as Runnable) >> { locks, Runnable action -> action.run() }
+        1 * child2.evaluate()
+
+        then:
+        1 * workerLeaseService.withLocks(_, _ as Runnable) >> { locks, Runnable action -> action.run() }
+        1 * grandchild.evaluate()
+        0 * _.evaluate()
+
+        and:
+        buildOperationExecutor.operations*.displayName == ["Configure project ':child1' in parallel", "Configure project ':child2' in parallel", "Configure project ':child1:grandchild' in parallel"]
+    }
+
+    private ProjectInternal project(GradleInternal gradle, String path, Map<String, ProjectInternal> children) {
+        def project = Mock(ProjectInternal)
+        _ * project.gradle >> gradle
+        _ * project.identityPath >> Path.path(path)
+        _ * project.displayName >> "project '${path}'"
+        _ * project.childProjects >> children
+        _ * workerLeaseService.getProjectLock(":", path) >> Mock(ResourceLock)
+        return project
+    }
 }
@@ -128,6 +128,50 @@ class DefaultScriptCompilationHandlerTest extends Specification {
         evaluateScript(script)
     }
 
+    def "can load script classes that were read from the cache directory in bulk"() {
+        given:
+        System.setProperty(DefaultScriptCompilationHandler.BULK_LOAD_PROPERTY, "true")
+        def closureScriptText = "[1].each { ${scriptText} }"
+        def scriptSource = scriptSource(closureScriptText)
+        scriptCompilationHandler.compileToDir(scriptSource, classLoader, scriptCacheDir, metadataCacheDir, null, expectedScriptClass, verifier)
+
+        when:
+        def compiledScript = scriptCompilationHandler.loadFromDir(scriptSource, hashFor(closureScriptText), classLoader, scriptCacheDir, metadataCacheDir, null, expectedScriptClass, classLoaderId)
+        def scriptClass = compiledScript.loadClass()
+
+        then:
+        scriptClass.name == scriptClassName
+        scriptClass.protectionDomain.codeSource.location == scriptCacheDir.toURI().toURL()
+
+        and:
+        // The closure class has been read with the script class, and is not defined until the script runs
+        def preloadedClasses = scriptClass.classLoader.preloadedClasses
+        preloadedClasses.keySet() == scriptCacheDir.list().findAll { it.endsWith(".class") && it != "${scriptClassName}.class" }.collect { it - ".class" } as Set
+        preloadedClasses.size() == 1
+
+        when:
+        Script script = scriptClass.newInstance()
+        evaluateScript(script)
+
+        then:
+        preloadedClasses.isEmpty()
+
+        cleanup:
+        System.clearProperty(DefaultScriptCompilationHandler.BULK_LOAD_PROPERTY)
+    }
+
+    def "does not read script classes in bulk by default"() {
+        given:
+        def scriptSource = scriptSource(scriptText)
+        scriptCompilationHandler.compileToDir(scriptSource, classLoader, scriptCacheDir, metadataCacheDir, null, expectedScriptClass, verifier)
+
+        when:
+        def scriptClass = scriptCompilationHandler.loadFromDir(scriptSource, hashFor(scriptText), classLoader, scriptCacheDir, metadataCacheDir, null, expectedScriptClass, classLoaderId).loadClass()
+
+        then:
+        scriptClass.classLoader.preloadedClasses == null
+    }
+
     def testCompileScriptToDirWithPackageDeclaration() {
         ScriptSource scriptSource = scriptSource("""package org.gradle.test
 println 'hi'
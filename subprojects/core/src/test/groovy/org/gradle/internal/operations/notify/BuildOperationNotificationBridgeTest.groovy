@@ -27,6 +27,10 @@ import org.gradle.internal.operations.OperationProgressEvent
 import org.gradle.internal.operations.OperationStartEvent
 import org.gradle.testing.internal.util.Specification
 
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
 class BuildOperationNotificationBridgeTest extends Specification {
 
     def listenerManager = new DefaultListenerManager()
@@ -358,6 +362,39 @@ class BuildOperationNotificationBridgeTest extends Specification {
         }
     }
 
+    def "notifies registered listener concurrently"() {
+        given:
+        bridge().valve.start()
+        def bothStarted = new CountDownLatch(2)
+        def startedConcurrently = new CopyOnWriteArrayList<Boolean>()
+        register(new BuildOperationNotificationListener2() {
+            @Override
+            void started(BuildOperationStartedNotification notification) {
+                bothStarted.countDown()
+                startedConcurrently << bothStarted.await(10, TimeUnit.SECONDS)
+            }
+
+            @Override
+            void progress(BuildOperationProgressNotification notification) {
+            }
+
+            @Override
+            void finished(BuildOperationFinishedNotification notification) {
+            }
+        })
+        def d1 = d(1, null, 1)
+        def d2 = d(2, null, 2)
+
+        when:
+        def thread = new Thread({ broadcast.started(d2, new OperationStartEvent(0)) } as Runnable)
+        thread.start()
+        broadcast.started(d1, new OperationStartEvent(0))
+        thread.join()
+
+        then:
+        startedConcurrently == [true, true]
+    }
+
     void register(BuildOperationNotificationListener listener) {
         bridge().registrar.registerBuildScopeListener(listener)
     }
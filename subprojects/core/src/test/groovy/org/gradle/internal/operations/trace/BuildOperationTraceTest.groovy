@@ -0,0 +1,103 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.internal.operations.trace
+
+import groovy.json.JsonOutput
+import org.gradle.BuildListener
+import org.gradle.StartParameter
+import org.gradle.internal.event.DefaultListenerManager
+import org.gradle.internal.operations.BuildOperationDescriptor
+import org.gradle.internal.operations.DefaultBuildOperationListenerManager
+import org.gradle.internal.operations.OperationFinishEvent
+import org.gradle.internal.operations.OperationIdentifier
+import org.gradle.internal.operations.OperationProgressEvent
+import org.gradle.internal.operations.OperationStartEvent
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+class BuildOperationTraceTest extends Specification {
+    @Rule
+    TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+    def buildOperationListenerManager = new DefaultBuildOperationListenerManager()
+    def listenerManager = new DefaultListenerManager()
+    def basePath = tmpDir.file("trace/operations").absolutePath
+
+    def "writes log and tree files"() {
+        when:
+        traceOperations([(BuildOperationTrace.SYSPROP): basePath])
+
+        then:
+        file("-log.txt").readLines().size() == 5
+        file("-tree.json").text == expectedJsonTree()
+        file("-tree.txt").readLines()[0].startsWith("root")
+    }
+
+    def "writes only log when tree files are disabled"() {
+        when:
+        traceOperations([(BuildOperationTrace.SYSPROP): basePath, (BuildOperationTrace.TREE_SYSPROP): "false"])
+
+        then:
+        file("-log.txt").readLines().size() == 5
+        !file("-tree.json").exists()
+        !file("-tree.txt").exists()
+    }
+
+    def "creates tree files from log of previous build"() {
+        given:
+        traceOperations([(BuildOperationTrace.SYSPROP): basePath, (BuildOperationTrace.TREE_SYSPROP): "false"])
+
+        when:
+        BuildOperationTrace.main(basePath)
+
+        then:
+        file("-tree.json").text == expectedJsonTree()
+        file("-tree.txt").readLines() == [
+            'root {"empty":{}} [4ms] (1)',
+            '  child {"value":"with \\"quotes\\""} {"none":[]} [2ms] (2)',
+            '  - {message=progress} [2]'
+        ]
+    }
+
+    private void traceOperations(Map<String, String> systemProperties) {
+        def startParameter = new StartParameter()
+        startParameter.systemPropertiesArgs = systemProperties
+        def trace = new BuildOperationTrace(startParameter, buildOperationListenerManager, listenerManager)
+
+        def broadcaster = buildOperationListenerManager.broadcaster
+        def root = BuildOperationDescriptor.displayName("root").details([empty: [:]]).build(new OperationIdentifier(1), null)
+        def child = BuildOperationDescriptor.displayName("child").details([value: 'with "quotes"']).build(new OperationIdentifier(2), new OperationIdentifier(1))
+        def time = 1500000000000L
+        broadcaster.started(root, new OperationStartEvent(time))
+        broadcaster.started(child, new OperationStartEvent(time + 1))
+        broadcaster.progress(child.id, new OperationProgressEvent(time + 3, [message: "progress"]))
+        broadcaster.finished(child, new OperationFinishEvent(time + 1, time + 3, null, [none: []]))
+        broadcaster.finished(root, new OperationFinishEvent(time, time + 4, null, null))
+        listenerManager.getBroadcaster(BuildListener).buildFinished(null)
+
+        trace.stop()
+    }
+
+    private String expectedJsonTree() {
+        JsonOutput.prettyPrint(JsonOutput.toJson(BuildOperationTree.serialize(BuildOperationTrace.read(basePath).roots)))
+    }
+
+    private File file(String suffix) {
+        new File(basePath + suffix)
+    }
+}
@@ -29,6 +29,7 @@ import org.gradle.api.internal.classpath.ModuleRegistry
 import org.gradle.api.internal.file.TemporaryFileProvider
 import org.gradle.api.internal.file.collections.DirectoryFileTreeFactory
 import org.gradle.api.internal.initialization.loadercache.ClassLoaderCache
+import org.gradle.api.internal.initialization.loadercache.ClassLoaderCacheStatistics
 import org.gradle.cache.CacheDecorator
 import org.gradle.cache.PersistentCache
 import org.gradle.cache.internal.CacheFactory
@@ -123,6 +124,7 @@ class GradleUserHomeScopeServicesTest extends WorkspaceTest {
         expectParentServiceLocated(DirectoryFileTreeFactory)
         expectParentServiceLocated(ContentHasherFactory)
         expectParentServiceLocated(StreamHasher)
+        expectParentServiceLocated(ClassLoaderCacheStatistics)
 
         expect:
         findsAndCachesService(serviceType)
@@ -34,6 +34,7 @@ import org.gradle.api.internal.file.FileOperations
 import org.gradle.api.internal.file.FileResolver
 import org.gradle.api.internal.file.TemporaryFileProvider
 import org.gradle.api.internal.file.TestFiles
+import org.gradle.api.internal.file.archive.ArchiveExpansionCache
 import org.gradle.api.internal.file.collections.DirectoryFileTreeFactory
 import org.gradle.api.internal.initialization.ClassLoaderScope
 import org.gradle.api.internal.initialization.DefaultScriptHandler
@@ -117,6 +118,7 @@ class ProjectScopeServicesTest extends Specification {
         parent.get(ScriptClassPathResolver) >> Mock(ScriptClassPathResolver)
         parent.get(StreamHasher) >> Mock(StreamHasher)
         parent.get(FileHasher) >> Mock(FileHasher)
+        parent.get(ArchiveExpansionCache) >> Mock(ArchiveExpansionCache)
         parent.get(TaskStatistics) >> new TaskStatistics()
         parent.get(TextResourceLoader) >> Mock(TextResourceLoader)
         parent.get(BuildOperationExecutor) >> Mock(BuildOperationExecutor)
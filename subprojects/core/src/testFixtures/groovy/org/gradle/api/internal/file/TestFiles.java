@@ -15,6 +15,7 @@
  */
 package org.gradle.api.internal.file;
 
+import org.gradle.api.internal.file.archive.ArchiveExpansionCache;
 import org.gradle.api.internal.file.collections.DefaultDirectoryFileTreeFactory;
 import org.gradle.api.internal.file.collections.DirectoryFileTreeFactory;
 import org.gradle.api.tasks.util.PatternSet;
@@ -24,6 +25,7 @@ import org.gradle.internal.file.PathToFileResolver;
 import org.gradle.internal.hash.DefaultContentHasherFactory;
 import org.gradle.internal.hash.DefaultFileHasher;
 import org.gradle.internal.hash.DefaultStreamHasher;
+import org.gradle.internal.hash.HashCode;
 import org.gradle.internal.nativeintegration.filesystem.FileSystem;
 import org.gradle.internal.reflect.DirectInstantiator;
 import org.gradle.internal.resource.BasicTextResourceLoader;
@@ -89,7 +91,19 @@ public class TestFiles {
     }
 
     public static FileOperations fileOperations(File basedDir) {
-        return new DefaultFileOperations(resolver(basedDir), null, null, DirectInstantiator.INSTANCE, fileLookup(), directoryFileTreeFactory(), streamHasher(), fileHasher(), execFactory(), textResourceLoader());
+        return new DefaultFileOperations(resolver(basedDir), null, null, DirectInstantiator.INSTANCE, fileLookup(), directoryFileTreeFactory(), streamHasher(), fileHasher(), archiveExpansionCache(new File(basedDir, "build/tmp/expandedArchives")), execFactory(), textResourceLoader());
+    }
+
+    /**
+     * Returns an archive expansion cache that expands archives into the given directory, without tracking access.
+     */
+    public static ArchiveExpansionCache archiveExpansionCache(final File baseDir) {
+        return new ArchiveExpansionCache() {
+            @Override
+            public File getExpandedDir(String archiveName, HashCode archiveHash) {
+                return new File(baseDir, archiveHash.toString() + '/' + archiveName);
+            }
+        };
     }
 
     public static TextResourceLoader textResourceLoader() {
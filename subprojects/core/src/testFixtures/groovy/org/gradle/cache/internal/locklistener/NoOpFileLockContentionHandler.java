@@ -29,4 +29,11 @@ public class NoOpFileLockContentionHandler implements FileLockContentionHandler
     public boolean maybePingOwner(int port, long lockId, String displayName, long timeElapsed) {
         return false;
     }
+
+    public void notifyReleased(long lockId) {}
+
+    public boolean awaitRelease(long lockId, long timeoutMs) throws InterruptedException {
+        Thread.sleep(timeoutMs);
+        return false;
+    }
 }
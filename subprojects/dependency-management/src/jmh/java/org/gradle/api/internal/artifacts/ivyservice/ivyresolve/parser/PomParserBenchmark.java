@@ -0,0 +1,122 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser;
+
+import org.apache.commons.io.FileUtils;
+import org.gradle.internal.nativeintegration.services.FileSystems;
+import org.gradle.internal.nativeintegration.services.NativeServices;
+import org.gradle.internal.resource.local.LocalFileStandInExternalResource;
+import org.gradle.internal.resource.local.LocallyAvailableExternalResource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * Compares reading a POM with the DOM based parser and with {@link StreamingPomParser}.
+ *
+ * <p>The POM resembles a parent POM of a large project: it declares dependency management entries, properties and a build section with plugin
+ * configuration, which {@link PomReader} does not use.</p>
+ */
+@Fork(1)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class PomParserBenchmark {
+    @Param({"10", "300"})
+    int dependencies;
+
+    @Param({"0", "50"})
+    int plugins;
+
+    private File tempDir;
+    private LocallyAvailableExternalResource resource;
+
+    @Setup
+    public void setup() throws IOException {
+        tempDir = Files.createTempDirectory("pom-parser").toFile();
+        NativeServices.initialize(tempDir);
+        File pomFile = new File(tempDir, "parent.pom");
+        FileUtils.writeStringToFile(pomFile, generatePom(), "UTF-8");
+        resource = new LocalFileStandInExternalResource(pomFile, FileSystems.getDefault());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileUtils.forceDelete(tempDir);
+    }
+
+    @Benchmark
+    public PomElement dom() {
+        return PomReader.parsePomWithDom(resource);
+    }
+
+    @Benchmark
+    public PomElement streaming() {
+        return PomReader.parsePomStreaming(resource);
+    }
+
+    private String generatePom() {
+        StringBuilder pom = new StringBuilder();
+        pom.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        pom.append("<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n");
+        pom.append("  <modelVersion>4.0.0</modelVersion>\n");
+        pom.append("  <groupId>org.gradle.benchmark</groupId>\n  <artifactId>parent</artifactId>\n  <version>1.0</version>\n  <packaging>pom</packaging>\n");
+        pom.append("  <description>A generated parent POM &amp; its dependency management</description>\n");
+        pom.append("  <properties>\n");
+        for (int i = 0; i < dependencies; i++) {
+            pom.append("    <module").append(i).append(".version>").append(i).append(".0</module").append(i).append(".version>\n");
+        }
+        pom.append("  </properties>\n");
+        pom.append("  <dependencyManagement>\n    <dependencies>\n");
+        for (int i = 0; i < dependencies; i++) {
+            pom.append("      <dependency>\n");
+            pom.append("        <groupId>org.gradle.benchmark.group").append(i % 10).append("</groupId>\n");
+            pom.append("        <artifactId>module").append(i).append("</artifactId>\n");
+            pom.append("        <version>${module").append(i).append(".version}</version>\n");
+            if (i % 5 == 0) {
+                pom.append("        <exclusions>\n          <exclusion>\n            <groupId>commons-logging</groupId>\n            <artifactId>commons-logging</artifactId>\n");
+                pom.append("          </exclusion>\n        </exclusions>\n");
+            }
+            pom.append("      </dependency>\n");
+        }
+        pom.append("    </dependencies>\n  </dependencyManagement>\n");
+        pom.append("  <build>\n    <plugins>\n");
+        for (int i = 0; i < plugins; i++) {
+            pom.append("      <plugin>\n");
+            pom.append("        <groupId>org.apache.maven.plugins</groupId>\n        <artifactId>maven-plugin").append(i).append("</artifactId>\n");
+            pom.append("        <configuration>\n");
+            for (int j = 0; j < 20; j++) {
+                pom.append("          <option").append(j).append(">value ").append(j).append("</option").append(j).append(">\n");
+            }
+            pom.append("        </configuration>\n      </plugin>\n");
+        }
+        pom.append("    </plugins>\n  </build>\n");
+        pom.append("</project>\n");
+        return pom.toString();
+    }
+}
@@ -63,15 +63,24 @@ public final class GradlePomModuleDescriptorParser extends AbstractModuleDescrip
     private final VersionSelectorScheme mavenVersionSelectorScheme;
     private final ImmutableModuleIdentifierFactory moduleIdentifierFactory;
     private final MavenMutableModuleMetadataFactory metadataFactory;
+    private final ParsedPomCache parsedPomCache;
 
     public GradlePomModuleDescriptorParser(VersionSelectorScheme gradleVersionSelectorScheme,
                                            ImmutableModuleIdentifierFactory moduleIdentifierFactory,
                                            FileResourceRepository fileResourceRepository, MavenMutableModuleMetadataFactory metadataFactory) {
+        this(gradleVersionSelectorScheme, moduleIdentifierFactory, fileResourceRepository, metadataFactory, new ParsedPomCache());
+    }
+
+    public GradlePomModuleDescriptorParser(VersionSelectorScheme gradleVersionSelectorScheme,
+                                           ImmutableModuleIdentifierFactory moduleIdentifierFactory,
+                                           FileResourceRepository fileResourceRepository, MavenMutableModuleMetadataFactory metadataFactory,
+                                           ParsedPomCache parsedPomCache) {
         super(fileResourceRepository);
         this.gradleVersionSelectorScheme = gradleVersionSelectorScheme;
         mavenVersionSelectorScheme = new MavenVersionSelectorScheme(gradleVersionSelectorScheme);
         this.moduleIdentifierFactory = moduleIdentifierFactory;
         this.metadataFactory = metadataFactory;
+        this.parsedPomCache = parsedPomCache;
     }
 
     @Override
@@ -191,8 +200,7 @@ public final class GradlePomModuleDescriptorParser extends AbstractModuleDescrip
                 ModuleComponentSelector importedId = DefaultModuleComponentSelector.newSelector(
                     DefaultModuleIdentifier.newId(currentDependencyMgt.getGroupId(), currentDependencyMgt.getArtifactId()),
                     new DefaultMutableVersionConstraint(currentDependencyMgt.getVersion()));
-                PomReader importedPom = parsePomForSelector(parseContext, importedId, Maps.<String, String>newHashMap());
-                for (Map.Entry<MavenDependencyKey, PomDependencyMgt> entry : importedPom.getDependencyMgt().entrySet()) {
+                for (Map.Entry<MavenDependencyKey, PomDependencyMgt> entry : getImportedDependencyMgt(parseContext, importedId).entrySet()) {
                     if (!importedDependencyMgts.containsKey(entry.getKey())) {
                         importedDependencyMgts.put(entry.getKey(), entry.getValue());
                     }
@@ -202,6 +210,21 @@ public final class GradlePomModuleDescriptorParser extends AbstractModuleDescrip
         return importedDependencyMgts;
     }
 
+    /**
+     * Returns the dependency management of an imported POM. An imported POM is parsed without properties from the importing POM, so the result
+     * can be shared between all POMs that import it.
+     */
+    private Map<MavenDependencyKey, PomDependencyMgt> getImportedDependencyMgt(DescriptorParseContext parseContext, ModuleComponentSelector importedId) throws IOException, SAXException {
+        LocallyAvailableExternalResource localResource = parseContext.getMetaDataArtifact(toDependencyMetadata(importedId), ArtifactType.MAVEN_POM);
+        ParsedPomCache.Key key = parsedPomCache.keyFor(importedId.getModuleIdentifier(), localResource);
+        Map<MavenDependencyKey, PomDependencyMgt> dependencyMgt = parsedPomCache.getImportedDependencyMgt(key);
+        if (dependencyMgt == null) {
+            PomReader importedPom = parsePomResource(parseContext, key, localResource, Maps.<String, String>newHashMap());
+            dependencyMgt = parsedPomCache.cacheImportedDependencyMgt(key, importedPom.getDependencyMgt());
+        }
+        return dependencyMgt;
+    }
+
     /**
      * Checks if dependency has scope "import".
      *
@@ -213,20 +236,23 @@ public final class GradlePomModuleDescriptorParser extends AbstractModuleDescrip
     }
 
     private PomReader parsePomForId(DescriptorParseContext parseContext, ModuleComponentIdentifier identifier, Map<String, String> childProperties) throws IOException, SAXException {
-        return parsePomResource(parseContext, parseContext.getMetaDataArtifact(identifier, ArtifactType.MAVEN_POM), childProperties);
+        LocallyAvailableExternalResource localResource = parseContext.getMetaDataArtifact(identifier, ArtifactType.MAVEN_POM);
+        ParsedPomCache.Key key = parsedPomCache.keyFor(identifier.getModuleIdentifier(), localResource);
+        return parsePomResource(parseContext, key, localResource, childProperties);
     }
 
     private PomReader parsePomForSelector(DescriptorParseContext parseContext, ModuleComponentSelector selector, Map<String, String> childProperties) throws IOException, SAXException {
         LocallyAvailableExternalResource localResource = parseContext.getMetaDataArtifact(toDependencyMetadata(selector), ArtifactType.MAVEN_POM);
-        return parsePomResource(parseContext, localResource, childProperties);
+        ParsedPomCache.Key key = parsedPomCache.keyFor(selector.getModuleIdentifier(), localResource);
+        return parsePomResource(parseContext, key, localResource, childProperties);
     }
 
     private ModuleDependencyMetadata toDependencyMetadata(ModuleComponentSelector selector) {
         return new GradleDependencyMetadata(selector, Collections.<ExcludeMetadata>emptyList(), false, null);
     }
 
-    private PomReader parsePomResource(DescriptorParseContext parseContext, LocallyAvailableExternalResource localResource, Map<String, String> childProperties) throws SAXException, IOException {
-        PomReader pomReader = new PomReader(localResource, moduleIdentifierFactory, childProperties);
+    private PomReader parsePomResource(DescriptorParseContext parseContext, ParsedPomCache.Key key, LocallyAvailableExternalResource localResource, Map<String, String> childProperties) throws SAXException, IOException {
+        PomReader pomReader = new PomReader(parsedPomCache.getDocument(key, localResource), localResource, moduleIdentifierFactory, childProperties);
         GradlePomModuleDescriptorBuilder mdBuilder = new GradlePomModuleDescriptorBuilder(pomReader, gradleVersionSelectorScheme, mavenVersionSelectorScheme);
         doParsePom(parseContext, mdBuilder, pomReader);
         return pomReader;
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import org.gradle.api.artifacts.ModuleIdentifier;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser.data.MavenDependencyKey;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser.data.PomDependencyMgt;
+import org.gradle.internal.concurrent.Stoppable;
+import org.gradle.internal.hash.HashUtil;
+import org.gradle.internal.hash.HashValue;
+import org.gradle.internal.resource.local.LocallyAvailableExternalResource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches the parent and imported POMs that are parsed while parsing a POM, so that POMs shared by many modules are parsed only once per build.
+ *
+ * <p>Entries are keyed by module identifier and by the SHA1 of the POM file, so a changed POM file is never served from the cache. Two kinds of entries are kept:</p>
+ *
+ * <ul>
+ *     <li>The parsed, immutable {@link PomElement} tree of a POM. The properties of a parent POM are interpolated using the properties of the POM that references
+ *     it, so the elements are cached rather than a {@link PomReader}, and each POM that references the parent creates its own reader over them.</li>
+ *     <li>The resolved dependency management of a POM imported with scope {@code import}. This is parsed without any properties from the importing POM, so the
+ *     result does not depend on the importing POM and is cached as immutable values.</li>
+ * </ul>
+ */
+public class ParsedPomCache implements Stoppable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParsedPomCache.class);
+
+    private final ConcurrentMap<Key, PomElement> documents = Maps.newConcurrentMap();
+    private final ConcurrentMap<Key, Map<MavenDependencyKey, PomDependencyMgt>> importedDependencyMgts = Maps.newConcurrentMap();
+    private final AtomicLong documentHits = new AtomicLong();
+    private final AtomicLong documentMisses = new AtomicLong();
+    private final AtomicLong importHits = new AtomicLong();
+    private final AtomicLong importMisses = new AtomicLong();
+
+    public Key keyFor(ModuleIdentifier module, LocallyAvailableExternalResource resource) {
+        return new Key(module, HashUtil.sha1(resource.getFile()));
+    }
+
+    /**
+     * Returns the parsed root element of the given POM, parsing the POM if it is not already cached.
+     */
+    public PomElement getDocument(Key key, LocallyAvailableExternalResource resource) {
+        PomElement document = documents.get(key);
+        if (document == null) {
+            documentMisses.incrementAndGet();
+            document = PomReader.parsePom(resource);
+            PomElement existing = documents.putIfAbsent(key, document);
+            if (existing != null) {
+                document = existing;
+            }
+        } else {
+            documentHits.incrementAndGet();
+        }
+        return document;
+    }
+
+    /**
+     * Returns the cached dependency management of the given imported POM, or null when it has not been cached yet.
+     */
+    @Nullable
+    public Map<MavenDependencyKey, PomDependencyMgt> getImportedDependencyMgt(Key key) {
+        Map<MavenDependencyKey, PomDependencyMgt> dependencyMgt = importedDependencyMgts.get(key);
+        if (dependencyMgt == null) {
+            importMisses.incrementAndGet();
+        } else {
+            importHits.incrementAndGet();
+        }
+        return dependencyMgt;
+    }
+
+    /**
+     * Caches the dependency management of the given imported POM and returns the immutable copy that was cached.
+     */
+    public Map<MavenDependencyKey, PomDependencyMgt> cacheImportedDependencyMgt(Key key, Map<MavenDependencyKey, PomDependencyMgt> dependencyMgt) {
+        ImmutableMap.Builder<MavenDependencyKey, PomDependencyMgt> builder = ImmutableMap.builder();
+        for (Map.Entry<MavenDependencyKey, PomDependencyMgt> entry : dependencyMgt.entrySet()) {
+            builder.put(entry.getKey(), new ImmutablePomDependencyMgt(entry.getValue()));
+        }
+        Map<MavenDependencyKey, PomDependencyMgt> copy = builder.build();
+        Map<MavenDependencyKey, PomDependencyMgt> existing = importedDependencyMgts.putIfAbsent(key, copy);
+        return existing != null ? existing : copy;
+    }
+
+    public long getDocumentHits() {
+        return documentHits.get();
+    }
+
+    public long getDocumentMisses() {
+        return documentMisses.get();
+    }
+
+    public long getImportHits() {
+        return importHits.get();
+    }
+
+    public long getImportMisses() {
+        return importMisses.get();
+    }
+
+    @Override
+    public void stop() {
+        if (documentHits.get() + documentMisses.get() + importHits.get() + importMisses.get() > 0) {
+            LOGGER.info("Parsed POM cache: {} parent and imported POMs parsed, {} reused. Imported dependency management: {} resolved, {} reused.",
+                documentMisses.get(), documentHits.get(), importMisses.get(), importHits.get());
+        }
+        documents.clear();
+        importedDependencyMgts.clear();
+    }
+
+    public static final class Key {
+        private final ModuleIdentifier module;
+        private final HashValue hash;
+
+        private Key(ModuleIdentifier module, HashValue hash) {
+            this.module = module;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return module.equals(key.module) && hash.equals(key.hash);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * module.hashCode() + hash.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return module + " " + hash.asHexString();
+        }
+    }
+
+    private static final class ImmutablePomDependencyMgt implements PomDependencyMgt {
+        private final MavenDependencyKey id;
+        private final String groupId;
+        private final String artifactId;
+        private final String version;
+        private final String scope;
+        private final String type;
+        private final String classifier;
+        private final List<ModuleIdentifier> excludedModules;
+
+        ImmutablePomDependencyMgt(PomDependencyMgt dependencyMgt) {
+            this.id = dependencyMgt.getId();
+            this.groupId = dependencyMgt.getGroupId();
+            this.artifactId = dependencyMgt.getArtifactId();
+            this.version = dependencyMgt.getVersion();
+            this.scope = dependencyMgt.getScope();
+            this.type = dependencyMgt.getType();
+            this.classifier = dependencyMgt.getClassifier();
+            this.excludedModules = ImmutableList.copyOf(dependencyMgt.getExcludedModules());
+        }
+
+        @Override
+        public MavenDependencyKey getId() {
+            return id;
+        }
+
+        @Override
+        public String getGroupId() {
+            return groupId;
+        }
+
+        @Override
+        public String getArtifactId() {
+            return artifactId;
+        }
+
+        @Override
+        public String getVersion() {
+            return version;
+        }
+
+        @Override
+        public String getScope() {
+            return scope;
+        }
+
+        @Override
+        public String getType() {
+            return type;
+        }
+
+        @Override
+        public String getClassifier() {
+            return classifier;
+        }
+
+        @Override
+        public List<ModuleIdentifier> getExcludedModules() {
+            return excludedModules;
+        }
+
+        @Override
+        public String toString() {
+            return id + ":" + version;
+        }
+    }
+}
@@ -16,6 +16,7 @@
 
 package org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser;
 
+import com.google.common.collect.ImmutableList;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -84,6 +85,28 @@ public final class PomDomParser {
         return r;
     }
 
+    /**
+     * Converts the given root element of a POM into a {@link PomElement}, keeping the same elements as {@link StreamingPomParser}.
+     */
+    public static PomElement toPomElement(Element root) {
+        return toPomElement(root, PomElement.Scope.PROJECT);
+    }
+
+    private static PomElement toPomElement(Element element, PomElement.Scope scope) {
+        ImmutableList.Builder<PomElement> children = ImmutableList.builder();
+        NodeList childs = element.getChildNodes();
+        for (int i = 0; i < childs.getLength(); i++) {
+            Node node = childs.item(i);
+            if (node instanceof Element) {
+                PomElement.Scope childScope = scope.childScope(node.getNodeName());
+                if (childScope != null) {
+                    children.add(toPomElement((Element) node, childScope));
+                }
+            }
+        }
+        return new PomElement(element.getNodeName(), scope.keepsText() ? getTextContent(element) : "", children.build());
+    }
+
     public static final class AddDTDFilterInputStream extends FilterInputStream {
         private static final int MARK = 10000;
         private static final String DOCTYPE = "<!DOCTYPE project SYSTEM \"m2-entities.ent\">\n";
@@ -0,0 +1,268 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser;
+
+import com.google.common.collect.ImmutableList;
+
+import javax.annotation.Nullable;
+import java.util.List;
+
+/**
+ * An immutable element of a POM file, holding only the parts of the POM that {@link PomReader} uses.
+ *
+ * <p>Elements are created by {@link StreamingPomParser} or from a DOM by {@link PomDomParser#toPomElement(org.w3c.dom.Element)}. Both keep the same elements,
+ * as described by {@link Scope}, and skip everything else, such as the build and reporting sections.</p>
+ */
+public final class PomElement {
+    private final String name;
+    private final String text;
+    private final List<PomElement> children;
+
+    PomElement(String name, String text, List<PomElement> children) {
+        this.name = name;
+        this.text = text;
+        this.children = children;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * The text directly contained in this element, ignoring the text of child elements. Only kept for elements whose content is a value, empty for others.
+     */
+    public String getText() {
+        return text;
+    }
+
+    public List<PomElement> getChildren() {
+        return children;
+    }
+
+    public static String getTextContent(PomElement element) {
+        return element.text;
+    }
+
+    @Nullable
+    public static String getFirstChildText(@Nullable PomElement parentElem, String name) {
+        PomElement node = getFirstChildElement(parentElem, name);
+        if (node != null) {
+            return node.text;
+        } else {
+            return null;
+        }
+    }
+
+    @Nullable
+    public static PomElement getFirstChildElement(@Nullable PomElement parentElem, String name) {
+        if (parentElem == null) {
+            return null;
+        }
+        for (PomElement child : parentElem.children) {
+            if (name.equals(child.name)) {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    public static List<PomElement> getAllChilds(@Nullable PomElement parent) {
+        if (parent == null) {
+            return ImmutableList.of();
+        }
+        return parent.children;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        PomElement other = (PomElement) o;
+        return name.equals(other.name) && text.equals(other.text) && children.equals(other.children);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = name.hashCode();
+        result = 31 * result + text.hashCode();
+        result = 31 * result + children.hashCode();
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "<" + name + ">" + (children.isEmpty() ? text : children.toString());
+    }
+
+    /**
+     * Describes which child elements of an element are kept, based on where the element appears in the POM.
+     */
+    enum Scope {
+        PROJECT {
+            @Override
+            Scope childScope(String name) {
+                if ("groupId".equals(name) || "artifactId".equals(name) || "version".equals(name) || "packaging".equals(name)) {
+                    return VALUE;
+                }
+                if ("parent".equals(name)) {
+                    return COORDINATES;
+                }
+                if ("distributionManagement".equals(name)) {
+                    return DISTRIBUTION_MANAGEMENT;
+                }
+                if ("profiles".equals(name)) {
+                    return PROFILES;
+                }
+                return modelChildScope(name);
+            }
+        },
+        PROFILE {
+            @Override
+            Scope childScope(String name) {
+                if ("id".equals(name)) {
+                    return VALUE;
+                }
+                if ("activation".equals(name)) {
+                    return ACTIVATION;
+                }
+                return modelChildScope(name);
+            }
+        },
+        PROFILES {
+            @Override
+            Scope childScope(String name) {
+                return "profile".equals(name) ? PROFILE : null;
+            }
+        },
+        ACTIVATION {
+            @Override
+            Scope childScope(String name) {
+                if ("activeByDefault".equals(name)) {
+                    return VALUE;
+                }
+                return "property".equals(name) ? ACTIVATION_PROPERTY : null;
+            }
+        },
+        ACTIVATION_PROPERTY {
+            @Override
+            Scope childScope(String name) {
+                return "name".equals(name) ? VALUE : null;
+            }
+        },
+        DISTRIBUTION_MANAGEMENT {
+            @Override
+            Scope childScope(String name) {
+                return "relocation".equals(name) ? COORDINATES : null;
+            }
+        },
+        COORDINATES {
+            @Override
+            Scope childScope(String name) {
+                if ("groupId".equals(name) || "artifactId".equals(name) || "version".equals(name)) {
+                    return VALUE;
+                }
+                return null;
+            }
+        },
+        DEPENDENCY_MANAGEMENT {
+            @Override
+            Scope childScope(String name) {
+                return "dependencies".equals(name) ? DEPENDENCIES : null;
+            }
+        },
+        DEPENDENCIES {
+            @Override
+            Scope childScope(String name) {
+                return "dependency".equals(name) ? DEPENDENCY : null;
+            }
+        },
+        DEPENDENCY {
+            @Override
+            Scope childScope(String name) {
+                if ("exclusions".equals(name)) {
+                    return EXCLUSIONS;
+                }
+                if ("groupId".equals(name) || "artifactId".equals(name) || "version".equals(name) || "scope".equals(name)
+                    || "type".equals(name) || "classifier".equals(name) || "optional".equals(name)) {
+                    return VALUE;
+                }
+                return null;
+            }
+        },
+        EXCLUSIONS {
+            @Override
+            Scope childScope(String name) {
+                return "exclusion".equals(name) ? EXCLUSION : null;
+            }
+        },
+        EXCLUSION {
+            @Override
+            Scope childScope(String name) {
+                if ("groupId".equals(name) || "artifactId".equals(name)) {
+                    return VALUE;
+                }
+                return null;
+            }
+        },
+        PROPERTIES {
+            @Override
+            Scope childScope(String name) {
+                return VALUE;
+            }
+        },
+        VALUE {
+            @Override
+            Scope childScope(String name) {
+                return null;
+            }
+
+            @Override
+            boolean keepsText() {
+                return true;
+            }
+        };
+
+        /**
+         * Returns the scope of a child element with the given name, or null when the child element and its content are not kept.
+         */
+        @Nullable
+        abstract Scope childScope(String name);
+
+        boolean keepsText() {
+            return false;
+        }
+
+        @Nullable
+        private static Scope modelChildScope(String name) {
+            if ("dependencies".equals(name)) {
+                return DEPENDENCIES;
+            }
+            if ("dependencyManagement".equals(name)) {
+                return DEPENDENCY_MANAGEMENT;
+            }
+            if ("properties".equals(name)) {
+                return PROPERTIES;
+            }
+            return null;
+        }
+    }
+}
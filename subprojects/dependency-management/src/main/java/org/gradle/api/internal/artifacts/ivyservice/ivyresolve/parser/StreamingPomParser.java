@@ -0,0 +1,151 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser;
+
+import com.google.common.collect.ImmutableList;
+import org.gradle.internal.classloader.ClassLoaderUtils;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLResolver;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static javax.xml.stream.XMLStreamConstants.CDATA;
+import static javax.xml.stream.XMLStreamConstants.CHARACTERS;
+import static javax.xml.stream.XMLStreamConstants.END_ELEMENT;
+import static javax.xml.stream.XMLStreamConstants.SPACE;
+import static javax.xml.stream.XMLStreamConstants.START_ELEMENT;
+
+/**
+ * Reads a POM file in a single pass using StAX, creating {@link PomElement}s only for the parts of the POM that {@link PomReader} uses.
+ *
+ * <p>The content is read in the same way as the DOM based parser: the POM is not validated, element names are not namespace aware, the Maven 2
+ * entities are defined and the text of an element is the concatenation of its text and CDATA content.</p>
+ */
+public final class StreamingPomParser {
+    private static final XMLInputFactory INPUT_FACTORY;
+
+    static {
+        // Set the context classloader the bootstrap classloader, to work around the way that JAXP locates implementation classes
+        // This should ensure that the StAX classes provided by the JVM are used, rather than some other implementation
+        ClassLoader original = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(ClassLoaderUtils.getPlatformClassLoader());
+        try {
+            INPUT_FACTORY = XMLInputFactory.newInstance();
+        } finally {
+            Thread.currentThread().setContextClassLoader(original);
+        }
+        INPUT_FACTORY.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+        INPUT_FACTORY.setProperty(XMLInputFactory.IS_VALIDATING, false);
+        INPUT_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, true);
+        INPUT_FACTORY.setProperty(XMLInputFactory.IS_REPLACING_ENTITY_REFERENCES, true);
+        INPUT_FACTORY.setXMLResolver(new XMLResolver() {
+            public Object resolveEntity(String publicID, String systemID, String baseURI, String namespace) {
+                if ((systemID != null) && systemID.endsWith("m2-entities.ent")) {
+                    return new ByteArrayInputStream(PomReader.M2_ENTITIES_RESOURCE);
+                }
+                return null;
+            }
+        });
+    }
+
+    private StreamingPomParser() {
+    }
+
+    /**
+     * Parses the given POM content and returns its root element.
+     */
+    public static PomElement parse(InputStream inputStream, String systemId) throws IOException, XMLStreamException {
+        XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(systemId, new PomDomParser.AddDTDFilterInputStream(inputStream));
+        try {
+            PomElement root = null;
+            while (root == null && reader.hasNext()) {
+                if (reader.next() == START_ELEMENT) {
+                    root = readElement(reader, elementName(reader), PomElement.Scope.PROJECT);
+                }
+            }
+            // Read the rest of the document, so that it is checked to be well-formed
+            while (reader.hasNext()) {
+                reader.next();
+            }
+            if (root == null) {
+                throw new XMLStreamException("POM does not contain a root element", reader.getLocation());
+            }
+            return root;
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static PomElement readElement(XMLStreamReader reader, String name, PomElement.Scope scope) throws XMLStreamException {
+        boolean keepsText = scope.keepsText();
+        StringBuilder text = null;
+        ImmutableList.Builder<PomElement> children = null;
+        while (true) {
+            switch (reader.next()) {
+                case START_ELEMENT:
+                    String childName = elementName(reader);
+                    PomElement.Scope childScope = scope.childScope(childName);
+                    if (childScope == null) {
+                        skipElement(reader);
+                    } else {
+                        if (children == null) {
+                            children = ImmutableList.builder();
+                        }
+                        children.add(readElement(reader, childName, childScope));
+                    }
+                    break;
+                case CHARACTERS:
+                case CDATA:
+                case SPACE:
+                    if (keepsText) {
+                        if (text == null) {
+                            text = new StringBuilder();
+                        }
+                        text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    }
+                    break;
+                case END_ELEMENT:
+                    return new PomElement(name, text == null ? "" : text.toString(), children == null ? ImmutableList.<PomElement>of() : children.build());
+                default:
+                    break;
+            }
+        }
+    }
+
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == START_ELEMENT) {
+                depth++;
+            } else if (event == END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private static String elementName(XMLStreamReader reader) {
+        String prefix = reader.getPrefix();
+        String localName = reader.getLocalName();
+        return prefix == null || prefix.isEmpty() ? localName : prefix + ":" + localName;
+    }
+}
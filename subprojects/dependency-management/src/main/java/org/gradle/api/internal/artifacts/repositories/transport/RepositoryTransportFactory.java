@@ -15,6 +15,8 @@
  */
 package org.gradle.api.internal.artifacts.repositories.transport;
 
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import org.gradle.api.InvalidUserDataException;
@@ -45,6 +47,11 @@ import java.util.List;
 import java.util.Set;
 
 public class RepositoryTransportFactory {
+    /**
+     * Comma separated names of the repositories that should use a separate connection pool for metadata requests, or {@code *} for all repositories.
+     */
+    public static final String METADATA_CONNECTION_POOL_PROPERTY = "org.gradle.internal.repository.metadata-connection-pool";
+
     private final List<ResourceConnectorFactory> registeredProtocols = Lists.newArrayList();
 
     private final TemporaryFileProvider temporaryFileProvider;
@@ -113,7 +120,7 @@ public class RepositoryTransportFactory {
         if (schemes.equals(Collections.singleton("file"))) {
             return new FileTransport(name, fileRepository, cachedExternalResourceIndex, temporaryFileProvider, timeProvider, artifactCacheLockingManager, producerGuard);
         }
-        ResourceConnectorSpecification connectionDetails = new DefaultResourceConnectorSpecification(authentications);
+        ResourceConnectorSpecification connectionDetails = new DefaultResourceConnectorSpecification(authentications, isMetadataConnectionPoolEnabled(name));
 
         ExternalResourceConnector resourceConnector = connectorFactory.createResourceConnector(connectionDetails);
         resourceConnector = startParameterResolutionOverride.overrideExternalResourceConnnector(resourceConnector);
@@ -124,6 +131,15 @@ public class RepositoryTransportFactory {
         return new ResourceConnectorRepositoryTransport(name, progressLoggerFactory, temporaryFileProvider, cachedExternalResourceIndex, timeProvider, artifactCacheLockingManager, resourceConnector, buildOperationExecutor, cachePolicy, producerGuard, fileRepository);
     }
 
+    private static boolean isMetadataConnectionPoolEnabled(String repositoryName) {
+        String repositories = System.getProperty(METADATA_CONNECTION_POOL_PROPERTY);
+        if (repositories == null) {
+            return false;
+        }
+        Set<String> names = ImmutableSet.copyOf(Splitter.on(',').trimResults().omitEmptyStrings().split(repositories));
+        return names.contains("*") || names.contains(repositoryName);
+    }
+
     private void validateSchemes(Set<String> schemes) {
         Set<String> validSchemes = getRegisteredProtocols();
         for (String scheme : schemes) {
@@ -182,9 +198,11 @@ public class RepositoryTransportFactory {
 
     private class DefaultResourceConnectorSpecification implements ResourceConnectorSpecification {
         private final Collection<Authentication> authentications;
+        private final boolean metadataConnectionPoolEnabled;
 
-        private DefaultResourceConnectorSpecification(Collection<Authentication> authentications) {
+        private DefaultResourceConnectorSpecification(Collection<Authentication> authentications, boolean metadataConnectionPoolEnabled) {
             this.authentications = authentications;
+            this.metadataConnectionPoolEnabled = metadataConnectionPoolEnabled;
         }
 
         @Override
@@ -209,5 +227,10 @@ public class RepositoryTransportFactory {
         public Collection<Authentication> getAuthentications() {
             return authentications;
         }
+
+        @Override
+        public boolean isMetadataConnectionPoolEnabled() {
+            return metadataConnectionPoolEnabled;
+        }
     }
 }
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser
+
+import static org.gradle.api.internal.component.ArtifactType.MAVEN_POM
+
+class GradlePomModuleDescriptorParserCacheTest extends AbstractGradlePomModuleDescriptorParserTest {
+
+    def "parses a parent pom shared by several poms only once"() {
+        given:
+        def parent = tmpDir.file("parent.xml") << """
+<project>
+    <modelVersion>4.0.0</modelVersion>
+    <groupId>group-a</groupId>
+    <artifactId>parent</artifactId>
+    <version>1.0</version>
+
+    <dependencies>
+        <dependency>
+            <groupId>group-b</groupId>
+            <artifactId>module-b</artifactId>
+            <version>\${module.b.version}</version>
+        </dependency>
+    </dependencies>
+</project>
+"""
+        def otherPomFile = tmpDir.file("other-pom.xml")
+        pomFile << childPom("module-a", "1.1")
+        otherPomFile << childPom("module-c", "1.2")
+
+        and:
+        parseContext.getMetaDataArtifact({ it.selector.module == 'parent' }, MAVEN_POM) >> asResource(parent)
+
+        when:
+        def first = parseMetaData()
+        pomFile = otherPomFile
+        def second = parseMetaData()
+
+        then:
+        single(first.dependencies).selector == moduleId('group-b', 'module-b', '1.1')
+        single(second.dependencies).selector == moduleId('group-b', 'module-b', '1.2')
+
+        and:
+        parsedPomCache.documentMisses == 1
+        parsedPomCache.documentHits == 1
+    }
+
+    def "parses a parent pom again when its content changes"() {
+        given:
+        def parent = tmpDir.file("parent.xml") << """
+<project>
+    <modelVersion>4.0.0</modelVersion>
+    <groupId>group-a</groupId>
+    <artifactId>parent</artifactId>
+    <version>1.0</version>
+    <properties>
+        <module.b.version>2.0</module.b.version>
+    </properties>
+</project>
+"""
+        pomFile << childPom("module-a", "1.1")
+
+        and:
+        parseContext.getMetaDataArtifact({ it.selector.module == 'parent' }, MAVEN_POM) >> asResource(parent)
+
+        when:
+        parseMetaData()
+        parent.text = parent.text.replace('<properties>', '<properties><other>value</other>')
+        parseMetaData()
+
+        then:
+        parsedPomCache.documentMisses == 2
+        parsedPomCache.documentHits == 0
+    }
+
+    def "resolves the dependency management of a pom imported by several poms only once"() {
+        given:
+        def imported = tmpDir.file("imported.xml") << """
+<project>
+    <modelVersion>4.0.0</modelVersion>
+    <groupId>group-a</groupId>
+    <artifactId>imported</artifactId>
+    <version>1.0</version>
+    <packaging>pom</packaging>
+    <properties>
+        <module.b.version>1.5</module.b.version>
+    </properties>
+
+    <dependencyManagement>
+        <dependencies>
+            <dependency>
+                <groupId>group-b</groupId>
+                <artifactId>module-b</artifactId>
+                <version>\${module.b.version}</version>
+                <exclusions>
+                    <exclusion>
+                        <groupId>group-c</groupId>
+                        <artifactId>module-c</artifactId>
+                    </exclusion>
+                </exclusions>
+            </dependency>
+        </dependencies>
+    </dependencyManagement>
+</project>
+"""
+        def otherPomFile = tmpDir.file("other-pom.xml")
+        pomFile << importingPom("module-a")
+        otherPomFile << importingPom("module-d")
+
+        and:
+        parseContext.getMetaDataArtifact({ it.selector.module == 'imported' }, MAVEN_POM) >> asResource(imported)
+
+        when:
+        def first = parseMetaData()
+        pomFile = otherPomFile
+        def second = parseMetaData()
+
+        then:
+        [first, second].each { metadata ->
+            def dep = single(metadata.dependencies)
+            assert dep.selector == moduleId('group-b', 'module-b', '1.5')
+            assert dep.allExcludes.size() == 1
+            assert dep.allExcludes[0].moduleId.group == 'group-c'
+            assert dep.allExcludes[0].moduleId.name == 'module-c'
+        }
+
+        and:
+        parsedPomCache.importMisses == 1
+        parsedPomCache.importHits == 1
+        parsedPomCache.documentMisses == 1
+        parsedPomCache.documentHits == 0
+    }
+
+    private static String childPom(String artifactId, String moduleBVersion) {
+        """
+<project>
+    <modelVersion>4.0.0</modelVersion>
+    <artifactId>${artifactId}</artifactId>
+    <parent>
+        <groupId>group-a</groupId>
+        <artifactId>parent</artifactId>
+        <version>1.0</version>
+    </parent>
+    <properties>
+        <module.b.version>${moduleBVersion}</module.b.version>
+    </properties>
+</project>
+"""
+    }
+
+    private static String importingPom(String artifactId) {
+        """
+<project>
+    <modelVersion>4.0.0</modelVersion>
+    <groupId>group-a</groupId>
+    <artifactId>${artifactId}</artifactId>
+    <version>1.0</version>
+
+    <dependencyManagement>
+        <dependencies>
+            <dependency>
+                <groupId>group-a</groupId>
+                <artifactId>imported</artifactId>
+                <version>1.0</version>
+                <type>pom</type>
+                <scope>import</scope>
+            </dependency>
+        </dependencies>
+    </dependencyManagement>
+
+    <dependencies>
+        <dependency>
+            <groupId>group-b</groupId>
+            <artifactId>module-b</artifactId>
+        </dependency>
+    </dependencies>
+</project>
+"""
+    }
+}
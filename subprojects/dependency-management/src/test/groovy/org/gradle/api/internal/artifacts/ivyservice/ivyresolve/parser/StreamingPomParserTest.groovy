@@ -0,0 +1,148 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser
+
+import org.gradle.api.internal.artifacts.DefaultImmutableModuleIdentifierFactory
+import org.gradle.api.internal.artifacts.ImmutableModuleIdentifierFactory
+import org.gradle.api.internal.file.TestFiles
+import org.gradle.internal.resource.local.LocalFileStandInExternalResource
+import org.gradle.internal.resource.local.LocallyAvailableExternalResource
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class StreamingPomParserTest extends Specification {
+    @Rule
+    public final TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+    final ImmutableModuleIdentifierFactory moduleIdentifierFactory = new DefaultImmutableModuleIdentifierFactory()
+
+    @Unroll
+    def "streaming parser reads the same POM content as the DOM parser for #pomFile.name"() {
+        given:
+        def resource = resource(pomFile)
+
+        when:
+        def streamed = PomReader.parsePomStreaming(resource)
+        def parsedWithDom = PomReader.parsePomWithDom(resource)
+
+        then:
+        streamed == parsedWithDom
+        describe(new PomReader(streamed, resource, moduleIdentifierFactory, [:])) == describe(new PomReader(parsedWithDom, resource, moduleIdentifierFactory, [:]))
+
+        where:
+        pomFile << sampleFiles()
+    }
+
+    def "keeps only the parts of the POM that are used"() {
+        given:
+        def pomFile = tmpDir.file("pom.xml") << """
+<project>
+    <groupId>group-a</groupId>
+    <artifactId>module-a</artifactId>
+    <version>1.0</version>
+    <name>ignored</name>
+    <build>
+        <plugins>
+            <plugin>
+                <dependencies>
+                    <dependency><groupId>group-b</groupId><artifactId>module-b</artifactId></dependency>
+                </dependencies>
+            </plugin>
+        </plugins>
+    </build>
+    <dependencies>
+        <dependency>
+            <groupId>group-c</groupId>
+            <artifactId>module-c</artifactId>
+            <systemPath>ignored</systemPath>
+        </dependency>
+    </dependencies>
+</project>
+"""
+
+        when:
+        def root = PomReader.parsePomStreaming(resource(pomFile))
+
+        then:
+        root.name == 'project'
+        root.children*.name == ['groupId', 'artifactId', 'version', 'dependencies']
+        root.children[3].children[0].children*.name == ['groupId', 'artifactId']
+    }
+
+    def "reads text split by comments, CDATA sections and entities"() {
+        given:
+        def pomFile = tmpDir.file("pom.xml") << """<?xml version="1.0" encoding="UTF-8"?>
+<project>
+    <groupId>group<!-- comment -->-a</groupId>
+    <artifactId><![CDATA[module]]>-a</artifactId>
+    <version>1.0&#x2D;&amp;&eacute;</version>
+</project>
+"""
+
+        when:
+        def root = PomReader.parsePomStreaming(resource(pomFile))
+
+        then:
+        PomElement.getFirstChildText(root, 'groupId') == 'group-a'
+        PomElement.getFirstChildText(root, 'artifactId') == 'module-a'
+        PomElement.getFirstChildText(root, 'version') == '1.0-&é'
+    }
+
+    def "fails to parse malformed POM"() {
+        given:
+        def pomFile = tmpDir.file("pom.xml") << """
+<project>
+    <groupId>group-a</groupId>
+</projectx>
+"""
+
+        when:
+        PomReader.parsePomStreaming(resource(pomFile))
+
+        then:
+        thrown(MetaDataParseException)
+    }
+
+    private static String describe(PomReader pomReader) {
+        def description = new StringBuilder()
+        if (pomReader.hasParent()) {
+            description << "parent: ${pomReader.parentGroupId}:${pomReader.parentArtifactId}:${pomReader.parentVersion}\n"
+        }
+        pomReader.resolveGAV()
+        description << "module: ${pomReader.groupId}:${pomReader.artifactId}:${pomReader.version}:${pomReader.packaging}\n"
+        description << "relocation: ${pomReader.relocation}\n"
+        description << "properties: ${new TreeMap(pomReader.properties)}\n"
+        pomReader.dependencies.values().each {
+            description << "dependency: ${it.id} ${it.version} ${it.scope} ${it.optional} ${it.excludedModules}\n"
+        }
+        pomReader.dependencyMgt.values().each {
+            description << "dependency management: ${it.id} ${it.version} ${it.scope} ${it.excludedModules}\n"
+        }
+        description.toString()
+    }
+
+    private static LocallyAvailableExternalResource resource(File file) {
+        new LocalFileStandInExternalResource(file, TestFiles.fileSystem())
+    }
+
+    static List<File> sampleFiles() {
+        def baseUrl = StreamingPomParserTest.getResource(StreamingPomParserTest.simpleName)
+        new File(baseUrl.toURI()).listFiles().sort { it.name }
+    }
+}
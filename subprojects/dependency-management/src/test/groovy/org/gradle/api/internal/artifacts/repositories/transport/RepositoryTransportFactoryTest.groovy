@@ -25,12 +25,16 @@ import org.gradle.authentication.Authentication
 import org.gradle.cache.internal.ProducerGuard
 import org.gradle.internal.authentication.AbstractAuthentication
 import org.gradle.internal.resource.connector.ResourceConnectorFactory
+import org.gradle.internal.resource.connector.ResourceConnectorSpecification
 import org.gradle.internal.resource.local.FileResourceRepository
 import org.gradle.internal.resource.transport.ResourceConnectorRepositoryTransport
+import org.gradle.util.SetSystemProperties
+import org.junit.Rule
 import spock.lang.Specification
 import spock.lang.Unroll
 
 class RepositoryTransportFactoryTest extends Specification {
+    @Rule SetSystemProperties systemProperties = new SetSystemProperties()
 
     def connectorFactory1 = Mock(ResourceConnectorFactory)
     def connectorFactory2 = Mock(ResourceConnectorFactory)
@@ -87,6 +91,27 @@ class RepositoryTransportFactoryTest extends Specification {
         transport.class == ResourceConnectorRepositoryTransport
     }
 
+    @Unroll
+    def "enables metadata connection pool for repository '#name' when property is '#property'"() {
+        if (property != null) {
+            System.setProperty(RepositoryTransportFactory.METADATA_CONNECTION_POOL_PROPERTY, property)
+        }
+
+        when:
+        repositoryTransportFactory.createTransport(['protocol1'] as Set, name, [])
+
+        then:
+        1 * connectorFactory1.createResourceConnector({ ResourceConnectorSpecification spec -> spec.metadataConnectionPoolEnabled == enabled })
+
+        where:
+        name    | property          | enabled
+        'repo1' | null              | false
+        'repo1' | 'repo1'           | true
+        'repo1' | 'other, repo1'    | true
+        'repo1' | 'other'           | false
+        'repo1' | '*'               | true
+    }
+
     def "should throw when using invalid authentication type"() {
         def credentials = Mock(GoodCredentials)
         authentication.credentials = credentials
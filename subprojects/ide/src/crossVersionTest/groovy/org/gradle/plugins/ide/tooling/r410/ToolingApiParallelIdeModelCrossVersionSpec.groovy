@@ -0,0 +1,138 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.plugins.ide.tooling.r410
+
+import org.gradle.integtests.tooling.fixture.TargetGradleVersion
+import org.gradle.integtests.tooling.fixture.ToolingApiSpecification
+import org.gradle.integtests.tooling.fixture.ToolingApiVersion
+import org.gradle.test.fixtures.maven.MavenFileRepository
+import org.gradle.tooling.model.eclipse.EclipseProject
+import org.gradle.tooling.model.idea.IdeaModuleDependency
+import org.gradle.tooling.model.idea.IdeaProject
+import org.gradle.tooling.model.idea.IdeaSingleEntryLibraryDependency
+
+@ToolingApiVersion('>=3.0')
+@TargetGradleVersion('>=4.10')
+class ToolingApiParallelIdeModelCrossVersionSpec extends ToolingApiSpecification {
+
+    def setup() {
+        def mavenRepo = new MavenFileRepository(file("maven-repo"))
+        mavenRepo.module('someGroup', 'someArtifact', '1.0').publish()
+
+        settingsFile << """
+            rootProject.name = 'root'
+            include 'a', 'b', 'c', 'd', 'd:e'
+        """
+        buildFile << """
+            allprojects {
+                apply plugin: 'java'
+                apply plugin: 'eclipse'
+                apply plugin: 'idea'
+
+                repositories {
+                    maven { url "${mavenRepo.uri}" }
+                }
+            }
+
+            project(':a') {
+                dependencies {
+                    compile 'someGroup:someArtifact:1.0'
+                }
+            }
+            project(':b') {
+                dependencies {
+                    compile project(':a')
+                }
+            }
+            project(':c') {
+                dependencies {
+                    compile project(':b')
+                    testCompile project(':d:e')
+                }
+            }
+            project(':d:e') {
+                dependencies {
+                    compile project(':a')
+                }
+            }
+        """
+        ['a', 'b', 'c', 'd/e'].each {
+            file("$it/src/main/java").createDir()
+            file("$it/src/test/java").createDir()
+        }
+    }
+
+    def "builds the same Eclipse model with and without parallel execution"() {
+        when:
+        def serial = withConnection { connection -> connection.model(EclipseProject).withArguments('--no-parallel').get() }
+        def parallel = withConnection { connection -> connection.model(EclipseProject).withArguments('--parallel', '--max-workers=4').get() }
+
+        then:
+        describe(parallel) == describe(serial)
+        describe(serial).size() == 6
+    }
+
+    def "builds the same IDEA model with and without parallel execution"() {
+        when:
+        def serial = withConnection { connection -> connection.model(IdeaProject).withArguments('--no-parallel').get() }
+        def parallel = withConnection { connection -> connection.model(IdeaProject).withArguments('--parallel', '--max-workers=4').get() }
+
+        then:
+        describe(parallel) == describe(serial)
+        describe(serial).modules.size() == 6
+    }
+
+    private static List<Map<String, Object>> describe(EclipseProject project) {
+        def description = [[
+            name: project.name,
+            path: project.gradleProject.path,
+            parent: project.parent?.name,
+            projectDirectory: project.projectDirectory,
+            sourceDirectories: project.sourceDirectories*.path,
+            projectDependencies: project.projectDependencies.collect { [it.path, it.exported] },
+            classpath: project.classpath.collect { [it.file, it.exported] },
+            tasks: project.gradleProject.tasks*.path
+        ]]
+        project.children.each {
+            description.addAll(describe(it))
+        }
+        return description
+    }
+
+    private static Map<String, Object> describe(IdeaProject project) {
+        [
+            name: project.name,
+            languageLevel: project.languageLevel.level,
+            modules: project.modules.collect { module ->
+                [
+                    name: module.name,
+                    path: module.gradleProject.path,
+                    contentRoots: module.contentRoots.collect { root ->
+                        [root.rootDirectory, root.sourceDirectories*.directory, root.testDirectories*.directory, root.excludeDirectories]
+                    },
+                    outputDirs: [module.compilerOutput.outputDir, module.compilerOutput.testOutputDir],
+                    dependencies: module.dependencies.collect { dependency ->
+                        if (dependency instanceof IdeaModuleDependency) {
+                            return [dependency.targetModuleName, dependency.scope.scope, dependency.exported]
+                        }
+                        return [(dependency as IdeaSingleEntryLibraryDependency).file, dependency.scope.scope, dependency.exported]
+                    }
+                ]
+            }
+        ]
+    }
+}
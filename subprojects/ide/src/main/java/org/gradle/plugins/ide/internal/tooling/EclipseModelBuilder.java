@@ -21,6 +21,7 @@ import com.google.common.collect.Maps;
 import org.apache.commons.lang.StringUtils;
 import org.gradle.api.Project;
 import org.gradle.api.Task;
+import org.gradle.api.Transformer;
 import org.gradle.api.initialization.IncludedBuild;
 import org.gradle.api.specs.Spec;
 import org.gradle.internal.build.IncludedBuildState;
@@ -101,7 +102,7 @@ public class EclipseModelBuilder implements ToolingModelBuilder {
         tasksFactory.collectTasks(root);
         applyEclipsePlugin(root);
         buildHierarchy(root);
-        populate(root);
+        populateAll(root);
         return result;
     }
 
@@ -144,7 +145,16 @@ public class EclipseModelBuilder implements ToolingModelBuilder {
         eclipseProjects.add(eclipseProject);
     }
 
-    private void populate(Project project) {
+    private void populateAll(Project root) {
+        ProjectModelFragments.build(root.getAllprojects(), "Eclipse model", new Transformer<DefaultEclipseProject, Project>() {
+            @Override
+            public DefaultEclipseProject transform(Project project) {
+                return populate(project);
+            }
+        });
+    }
+
+    private DefaultEclipseProject populate(Project project) {
         EclipseModel eclipseModel = project.getExtensions().getByType(EclipseModel.class);
         EclipseClasspath eclipseClasspath = eclipseModel.getClasspath();
 
@@ -219,9 +229,7 @@ public class EclipseModelBuilder implements ToolingModelBuilder {
         populateEclipseProject(eclipseProject, xmlProject);
         populateEclipseProjectJdt(eclipseProject, eclipseModel.getJdt());
 
-        for (Project childProject : project.getChildProjects().values()) {
-            populate(childProject);
-        }
+        return eclipseProject;
     }
 
     private static void populateEclipseProjectTasks(DefaultEclipseProject eclipseProject, Iterable<Task> projectTasks) {
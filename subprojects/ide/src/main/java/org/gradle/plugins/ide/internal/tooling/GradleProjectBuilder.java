@@ -18,6 +18,7 @@ package org.gradle.plugins.ide.internal.tooling;
 
 import org.gradle.api.Project;
 import org.gradle.api.Task;
+import org.gradle.api.Transformer;
 import org.gradle.api.internal.tasks.TaskContainerInternal;
 import org.gradle.plugins.ide.internal.tooling.model.LaunchableGradleProjectTask;
 import org.gradle.plugins.ide.internal.tooling.model.LaunchableGradleTask;
@@ -26,13 +27,17 @@ import org.gradle.tooling.internal.gradle.DefaultGradleProject;
 import org.gradle.tooling.provider.model.ToolingModelBuilder;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.SortedSet;
 
 import static org.gradle.plugins.ide.internal.tooling.ToolingModelBuilderSupport.buildFromTask;
 
 /**
- * Builds the GradleProject that contains the project hierarchy and task information
+ * Builds the GradleProject that contains the project hierarchy and task information.
+ *
+ * <p>The model of each project is built separately, see {@link ProjectModelFragments}, and the hierarchy is assembled once all of them are available.</p>
  */
 public class GradleProjectBuilder implements ToolingModelBuilder {
 
@@ -50,27 +55,48 @@ public class GradleProjectBuilder implements ToolingModelBuilder {
         return buildHierarchy(project.getRootProject());
     }
 
-    private DefaultGradleProject<LaunchableGradleTask> buildHierarchy(Project project) {
+    private DefaultGradleProject<LaunchableGradleTask> buildHierarchy(Project root) {
+        List<Project> projects = new ArrayList<Project>(root.getAllprojects());
+        List<DefaultGradleProject<LaunchableGradleTask>> gradleProjects = ProjectModelFragments.build(projects, "GradleProject model", new Transformer<DefaultGradleProject<LaunchableGradleTask>, Project>() {
+            @Override
+            public DefaultGradleProject<LaunchableGradleTask> transform(Project project) {
+                return buildProject(project);
+            }
+        });
+
+        Map<Project, DefaultGradleProject<LaunchableGradleTask>> gradleProjectsByProject = new HashMap<Project, DefaultGradleProject<LaunchableGradleTask>>();
+        for (int i = 0; i < projects.size(); i++) {
+            gradleProjectsByProject.put(projects.get(i), gradleProjects.get(i));
+        }
+        return assembleHierarchy(root, gradleProjectsByProject);
+    }
+
+    private DefaultGradleProject<LaunchableGradleTask> assembleHierarchy(Project project, Map<Project, DefaultGradleProject<LaunchableGradleTask>> gradleProjects) {
         List<DefaultGradleProject<LaunchableGradleTask>> children = new ArrayList<DefaultGradleProject<LaunchableGradleTask>>();
         for (Project child : project.getChildProjects().values()) {
-            children.add(buildHierarchy(child));
+            children.add(assembleHierarchy(child, gradleProjects));
         }
 
+        DefaultGradleProject<LaunchableGradleTask> gradleProject = gradleProjects.get(project);
+        gradleProject.setChildren(children);
+        for (DefaultGradleProject<LaunchableGradleTask> child : children) {
+            child.setParent(gradleProject);
+        }
+
+        return gradleProject;
+    }
+
+    private DefaultGradleProject<LaunchableGradleTask> buildProject(Project project) {
         DefaultGradleProject<LaunchableGradleTask> gradleProject = new DefaultGradleProject<LaunchableGradleTask>()
                 .setProjectIdentifier(new DefaultProjectIdentifier(project.getRootDir(), project.getPath()))
                 .setName(project.getName())
                 .setDescription(project.getDescription())
                 .setBuildDirectory(project.getBuildDir())
-                .setProjectDirectory(project.getProjectDir())
-                .setChildren(children);
+                .setProjectDirectory(project.getProjectDir());
 
         gradleProject.getBuildScript().setSourceFile(project.getBuildFile());
         gradleProject.setTasks(tasks(gradleProject, (TaskContainerInternal) project.getTasks()));
 
-        for (DefaultGradleProject child : children) {
-            child.setParent(gradleProject);
-        }
-
         return gradleProject;
     }
 
@@ -18,6 +18,7 @@ package org.gradle.plugins.ide.internal.tooling;
 
 import org.gradle.api.JavaVersion;
 import org.gradle.api.Project;
+import org.gradle.api.Transformer;
 import org.gradle.api.initialization.IncludedBuild;
 import org.gradle.api.plugins.JavaPluginConvention;
 import org.gradle.internal.build.IncludedBuildState;
@@ -89,13 +90,13 @@ public class IdeaModelBuilder implements ToolingModelBuilder {
         }
     }
 
-    private DefaultIdeaProject build(Project project, DefaultGradleProject rootGradleProject) {
+    private DefaultIdeaProject build(Project project, final DefaultGradleProject<?> rootGradleProject) {
         IdeaModel ideaModel = ideaPluginFor(project).getModel();
         IdeaProject projectModel = ideaModel.getProject();
         JavaVersion projectSourceLanguageLevel = convertIdeaLanguageLevelToJavaVersion(projectModel.getLanguageLevel());
         JavaVersion projectTargetBytecodeLevel = projectModel.getTargetBytecodeVersion();
 
-        DefaultIdeaProject out = new DefaultIdeaProject()
+        final DefaultIdeaProject out = new DefaultIdeaProject()
             .setName(projectModel.getName())
             .setJdkName(projectModel.getJdkName())
             .setLanguageLevel(new DefaultIdeaLanguageLevel(projectModel.getLanguageLevel().getLevel()))
@@ -104,13 +105,27 @@ public class IdeaModelBuilder implements ToolingModelBuilder {
                 .setTargetBytecodeVersion(projectTargetBytecodeLevel)
                 .setJdk(DefaultInstalledJdk.current()));
 
-        Map<String, DefaultIdeaModule> modules = new LinkedHashMap<String, DefaultIdeaModule>();
+        // Modules are built in two passes, as the dependencies of a module refer to the modules of the other projects
+        final Map<Project, IdeaModule> ideaModulesByProject = new LinkedHashMap<Project, IdeaModule>();
         for (IdeaModule module : projectModel.getModules()) {
-            appendModule(modules, module, out, rootGradleProject);
+            ideaModulesByProject.put(module.getProject(), module);
         }
-        for (IdeaModule module : projectModel.getModules()) {
-            buildDependencies(modules, module);
+        List<DefaultIdeaModule> builtModules = ProjectModelFragments.build(ideaModulesByProject.keySet(), "IDEA module model", new Transformer<DefaultIdeaModule, Project>() {
+            @Override
+            public DefaultIdeaModule transform(Project project) {
+                return buildModule(ideaModulesByProject.get(project), out, rootGradleProject);
+            }
+        });
+        final Map<String, DefaultIdeaModule> modules = new LinkedHashMap<String, DefaultIdeaModule>();
+        for (DefaultIdeaModule module : builtModules) {
+            modules.put(module.getName(), module);
         }
+        ProjectModelFragments.build(ideaModulesByProject.keySet(), "IDEA module dependencies", new Transformer<DefaultIdeaModule, Project>() {
+            @Override
+            public DefaultIdeaModule transform(Project project) {
+                return buildDependencies(modules, ideaModulesByProject.get(project));
+            }
+        });
         final Collection<DefaultIdeaModule> ideaModules = modules.values();
         out.setChildren(new LinkedList<DefaultIdeaModule>(ideaModules));
         return out;
@@ -120,7 +135,7 @@ public class IdeaModelBuilder implements ToolingModelBuilder {
         return project.getPlugins().getPlugin(IdeaPlugin.class);
     }
 
-    private void buildDependencies(Map<String, DefaultIdeaModule> modules, IdeaModule ideaModule) {
+    private DefaultIdeaModule buildDependencies(Map<String, DefaultIdeaModule> modules, IdeaModule ideaModule) {
         ideaModule.setOffline(offlineDependencyResolution);
         Set<Dependency> resolved = ideaModule.resolveDependencies();
         List<DefaultIdeaDependency> dependencies = new LinkedList<DefaultIdeaDependency>();
@@ -152,10 +167,10 @@ public class IdeaModelBuilder implements ToolingModelBuilder {
                 dependencies.add(ideaModuleDependency);
             }
         }
-        modules.get(ideaModule.getName()).setDependencies(dependencies);
+        return modules.get(ideaModule.getName()).setDependencies(dependencies);
     }
 
-    private void appendModule(Map<String, DefaultIdeaModule> modules, IdeaModule ideaModule, DefaultIdeaProject ideaProject, DefaultGradleProject rootGradleProject) {
+    private DefaultIdeaModule buildModule(IdeaModule ideaModule, DefaultIdeaProject ideaProject, DefaultGradleProject<?> rootGradleProject) {
         DefaultIdeaContentRoot contentRoot = new DefaultIdeaContentRoot()
             .setRootDirectory(ideaModule.getContentRoot())
             .setSourceDirectories(srcDirs(ideaModule.getSourceDirs(), ideaModule.getGeneratedSourceDirs()))
@@ -186,7 +201,7 @@ public class IdeaModelBuilder implements ToolingModelBuilder {
                 .setTargetBytecodeVersion(moduleTargetBytecodeVersion));
         }
 
-        modules.put(ideaModule.getName(), defaultIdeaModule);
+        return defaultIdeaModule;
     }
 
     private Set<DefaultIdeaSourceDirectory> srcDirs(Set<File> sourceDirs, Set<File> generatedSourceDirs) {
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.plugins.ide.internal.tooling;
+
+import com.google.common.collect.Lists;
+import org.gradle.api.Action;
+import org.gradle.api.Project;
+import org.gradle.api.Transformer;
+import org.gradle.api.internal.GradleInternal;
+import org.gradle.api.internal.project.ProjectInternal;
+import org.gradle.internal.operations.BuildOperationContext;
+import org.gradle.internal.operations.BuildOperationDescriptor;
+import org.gradle.internal.operations.BuildOperationExecutor;
+import org.gradle.internal.operations.BuildOperationQueue;
+import org.gradle.internal.operations.RunnableBuildOperation;
+import org.gradle.internal.resources.ResourceLock;
+import org.gradle.internal.work.WorkerLeaseService;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Builds a fragment of a tooling model for each of a set of projects, so that the fragments can be assembled into the complete model afterwards.
+ *
+ * <p>Each fragment is built by its own build operation while holding the lock of its project, which means that fragments of different projects are
+ * built concurrently when parallel execution is enabled, and that projects which are slow to build their fragment can be identified.</p>
+ */
+public class ProjectModelFragments {
+    private ProjectModelFragments() {
+    }
+
+    /**
+     * Builds the fragment of each of the given projects, returning the fragments in the same order as the projects.
+     *
+     * @param projects The projects, all of which must belong to the same build tree.
+     * @param fragmentDisplayName A description of the fragment, used in the display name of the build operations.
+     * @param fragmentBuilder Builds the fragment of a single project. May be called concurrently for different projects.
+     */
+    public static <T> List<T> build(Collection<? extends Project> projects, String fragmentDisplayName, Transformer<? extends T, ? super Project> fragmentBuilder) {
+        if (projects.isEmpty()) {
+            return Collections.emptyList();
+        }
+        ProjectInternal anyProject = (ProjectInternal) projects.iterator().next();
+        BuildOperationExecutor buildOperationExecutor = anyProject.getServices().get(BuildOperationExecutor.class);
+        WorkerLeaseService workerLeaseService = anyProject.getServices().get(WorkerLeaseService.class);
+
+        final List<BuildFragment<T>> operations = Lists.newArrayListWithCapacity(projects.size());
+        for (Project project : projects) {
+            operations.add(new BuildFragment<T>(project, fragmentDisplayName, fragmentBuilder, workerLeaseService));
+        }
+        buildOperationExecutor.runAll(new Action<BuildOperationQueue<BuildFragment<T>>>() {
+            @Override
+            public void execute(BuildOperationQueue<BuildFragment<T>> queue) {
+                for (BuildFragment<T> operation : operations) {
+                    queue.add(operation);
+                }
+            }
+        });
+
+        List<T> fragments = Lists.newArrayListWithCapacity(operations.size());
+        for (BuildFragment<T> operation : operations) {
+            fragments.add(operation.fragment);
+        }
+        return fragments;
+    }
+
+    private static class BuildFragment<T> implements RunnableBuildOperation {
+        private final Project project;
+        private final String fragmentDisplayName;
+        private final Transformer<? extends T, ? super Project> fragmentBuilder;
+        private final WorkerLeaseService workerLeaseService;
+        private T fragment;
+
+        BuildFragment(Project project, String fragmentDisplayName, Transformer<? extends T, ? super Project> fragmentBuilder, WorkerLeaseService workerLeaseService) {
+            this.project = project;
+            this.fragmentDisplayName = fragmentDisplayName;
+            this.fragmentBuilder = fragmentBuilder;
+            this.workerLeaseService = workerLeaseService;
+        }
+
+        @Override
+        public void run(BuildOperationContext context) {
+            String gradlePath = ((GradleInternal) project.getGradle()).getIdentityPath().toString();
+            String projectPath = ((ProjectInternal) project).getIdentityPath().toString();
+            ResourceLock projectLock = workerLeaseService.getProjectLock(gradlePath, projectPath);
+            workerLeaseService.withLocks(Collections.singleton(projectLock), new Runnable() {
+                @Override
+                public void run() {
+                    fragment = fragmentBuilder.transform(project);
+                }
+            });
+        }
+
+        @Override
+        public BuildOperationDescriptor.Builder description() {
+            return BuildOperationDescriptor.displayName("Build " + fragmentDisplayName + " for " + project.getDisplayName());
+        }
+    }
+}
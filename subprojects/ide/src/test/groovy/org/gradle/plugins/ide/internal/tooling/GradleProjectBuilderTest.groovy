@@ -18,6 +18,7 @@ package org.gradle.plugins.ide.internal.tooling
 
 import org.gradle.api.DefaultTask
 import org.gradle.test.fixtures.AbstractProjectBuilderSpec
+import org.gradle.testfixtures.ProjectBuilder
 import org.gradle.util.TestUtil
 
 class GradleProjectBuilderTest extends AbstractProjectBuilderSpec {
@@ -62,4 +63,28 @@ class GradleProjectBuilderTest extends AbstractProjectBuilderSpec {
         model.tasks[0].description == "some description"
         model.tasks[0].path == ":placeholderTask"
     }
+
+    def "assembles the hierarchy of projects and their tasks"() {
+        def root = TestUtil.builder(temporaryFolder.testDirectory).withName("root").build()
+        def child1 = ProjectBuilder.builder().withName("child1").withParent(root).build()
+        def child2 = ProjectBuilder.builder().withName("child2").withParent(root).build()
+        def grandChild = ProjectBuilder.builder().withName("grandChild").withParent(child1).build()
+        child1.tasks.create("child1Task")
+        grandChild.tasks.create("grandChildTask")
+
+        when:
+        def model = builder.buildAll(child2)
+
+        then:
+        model.path == ':'
+        model.parent == null
+        model.children*.path == [':child1', ':child2']
+        model.children.every { it.parent.is(model) }
+        model.children[0].children*.path == [':child1:grandChild']
+        model.children[0].children[0].parent.is(model.children[0])
+        model.children[1].children.empty
+        model.findByPath(':child1').tasks*.path == [':child1:child1Task']
+        model.findByPath(':child1:grandChild').tasks*.path == [':child1:grandChild:grandChildTask']
+        model.findByPath(':child1:grandChild').tasks[0].project.is(model.findByPath(':child1:grandChild'))
+    }
 }
@@ -486,6 +486,69 @@ class SyncTaskIntegrationTest extends AbstractIntegrationSpec {
         !file('dest/dir1/extra2.txt').exists()
     }
 
+    def "skips files that are up-to-date in destDir when parallel copy is enabled"() {
+        given:
+        defaultSourceFileTree()
+        file('source/dir1/file1.txt').text = 'file1'
+        file('source/dir2/file3.txt').text = 'file3'
+        file('source/template.txt').text = 'version=${version}'
+        buildScript '''
+            task sync(type: Sync) {
+                into 'dest'
+                from('source') {
+                    exclude 'template.txt'
+                }
+                from('source') {
+                    include 'template.txt'
+                    expand(version: '1.0')
+                }
+            }
+        '''.stripIndent()
+        executer.withArgument("-Dorg.gradle.internal.file.parallel-copy=true")
+        run 'sync'
+
+        when:
+        def unchanged = file('dest/dir1/file1.txt')
+        def sourceTimestamp = file('source/dir1/file1.txt').lastModified()
+        assert unchanged.lastModified() == sourceTimestamp
+        unchanged.text = 'FILE1'
+        unchanged.lastModified = sourceTimestamp
+        def changed = file('dest/dir2/file3.txt')
+        changed.text = 'FILE3'
+        changed.lastModified = file('source/dir2/file3.txt').lastModified() - 2000
+        def expanded = file('dest/template.txt')
+        expanded.text = 'version=2.0'
+        executer.withArgument("-Dorg.gradle.internal.file.parallel-copy=true")
+        run 'sync'
+
+        then:
+        executedAndNotSkipped ':sync'
+        unchanged.text == 'FILE1'
+        changed.text == 'file3'
+        expanded.text == 'version=1.0'
+    }
+
+    def "does not skip files that match the destination by default"() {
+        given:
+        file('source/file.txt').text = 'content'
+        buildScript '''
+            task sync(type: Sync) {
+                into 'dest'
+                from 'source'
+            }
+        '''.stripIndent()
+        run 'sync'
+
+        when:
+        file('dest/file.txt').text = 'CONTENT'
+        file('dest/file.txt').lastModified = file('source/file.txt').lastModified()
+        run 'sync'
+
+        then:
+        executedAndNotSkipped ':sync'
+        file('dest/file.txt').text == 'content'
+    }
+
     def defaultSourceFileTree() {
         file('source').create {
             dir1 { file 'file1.txt' }
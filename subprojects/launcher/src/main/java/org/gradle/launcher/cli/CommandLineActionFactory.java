@@ -37,6 +37,7 @@ import org.gradle.initialization.ParallelismConfigurationCommandLineConverter;
 import org.gradle.initialization.layout.BuildLayoutFactory;
 import org.gradle.internal.Actions;
 import org.gradle.internal.buildevents.BuildExceptionReporter;
+import org.gradle.internal.concurrent.CompositeStoppable;
 import org.gradle.internal.concurrent.DefaultParallelismConfiguration;
 import org.gradle.internal.jvm.Jvm;
 import org.gradle.internal.jvm.inspection.CachingJvmVersionDetector;
@@ -368,6 +369,8 @@ public class CommandLineActionFactory {
                 exceptionReportingAction.execute(executionListener);
             } finally {
                 loggingManager.stop();
+                // Render the output that is still queued before the process exits
+                CompositeStoppable.stoppable(loggingServices).stop();
             }
         }
     }
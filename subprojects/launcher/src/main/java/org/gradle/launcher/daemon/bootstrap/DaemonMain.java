@@ -132,7 +132,8 @@ public class DaemonMain extends EntryPoint {
         } finally {
             daemon.stop();
             // TODO: Stop all daemon services
-            CompositeStoppable.stoppable(daemonServices.get(GradleUserHomeScopeServiceRegistry.class)).stop();
+            // Close the logging services last, to render the output that is still queued before the process exits
+            CompositeStoppable.stoppable(daemonServices.get(GradleUserHomeScopeServiceRegistry.class), loggingRegistry).stop();
         }
     }
 
@@ -17,6 +17,7 @@
 package org.gradle.launcher.daemon.server.health;
 
 import com.google.common.annotations.VisibleForTesting;
+import org.gradle.api.internal.initialization.loadercache.ClassLoaderCacheStatistics;
 import org.gradle.internal.concurrent.ExecutorFactory;
 import org.gradle.internal.concurrent.Stoppable;
 import org.gradle.internal.concurrent.ManagedScheduledExecutor;
@@ -35,17 +36,20 @@ public class DaemonHealthStats implements Stoppable {
     private final ManagedScheduledExecutor scheduler;
     private final GarbageCollectionInfo gcInfo;
     private final GarbageCollectionMonitor gcMonitor;
+    private final ClassLoaderCacheStatistics classLoaderStats;
 
-    public DaemonHealthStats(DaemonRunningStats runningStats, ExecutorFactory executorFactory) {
+    public DaemonHealthStats(DaemonRunningStats runningStats, ClassLoaderCacheStatistics classLoaderStats, ExecutorFactory executorFactory) {
         this.runningStats = runningStats;
+        this.classLoaderStats = classLoaderStats;
         this.scheduler = executorFactory.createScheduled("Daemon health stats", 1);
         this.gcInfo = new GarbageCollectionInfo();
         this.gcMonitor = new GarbageCollectionMonitor(scheduler);
     }
 
     @VisibleForTesting
-    DaemonHealthStats(DaemonRunningStats runningStats, GarbageCollectionInfo gcInfo, GarbageCollectionMonitor gcMonitor) {
+    DaemonHealthStats(DaemonRunningStats runningStats, ClassLoaderCacheStatistics classLoaderStats, GarbageCollectionInfo gcInfo, GarbageCollectionMonitor gcMonitor) {
         this.runningStats = runningStats;
+        this.classLoaderStats = classLoaderStats;
         this.scheduler = null;
         this.gcInfo = gcInfo;
         this.gcMonitor = gcMonitor;
@@ -93,12 +97,23 @@ public class DaemonHealthStats implements Stoppable {
             } else {
                 message += ", no major garbage collections";
             }
-            message += "]";
+            message += getClassLoaderInfo() + "]";
             return message;
         } else {
-            return format("Starting %s build in daemon [uptime: %s, performance: %s%%]",
-                NumberUtil.ordinal(nextBuildNum), runningStats.getPrettyUpTime(), getCurrentPerformance());
+            return format("Starting %s build in daemon [uptime: %s, performance: %s%%%s]",
+                NumberUtil.ordinal(nextBuildNum), runningStats.getPrettyUpTime(), getCurrentPerformance(), getClassLoaderInfo());
+        }
+    }
+
+    /**
+     * Each shared class loader is one whose classes did not have to be loaded again, which is where the metaspace of the daemon goes.
+     */
+    private String getClassLoaderInfo() {
+        long reused = classLoaderStats.getReusedCount();
+        if (reused == 0) {
+            return "";
         }
+        return format(", shared class loaders: %s of %s", reused, reused + classLoaderStats.getCreatedCount());
     }
 
     /**
@@ -16,6 +16,7 @@
 
 package org.gradle.launcher.daemon.server.health
 
+import org.gradle.api.internal.initialization.loadercache.ClassLoaderCacheStatistics
 import org.gradle.internal.event.DefaultListenerManager
 import org.gradle.launcher.daemon.server.health.gc.GarbageCollectionInfo
 import org.gradle.launcher.daemon.server.health.gc.GarbageCollectionMonitor
@@ -29,7 +30,8 @@ class DaemonHealthStatsTest extends Specification {
     def gcInfo = Stub(GarbageCollectionInfo)
     def gcMonitor = Stub(GarbageCollectionMonitor)
     def runningStats = Stub(DaemonRunningStats)
-    def healthStats = new DaemonHealthStats(runningStats, gcInfo, gcMonitor)
+    def classLoaderStats = Stub(ClassLoaderCacheStatistics)
+    def healthStats = new DaemonHealthStats(runningStats, classLoaderStats, gcInfo, gcMonitor)
 
     def "consumes first build"() {
         when:
@@ -76,4 +78,25 @@ class DaemonHealthStatsTest extends Specification {
         healthStats.healthInfo == "Starting 2nd build in daemon [uptime: 3 mins, performance: 98%, no major garbage collections]"
     }
 
+    def "reports shared class loaders"() {
+        when:
+        gcInfo.getCollectionTime() >> 25
+        runningStats.getBuildCount() >> 1
+        runningStats.getPrettyUpTime() >> "3 mins"
+        runningStats.getAllBuildsTime() >> 1000
+        classLoaderStats.getCreatedCount() >> 12
+        classLoaderStats.getReusedCount() >> 4
+
+        gcMonitor.getTenuredStats() >> {
+            Stub(GarbageCollectionStats) {
+                getUsage() >> -1
+                getMax() >> -1
+                getRate() >> 0
+            }
+        }
+
+        then:
+        healthStats.healthInfo == "Starting 2nd build in daemon [uptime: 3 mins, performance: 98%, no major garbage collections, shared class loaders: 4 of 16]"
+    }
+
 }
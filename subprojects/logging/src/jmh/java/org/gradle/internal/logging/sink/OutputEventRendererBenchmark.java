@@ -0,0 +1,75 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.internal.logging.sink;
+
+import org.gradle.api.logging.LogLevel;
+import org.gradle.internal.logging.events.LogEvent;
+import org.gradle.internal.logging.events.OutputEvent;
+import org.gradle.internal.logging.events.OutputEventListener;
+import org.gradle.internal.time.Time;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the throughput of logging from many threads at once, with synchronous and asynchronous rendering.
+ */
+@Fork(2)
+@Threads(32)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class OutputEventRendererBenchmark {
+
+    @Param({"false", "true"})
+    boolean asyncRendering;
+
+    private OutputEventRenderer renderer;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        renderer = new OutputEventRenderer(Time.clock(), asyncRendering);
+        renderer.configure(LogLevel.INFO);
+        renderer.addOutputEventListener(new OutputEventListener() {
+            @Override
+            public void onOutput(OutputEvent event) {
+                // Stands in for formatting and writing the event
+                Blackhole.consumeCPU(200);
+            }
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        renderer.stop();
+    }
+
+    @Benchmark
+    public void log() {
+        renderer.onOutput(new LogEvent(System.currentTimeMillis(), "category", LogLevel.INFO, "message", null));
+    }
+}
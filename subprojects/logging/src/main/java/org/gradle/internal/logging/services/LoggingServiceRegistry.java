@@ -45,6 +45,7 @@ import org.gradle.internal.time.Time;
  * <li>Configure the logging manager as appropriate.</li>
  * <li>Start the logging manager using {@link LoggingManagerInternal#start()}.</li>
  * <li>When finished, stop the logging manager using {@link LoggingManagerInternal#stop()}.</li>
+ * <li>Close this registry before the process exits, so that output events that are queued for rendering are not lost.</li>
  * </ol>
  */
 public abstract class LoggingServiceRegistry extends DefaultServiceRegistry {
@@ -149,6 +150,18 @@ public abstract class LoggingServiceRegistry extends DefaultServiceRegistry {
         return outputEventListenerManager;
     }
 
+    /**
+     * Closes the logging services, then renders the output events that are still queued and stops the rendering thread of the renderer.
+     */
+    @Override
+    public void close() {
+        try {
+            super.close();
+        } finally {
+            renderer.stop();
+        }
+    }
+
     // Intentionally not a “create” method as this should not be exposed as a service
     protected OutputEventRenderer makeOutputEventRenderer() {
         return new OutputEventRenderer(Time.clock());
@@ -16,11 +16,14 @@
 
 package org.gradle.internal.logging.sink;
 
+import com.google.common.util.concurrent.Uninterruptibles;
 import net.jcip.annotations.ThreadSafe;
 import org.gradle.api.logging.LogLevel;
 import org.gradle.api.logging.StandardOutputListener;
 import org.gradle.api.logging.configuration.ConsoleOutput;
 import org.gradle.internal.Factory;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.concurrent.Stoppable;
 import org.gradle.internal.event.ListenerBroadcast;
 import org.gradle.internal.logging.config.LoggingRouter;
 import org.gradle.internal.logging.console.AnsiConsole;
@@ -54,14 +57,30 @@ import org.gradle.internal.time.Clock;
 
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * A {@link OutputEventListener} implementation which renders output events to various
  * destinations. This implementation is thread-safe.
+ *
+ * <p>By default, events are rendered by the thread that generates them, one thread at a time. With asynchronous rendering, events are instead added to a
+ * bounded queue and rendered in order by a single rendering thread. A thread that generates an event blocks only when the queue is full. Flushing, ending
+ * the output, or changing the destinations waits until the events queued so far have been rendered. Stopping the renderer renders the queued events
+ * and stops the rendering thread.</p>
  */
 @ThreadSafe
-public class OutputEventRenderer implements OutputEventListener, LoggingRouter {
+public class OutputEventRenderer implements OutputEventListener, LoggingRouter, Stoppable {
+    /**
+     * Set to true to render events asynchronously.
+     */
+    public static final String ASYNC_RENDERING_PROPERTY = "org.gradle.internal.logging.async-rendering";
+    private static final int MAX_QUEUED_EVENTS = 16 * 1024;
+    private static final int MAX_EVENTS_PER_BATCH = 256;
+    private static final OutputEvent END_OF_QUEUE = new RenderedMarker();
+
     private final Object lock = new Object();
     private final AtomicReference<LogLevel> logLevel = new AtomicReference<LogLevel>(LogLevel.LIFECYCLE);
     private final Clock clock;
@@ -78,12 +97,23 @@ public class OutputEventRenderer implements OutputEventListener, LoggingRouter {
     private ListenerBroadcast<StandardOutputListener> userStdoutListeners;
     private ListenerBroadcast<StandardOutputListener> userStderrListeners;
 
+    private final BlockingQueue<OutputEvent> queue;
+    private final AtomicReference<Throwable> renderFailure = new AtomicReference<Throwable>();
+    private volatile Thread renderThread;
+    private volatile boolean stopped;
+
     public OutputEventRenderer(final Clock clock) {
+        this(clock, Boolean.getBoolean(ASYNC_RENDERING_PROPERTY));
+    }
+
+    public OutputEventRenderer(final Clock clock, boolean asyncRendering) {
         this.clock = clock;
+        this.queue = asyncRendering ? new LinkedBlockingQueue<OutputEvent>(MAX_QUEUED_EVENTS) : null;
     }
 
     @Override
     public Snapshot snapshot() {
+        awaitRendered();
         synchronized (lock) {
             // Currently only snapshot the console output listener. Should snapshot all output listeners, and cleanup in restore()
             return new SnapshotImpl(logLevel.get(), console);
@@ -92,6 +122,7 @@ public class OutputEventRenderer implements OutputEventListener, LoggingRouter {
 
     @Override
     public void restore(Snapshot state) {
+        awaitRendered();
         synchronized (lock) {
             SnapshotImpl snapshot = (SnapshotImpl) state;
             if (snapshot.logLevel != logLevel.get()) {
@@ -143,6 +174,7 @@ public class OutputEventRenderer implements OutputEventListener, LoggingRouter {
     }
 
     public void attachProcessConsole(ConsoleOutput consoleOutput) {
+        awaitRendered();
         synchronized (lock) {
             ConsoleConfigureAction.execute(this, consoleOutput);
         }
@@ -155,6 +187,7 @@ public class OutputEventRenderer implements OutputEventListener, LoggingRouter {
 
     @Override
     public void attachConsole(OutputStream outputStream, OutputStream errorStream, ConsoleOutput consoleOutput, ConsoleMetaData consoleMetadata) {
+        awaitRendered();
         synchronized (lock) {
             StandardOutputListener outputListener = new StreamBackedStandardOutputListener(outputStream);
             StandardOutputListener errorListener = new StreamBackedStandardOutputListener(errorStream);
@@ -185,6 +218,7 @@ public class OutputEventRenderer implements OutputEventListener, LoggingRouter {
     }
 
     private void addSystemOutAsLoggingDestination() {
+        awaitRendered();
         synchronized (lock) {
             originalStdOut = System.out;
             if (stdOutListener != null) {
@@ -201,6 +235,7 @@ public class OutputEventRenderer implements OutputEventListener, LoggingRouter {
     }
 
     private void addSystemErrAsLoggingDestination() {
+        awaitRendered();
         synchronized (lock) {
             originalStdErr = System.err;
             if (stdErrListener != null) {
@@ -217,6 +252,7 @@ public class OutputEventRenderer implements OutputEventListener, LoggingRouter {
     }
 
     private void removeSystemOutAsLoggingDestination() {
+        awaitRendered();
         synchronized (lock) {
             if (stdOutListener != null) {
                 removeChain(stdOutListener);
@@ -226,6 +262,7 @@ public class OutputEventRenderer implements OutputEventListener, LoggingRouter {
     }
 
     private void removeSystemErrAsLoggingDestination() {
+        awaitRendered();
         synchronized (lock) {
             if (stdErrListener != null) {
                 removeChain(stdErrListener);
@@ -235,12 +272,14 @@ public class OutputEventRenderer implements OutputEventListener, LoggingRouter {
     }
 
     public void addOutputEventListener(OutputEventListener listener) {
+        awaitRendered();
         synchronized (lock) {
             addChain(listener);
         }
     }
 
     public void removeOutputEventListener(OutputEventListener listener) {
+        awaitRendered();
         synchronized (lock) {
             removeChain(listener);
         }
@@ -323,6 +362,7 @@ public class OutputEventRenderer implements OutputEventListener, LoggingRouter {
     }
 
     private OutputEventRenderer addConsoleChain(OutputEventListener consoleChain) {
+        awaitRendered();
         synchronized (lock) {
             this.console = consoleChain;
             removeSystemOutAsLoggingDestination();
@@ -345,6 +385,7 @@ public class OutputEventRenderer implements OutputEventListener, LoggingRouter {
         // Create all of the pipeline eagerly as soon as this is enabled, to track the state of build operations.
         // All of the pipelines do this, so should instead have a single stage that tracks this for all pipelines and that can replay the current state to new pipelines
         // Then, a pipeline can be added for each listener as required
+        awaitRendered();
         synchronized (lock) {
             if (userStdoutListeners == null) {
                 userStdoutListeners = new ListenerBroadcast<StandardOutputListener>(StandardOutputListener.class);
@@ -380,6 +421,7 @@ public class OutputEventRenderer implements OutputEventListener, LoggingRouter {
     }
 
     public void addStandardErrorListener(StandardOutputListener listener) {
+        awaitRendered();
         synchronized (lock) {
             assertUserListenersEnabled();
             userStderrListeners.add(listener);
@@ -387,6 +429,7 @@ public class OutputEventRenderer implements OutputEventListener, LoggingRouter {
     }
 
     public void addStandardOutputListener(StandardOutputListener listener) {
+        awaitRendered();
         synchronized (lock) {
             assertUserListenersEnabled();
             userStdoutListeners.add(listener);
@@ -402,6 +445,7 @@ public class OutputEventRenderer implements OutputEventListener, LoggingRouter {
     }
 
     public void removeStandardOutputListener(StandardOutputListener listener) {
+        awaitRendered();
         synchronized (lock) {
             assertUserListenersEnabled();
             userStdoutListeners.remove(listener);
@@ -409,6 +453,7 @@ public class OutputEventRenderer implements OutputEventListener, LoggingRouter {
     }
 
     public void removeStandardErrorListener(StandardOutputListener listener) {
+        awaitRendered();
         synchronized (lock) {
             assertUserListenersEnabled();
             userStderrListeners.remove(listener);
@@ -432,8 +477,126 @@ public class OutputEventRenderer implements OutputEventListener, LoggingRouter {
             }
             this.logLevel.set(newLogLevel);
         }
+        if (queue == null || stopped || Thread.holdsLock(lock)) {
+            // Render synchronously, also when called while rendering or while changing the destinations
+            synchronized (lock) {
+                transformer.onOutput(event);
+            }
+            return;
+        }
+        enqueue(event);
+        if (event instanceof FlushOutputEvent || event instanceof EndOutputEvent) {
+            awaitRendered();
+        }
+    }
+
+    /**
+     * Renders the queued events and stops the rendering thread. Events generated after this are rendered synchronously.
+     */
+    @Override
+    public void stop() {
+        if (queue == null || stopped) {
+            return;
+        }
+        stopped = true;
+        Thread thread;
+        synchronized (this) {
+            thread = renderThread;
+        }
+        if (thread != null) {
+            Uninterruptibles.putUninterruptibly(queue, END_OF_QUEUE);
+            Uninterruptibles.joinUninterruptibly(thread);
+        }
+        // Render any events queued by threads that started generating them before this renderer was stopped
+        renderRemainingEvents();
+        rethrowRenderFailure();
+    }
+
+    private void enqueue(OutputEvent event) {
+        if (renderThread == null) {
+            startRenderThread();
+        }
+        // Blocks when the rendering thread falls behind. Keeps waiting when interrupted rather than losing the event, and restores the interrupt status afterwards
+        Uninterruptibles.putUninterruptibly(queue, event);
+        if (stopped) {
+            // The rendering thread may already have stopped, so render the event here
+            renderRemainingEvents();
+        }
+    }
+
+    private synchronized void startRenderThread() {
+        if (renderThread != null || stopped) {
+            return;
+        }
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                renderQueuedEvents();
+            }
+        }, "Output event renderer");
+        thread.setDaemon(true);
+        thread.start();
+        renderThread = thread;
+    }
+
+    private void renderQueuedEvents() {
+        try {
+            while (true) {
+                OutputEvent event = queue.take();
+                synchronized (lock) {
+                    for (int i = 0; event != null; i++) {
+                        if (event == END_OF_QUEUE) {
+                            return;
+                        }
+                        render(event);
+                        event = i < MAX_EVENTS_PER_BATCH ? queue.poll() : null;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            // Exit
+        }
+    }
+
+    private void renderRemainingEvents() {
         synchronized (lock) {
+            OutputEvent event;
+            while ((event = queue.poll()) != null) {
+                render(event);
+            }
+        }
+    }
+
+    private void render(OutputEvent event) {
+        if (event instanceof RenderedMarker) {
+            ((RenderedMarker) event).rendered.countDown();
+            return;
+        }
+        try {
             transformer.onOutput(event);
+        } catch (Throwable t) {
+            // Keep rendering the remaining events, and report the failure to the next thread that waits for the queue
+            renderFailure.compareAndSet(null, t);
+        }
+    }
+
+    /**
+     * Waits until all events queued by the time this method is called have been rendered, and rethrows the first failure to render an event, if any.
+     */
+    private void awaitRendered() {
+        if (queue == null || renderThread == null || Thread.holdsLock(lock)) {
+            return;
+        }
+        RenderedMarker marker = new RenderedMarker();
+        enqueue(marker);
+        Uninterruptibles.awaitUninterruptibly(marker.rendered);
+        rethrowRenderFailure();
+    }
+
+    private void rethrowRenderFailure() {
+        Throwable failure = renderFailure.getAndSet(null);
+        if (failure != null) {
+            throw UncheckedException.throwAsUncheckedException(failure);
         }
     }
 
@@ -441,6 +604,15 @@ public class OutputEventRenderer implements OutputEventListener, LoggingRouter {
         return event instanceof ProgressStartEvent || event instanceof ProgressEvent || event instanceof ProgressCompleteEvent;
     }
 
+    private static class RenderedMarker extends OutputEvent {
+        final CountDownLatch rendered = new CountDownLatch(1);
+
+        @Override
+        public LogLevel getLogLevel() {
+            return null;
+        }
+    }
+
     private static class SnapshotImpl implements Snapshot {
         private final LogLevel logLevel;
         private final OutputEventListener console;
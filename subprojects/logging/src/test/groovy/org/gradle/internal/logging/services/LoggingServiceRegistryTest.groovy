@@ -24,13 +24,19 @@ import org.gradle.internal.logging.ConfigureLogging
 import org.gradle.internal.logging.LoggingCommandLineConverter
 import org.gradle.internal.logging.LoggingManagerInternal
 import org.gradle.internal.logging.TestOutputEventListener
+import org.gradle.internal.logging.events.OutputEvent
+import org.gradle.internal.logging.events.OutputEventListener
+import org.gradle.internal.logging.events.StyledTextOutputEvent
+import org.gradle.internal.logging.sink.OutputEventRenderer
 import org.gradle.internal.logging.text.StyledTextOutputFactory
 import org.gradle.util.RedirectStdOutAndErr
+import org.gradle.util.SetSystemProperties
 import org.gradle.util.TextUtil
 import org.junit.Rule
 import org.slf4j.LoggerFactory
 import spock.lang.Specification
 
+import java.util.concurrent.CopyOnWriteArrayList
 import java.util.logging.Level
 import java.util.logging.Logger
 
@@ -38,6 +44,7 @@ class LoggingServiceRegistryTest extends Specification {
     final TestOutputEventListener outputEventListener = new TestOutputEventListener()
     @Rule ConfigureLogging logging = new ConfigureLogging(outputEventListener)
     @Rule RedirectStdOutAndErr outputs = new RedirectStdOutAndErr()
+    @Rule SetSystemProperties systemProperties = new SetSystemProperties()
 
     def providesALoggingManagerFactory() {
         given:
@@ -674,4 +681,30 @@ class LoggingServiceRegistryTest extends Specification {
         outputs.stdOut == ''
         outputs.stdErr == ''
     }
+
+    def rendersQueuedOutputEventsWhenClosed() {
+        given:
+        System.setProperty(OutputEventRenderer.ASYNC_RENDERING_PROPERTY, "true")
+        def registry = LoggingServiceRegistry.newNestedLogging()
+        def loggingManager = registry.newInstance(LoggingManagerInternal)
+        def rendered = new CopyOnWriteArrayList<String>()
+        loggingManager.addOutputEventListener(new OutputEventListener() {
+            void onOutput(OutputEvent event) {
+                if (event instanceof StyledTextOutputEvent) {
+                    // Render slowly, so that events are still queued when the registry is closed
+                    Thread.sleep(2)
+                    rendered.add(event.spans*.text.join("").trim())
+                }
+            }
+        })
+        loggingManager.start()
+        def textOutput = registry.get(StyledTextOutputFactory).create("category")
+
+        when:
+        100.times { textOutput.println("line $it") }
+        registry.close()
+
+        then:
+        rendered == (0..<100).collect { "line $it".toString() }
+    }
 }
@@ -443,6 +443,103 @@ class OutputEventRendererTest extends OutputSpecification {
         outputs.stdOut == ''
         outputs.stdErr == ''
     }
+
+    def "renders events asynchronously in the order they were generated by each thread"() {
+        def received = []
+        def listener = { received << it } as OutputEventListener
+        def asyncRenderer = new OutputEventRenderer(Time.clock(), true)
+        asyncRenderer.configure(LogLevel.INFO)
+        asyncRenderer.addOutputEventListener(listener)
+
+        when:
+        def threads = (1..4).collect { t ->
+            Thread.start {
+                100.times { i -> asyncRenderer.onOutput(event("$t-$i", LogLevel.INFO)) }
+            }
+        }
+        threads*.join()
+        asyncRenderer.flush()
+
+        then:
+        def messages = received.findAll { it instanceof LogEvent }*.message
+        messages.size() == 400
+        (1..4).every { t -> messages.findAll { it.startsWith("$t-") } == (0..<100).collect { "$t-$it" as String } }
+    }
+
+    def "waits for queued events to be rendered before removing a listener"() {
+        OutputEventListener listener = Mock()
+        def asyncRenderer = new OutputEventRenderer(Time.clock(), true)
+        LogEvent event = event('message', LogLevel.INFO)
+
+        when:
+        asyncRenderer.configure(LogLevel.INFO)
+        asyncRenderer.addOutputEventListener(listener)
+        asyncRenderer.onOutput(event)
+        asyncRenderer.removeOutputEventListener(listener)
+
+        then:
+        1 * listener.onOutput({ it instanceof LogLevelChangeEvent && it.newLogLevel == LogLevel.INFO })
+        1 * listener.onOutput(event)
+        1 * listener.onOutput({ it instanceof EndOutputEvent })
+        0 * listener._
+    }
+
+    def "rethrows failure to render an event on flush"() {
+        def failure = new RuntimeException("broken")
+        def listener = { if (it instanceof LogEvent) { throw failure } } as OutputEventListener
+        def asyncRenderer = new OutputEventRenderer(Time.clock(), true)
+        asyncRenderer.addOutputEventListener(listener)
+
+        when:
+        asyncRenderer.onOutput(event('message', LogLevel.LIFECYCLE))
+        asyncRenderer.flush()
+
+        then:
+        def e = thrown(RuntimeException)
+        e.is(failure)
+    }
+
+    def "queues event when generating thread is interrupted"() {
+        def received = []
+        def asyncRenderer = new OutputEventRenderer(Time.clock(), true)
+        asyncRenderer.addOutputEventListener({ received << it } as OutputEventListener)
+        def event = event('message', LogLevel.LIFECYCLE)
+
+        when:
+        Thread.currentThread().interrupt()
+        asyncRenderer.onOutput(event)
+        def interrupted = Thread.interrupted()
+        asyncRenderer.flush()
+
+        then:
+        interrupted
+        received.contains(event)
+
+        cleanup:
+        asyncRenderer.stop()
+    }
+
+    def "renders queued events and stops rendering thread when stopped"() {
+        def received = []
+        def asyncRenderer = new OutputEventRenderer(Time.clock(), true)
+        asyncRenderer.addOutputEventListener({ received << it } as OutputEventListener)
+        def events = (1..100).collect { event("$it", LogLevel.LIFECYCLE) }
+
+        when:
+        events.each { asyncRenderer.onOutput(it) }
+        asyncRenderer.stop()
+
+        then:
+        received.findAll { it instanceof LogEvent } == events
+        !asyncRenderer.renderThread.alive
+
+        when:
+        def later = event('later', LogLevel.LIFECYCLE)
+        asyncRenderer.onOutput(later)
+
+        then:
+        received.last() == later
+    }
 }
 
 class TestListener implements StandardOutputListener {
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.publish.maven
+
+import org.gradle.api.publish.maven.internal.publisher.MavenRepositoryTransportPublisher
+import org.gradle.integtests.fixtures.publish.maven.AbstractMavenPublishIntegTest
+
+/**
+ * Tests publishing through Gradle's repository transports instead of the Maven Ant Tasks.
+ */
+class MavenPublishRepositoryTransportIntegTest extends AbstractMavenPublishIntegTest {
+    def setup() {
+        executer.beforeExecute {
+            it.withArgument("-D${MavenRepositoryTransportPublisher.ENABLED_PROPERTY}=true")
+        }
+    }
+
+    def "can publish release versions"() {
+        given:
+        settingsFile << "rootProject.name = 'root'"
+        buildFile << """
+            apply plugin: 'java'
+            apply plugin: 'maven-publish'
+
+            group = 'org.gradle.test'
+            version = '1.0'
+
+            task sourceJar(type: Jar) {
+                classifier "sources"
+                from sourceSets.main.allJava
+            }
+
+            publishing {
+                repositories {
+                    maven { url "${mavenRepo.uri}" }
+                }
+                publications {
+                    maven(MavenPublication) {
+                        from components.java
+                        artifact sourceJar
+                    }
+                }
+            }
+        """
+        def module = mavenRepo.module('org.gradle.test', 'root', '1.0')
+
+        when:
+        succeeds 'publish'
+
+        then:
+        module.assertArtifactsPublished("root-1.0.jar", "root-1.0-sources.jar", "root-1.0.pom", "root-1.0.module")
+        module.parsedPom.version == '1.0'
+
+        with(module.rootMetaData) {
+            groupId == "org.gradle.test"
+            artifactId == "root"
+            releaseVersion == "1.0"
+            versions == ['1.0']
+        }
+
+        when:
+        buildFile << """
+            version = '1.1'
+        """
+        succeeds 'publish'
+
+        then:
+        mavenRepo.module('org.gradle.test', 'root', '1.1').assertArtifactsPublished("root-1.1.jar", "root-1.1-sources.jar", "root-1.1.pom", "root-1.1.module")
+        with(module.rootMetaData) {
+            releaseVersion == "1.1"
+            versions == ['1.0', '1.1']
+        }
+    }
+
+    def "can publish snapshot versions"() {
+        given:
+        settingsFile << "rootProject.name = 'snapshotPublish'"
+        buildFile << """
+            apply plugin: 'java'
+            apply plugin: 'maven-publish'
+
+            group = 'org.gradle'
+            version = '1.0-SNAPSHOT'
+
+            publishing {
+                repositories {
+                    maven { url "${mavenRepo.uri}" }
+                }
+                publications {
+                    pub(MavenPublication) {
+                        from components.java
+                    }
+                }
+            }
+        """
+        def module = mavenRepo.module('org.gradle', 'snapshotPublish', '1.0-SNAPSHOT')
+
+        when:
+        succeeds 'publish'
+
+        then:
+        def initialVersion = module.publishArtifactVersion
+        def initialArtifacts = ["snapshotPublish-${initialVersion}.module", "snapshotPublish-${initialVersion}.jar", "snapshotPublish-${initialVersion}.pom"]
+        module.assertArtifactsPublished(initialArtifacts + ["maven-metadata.xml"])
+
+        with(module.rootMetaData) {
+            releaseVersion == null
+            versions == ['1.0-SNAPSHOT']
+        }
+
+        with(module.snapshotMetaData) {
+            version == "1.0-SNAPSHOT"
+            snapshotBuildNumber == '1'
+            lastUpdated == snapshotTimestamp.replace('.', '')
+            snapshotVersions == ["1.0-${snapshotTimestamp}-${snapshotBuildNumber}"]
+        }
+
+        when:
+        succeeds 'publish'
+
+        then:
+        def secondVersion = module.publishArtifactVersion
+        def secondArtifacts = ["snapshotPublish-${secondVersion}.module", "snapshotPublish-${secondVersion}.jar", "snapshotPublish-${secondVersion}.pom"]
+        module.assertArtifactsPublished(["maven-metadata.xml"] + initialArtifacts + secondArtifacts)
+        module.snapshotMetaData.snapshotBuildNumber == '2'
+
+        and:
+        resolveArtifacts(module) { expectFiles "snapshotPublish-${secondVersion}.jar" }
+    }
+
+    def "can publish several projects in parallel"() {
+        given:
+        settingsFile << "include 'a', 'b', 'c'"
+        buildFile << """
+            subprojects {
+                apply plugin: 'java'
+                apply plugin: 'maven-publish'
+
+                group = 'org.gradle.test'
+                version = '1.0'
+
+                publishing {
+                    repositories {
+                        maven { url "${mavenRepo.uri}" }
+                    }
+                    publications {
+                        maven(MavenPublication) {
+                            from components.java
+                        }
+                    }
+                }
+            }
+        """
+
+        when:
+        executer.withArgument("--parallel")
+        succeeds 'publish'
+
+        then:
+        ['a', 'b', 'c'].each {
+            mavenRepo.module('org.gradle.test', it, '1.0').assertArtifactsPublished("${it}-1.0.jar", "${it}-1.0.pom", "${it}-1.0.module")
+        }
+    }
+}
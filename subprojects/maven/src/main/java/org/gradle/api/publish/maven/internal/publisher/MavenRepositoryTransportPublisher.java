@@ -0,0 +1,381 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.publish.maven.internal.publisher;
+
+import com.google.common.base.Strings;
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.apache.maven.artifact.repository.metadata.Snapshot;
+import org.apache.maven.artifact.repository.metadata.SnapshotVersion;
+import org.apache.maven.artifact.repository.metadata.Versioning;
+import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Reader;
+import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Writer;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.gradle.api.Action;
+import org.gradle.api.Transformer;
+import org.gradle.api.UncheckedIOException;
+import org.gradle.api.artifacts.repositories.MavenArtifactRepository;
+import org.gradle.api.internal.artifacts.repositories.transport.RepositoryTransport;
+import org.gradle.api.internal.artifacts.repositories.transport.RepositoryTransportFactory;
+import org.gradle.api.publish.maven.MavenArtifact;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.artifacts.repositories.AuthenticationSupportedInternal;
+import org.gradle.internal.hash.HashUtil;
+import org.gradle.internal.hash.HashValue;
+import org.gradle.internal.operations.BuildOperationContext;
+import org.gradle.internal.operations.BuildOperationDescriptor;
+import org.gradle.internal.operations.BuildOperationExecutor;
+import org.gradle.internal.operations.BuildOperationQueue;
+import org.gradle.internal.operations.RunnableBuildOperation;
+import org.gradle.internal.resource.ExternalResourceName;
+import org.gradle.internal.resource.ExternalResourceReadResult;
+import org.gradle.internal.resource.ExternalResourceRepository;
+import org.gradle.internal.resource.ReadableContent;
+import org.gradle.internal.resource.local.ByteArrayReadableContent;
+import org.gradle.internal.resource.local.FileReadableContent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URI;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * A {@link MavenPublisher} that uploads the POM, the artifacts, their checksums and the {@code maven-metadata.xml} files through Gradle's own
+ * repository transports, instead of through the Maven Ant Tasks. It holds no static state, so several modules can be published at the same time,
+ * and the files of a single module are uploaded in parallel. The checksums of each file are calculated while the file is uploaded.
+ *
+ * <p>The metadata files are uploaded once all other files of the module have been uploaded, as Maven does.</p>
+ */
+public class MavenRepositoryTransportPublisher implements MavenPublisher {
+    public static final String ENABLED_PROPERTY = "org.gradle.internal.publish.maven.transport-publisher";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MavenRepositoryTransportPublisher.class);
+    private static final String SNAPSHOT_VERSION = "SNAPSHOT";
+    private static final String METADATA_FILE_NAME = "maven-metadata.xml";
+    private static final String SHA1 = "SHA1";
+    private static final String MD5 = "MD5";
+
+    private final RepositoryTransportFactory repositoryTransportFactory;
+    private final BuildOperationExecutor buildOperationExecutor;
+
+    public MavenRepositoryTransportPublisher(RepositoryTransportFactory repositoryTransportFactory, BuildOperationExecutor buildOperationExecutor) {
+        this.repositoryTransportFactory = repositoryTransportFactory;
+        this.buildOperationExecutor = buildOperationExecutor;
+    }
+
+    public void publish(MavenNormalizedPublication publication, MavenArtifactRepository artifactRepository) {
+        LOGGER.info("Publishing to repository '{}' ({})", artifactRepository.getName(), artifactRepository.getUrl());
+
+        String protocol = artifactRepository.getUrl().getScheme().toLowerCase();
+        RepositoryTransport transport = repositoryTransportFactory.createTransport(protocol, artifactRepository.getName(),
+            ((AuthenticationSupportedInternal) artifactRepository).getConfiguredAuthentication());
+        new ModulePublisher(transport.getRepository(), artifactRepository.getUrl(), publication.getProjectIdentity(), new Date()).publish(publication);
+    }
+
+    private class ModulePublisher {
+        private final ExternalResourceRepository repository;
+        private final String groupId;
+        private final String artifactId;
+        private final String version;
+        private final ExternalResourceName moduleDir;
+        private final ExternalResourceName versionDir;
+        private final Date publishTime;
+        private final String lastUpdated;
+
+        ModulePublisher(ExternalResourceRepository repository, URI rootUri, MavenProjectIdentity projectIdentity, Date publishTime) {
+            this.repository = repository;
+            this.groupId = projectIdentity.getGroupId().get();
+            this.artifactId = projectIdentity.getArtifactId().get();
+            this.version = projectIdentity.getVersion().get();
+            this.moduleDir = new ExternalResourceName(rootUri, groupId.replace('.', '/') + "/" + artifactId);
+            this.versionDir = moduleDir.resolve(version);
+            this.publishTime = publishTime;
+            this.lastUpdated = utcDateFormat("yyyyMMddHHmmss").format(publishTime);
+        }
+
+        void publish(MavenNormalizedPublication publication) {
+            boolean snapshot = version.endsWith("-" + SNAPSHOT_VERSION);
+            Metadata snapshotMetadata = null;
+            String artifactVersion = version;
+            if (snapshot) {
+                snapshotMetadata = createSnapshotMetadata();
+                Snapshot snapshotInfo = snapshotMetadata.getVersioning().getSnapshot();
+                artifactVersion = version.substring(0, version.length() - SNAPSHOT_VERSION.length()) + snapshotInfo.getTimestamp() + "-" + snapshotInfo.getBuildNumber();
+            }
+
+            final List<ArtifactUpload> uploads = new ArrayList<ArtifactUpload>();
+            uploads.add(new ArtifactUpload(publication.getPomArtifact().getFile(), artifactVersion, null, "pom"));
+            for (MavenArtifact artifact : publication.getAllArtifacts()) {
+                if (artifact == publication.getPomArtifact()) {
+                    continue;
+                }
+                uploads.add(new ArtifactUpload(artifact.getFile(), artifactVersion, artifact.getClassifier(), Strings.nullToEmpty(artifact.getExtension())));
+            }
+            buildOperationExecutor.runAll(new Action<BuildOperationQueue<RunnableBuildOperation>>() {
+                @Override
+                public void execute(BuildOperationQueue<RunnableBuildOperation> queue) {
+                    for (ArtifactUpload upload : uploads) {
+                        queue.add(upload);
+                    }
+                }
+            });
+
+            if (snapshotMetadata != null) {
+                for (ArtifactUpload upload : uploads) {
+                    SnapshotVersion snapshotVersion = new SnapshotVersion();
+                    snapshotVersion.setClassifier(Strings.nullToEmpty(upload.classifier));
+                    snapshotVersion.setExtension(upload.extension);
+                    snapshotVersion.setVersion(artifactVersion);
+                    snapshotVersion.setUpdated(lastUpdated);
+                    snapshotMetadata.getVersioning().addSnapshotVersion(snapshotVersion);
+                }
+                putMetadata(versionDir.resolve(METADATA_FILE_NAME), snapshotMetadata);
+            }
+            putMetadata(moduleDir.resolve(METADATA_FILE_NAME), createModuleMetadata(snapshot));
+        }
+
+        private Metadata createSnapshotMetadata() {
+            Metadata previous = readMetadata(versionDir.resolve(METADATA_FILE_NAME));
+            int buildNumber = 1;
+            if (previous != null && previous.getVersioning() != null && previous.getVersioning().getSnapshot() != null) {
+                buildNumber = previous.getVersioning().getSnapshot().getBuildNumber() + 1;
+            }
+            Snapshot snapshot = new Snapshot();
+            snapshot.setTimestamp(utcDateFormat("yyyyMMdd.HHmmss").format(publishTime));
+            snapshot.setBuildNumber(buildNumber);
+            Versioning versioning = new Versioning();
+            versioning.setSnapshot(snapshot);
+            versioning.setLastUpdated(lastUpdated);
+
+            Metadata metadata = newMetadata();
+            metadata.setVersion(version);
+            metadata.setVersioning(versioning);
+            return metadata;
+        }
+
+        private Metadata createModuleMetadata(boolean snapshot) {
+            Metadata metadata = readMetadata(moduleDir.resolve(METADATA_FILE_NAME));
+            if (metadata == null) {
+                metadata = newMetadata();
+            }
+            Versioning versioning = metadata.getVersioning();
+            if (versioning == null) {
+                versioning = new Versioning();
+                metadata.setVersioning(versioning);
+            }
+            if (!versioning.getVersions().contains(version)) {
+                versioning.addVersion(version);
+            }
+            versioning.setLatest(version);
+            if (!snapshot) {
+                versioning.setRelease(version);
+            }
+            versioning.setLastUpdated(lastUpdated);
+            return metadata;
+        }
+
+        private Metadata newMetadata() {
+            Metadata metadata = new Metadata();
+            metadata.setModelVersion("1.1.0");
+            metadata.setGroupId(groupId);
+            metadata.setArtifactId(artifactId);
+            return metadata;
+        }
+
+        private Metadata readMetadata(ExternalResourceName location) {
+            ExternalResourceReadResult<Metadata> result = repository.resource(location, true).withContentIfPresent(new Transformer<Metadata, InputStream>() {
+                @Override
+                public Metadata transform(InputStream inputStream) {
+                    try {
+                        return new MetadataXpp3Reader().read(inputStream, false);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    } catch (XmlPullParserException e) {
+                        throw UncheckedException.throwAsUncheckedException(e);
+                    }
+                }
+            });
+            return result == null ? null : result.getResult();
+        }
+
+        private void putMetadata(ExternalResourceName location, Metadata metadata) {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            try {
+                new MetadataXpp3Writer().write(content, metadata);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            byte[] bytes = content.toByteArray();
+            repository.resource(location).put(new ByteArrayReadableContent(bytes));
+            putChecksum(location, SHA1, HashUtil.createHash(new ByteArrayInputStream(bytes), SHA1), 40);
+            putChecksum(location, MD5, HashUtil.createHash(new ByteArrayInputStream(bytes), MD5), 32);
+        }
+
+        private void putChecksum(ExternalResourceName location, String algorithm, HashValue hash, int length) {
+            try {
+                byte[] checksum = hash.asZeroPaddedHexString(length).getBytes("US-ASCII");
+                repository.resource(location.append("." + algorithm.toLowerCase())).put(new ByteArrayReadableContent(checksum));
+            } catch (UnsupportedEncodingException e) {
+                throw UncheckedException.throwAsUncheckedException(e);
+            }
+        }
+
+        private class ArtifactUpload implements RunnableBuildOperation {
+            private final File file;
+            private final String classifier;
+            private final String extension;
+            private final ExternalResourceName location;
+
+            ArtifactUpload(File file, String artifactVersion, String classifier, String extension) {
+                this.file = file;
+                this.classifier = Strings.emptyToNull(classifier);
+                this.extension = extension;
+                String fileName = artifactId + "-" + artifactVersion + (this.classifier == null ? "" : "-" + this.classifier) + (extension.isEmpty() ? "" : "." + extension);
+                this.location = versionDir.resolve(fileName);
+            }
+
+            @Override
+            public void run(BuildOperationContext context) {
+                ChecksumCalculatingContent content = new ChecksumCalculatingContent(file);
+                repository.withProgressLogging().resource(location).put(content);
+                putChecksum(location, SHA1, content.getHash(SHA1), 40);
+                putChecksum(location, MD5, content.getHash(MD5), 32);
+                LOGGER.info("Published {} to {}", file, location);
+            }
+
+            @Override
+            public BuildOperationDescriptor.Builder description() {
+                return BuildOperationDescriptor.displayName("Publish " + location.getDisplayName());
+            }
+        }
+    }
+
+    private static SimpleDateFormat utcDateFormat(String pattern) {
+        SimpleDateFormat format = new SimpleDateFormat(pattern);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return format;
+    }
+
+    /**
+     * The content of a file, that calculates the SHA1 and MD5 checksums of the file while the transport reads it.
+     * The checksums are calculated from the file itself when the transport did not read the file to the end.
+     */
+    private static class ChecksumCalculatingContent implements ReadableContent {
+        private final ReadableContent delegate;
+        private final File file;
+        private volatile HashValue sha1;
+        private volatile HashValue md5;
+
+        ChecksumCalculatingContent(File file) {
+            this.file = file;
+            this.delegate = new FileReadableContent(file);
+        }
+
+        @Override
+        public long getContentLength() {
+            return delegate.getContentLength();
+        }
+
+        @Override
+        public InputStream open() {
+            final MessageDigest sha1Digest = createMessageDigest(SHA1);
+            final MessageDigest md5Digest = createMessageDigest(MD5);
+            return new FilterInputStream(delegate.open()) {
+                @Override
+                public int read() throws IOException {
+                    int result = super.read();
+                    if (result < 0) {
+                        finished();
+                    } else {
+                        sha1Digest.update((byte) result);
+                        md5Digest.update((byte) result);
+                    }
+                    return result;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    int result = super.read(b, off, len);
+                    if (result < 0) {
+                        finished();
+                    } else {
+                        sha1Digest.update(b, off, result);
+                        md5Digest.update(b, off, result);
+                    }
+                    return result;
+                }
+
+                @Override
+                public long skip(long n) throws IOException {
+                    // Read the skipped bytes, so they are included in the checksums
+                    byte[] buffer = new byte[(int) Math.min(n, 8192)];
+                    long skipped = 0;
+                    while (skipped < n) {
+                        int read = read(buffer, 0, (int) Math.min(n - skipped, buffer.length));
+                        if (read < 0) {
+                            break;
+                        }
+                        skipped += read;
+                    }
+                    return skipped;
+                }
+
+                @Override
+                public boolean markSupported() {
+                    return false;
+                }
+
+                private void finished() {
+                    if (sha1 == null) {
+                        sha1 = new HashValue(sha1Digest.digest());
+                        md5 = new HashValue(md5Digest.digest());
+                    }
+                }
+            };
+        }
+
+        HashValue getHash(String algorithm) {
+            HashValue hash = SHA1.equals(algorithm) ? sha1 : md5;
+            if (hash == null) {
+                LOGGER.debug("The content of {} was not fully read during upload, calculating the {} checksum from the file.", file, algorithm);
+                hash = HashUtil.createHash(file, algorithm);
+            }
+            return hash;
+        }
+
+        private static MessageDigest createMessageDigest(String algorithm) {
+            try {
+                return MessageDigest.getInstance(algorithm);
+            } catch (NoSuchAlgorithmException e) {
+                throw UncheckedException.throwAsUncheckedException(e);
+            }
+        }
+    }
+}
@@ -23,10 +23,12 @@ import org.gradle.api.publish.internal.PublishOperation;
 import org.gradle.api.publish.maven.internal.publication.MavenPublicationInternal;
 import org.gradle.api.publish.maven.internal.publisher.MavenPublisher;
 import org.gradle.api.publish.maven.internal.publisher.MavenRemotePublisher;
+import org.gradle.api.publish.maven.internal.publisher.MavenRepositoryTransportPublisher;
 import org.gradle.api.publish.maven.internal.publisher.StaticLockingMavenPublisher;
 import org.gradle.api.publish.maven.internal.publisher.ValidatingMavenPublisher;
 import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.TaskAction;
+import org.gradle.internal.operations.BuildOperationExecutor;
 
 import javax.inject.Inject;
 
@@ -77,9 +79,13 @@ public class PublishToMavenRepository extends AbstractPublishToMaven {
         new PublishOperation(publication, repository.getName()) {
             @Override
             protected void publish() throws Exception {
-                MavenPublisher remotePublisher = new MavenRemotePublisher(getLoggingManagerFactory(), getMavenRepositoryLocator(), getTemporaryDirFactory(), getRepositoryTransportFactory());
-                MavenPublisher staticLockingPublisher = new StaticLockingMavenPublisher(remotePublisher);
-                MavenPublisher validatingPublisher = new ValidatingMavenPublisher(staticLockingPublisher);
+                MavenPublisher remotePublisher;
+                if (Boolean.getBoolean(MavenRepositoryTransportPublisher.ENABLED_PROPERTY)) {
+                    remotePublisher = new MavenRepositoryTransportPublisher(getRepositoryTransportFactory(), getBuildOperationExecutor());
+                } else {
+                    remotePublisher = new StaticLockingMavenPublisher(new MavenRemotePublisher(getLoggingManagerFactory(), getMavenRepositoryLocator(), getTemporaryDirFactory(), getRepositoryTransportFactory()));
+                }
+                MavenPublisher validatingPublisher = new ValidatingMavenPublisher(remotePublisher);
                 validatingPublisher.publish(publication.asNormalisedPublication(), repository);
             }
         }.run();
@@ -89,4 +95,9 @@ public class PublishToMavenRepository extends AbstractPublishToMaven {
     protected RepositoryTransportFactory getRepositoryTransportFactory() {
         throw new UnsupportedOperationException();
     }
+
+    @Inject
+    protected BuildOperationExecutor getBuildOperationExecutor() {
+        throw new UnsupportedOperationException();
+    }
 }
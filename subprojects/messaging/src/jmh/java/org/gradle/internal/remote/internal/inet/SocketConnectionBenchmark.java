@@ -0,0 +1,103 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.internal.remote.internal.inet;
+
+import org.gradle.internal.remote.internal.KryoBackedMessageSerializer;
+import org.gradle.internal.remote.internal.MessageIOException;
+import org.gradle.internal.serialize.BaseSerializerFactory;
+import org.gradle.internal.serialize.Serializers;
+import org.gradle.internal.serialize.StatefulSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Random;
+
+/**
+ * Measures the throughput of sending messages of various sizes over a loopback {@link SocketConnection}, while another thread receives them.
+ */
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class SocketConnectionBenchmark {
+
+    @Param({"64", "4096", "1048576"})
+    int payloadSize;
+
+    private ServerSocketChannel serverChannel;
+    private SocketConnection<byte[]> sender;
+    private SocketConnection<byte[]> receiver;
+    private Thread receiverThread;
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.socket().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        SocketChannel outgoing = SocketChannel.open(serverChannel.socket().getLocalSocketAddress());
+        SocketChannel incoming = serverChannel.accept();
+
+        StatefulSerializer<byte[]> serializer = Serializers.stateful(BaseSerializerFactory.BYTE_ARRAY_SERIALIZER);
+        sender = new SocketConnection<byte[]>(outgoing, new KryoBackedMessageSerializer(), serializer);
+        receiver = new SocketConnection<byte[]>(incoming, new KryoBackedMessageSerializer(), serializer);
+
+        payload = new byte[payloadSize];
+        new Random(42).nextBytes(payload);
+
+        receiverThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    while (receiver.receive() != null) {
+                        // Discard
+                    }
+                } catch (MessageIOException e) {
+                    // Connection closed
+                }
+            }
+        });
+        receiverThread.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        sender.stop();
+        receiverThread.join();
+        receiver.stop();
+        serverChannel.close();
+    }
+
+    @Benchmark
+    public void dispatchAndFlush() {
+        sender.dispatch(payload);
+        sender.flush();
+    }
+}
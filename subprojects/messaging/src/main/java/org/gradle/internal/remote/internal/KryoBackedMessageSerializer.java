@@ -25,13 +25,16 @@ import java.io.InputStream;
 import java.io.OutputStream;
 
 public class KryoBackedMessageSerializer implements MessageSerializer {
+    // Large enough for most messages to be written to and read from the connection in one go, rather than in many small chunks
+    private static final int BUFFER_SIZE = 32 * 1024;
+
     @Override
     public Decoder newDecoder(InputStream inputStream) {
-        return new KryoBackedDecoder(inputStream);
+        return new KryoBackedDecoder(inputStream, BUFFER_SIZE);
     }
 
     @Override
     public FlushableEncoder newEncoder(OutputStream outputStream) {
-        return new KryoBackedEncoder(outputStream);
+        return new KryoBackedEncoder(outputStream, BUFFER_SIZE);
     }
 }
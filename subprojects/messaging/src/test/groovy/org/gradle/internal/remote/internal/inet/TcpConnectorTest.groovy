@@ -223,6 +223,31 @@ class TcpConnectorTest extends ConcurrentSpec {
         acceptor?.stop()
     }
 
+    def "can exchange messages larger than the connection buffers"() {
+        given:
+        def bytesSerializer = Serializers.stateful(BaseSerializerFactory.BYTE_ARRAY_SERIALIZER)
+        def payload = new byte[1024 * 1024]
+        new Random(1).nextBytes(payload)
+
+        when:
+        def acceptor = incomingConnector.accept({ ConnectCompletion completion ->
+            def connection = completion.create(bytesSerializer)
+            connection.dispatch(connection.receive())
+            connection.stop()
+        } as Action, false)
+        def connection = outgoingConnector.connect(acceptor.address).create(bytesSerializer)
+        connection.dispatch(payload)
+        connection.flush()
+
+        then:
+        connection.receive() == payload
+        connection.receive() == null
+
+        cleanup:
+        connection?.stop()
+        acceptor?.stop()
+    }
+
     def "returns null on failure to receive due to truncated input"() {
         given:
         def incomingSerializer = { Encoder encoder, String value ->
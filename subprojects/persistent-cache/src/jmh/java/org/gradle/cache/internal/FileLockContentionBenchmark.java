@@ -0,0 +1,164 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.cache.internal;
+
+import org.gradle.cache.FileLock;
+import org.gradle.cache.FileLockManager;
+import org.gradle.cache.internal.filelock.LockOptionsBuilder;
+import org.gradle.cache.internal.locklistener.DefaultFileLockContentionHandler;
+import org.gradle.internal.concurrent.DefaultExecutorFactory;
+import org.gradle.internal.remote.internal.inet.InetAddressFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the distribution of the time it takes to acquire an exclusive file lock that a number of other processes keep acquiring
+ * and holding until they are asked to release it, as Gradle daemons and workers sharing a Gradle user home do.
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class FileLockContentionBenchmark {
+    private static final int MAX_HOLD_TIME_MS = 50;
+
+    @Param({"1", "4"})
+    int contendingProcesses;
+
+    private final List<Process> processes = new ArrayList<Process>();
+    private DefaultFileLockContentionHandler contentionHandler;
+    private FileLockManager lockManager;
+    private File lockTarget;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        lockTarget = File.createTempFile("file-lock-contention", ".bin");
+        for (int i = 0; i < contendingProcesses; i++) {
+            ProcessBuilder builder = new ProcessBuilder(
+                new File(System.getProperty("java.home"), "bin/java").getAbsolutePath(),
+                "-cp", System.getProperty("java.class.path"),
+                FileLockContentionBenchmark.class.getName(),
+                lockTarget.getAbsolutePath());
+            builder.redirectErrorStream(true);
+            builder.redirectOutput(ProcessBuilder.Redirect.INHERIT);
+            processes.add(builder.start());
+        }
+        contentionHandler = createContentionHandler();
+        lockManager = createLockManager(contentionHandler);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        for (Process process : processes) {
+            process.destroy();
+        }
+        for (Process process : processes) {
+            process.waitFor();
+        }
+        processes.clear();
+        contentionHandler.stop();
+        lockTarget.delete();
+    }
+
+    @Benchmark
+    public void acquireContendedLock() {
+        FileLock lock = lockManager.lock(lockTarget, LockOptionsBuilder.mode(FileLockManager.LockMode.Exclusive), "benchmark lock", "benchmark", new Runnable() {
+            @Override
+            public void run() {
+            }
+        });
+        lock.close();
+    }
+
+    /**
+     * Runs one of the contending processes: repeatedly acquires the lock and holds it until another process asks for it, or
+     * for at most {@value #MAX_HOLD_TIME_MS}ms. Stops when its standard input is closed.
+     */
+    public static void main(String[] args) throws Exception {
+        File lockTarget = new File(args[0]);
+        Thread watchdog = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    while (System.in.read() != -1) {
+                        // Keep waiting for the parent process to go away
+                    }
+                } catch (IOException e) {
+                    // Stop as well
+                }
+                System.exit(0);
+            }
+        });
+        watchdog.setDaemon(true);
+        watchdog.start();
+
+        FileLockManager lockManager = createLockManager(createContentionHandler());
+        while (true) {
+            final CountDownLatch contended = new CountDownLatch(1);
+            FileLock lock = lockManager.lock(lockTarget, LockOptionsBuilder.mode(FileLockManager.LockMode.Exclusive), "benchmark lock", "contending process", new Runnable() {
+                @Override
+                public void run() {
+                    contended.countDown();
+                }
+            });
+            try {
+                contended.await(MAX_HOLD_TIME_MS, TimeUnit.MILLISECONDS);
+            } finally {
+                lock.close();
+            }
+        }
+    }
+
+    private static DefaultFileLockContentionHandler createContentionHandler() {
+        return new DefaultFileLockContentionHandler(new DefaultExecutorFactory(), new InetAddressFactory());
+    }
+
+    private static FileLockManager createLockManager(DefaultFileLockContentionHandler contentionHandler) {
+        return new DefaultFileLockManager(new ProcessMetaDataProvider() {
+            @Override
+            public String getProcessIdentifier() {
+                return String.valueOf(System.identityHashCode(this));
+            }
+
+            @Override
+            public String getProcessDisplayName() {
+                return "file lock contention benchmark";
+            }
+        }, contentionHandler);
+    }
+}
@@ -267,6 +267,12 @@ public class DefaultFileLockManager implements FileLockManager {
                     lockedFiles.remove(target);
                 }
             });
+            stoppable.add(new Stoppable() {
+                public void stop() {
+                    // Wake up the processes waiting for this lock, now that it has been released
+                    fileLockContentionHandler.notifyReleased(lockId);
+                }
+            });
             stoppable.stop();
         }
 
@@ -337,16 +343,19 @@ public class DefaultFileLockManager implements FileLockManager {
             return backoff.retryUntil(new IOQuery<java.nio.channels.FileLock>() {
                 private long lastPingTime;
                 private int lastLockHolderPort;
+                private Long lastLockHolderLockId;
 
                 @Override
-                public java.nio.channels.FileLock run() throws IOException, InterruptedException {
+                java.nio.channels.FileLock run() throws IOException, InterruptedException {
                     java.nio.channels.FileLock fileLock = lockFileAccess.tryLockState(lockMode == LockMode.Shared);
                     if (fileLock != null) {
                         return fileLock;
                     }
+                    lastLockHolderLockId = null;
                     if (port != -1) { //we don't like the assumption about the port very much
                         LockInfo lockInfo = readInformationRegion(backoff);
                         if (lockInfo.port != -1) {
+                            lastLockHolderLockId = lockInfo.lockId;
                             if (lockInfo.port != lastLockHolderPort) {
                                 backoff.restartTimer();
                                 lastLockHolderPort = lockInfo.port;
@@ -362,21 +371,37 @@ public class DefaultFileLockManager implements FileLockManager {
                     }
                     return null;
                 }
+
+                @Override
+                void waitBeforeRetry(long periodMs) throws InterruptedException {
+                    if (lastLockHolderLockId == null) {
+                        super.waitBeforeRetry(periodMs);
+                    } else if (fileLockContentionHandler.awaitRelease(lastLockHolderLockId, periodMs)) {
+                        LOGGER.debug("The file lock was released by the other Gradle process (lockId: {}). Retrying to acquire it.", lastLockHolderLockId);
+                    }
+                }
             });
         }
 
         private java.nio.channels.FileLock lockInformationRegion(final LockMode lockMode, ExponentialBackoff backoff) throws IOException, InterruptedException {
             return backoff.retryUntil(new IOQuery<java.nio.channels.FileLock>() {
                 @Override
-                public java.nio.channels.FileLock run() throws IOException {
+                java.nio.channels.FileLock run() throws IOException {
                     return lockFileAccess.tryLockInfo(lockMode == LockMode.Shared);
                 }
             });
         }
     }
 
-    private interface IOQuery<T> {
-        T run() throws IOException, InterruptedException;
+    private abstract static class IOQuery<T> {
+        abstract T run() throws IOException, InterruptedException;
+
+        /**
+         * Waits before the query is run again. May return early when a retry is likely to succeed.
+         */
+        void waitBeforeRetry(long periodMs) throws InterruptedException {
+            Thread.sleep(periodMs);
+        }
     }
 
     private static class ExponentialBackoff {
@@ -406,7 +431,7 @@ public class DefaultFileLockManager implements FileLockManager {
                 if (timer.hasExpired()) {
                     break;
                 }
-                Thread.sleep(backoffPeriodFor(++iteration));
+                query.waitBeforeRetry(backoffPeriodFor(++iteration));
             }
             return result;
         }
@@ -24,8 +24,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.DatagramPacket;
+import java.net.SocketAddress;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -61,6 +68,11 @@ import java.util.concurrent.locks.ReentrantLock;
  *     <li>the message is interpreted as confirmation and stored. No further messages are sent to the Lock Owner via
  *    {@link #maybePingOwner(int, long, String, long)}.</li>
  * <p>
+ * The Lock Holder remembers the Lock Requesters of each lock in the order their requests arrived. Once the lock has been released,
+ * {@link #notifyReleased(long)} sends each of them, in that order, a release notification. A Lock Requester waiting in
+ * {@link #awaitRelease(long, long)} is woken up by this notification, so it can retry to acquire the lock right away instead of
+ * sleeping until its next retry.
+ * <p>
  * As Lock Requester, the state of the request is always stored per lock (lockId) and Lock Holder (port). The Lock Holder
  * for a lock might change without acquiring the lock if several Lock Requester compete for the same lock.
  */
@@ -68,10 +80,13 @@ public class DefaultFileLockContentionHandler implements FileLockContentionHandl
     private static final Logger LOGGER = LoggerFactory.getLogger(DefaultFileLockContentionHandler.class);
     private static final int PING_DELAY = 1000;
     private final Lock lock = new ReentrantLock();
+    private final Condition releaseReceived = lock.newCondition();
 
     private final Map<Long, ContendedAction> contendedActions = new HashMap<Long, ContendedAction>();
     private final Map<Long, Integer> unlocksRequestedFrom = new HashMap<Long, Integer>();
     private final Map<Long, Integer> unlocksConfirmedFrom = new HashMap<Long, Integer>();
+    private final Map<Long, Collection<SocketAddress>> pendingReleaseNotifications = new HashMap<Long, Collection<SocketAddress>>();
+    private final Set<Long> releasesReceived = new HashSet<Long>();
 
     private final ExecutorFactory executorFactory;
     private final InetAddressFactory addressFactory;
@@ -113,12 +128,15 @@ public class DefaultFileLockContentionHandler implements FileLockContentionHandl
 
                     lock.lock();
                     ContendedAction contendedAction = contendedActions.get(lockId);
-                    if (contendedAction == null) {
+                    if (communicator.isReleaseNotification(packet)) {
+                        acceptReleaseNotificationAsLockRequester(lockId, packet.getPort());
+                    } else if (contendedAction == null) {
                         acceptConfirmationAsLockRequester(lockId, packet.getPort());
                     } else {
                         if (!contendedAction.running) {
                             startLockReleaseAsLockHolder(contendedAction);
                         }
+                        contendedAction.requesters.add(packet.getSocketAddress());
                         communicator.confirmUnlockRequest(packet);
                     }
                     lock.unlock();
@@ -137,6 +155,17 @@ public class DefaultFileLockContentionHandler implements FileLockContentionHandl
         LOGGER.debug("Gradle process at port {} confirmed unlock request for lock with id {}.", port, lockId);
     }
 
+    private void acceptReleaseNotificationAsLockRequester(long lockId, int port) {
+        if (unlocksRequestedFrom.remove(lockId) == null) {
+            // Not waiting for this lock (any more)
+            return;
+        }
+        unlocksConfirmedFrom.remove(lockId);
+        releasesReceived.add(lockId);
+        releaseReceived.signalAll();
+        LOGGER.debug("Gradle process at port {} released lock with id {}.", port, lockId);
+    }
+
     public void start(long lockId, Runnable whenContended) {
         lock.lock();
         unlocksRequestedFrom.remove(lockId);
@@ -146,10 +175,7 @@ public class DefaultFileLockContentionHandler implements FileLockContentionHandl
             if (communicator == null) {
                 throw new IllegalStateException("Must initialize the handler by reserving the port first.");
             }
-            if (fileLockRequestListener == null) {
-                fileLockRequestListener = executorFactory.create("File lock request listener");
-                fileLockRequestListener.execute(listener());
-            }
+            startListenerIfNecessary();
             if (unlockActionExecutor == null) {
                 unlockActionExecutor = executorFactory.create("File lock release action executor");
             }
@@ -175,12 +201,60 @@ public class DefaultFileLockContentionHandler implements FileLockContentionHandl
         boolean pingSentSuccessfully = getCommunicator().pingOwner(port, lockId, displayName);
         if (pingSentSuccessfully) {
             lock.lock();
-            unlocksRequestedFrom.put(lockId, port);
-            lock.unlock();
+            try {
+                unlocksRequestedFrom.put(lockId, port);
+                // Listen for the confirmation and the release notification
+                if (!stopped) {
+                    startListenerIfNecessary();
+                }
+            } finally {
+                lock.unlock();
+            }
         }
         return pingSentSuccessfully;
     }
 
+    private void startListenerIfNecessary() {
+        if (fileLockRequestListener == null) {
+            fileLockRequestListener = executorFactory.create("File lock request listener");
+            fileLockRequestListener.execute(listener());
+        }
+    }
+
+    public void notifyReleased(long lockId) {
+        Collection<SocketAddress> requesters;
+        FileLockCommunicator communicator;
+        lock.lock();
+        try {
+            requesters = pendingReleaseNotifications.remove(lockId);
+            communicator = this.communicator;
+            if (requesters == null || stopped) {
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (SocketAddress requester : requesters) {
+            communicator.notifyReleased(requester, lockId);
+        }
+    }
+
+    public boolean awaitRelease(long lockId, long timeoutMs) throws InterruptedException {
+        long remainingNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        lock.lock();
+        try {
+            while (!releasesReceived.remove(lockId)) {
+                if (remainingNanos <= 0) {
+                    return false;
+                }
+                remainingNanos = releaseReceived.awaitNanos(remainingNanos);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
     private void assertNotStopped() {
         if (stopped) {
             throw new IllegalStateException(
@@ -191,7 +265,10 @@ public class DefaultFileLockContentionHandler implements FileLockContentionHandl
     public void stop(long lockId) {
         lock.lock();
         try {
-            contendedActions.remove(lockId);
+            ContendedAction contendedAction = contendedActions.remove(lockId);
+            if (contendedAction != null && !contendedAction.requesters.isEmpty()) {
+                pendingReleaseNotifications.put(lockId, contendedAction.requesters);
+            }
         } finally {
             lock.unlock();
         }
@@ -202,6 +279,8 @@ public class DefaultFileLockContentionHandler implements FileLockContentionHandl
         try {
             stopped = true;
             contendedActions.clear();
+            pendingReleaseNotifications.clear();
+            releaseReceived.signalAll();
             if (communicator != null) {
                 communicator.stop();
             }
@@ -235,6 +314,7 @@ public class DefaultFileLockContentionHandler implements FileLockContentionHandl
 
     private static class ContendedAction {
         private final Runnable action;
+        private final Collection<SocketAddress> requesters = new LinkedHashSet<SocketAddress>();
         private boolean running;
 
         private ContendedAction(Runnable action) {
@@ -28,6 +28,7 @@ import java.io.IOException;
 import java.net.DatagramPacket;
 import java.net.DatagramSocket;
 import java.net.InetAddress;
+import java.net.SocketAddress;
 import java.net.SocketException;
 
 import static org.gradle.internal.UncheckedException.throwAsUncheckedException;
@@ -37,6 +38,11 @@ public class FileLockCommunicator {
     private static final String SOCKET_OPERATION_NOT_PERMITTED_ERROR_MESSAGE = "Operation not permitted";
 
     private static final byte PROTOCOL_VERSION = 1;
+    // Release notifications carry a trailing type byte. Older versions only read the first 9 bytes of a packet and treat the notification
+    // as the confirmation of an unlock request, which is harmless.
+    private static final byte RELEASE_NOTIFICATION = 1;
+    private static final int MESSAGE_LENGTH = 9;
+    private static final int RELEASE_NOTIFICATION_LENGTH = MESSAGE_LENGTH + 1;
     private final DatagramSocket socket;
     private final InetAddressFactory addressFactory;
     private boolean stopped;
@@ -74,7 +80,7 @@ public class FileLockCommunicator {
 
     public DatagramPacket receive() throws GracefullyStoppedException {
         try {
-            byte[] bytes = new byte[9];
+            byte[] bytes = new byte[RELEASE_NOTIFICATION_LENGTH];
             DatagramPacket packet = new DatagramPacket(bytes, bytes.length);
             socket.receive(packet);
             return packet;
@@ -100,7 +106,7 @@ public class FileLockCommunicator {
     public void confirmUnlockRequest(DatagramPacket receivedPacket) {
         try {
             byte[] bytes = receivedPacket.getData();
-            DatagramPacket confirmPacket = new DatagramPacket(bytes, bytes.length, receivedPacket.getAddress(), receivedPacket.getPort());
+            DatagramPacket confirmPacket = new DatagramPacket(bytes, Math.min(receivedPacket.getLength(), MESSAGE_LENGTH), receivedPacket.getAddress(), receivedPacket.getPort());
             socket.send(confirmPacket);
         } catch (IOException e) {
             if (!stopped) {
@@ -110,16 +116,41 @@ public class FileLockCommunicator {
         }
     }
 
+    public boolean isReleaseNotification(DatagramPacket receivedPacket) {
+        return receivedPacket.getLength() == RELEASE_NOTIFICATION_LENGTH && receivedPacket.getData()[MESSAGE_LENGTH] == RELEASE_NOTIFICATION;
+    }
+
+    /**
+     * Notifies a process that previously requested the given lock that the lock has been released.
+     */
+    public void notifyReleased(SocketAddress requester, long lockId) {
+        try {
+            byte[] bytesToSend = encode(lockId, true);
+            socket.send(new DatagramPacket(bytesToSend, bytesToSend.length, requester));
+        } catch (IOException e) {
+            if (!stopped) {
+                LOGGER.debug("Failed to notify {} about the release of lock with id {}.", requester, lockId, e);
+            }
+        }
+    }
+
     public void stop() {
         stopped = true;
         socket.close();
     }
 
     private static byte[] encode(long lockId) throws IOException {
+        return encode(lockId, false);
+    }
+
+    private static byte[] encode(long lockId, boolean releaseNotification) throws IOException {
         ByteArrayOutputStream packet = new ByteArrayOutputStream();
         DataOutputStream dataOutput = new DataOutputStream(packet);
         dataOutput.writeByte(PROTOCOL_VERSION);
         dataOutput.writeLong(lockId);
+        if (releaseNotification) {
+            dataOutput.writeByte(RELEASE_NOTIFICATION);
+        }
         dataOutput.flush();
         return packet.toByteArray();
     }
@@ -32,4 +32,18 @@ public interface FileLockContentionHandler {
      * @return true if the owner was pinged in this call
      */
     boolean maybePingOwner(int port, long lockId, String displayName, long timeElapsed);
+
+    /**
+     * Notifies the processes that requested the release of the given lock that the lock has been released.
+     * The processes are notified in the order in which their requests were received. Called after {@link #stop(long)},
+     * once the underlying file lock has been released.
+     */
+    void notifyReleased(long lockId);
+
+    /**
+     * Waits until the owner of the given lock notifies that the lock has been released, or until the timeout expires.
+     *
+     * @return true if the release notification was received
+     */
+    boolean awaitRelease(long lockId, long timeoutMs) throws InterruptedException;
 }
@@ -62,6 +62,10 @@ abstract class AbstractFileLockManagerTest extends Specification {
         metaDataProvider.processIdentifier >> '123'
         metaDataProvider.processDisplayName >> 'process'
         contentionHandler.reservePort() >> 34
+        contentionHandler.awaitRelease(_, _) >> { long lockId, long timeoutMs ->
+            Thread.sleep(timeoutMs)
+            false
+        }
         generator.generateId() >> 678L
     }
 
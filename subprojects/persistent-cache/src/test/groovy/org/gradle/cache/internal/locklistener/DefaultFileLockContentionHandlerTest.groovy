@@ -52,6 +52,57 @@ class DefaultFileLockContentionHandlerTest extends ConcurrentSpecification {
         }
     }
 
+    def "notifies lock requesters when the lock is released"() {
+        def client2 = new DefaultFileLockContentionHandler(executorFactory, addressFactory)
+        def action = new MutableBoolean()
+
+        when:
+        int port = handler.reservePort()
+        handler.start(10, { action.set(true) })
+
+        client.maybePingOwner(port, 10, "lock", 50000)
+        client2.maybePingOwner(port, 10, "lock", 50000)
+        poll {
+            assert action.get()
+            assert handler.contendedActions[10L].requesters.size() == 2
+        }
+
+        handler.stop(10)
+        handler.notifyReleased(10)
+
+        then:
+        client.awaitRelease(10, 5000)
+        client2.awaitRelease(10, 5000)
+
+        cleanup:
+        client2.stop()
+    }
+
+    def "does not wait for a release notification longer than the given timeout"() {
+        when:
+        int port = handler.reservePort()
+        handler.start(10, {} as Runnable)
+        client.maybePingOwner(port, 10, "lock", 50000)
+
+        then:
+        !client.awaitRelease(10, 100)
+    }
+
+    def "does not notify lock requesters when the handler was stopped"() {
+        when:
+        int port = handler.reservePort()
+        handler.start(10, {} as Runnable)
+        client.maybePingOwner(port, 10, "lock", 50000)
+        poll { assert handler.contendedActions[10L].requesters.size() == 1 }
+
+        handler.stop(10)
+        handler.stop()
+        handler.notifyReleased(10)
+
+        then:
+        !client.awaitRelease(10, 100)
+    }
+
     def "there are only two executors: one lock request listener and one release lock action executor"() {
         def factory = Mock(ExecutorFactory)
         handler = new DefaultFileLockContentionHandler(factory, addressFactory)
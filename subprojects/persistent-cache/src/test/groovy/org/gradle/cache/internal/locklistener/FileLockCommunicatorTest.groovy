@@ -63,6 +63,48 @@ class FileLockCommunicatorTest extends ConcurrentSpecification {
         }
     }
 
+    def "can receive release notification"() {
+        def requester = new FileLockCommunicator(new InetAddressFactory())
+        boolean releaseNotification
+
+        start {
+            def packet = requester.receive()
+            releaseNotification = requester.isReleaseNotification(packet)
+            receivedId = requester.decodeLockId(packet)
+        }
+
+        when:
+        communicator.notifyReleased(new InetSocketAddress(new InetAddressFactory().communicationAddresses[0], requester.getPort()), 155)
+
+        then:
+        poll {
+            assert receivedId == 155
+        }
+        releaseNotification
+
+        cleanup:
+        requester.stop()
+    }
+
+    def "unlock request is not a release notification"() {
+        boolean releaseNotification = true
+
+        start {
+            def packet = communicator.receive()
+            releaseNotification = communicator.isReleaseNotification(packet)
+            receivedId = communicator.decodeLockId(packet)
+        }
+
+        when:
+        communicator.pingOwner(communicator.getPort(), 155, "lock")
+
+        then:
+        poll {
+            assert receivedId == 155
+        }
+        !releaseNotification
+    }
+
     def "may not receive after the stop"() {
         communicator.stop()
         when:
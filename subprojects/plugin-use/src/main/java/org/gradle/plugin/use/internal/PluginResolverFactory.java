@@ -26,6 +26,7 @@ import org.gradle.plugin.use.resolve.internal.ArtifactRepositoriesPluginResolver
 import org.gradle.plugin.use.resolve.internal.CompositePluginResolver;
 import org.gradle.plugin.use.resolve.internal.CorePluginResolver;
 import org.gradle.plugin.use.resolve.internal.NoopPluginResolver;
+import org.gradle.plugin.use.resolve.internal.PluginMarkerCache;
 import org.gradle.plugin.use.resolve.internal.PluginResolver;
 import org.gradle.plugin.use.resolve.internal.SelfResolvingRequestPluginResolver;
 import org.gradle.plugin.use.resolve.service.internal.InjectedClasspathPluginResolver;
@@ -41,19 +42,25 @@ public class PluginResolverFactory implements Factory<PluginResolver> {
     private final DependencyResolutionServices dependencyResolutionServices;
     private final VersionSelectorScheme versionSelectorScheme;
     private final PluginInspector pluginInspector;
+    private final PluginMarkerCache pluginMarkerCache;
+    private final boolean refreshDependencies;
 
     public PluginResolverFactory(
         PluginRegistry pluginRegistry,
         PluginInspector pluginInspector, DocumentationRegistry documentationRegistry,
         InjectedClasspathPluginResolver injectedClasspathPluginResolver,
         DependencyResolutionServices dependencyResolutionServices,
-        VersionSelectorScheme versionSelectorScheme) {
+        VersionSelectorScheme versionSelectorScheme,
+        PluginMarkerCache pluginMarkerCache,
+        boolean refreshDependencies) {
         this.pluginRegistry = pluginRegistry;
         this.pluginInspector = pluginInspector;
         this.documentationRegistry = documentationRegistry;
         this.injectedClasspathPluginResolver = injectedClasspathPluginResolver;
         this.dependencyResolutionServices = dependencyResolutionServices;
         this.versionSelectorScheme = versionSelectorScheme;
+        this.pluginMarkerCache = pluginMarkerCache;
+        this.refreshDependencies = refreshDependencies;
     }
 
     @Override
@@ -94,6 +101,6 @@ public class PluginResolverFactory implements Factory<PluginResolver> {
             resolvers.add(injectedClasspathPluginResolver);
         }
 
-        resolvers.add(ArtifactRepositoriesPluginResolver.createWithDefaults(dependencyResolutionServices, versionSelectorScheme));
+        resolvers.add(ArtifactRepositoriesPluginResolver.createWithDefaults(dependencyResolutionServices, versionSelectorScheme, pluginMarkerCache, refreshDependencies));
     }
 }
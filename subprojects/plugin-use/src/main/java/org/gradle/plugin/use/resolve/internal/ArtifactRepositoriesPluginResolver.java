@@ -28,6 +28,9 @@ import org.gradle.api.internal.artifacts.DependencyResolutionServices;
 import org.gradle.api.internal.artifacts.dependencies.DefaultExternalModuleDependency;
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionSelectorScheme;
 import org.gradle.api.internal.artifacts.repositories.ArtifactRepositoryInternal;
+import org.gradle.api.internal.artifacts.repositories.ResolutionAwareRepository;
+import org.gradle.internal.hash.Hasher;
+import org.gradle.internal.hash.Hashing;
 import org.gradle.plugin.management.internal.InvalidPluginRequestException;
 import org.gradle.plugin.management.internal.PluginRequestInternal;
 import org.gradle.plugin.use.PluginId;
@@ -44,20 +47,43 @@ public class ArtifactRepositoriesPluginResolver implements PluginResolver {
     @VisibleForTesting
     static final String SOURCE_NAME = "Plugin Repositories";
 
-    public static ArtifactRepositoriesPluginResolver createWithDefaults(DependencyResolutionServices dependencyResolutionServices, VersionSelectorScheme versionSelectorScheme) {
+    public static ArtifactRepositoriesPluginResolver createWithDefaults(DependencyResolutionServices dependencyResolutionServices, VersionSelectorScheme versionSelectorScheme,
+                                                                         PluginMarkerCache pluginMarkerCache, boolean refreshDependencies) {
         RepositoryHandler repositories = dependencyResolutionServices.getResolveRepositoryHandler();
         if (repositories.isEmpty()) {
             repositories.gradlePluginPortal();
         }
-        return new ArtifactRepositoriesPluginResolver(dependencyResolutionServices, versionSelectorScheme);
+        return new ArtifactRepositoriesPluginResolver(dependencyResolutionServices, versionSelectorScheme, pluginMarkerCache, refreshDependencies);
+    }
+
+    /**
+     * Calculates a fingerprint of the given repositories, based on the ids of their resolvers. The id of a resolver covers the configuration that
+     * affects what it resolves, such as its URLs, layout and metadata sources.
+     */
+    static String fingerprint(RepositoryHandler repositories) {
+        Hasher hasher = Hashing.md5().newHasher();
+        for (ArtifactRepository repository : repositories) {
+            if (repository instanceof ResolutionAwareRepository) {
+                hasher.putString(((ResolutionAwareRepository) repository).createResolver().getId());
+            } else {
+                hasher.putString(((ArtifactRepositoryInternal) repository).getDisplayName());
+            }
+        }
+        return hasher.hash().toString();
     }
 
     private final DependencyResolutionServices resolution;
     private final VersionSelectorScheme versionSelectorScheme;
+    private final PluginMarkerCache pluginMarkerCache;
+    private final boolean refreshDependencies;
+    private String repositoriesFingerprint;
 
-    public ArtifactRepositoriesPluginResolver(DependencyResolutionServices dependencyResolutionServices, VersionSelectorScheme versionSelectorScheme) {
+    public ArtifactRepositoriesPluginResolver(DependencyResolutionServices dependencyResolutionServices, VersionSelectorScheme versionSelectorScheme,
+                                              PluginMarkerCache pluginMarkerCache, boolean refreshDependencies) {
         this.resolution = dependencyResolutionServices;
         this.versionSelectorScheme = versionSelectorScheme;
+        this.pluginMarkerCache = pluginMarkerCache;
+        this.refreshDependencies = refreshDependencies;
     }
 
     @Override
@@ -109,10 +135,19 @@ public class ArtifactRepositoriesPluginResolver implements PluginResolver {
      * Checks whether the plugin marker artifact exists in the backing artifacts repositories.
      */
     private boolean exists(ModuleDependency dependency) {
+        String notation = getNotation(dependency);
+        boolean cacheable = !dependency.getVersion().endsWith("-SNAPSHOT");
+        if (cacheable && !refreshDependencies && pluginMarkerCache.isKnownToExist(notation, getRepositoriesFingerprint())) {
+            return true;
+        }
         ConfigurationContainer configurations = resolution.getConfigurationContainer();
         Configuration configuration = configurations.detachedConfiguration(dependency);
         configuration.setTransitive(false);
-        return !configuration.getResolvedConfiguration().hasError();
+        boolean exists = !configuration.getResolvedConfiguration().hasError();
+        if (exists && cacheable) {
+            pluginMarkerCache.found(notation, getRepositoriesFingerprint());
+        }
+        return exists;
     }
 
     private ModuleDependency getMarkerDependency(PluginRequestInternal pluginRequest) {
@@ -125,6 +160,13 @@ public class ArtifactRepositoriesPluginResolver implements PluginResolver {
         }
     }
 
+    private String getRepositoriesFingerprint() {
+        if (repositoriesFingerprint == null) {
+            repositoriesFingerprint = fingerprint(resolution.getResolveRepositoryHandler());
+        }
+        return repositoriesFingerprint;
+    }
+
     private String getNotation(Dependency dependency) {
         return Joiner.on(':').join(dependency.getGroup(), dependency.getName(), dependency.getVersion());
     }
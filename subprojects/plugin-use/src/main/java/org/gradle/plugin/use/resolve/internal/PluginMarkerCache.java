@@ -0,0 +1,71 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.plugin.use.resolve.internal;
+
+import org.gradle.api.internal.changedetection.state.InMemoryCacheDecoratorFactory;
+import org.gradle.cache.CacheRepository;
+import org.gradle.cache.FileLockManager;
+import org.gradle.cache.PersistentCache;
+import org.gradle.cache.PersistentIndexedCache;
+import org.gradle.cache.PersistentIndexedCacheParameters;
+import org.gradle.internal.concurrent.Stoppable;
+
+import static org.gradle.cache.internal.filelock.LockOptionsBuilder.mode;
+import static org.gradle.internal.serialize.BaseSerializerFactory.BOOLEAN_SERIALIZER;
+import static org.gradle.internal.serialize.BaseSerializerFactory.STRING_SERIALIZER;
+
+/**
+ * Remembers the plugin marker artifacts that were found in a set of plugin repositories, so that a plugin requested by many build scripts, or
+ * again in a later build, does not need a separate resolution of its marker each time.
+ *
+ * <p>Entries are keyed by the marker module and a fingerprint of the repositories it was found in. Only markers that were found are remembered:
+ * the plugin classpath itself is still resolved through the script's classpath configuration, which reports a marker that has since gone missing.</p>
+ */
+public class PluginMarkerCache implements Stoppable {
+    private static final String CACHE_KEY = "plugin-markers";
+
+    private final PersistentCache cache;
+    private final PersistentIndexedCache<String, Boolean> store;
+
+    public PluginMarkerCache(CacheRepository cacheRepository, InMemoryCacheDecoratorFactory cacheDecoratorFactory) {
+        cache = cacheRepository
+            .cache(CACHE_KEY)
+            .withDisplayName("plugin marker cache")
+            .withLockOptions(mode(FileLockManager.LockMode.None)) // lock on demand
+            .open();
+        store = cache.createCache(PersistentIndexedCacheParameters.of(CACHE_KEY, STRING_SERIALIZER, BOOLEAN_SERIALIZER)
+            .cacheDecorator(cacheDecoratorFactory.decorator(1000, true)));
+    }
+
+    public boolean isKnownToExist(String markerNotation, String repositoriesFingerprint) {
+        return store.get(key(markerNotation, repositoriesFingerprint)) != null;
+    }
+
+    public void found(String markerNotation, String repositoriesFingerprint) {
+        store.put(key(markerNotation, repositoriesFingerprint), Boolean.TRUE);
+    }
+
+    private static String key(String markerNotation, String repositoriesFingerprint) {
+        return markerNotation + "@" + repositoriesFingerprint;
+    }
+
+    @Override
+    public void stop() {
+        cache.close();
+    }
+}
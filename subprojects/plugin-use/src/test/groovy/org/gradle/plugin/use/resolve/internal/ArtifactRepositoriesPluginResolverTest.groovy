@@ -40,7 +40,7 @@ class ArtifactRepositoriesPluginResolverTest extends Specification {
         getDisplayName() >> "maven(url)"
     }
     def repositories = Mock(RepositoryHandler) {
-        iterator() >> [repository].iterator()
+        iterator() >> { [repository].iterator() }
     }
     def resolvedConfiguration = Mock(ResolvedConfiguration) {
         hasError() >> false
@@ -58,8 +58,9 @@ class ArtifactRepositoriesPluginResolverTest extends Specification {
         getConfigurationContainer() >> configurations
     }
     def result = Mock(PluginResolutionResult)
+    def pluginMarkerCache = Mock(PluginMarkerCache)
 
-    def resolver = new ArtifactRepositoriesPluginResolver(resolution, versionSelectorScheme)
+    def resolver = new ArtifactRepositoriesPluginResolver(resolution, versionSelectorScheme, pluginMarkerCache, false)
 
     PluginRequestInternal request(String id, String version = null) {
         new DefaultPluginRequest(DefaultPluginId.of(id), version, true, 1, new StringScriptSource("test", "test"))
@@ -88,4 +89,46 @@ class ArtifactRepositoriesPluginResolverTest extends Specification {
         then:
         1 * result.notFound(SOURCE_NAME, "dynamic plugin versions are not supported")
     }
+
+    def "does not resolve marker that is known to exist in the same repositories"() {
+        when:
+        resolver.resolve(request("plugin", "1.1"), result)
+
+        then:
+        1 * pluginMarkerCache.isKnownToExist("plugin:plugin.gradle.plugin:1.1", ArtifactRepositoriesPluginResolver.fingerprint(repositories)) >> true
+        0 * configurations.detachedConfiguration(_)
+        1 * result.found(SOURCE_NAME, _)
+    }
+
+    def "remembers marker that was found"() {
+        when:
+        resolver.resolve(request("plugin", "1.1"), result)
+
+        then:
+        1 * pluginMarkerCache.isKnownToExist("plugin:plugin.gradle.plugin:1.1", _) >> false
+        1 * pluginMarkerCache.found("plugin:plugin.gradle.plugin:1.1", ArtifactRepositoriesPluginResolver.fingerprint(repositories))
+        1 * result.found(SOURCE_NAME, _)
+    }
+
+    def "does not remember markers with SNAPSHOT versions"() {
+        when:
+        resolver.resolve(request("plugin", "1.1-SNAPSHOT"), result)
+
+        then:
+        0 * pluginMarkerCache._
+        1 * result.found(SOURCE_NAME, _)
+    }
+
+    def "resolves marker known to exist when refreshing dependencies"() {
+        given:
+        def refreshingResolver = new ArtifactRepositoriesPluginResolver(resolution, versionSelectorScheme, pluginMarkerCache, true)
+
+        when:
+        refreshingResolver.resolve(request("plugin", "1.1"), result)
+
+        then:
+        0 * pluginMarkerCache.isKnownToExist(_, _)
+        1 * pluginMarkerCache.found("plugin:plugin.gradle.plugin:1.1", _)
+        1 * result.found(SOURCE_NAME, _)
+    }
 }
@@ -37,6 +37,7 @@ public class DefaultHttpSettings implements HttpSettings {
     private final SslContextFactory sslContextFactory;
     private final HostnameVerifier hostnameVerifier;
     private final boolean followRedirects;
+    private final boolean metadataConnectionPoolEnabled;
 
     private HttpProxySettings proxySettings;
     private HttpProxySettings secureProxySettings;
@@ -46,8 +47,9 @@ public class DefaultHttpSettings implements HttpSettings {
         return new Builder();
     }
 
-    private DefaultHttpSettings(Collection<Authentication> authenticationSettings, SslContextFactory sslContextFactory, HostnameVerifier hostnameVerifier, boolean followRedirects) {
+    private DefaultHttpSettings(Collection<Authentication> authenticationSettings, SslContextFactory sslContextFactory, HostnameVerifier hostnameVerifier, boolean followRedirects, boolean metadataConnectionPoolEnabled) {
         this.followRedirects = followRedirects;
+        this.metadataConnectionPoolEnabled = metadataConnectionPoolEnabled;
         Preconditions.checkNotNull(authenticationSettings, "authenticationSettings");
         Preconditions.checkNotNull(sslContextFactory, "sslContextFactory");
         Preconditions.checkNotNull(hostnameVerifier, "hostnameVerifier");
@@ -101,11 +103,17 @@ public class DefaultHttpSettings implements HttpSettings {
         return hostnameVerifier;
     }
 
+    @Override
+    public boolean isMetadataConnectionPoolEnabled() {
+        return metadataConnectionPoolEnabled;
+    }
+
     public static class Builder {
         private Collection<Authentication> authenticationSettings;
         private SslContextFactory sslContextFactory;
         private HostnameVerifier hostnameVerifier;
         private boolean followRedirects = true;
+        private boolean metadataConnectionPoolEnabled;
 
         public Builder withAuthenticationSettings(Collection<Authentication> authenticationSettings) {
             this.authenticationSettings = authenticationSettings;
@@ -129,8 +137,13 @@ public class DefaultHttpSettings implements HttpSettings {
             return this;
         }
 
+        public Builder withMetadataConnectionPool(boolean metadataConnectionPoolEnabled) {
+            this.metadataConnectionPoolEnabled = metadataConnectionPoolEnabled;
+            return this;
+        }
+
         public HttpSettings build() {
-            return new DefaultHttpSettings(authenticationSettings, sslContextFactory, hostnameVerifier, followRedirects);
+            return new DefaultHttpSettings(authenticationSettings, sslContextFactory, hostnameVerifier, followRedirects, metadataConnectionPoolEnabled);
         }
     }
 
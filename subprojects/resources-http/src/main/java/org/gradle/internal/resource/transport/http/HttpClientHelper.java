@@ -47,7 +47,9 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 public class HttpClientHelper implements Closeable {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(HttpClientHelper.class);
+    private static final String[] METADATA_EXTENSIONS = {".pom", ".module", ".xml", ".sha1", ".sha256", ".sha512", ".md5", "/"};
     private CloseableHttpClient client;
+    private CloseableHttpClient metadataClient;
     private final HttpSettings settings;
 
     /**
@@ -145,9 +147,32 @@ public class HttpClientHelper implements Closeable {
         // Without this, HTTP Client prohibits multiple redirects to the same location within the same context
         httpContext.removeAttribute(HttpClientContext.REDIRECT_LOCATIONS);
         LOGGER.debug("Performing HTTP {}: {}", request.getMethod(), request.getURI());
+        if (settings.isMetadataConnectionPoolEnabled() && isMetadataRequest(request)) {
+            return getMetadataClient().execute(request, httpContext);
+        }
         return getClient().execute(request, httpContext);
     }
 
+    /**
+     * Metadata requests are small and latency bound. When they share a pool with artifact downloads, a few large downloads can hold every
+     * connection to the repository while the dependency graph waits on descriptors, so they can be given a pool of their own.
+     */
+    private static boolean isMetadataRequest(HttpRequestBase request) {
+        if (HttpHead.METHOD_NAME.equals(request.getMethod())) {
+            return true;
+        }
+        String path = request.getURI().getPath();
+        if (path == null) {
+            return false;
+        }
+        for (String extension : METADATA_EXTENSIONS) {
+            if (path.endsWith(extension)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private CloseableHttpResponse processResponse(String source, String method, CloseableHttpResponse response) {
         if (wasMissing(response)) {
             LOGGER.info("Resource missing. [HTTP {}: {}]", method, source);
@@ -163,20 +188,34 @@ public class HttpClientHelper implements Closeable {
 
     private synchronized CloseableHttpClient getClient() {
         if (client == null) {
-            HttpClientBuilder builder = HttpClientBuilder.create();
-            new HttpClientConfigurer(settings).configure(builder);
-            this.client = builder.build();
+            client = createClient();
         }
         return client;
     }
 
+    private synchronized CloseableHttpClient getMetadataClient() {
+        if (metadataClient == null) {
+            metadataClient = createClient();
+        }
+        return metadataClient;
+    }
+
+    private CloseableHttpClient createClient() {
+        HttpClientBuilder builder = HttpClientBuilder.create();
+        new HttpClientConfigurer(settings).configure(builder);
+        return builder.build();
+    }
+
     @Override
     public synchronized void close() throws IOException {
+        if (metadataClient != null) {
+            metadataClient.close();
+        }
         if (client != null) {
             client.close();
-            if (sharedContext != null) {
-                sharedContext.clear();
-            }
+        }
+        if (sharedContext != null) {
+            sharedContext.clear();
         }
     }
 
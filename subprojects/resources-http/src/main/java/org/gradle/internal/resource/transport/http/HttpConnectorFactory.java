@@ -57,6 +57,7 @@ public class HttpConnectorFactory implements ResourceConnectorFactory {
         HttpClientHelper http = new HttpClientHelper(DefaultHttpSettings.builder()
             .withAuthenticationSettings(connectionDetails.getAuthentications())
             .withSslContextFactory(sslContextFactory)
+            .withMetadataConnectionPool(connectionDetails.isMetadataConnectionPoolEnabled())
             .build()
         );
         HttpResourceAccessor accessor = new HttpResourceAccessor(http);
@@ -35,4 +35,9 @@ public interface HttpSettings {
     SslContextFactory getSslContextFactory();
 
     HostnameVerifier getHostnameVerifier();
+
+    /**
+     * Whether metadata requests, such as descriptor, checksum and HEAD requests, use their own connection pool so they never wait for a connection held by an artifact download.
+     */
+    boolean isMetadataConnectionPoolEnabled();
 }
@@ -18,11 +18,13 @@ package org.gradle.internal.resource.transport.http
 
 import org.apache.http.client.methods.CloseableHttpResponse
 import org.apache.http.client.methods.HttpGet
+import org.apache.http.client.methods.HttpHead
 import org.apache.http.client.methods.HttpRequestBase
 import org.apache.http.impl.client.CloseableHttpClient
 import org.apache.http.ssl.SSLContexts
 import org.gradle.util.SetSystemProperties
 import org.junit.Rule
+import spock.lang.Unroll
 
 class HttpClientHelperTest extends AbstractHttpClientTest {
     @Rule SetSystemProperties sysProp = new SetSystemProperties()
@@ -75,6 +77,94 @@ class HttpClientHelperTest extends AbstractHttpClientTest {
         request.getHeaders("Cache-Control")[0].value == "max-age=0"
     }
 
+    @Unroll
+    def "uses the metadata connections for #description when enabled"() {
+        def client = new HttpClientHelper(httpSettingsWithMetadataConnectionPool)
+        CloseableHttpClient httpClient = Mock()
+        CloseableHttpClient metadataHttpClient = Mock()
+        client.client = httpClient
+        client.metadataClient = metadataHttpClient
+
+        when:
+        client.performHttpRequest(request)
+
+        then:
+        1 * metadataHttpClient.execute(request, _)
+        0 * httpClient._
+
+        where:
+        description                      | request
+        "a POM"                          | new HttpGet("http://gradle.org/repo/group/module/1.0/module-1.0.pom")
+        "a Gradle module metadata file"  | new HttpGet("http://gradle.org/repo/group/module/1.0/module-1.0.module")
+        "a Maven metadata file"          | new HttpGet("http://gradle.org/repo/group/module/maven-metadata.xml")
+        "an Ivy descriptor"              | new HttpGet("http://gradle.org/repo/group/module/1.0/ivy-1.0.xml")
+        "a SHA-1 checksum"               | new HttpGet("http://gradle.org/repo/group/module/1.0/module-1.0.jar.sha1")
+        "a SHA-256 checksum"             | new HttpGet("http://gradle.org/repo/group/module/1.0/module-1.0.jar.sha256")
+        "a SHA-512 checksum"             | new HttpGet("http://gradle.org/repo/group/module/1.0/module-1.0.jar.sha512")
+        "an MD5 checksum"                | new HttpGet("http://gradle.org/repo/group/module/1.0/module-1.0.jar.md5")
+        "a directory listing"            | new HttpGet("http://gradle.org/repo/group/module/")
+        "a HEAD request for an artifact" | new HttpHead("http://gradle.org/repo/group/module/1.0/module-1.0.jar")
+    }
+
+    @Unroll
+    def "uses the artifact connections for #description when metadata connections are enabled"() {
+        def client = new HttpClientHelper(httpSettingsWithMetadataConnectionPool)
+        CloseableHttpClient httpClient = Mock()
+        CloseableHttpClient metadataHttpClient = Mock()
+        client.client = httpClient
+        client.metadataClient = metadataHttpClient
+
+        when:
+        client.performHttpRequest(request)
+
+        then:
+        1 * httpClient.execute(request, _)
+        0 * metadataHttpClient._
+
+        where:
+        description                 | request
+        "a jar"                     | new HttpGet("http://gradle.org/repo/group/module/1.0/module-1.0.jar")
+        "a sources jar"             | new HttpGet("http://gradle.org/repo/group/module/1.0/module-1.0-sources.jar")
+        "an aar"                    | new HttpGet("http://gradle.org/repo/group/module/1.0/module-1.0.aar")
+        "a zip"                     | new HttpGet("http://gradle.org/repo/group/module/1.0/module-1.0.zip")
+        "a file named like a POM"   | new HttpGet("http://gradle.org/repo/group/module/1.0/pom")
+    }
+
+    def "does not create the metadata connections until a metadata request is made"() {
+        def client = new HttpClientHelper(httpSettingsWithMetadataConnectionPool)
+        CloseableHttpClient httpClient = Mock()
+        client.client = httpClient
+
+        when:
+        client.performHttpRequest(new HttpGet("http://gradle.org/repo/group/module/1.0/module-1.0.jar"))
+
+        then:
+        1 * httpClient.execute(_, _)
+        client.metadataClient == null
+    }
+
+    def "uses the same connections for all requests by default"() {
+        def client = new HttpClientHelper(httpSettings)
+        CloseableHttpClient httpClient = Mock()
+        client.client = httpClient
+
+        when:
+        client.performHttpRequest(new HttpGet("http://gradle.org/repo/group/module/1.0/module-1.0.pom"))
+        client.performHttpRequest(new HttpGet("http://gradle.org/repo/group/module/1.0/module-1.0.jar"))
+
+        then:
+        2 * httpClient.execute(_, _)
+        client.metadataClient == null
+    }
+
+    private HttpSettings getHttpSettingsWithMetadataConnectionPool() {
+        return Stub(HttpSettings) {
+            getProxySettings() >> Mock(HttpProxySettings)
+            getSecureProxySettings() >> Mock(HttpProxySettings)
+            isMetadataConnectionPoolEnabled() >> true
+        }
+    }
+
     private HttpSettings getHttpSettings() {
         return Stub(HttpSettings) {
             getProxySettings() >> Mock(HttpProxySettings)
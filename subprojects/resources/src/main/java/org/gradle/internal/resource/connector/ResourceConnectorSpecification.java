@@ -24,4 +24,9 @@ public interface ResourceConnectorSpecification {
     <T> T getCredentials(Class<T> type);
 
     Collection<Authentication> getAuthentications();
+
+    /**
+     * Whether small metadata requests should be served from their own set of connections, separate from artifact downloads.
+     */
+    boolean isMetadataConnectionPoolEnabled();
 }
@@ -22,6 +22,9 @@ import org.gradle.api.GradleException;
 import org.gradle.api.logging.Logger;
 import org.gradle.api.logging.Logging;
 import org.gradle.internal.FileUtils;
+import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.hash.Hasher;
+import org.gradle.internal.hash.Hashing;
 import org.gradle.internal.operations.BuildOperationContext;
 import org.gradle.internal.operations.BuildOperationExecutor;
 import org.gradle.internal.operations.BuildOperationQueue;
@@ -34,12 +37,16 @@ import org.gradle.util.GFileUtils;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.FilenameFilter;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class Binary2JUnitXmlReportGenerator {
 
     private final File testResultsDir;
     private final TestResultsProvider testResultsProvider;
     private JUnitXmlResultWriter xmlWriter;
+    private final TestOutputAssociation outputAssociation;
+    private final String hostName;
     private final BuildOperationExecutor buildOperationExecutor;
     private final static Logger LOG = Logging.getLogger(Binary2JUnitXmlReportGenerator.class);
 
@@ -48,18 +55,40 @@ public class Binary2JUnitXmlReportGenerator {
         this.testResultsProvider = testResultsProvider;
         this.xmlWriter = new JUnitXmlResultWriter(hostName, testResultsProvider, outputAssociation);
         this.buildOperationExecutor = buildOperationExecutor;
+        this.outputAssociation = outputAssociation;
+        this.hostName = hostName;
     }
 
     public void generate() {
         Timer clock = Time.startTimer();
 
+        final ReportFileHashes hashes = ReportFileHashes.load(testResultsDir);
+        final AtomicInteger skipped = new AtomicInteger();
+        buildOperationExecutor.runAll(new Action<BuildOperationQueue<JUnitXmlReportFileGenerator>>() {
+            @Override
+            public void execute(final BuildOperationQueue<JUnitXmlReportFileGenerator> queue) {
+                testResultsProvider.visitClasses(new Action<TestClassResult>() {
+                    public void execute(final TestClassResult result) {
+                        String reportFileName = getReportFileName(result);
+                        if (hashes.recordAndCheckUpToDate(reportFileName, hash(result))) {
+                            skipped.incrementAndGet();
+                            return;
+                        }
+                        final File reportFile = new File(testResultsDir, reportFileName);
+                        queue.add(new JUnitXmlReportFileGenerator(result, reportFile, xmlWriter));
+                    }
+                });
+            }
+        });
+
         buildOperationExecutor.run(new RunnableBuildOperation() {
             @Override
             public void run(BuildOperationContext context) {
+                final Set<String> currentXmlFiles = hashes.getCurrentFileNames();
                 File[] oldXmlFiles = testResultsDir.listFiles(new FilenameFilter() {
                     @Override
                     public boolean accept(File dir, String name) {
-                        return name.startsWith("TEST") && name.endsWith(".xml");
+                        return name.startsWith("TEST") && name.endsWith(".xml") && !currentXmlFiles.contains(name);
                     }
                 });
 
@@ -73,20 +102,17 @@ public class Binary2JUnitXmlReportGenerator {
                 return BuildOperationDescriptor.displayName("Delete old JUnit XML results");
             }
         });
+        hashes.store();
 
-        buildOperationExecutor.runAll(new Action<BuildOperationQueue<JUnitXmlReportFileGenerator>>() {
-            @Override
-            public void execute(final BuildOperationQueue<JUnitXmlReportFileGenerator> queue) {
-                testResultsProvider.visitClasses(new Action<TestClassResult>() {
-                    public void execute(final TestClassResult result) {
-                        final File reportFile = new File(testResultsDir, getReportFileName(result));
-                        queue.add(new JUnitXmlReportFileGenerator(result, reportFile, xmlWriter));
-                    }
-                });
-            }
-        });
+        LOG.info("Finished generating test XML results ({}) into: {}, {} unchanged", clock.getElapsed(), testResultsDir, skipped.get());
+    }
 
-        LOG.info("Finished generating test XML results ({}) into: {}", clock.getElapsed(), testResultsDir);
+    private HashCode hash(TestClassResult result) {
+        Hasher hasher = Hashing.md5().newHasher();
+        hasher.putString(hostName);
+        hasher.putInt(outputAssociation.ordinal());
+        ReportFileHashes.hash(result, hasher);
+        return hasher.hash();
     }
 
     private String getReportFileName(TestClassResult result) {
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.junit.result;
+
+import com.google.common.collect.Maps;
+import org.gradle.api.UncheckedIOException;
+import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.hash.Hasher;
+import org.gradle.internal.serialize.Decoder;
+import org.gradle.internal.serialize.FlushableEncoder;
+import org.gradle.internal.serialize.kryo.KryoBackedDecoder;
+import org.gradle.internal.serialize.kryo.KryoBackedEncoder;
+import org.gradle.util.GFileUtils;
+import org.gradle.util.GradleVersion;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tracks a hash of the test class results that each per-class report file was generated from, so that files for classes whose results did not change since
+ * the previous report can be kept instead of being regenerated.
+ *
+ * <p>The hashes are stored in a file inside the report directory. That file is removed when the previous hashes are loaded, and only written again by
+ * {@link #store()} once all report files have been generated, so a failed report generation never leaves behind hashes for partially written files.</p>
+ */
+public class ReportFileHashes {
+    private static final int VERSION = 1;
+    private static final String HASHES_FILE_NAME = ".report-file-hashes.bin";
+
+    private final File reportDir;
+    private final Map<String, HashCode> previousHashes;
+    private final Map<String, HashCode> currentHashes = Maps.newConcurrentMap();
+
+    private ReportFileHashes(File reportDir, Map<String, HashCode> previousHashes) {
+        this.reportDir = reportDir;
+        this.previousHashes = previousHashes;
+    }
+
+    public static ReportFileHashes load(File reportDir) {
+        File hashesFile = new File(reportDir, HASHES_FILE_NAME);
+        Map<String, HashCode> previousHashes = Collections.emptyMap();
+        if (hashesFile.isFile()) {
+            try {
+                previousHashes = read(hashesFile);
+            } catch (Exception e) {
+                // Treat an unreadable file as if there were no previous report
+            }
+            GFileUtils.deleteQuietly(hashesFile);
+        }
+        return new ReportFileHashes(reportDir, previousHashes);
+    }
+
+    /**
+     * Adds the given class result to the given hasher. The result's timestamps change whenever the class is executed again, so they also stand in for the
+     * captured output of the class, which is not hashed. The Gradle version is included as the report layout may change between versions.
+     */
+    public static void hash(TestClassResult classResult, Hasher hasher) {
+        hasher.putString(GradleVersion.current().getVersion());
+        hasher.putString(classResult.getClassName());
+        hasher.putString(classResult.getClassDisplayName());
+        hasher.putLong(classResult.getStartTime());
+        hasher.putInt(classResult.getResults().size());
+        for (TestMethodResult methodResult : classResult.getResults()) {
+            hasher.putString(methodResult.getName());
+            hasher.putString(methodResult.getDisplayName());
+            hasher.putString(String.valueOf(methodResult.getResultType()));
+            hasher.putLong(methodResult.getDuration());
+            hasher.putLong(methodResult.getEndTime());
+            hasher.putInt(methodResult.getFailures().size());
+            for (TestFailure failure : methodResult.getFailures()) {
+                hasher.putString(String.valueOf(failure.getExceptionType()));
+                hasher.putString(String.valueOf(failure.getMessage()));
+                hasher.putString(String.valueOf(failure.getStackTrace()));
+            }
+        }
+    }
+
+    /**
+     * Records the hash of the given report file and returns true when that file still exists and was generated from results with the same hash.
+     */
+    public boolean recordAndCheckUpToDate(String fileName, HashCode hash) {
+        currentHashes.put(fileName, hash);
+        return hash.equals(previousHashes.get(fileName)) && new File(reportDir, fileName).isFile();
+    }
+
+    /**
+     * The names of the report files recorded for this report.
+     */
+    public Set<String> getCurrentFileNames() {
+        return currentHashes.keySet();
+    }
+
+    public void store() {
+        GFileUtils.mkdirs(reportDir);
+        try {
+            OutputStream outputStream = new FileOutputStream(new File(reportDir, HASHES_FILE_NAME));
+            try {
+                FlushableEncoder encoder = new KryoBackedEncoder(outputStream);
+                encoder.writeSmallInt(VERSION);
+                encoder.writeSmallInt(currentHashes.size());
+                for (Map.Entry<String, HashCode> entry : currentHashes.entrySet()) {
+                    encoder.writeString(entry.getKey());
+                    encoder.writeBinary(entry.getValue().toByteArray());
+                }
+                encoder.flush();
+            } finally {
+                outputStream.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Map<String, HashCode> read(File hashesFile) throws IOException {
+        InputStream inputStream = new FileInputStream(hashesFile);
+        try {
+            Decoder decoder = new KryoBackedDecoder(inputStream);
+            if (decoder.readSmallInt() != VERSION) {
+                return Collections.emptyMap();
+            }
+            int count = decoder.readSmallInt();
+            Map<String, HashCode> hashes = Maps.newHashMapWithExpectedSize(count);
+            for (int i = 0; i < count; i++) {
+                String fileName = decoder.readString();
+                hashes.put(fileName, HashCode.fromBytes(decoder.readBinary()));
+            }
+            return hashes;
+        } finally {
+            inputStream.close();
+        }
+    }
+}
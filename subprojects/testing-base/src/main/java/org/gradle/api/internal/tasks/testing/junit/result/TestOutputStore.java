@@ -220,6 +220,8 @@ public class TestOutputStore {
     public class Reader implements Closeable {
         private final Index index;
         private final RandomAccessFile dataFile;
+        // Reused across messages, as readers are confined to a single thread
+        private byte[] messageBuffer = new byte[1024];
 
         public Reader() {
             File indexFile = getIndexFile();
@@ -362,17 +364,11 @@ public class TestOutputStore {
                     }
 
                     if (testId == 0 || testId == readTestId) {
-                        byte[] stringBytes = new byte[readLength];
-                        decoder.readBytes(stringBytes);
-                        String message;
-                        try {
-                            message = new String(stringBytes, messageStorageCharset.name());
-                        } catch (UnsupportedEncodingException e) {
-                            // shouldn't happen
-                            throw UncheckedException.throwAsUncheckedException(e);
+                        if (messageBuffer.length < readLength) {
+                            messageBuffer = new byte[Math.max(readLength, messageBuffer.length * 2)];
                         }
-
-                        writer.write(message);
+                        decoder.readBytes(messageBuffer, 0, readLength);
+                        writer.write(new String(messageBuffer, 0, readLength, messageStorageCharset));
                     } else {
                         decoder.skipBytes(readLength);
                     }
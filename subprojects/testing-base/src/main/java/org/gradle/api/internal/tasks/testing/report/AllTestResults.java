@@ -52,6 +52,14 @@ public class AllTestResults extends CompositeTestResults {
         return addTest(packageResults.addTest(classId, className, classDisplayName, testName, testDisplayName, duration));
     }
 
+    /**
+     * Adds a test to the counters of this model. Only failed and ignored tests are retained, so that the model stays small for large test suites.
+     */
+    public TestResult addTestSummary(long classId, String className, String classDisplayName, String testName, String testDisplayName, long duration) {
+        PackageTestResults packageResults = addPackageForClass(className);
+        return addTest(packageResults.addTestSummary(classId, className, classDisplayName, testName, testDisplayName, duration));
+    }
+
     public ClassTestResults addTestClass(long classId, String className) {
         return addTestClass(classId, className, className);
     }
@@ -96,4 +96,11 @@ public class ClassTestResults extends CompositeTestResults {
         results.add(test);
         return addTest(test);
     }
+
+    /**
+     * Adds a test to the counters of this class, without retaining the test in {@link #getTestResults()}.
+     */
+    public TestResult addTestSummary(String testName, String testDisplayName, long duration) {
+        return addTest(new TestResult(testName, testDisplayName, duration, this));
+    }
 }
@@ -15,14 +15,19 @@
  */
 package org.gradle.api.internal.tasks.testing.report;
 
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Multiset;
 import org.gradle.api.Action;
 import org.gradle.api.GradleException;
+import org.gradle.api.internal.tasks.testing.junit.result.ReportFileHashes;
 import org.gradle.api.internal.tasks.testing.junit.result.TestClassResult;
 import org.gradle.api.internal.tasks.testing.junit.result.TestFailure;
 import org.gradle.api.internal.tasks.testing.junit.result.TestMethodResult;
 import org.gradle.api.internal.tasks.testing.junit.result.TestResultsProvider;
 import org.gradle.api.logging.Logger;
 import org.gradle.api.logging.Logging;
+import org.gradle.internal.hash.Hasher;
+import org.gradle.internal.hash.Hashing;
 import org.gradle.internal.operations.BuildOperationContext;
 import org.gradle.internal.operations.BuildOperationExecutor;
 import org.gradle.internal.operations.BuildOperationQueue;
@@ -37,7 +42,11 @@ import org.gradle.util.GFileUtils;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.gradle.api.tasks.testing.TestResult.ResultType.SKIPPED;
 
@@ -54,26 +63,31 @@ public class DefaultTestReport implements TestReporter {
         LOG.info("Generating HTML test report...");
 
         Timer clock = Time.startTimer();
-        AllTestResults model = loadModelFromProvider(resultsProvider);
-        generateFiles(model, resultsProvider, reportDir);
-        LOG.info("Finished generating test html results ({}) into: {}", clock.getElapsed(), reportDir);
+        Multiset<String> classVisits = HashMultiset.create();
+        AllTestResults model = loadSummaryFromProvider(resultsProvider, classVisits);
+        ReportFileHashes hashes = ReportFileHashes.load(reportDir);
+        int unchanged = generateFiles(model, classVisits, hashes, resultsProvider, reportDir);
+        hashes.store();
+        LOG.info("Finished generating test html results ({}) into: {}, {} class pages unchanged", clock.getElapsed(), reportDir, unchanged);
     }
 
-    private AllTestResults loadModelFromProvider(TestResultsProvider resultsProvider) {
+    /**
+     * Loads the aggregated counters for the overview and package pages. Passing tests and failure details are not retained,
+     * they are streamed from the provider again when the class pages are rendered.
+     */
+    private AllTestResults loadSummaryFromProvider(TestResultsProvider resultsProvider, final Multiset<String> classVisits) {
         final AllTestResults model = new AllTestResults();
         resultsProvider.visitClasses(new Action<TestClassResult>() {
             public void execute(TestClassResult classResult) {
+                classVisits.add(classResult.getClassName());
                 model.addTestClass(classResult.getId(), classResult.getClassName(), classResult.getClassDisplayName());
                 List<TestMethodResult> collectedResults = classResult.getResults();
                 for (TestMethodResult collectedResult : collectedResults) {
-                    final TestResult testResult = model.addTest(classResult.getId(), classResult.getClassName(), classResult.getClassDisplayName(), collectedResult.getName(), collectedResult.getDisplayName(), collectedResult.getDuration());
+                    final TestResult testResult = model.addTestSummary(classResult.getId(), classResult.getClassName(), classResult.getClassDisplayName(), collectedResult.getName(), collectedResult.getDisplayName(), collectedResult.getDuration());
                     if (collectedResult.getResultType() == SKIPPED) {
                         testResult.setIgnored();
-                    } else {
-                        List<TestFailure> failures = collectedResult.getFailures();
-                        for (TestFailure failure : failures) {
-                            testResult.addFailure(failure);
-                        }
+                    } else if (!collectedResult.getFailures().isEmpty()) {
+                        testResult.markFailed();
                     }
                 }
             }
@@ -81,15 +95,31 @@ public class DefaultTestReport implements TestReporter {
         return model;
     }
 
-    private void generateFiles(AllTestResults model, final TestResultsProvider resultsProvider, final File reportDir) {
+    private static ClassTestResults addClassResults(AllTestResults model, TestClassResult classResult) {
+        ClassTestResults classResults = model.addTestClass(classResult.getId(), classResult.getClassName(), classResult.getClassDisplayName());
+        List<TestMethodResult> collectedResults = classResult.getResults();
+        for (TestMethodResult collectedResult : collectedResults) {
+            final TestResult testResult = model.addTest(classResult.getId(), classResult.getClassName(), classResult.getClassDisplayName(), collectedResult.getName(), collectedResult.getDisplayName(), collectedResult.getDuration());
+            if (collectedResult.getResultType() == SKIPPED) {
+                testResult.setIgnored();
+            } else {
+                List<TestFailure> failures = collectedResult.getFailures();
+                for (TestFailure failure : failures) {
+                    testResult.addFailure(failure);
+                }
+            }
+        }
+        return classResults;
+    }
+
+    private int generateFiles(AllTestResults model, final Multiset<String> classVisits, final ReportFileHashes hashes, final TestResultsProvider resultsProvider, final File reportDir) {
         try {
             HtmlReportRenderer htmlRenderer = new HtmlReportRenderer();
             buildOperationExecutor.run(new RunnableBuildOperation() {
                 @Override
                 public void run(BuildOperationContext context) {
-                    // Clean-up old HTML report directories
+                    // Clean-up old HTML report directories, class pages are kept when their results did not change
                     GFileUtils.deleteQuietly(new File(reportDir, "packages"));
-                    GFileUtils.deleteQuietly(new File(reportDir, "classes"));
                 }
 
                 @Override
@@ -98,6 +128,7 @@ public class DefaultTestReport implements TestReporter {
                 }
             });
 
+            final AtomicInteger unchanged = new AtomicInteger();
             htmlRenderer.render(model, new ReportRenderer<AllTestResults, HtmlReportBuilder>() {
                 @Override
                 public void render(final AllTestResults model, final HtmlReportBuilder output) throws IOException {
@@ -107,14 +138,25 @@ public class DefaultTestReport implements TestReporter {
                             queue.add(generator("index.html", model, new OverviewPageRenderer(), output));
                             for (PackageTestResults packageResults : model.getPackages()) {
                                 queue.add(generator(packageResults.getBaseUrl(), packageResults, new PackagePageRenderer(), output));
-                                for (ClassTestResults classResults : packageResults.getClasses()) {
-                                    queue.add(generator(classResults.getBaseUrl(), classResults, new ClassPageRenderer(resultsProvider), output));
-                                }
                             }
+                            resultsProvider.visitClasses(new ClassPageQueuer(classVisits, hashes, unchanged, resultsProvider, queue, output));
                         }
                     });
                 }
             }, reportDir);
+
+            buildOperationExecutor.run(new RunnableBuildOperation() {
+                @Override
+                public void run(BuildOperationContext context) {
+                    deleteStaleClassPages(new File(reportDir, "classes"), hashes.getCurrentFileNames());
+                }
+
+                @Override
+                public BuildOperationDescriptor.Builder description() {
+                    return BuildOperationDescriptor.displayName("Delete stale HTML class results");
+                }
+            });
+            return unchanged.get();
         } catch (Exception e) {
             throw new GradleException(String.format("Could not generate test report to '%s'.", reportDir), e);
         }
@@ -124,6 +166,66 @@ public class DefaultTestReport implements TestReporter {
         return new HtmlReportFileGenerator<T>(fileUrl, results, renderer, output);
     }
 
+    private static void deleteStaleClassPages(File classesDir, Set<String> currentPages) {
+        File[] files = classesDir.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (!currentPages.contains("classes/" + file.getName())) {
+                GFileUtils.deleteQuietly(file);
+            }
+        }
+    }
+
+    /**
+     * Builds the full model of each visited class and queues its page for rendering. A class visited several times, for example
+     * when a provider reports the results of a class in several parts, is rendered once all of its results have been seen. Pages whose class results did not change since the previous report
+     * are kept as they are.
+     */
+    private static class ClassPageQueuer implements Action<TestClassResult> {
+        private final Multiset<String> remainingVisits;
+        private final Map<String, AllTestResults> partialResults = new HashMap<String, AllTestResults>();
+        private final Map<String, Hasher> partialHashes = new HashMap<String, Hasher>();
+        private final ReportFileHashes hashes;
+        private final AtomicInteger unchanged;
+        private final TestResultsProvider resultsProvider;
+        private final BuildOperationQueue<HtmlReportFileGenerator<? extends CompositeTestResults>> queue;
+        private final HtmlReportBuilder output;
+
+        ClassPageQueuer(Multiset<String> remainingVisits, ReportFileHashes hashes, AtomicInteger unchanged, TestResultsProvider resultsProvider, BuildOperationQueue<HtmlReportFileGenerator<? extends CompositeTestResults>> queue, HtmlReportBuilder output) {
+            this.remainingVisits = remainingVisits;
+            this.hashes = hashes;
+            this.unchanged = unchanged;
+            this.resultsProvider = resultsProvider;
+            this.queue = queue;
+            this.output = output;
+        }
+
+        @Override
+        public void execute(TestClassResult classResult) {
+            String className = classResult.getClassName();
+            AllTestResults classModel = partialResults.remove(className);
+            Hasher hasher = partialHashes.remove(className);
+            if (classModel == null) {
+                classModel = new AllTestResults();
+                hasher = Hashing.md5().newHasher();
+            }
+            ClassTestResults classResults = addClassResults(classModel, classResult);
+            ReportFileHashes.hash(classResult, hasher);
+            if (remainingVisits.remove(className, 1) > 1) {
+                partialResults.put(className, classModel);
+                partialHashes.put(className, hasher);
+                return;
+            }
+            if (hashes.recordAndCheckUpToDate(classResults.getBaseUrl(), hasher.hash())) {
+                unchanged.incrementAndGet();
+                return;
+            }
+            queue.add(generator(classResults.getBaseUrl(), classResults, new ClassPageRenderer(resultsProvider), output));
+        }
+    }
+
     private static class HtmlReportFileGenerator<T extends CompositeTestResults> implements RunnableBuildOperation {
         private final String fileUrl;
         private final T results;
@@ -29,6 +29,7 @@ public class TestResult extends TestResultModel implements Comparable<TestResult
     final String name;
     final String displayName;
     boolean ignored;
+    boolean failed;
 
     public TestResult(String name, long duration, ClassTestResults classResults) {
         this(name, name, duration, classResults);
@@ -63,7 +64,7 @@ public class TestResult extends TestResultModel implements Comparable<TestResult
         if (ignored) {
             return ResultType.SKIPPED;
         }
-        return failures.isEmpty() ? ResultType.SUCCESS : ResultType.FAILURE;
+        return failed ? ResultType.FAILURE : ResultType.SUCCESS;
     }
 
     @Override
@@ -89,10 +90,18 @@ public class TestResult extends TestResultModel implements Comparable<TestResult
     }
 
     public void addFailure(TestFailure failure) {
-        classResults.failed(this);
+        markFailed();
         failures.add(failure);
     }
 
+    /**
+     * Marks this test as failed without retaining any failure details.
+     */
+    public void markFailed() {
+        classResults.failed(this);
+        failed = true;
+    }
+
     public void setIgnored() {
         classResults.ignored(this);
         ignored = true;
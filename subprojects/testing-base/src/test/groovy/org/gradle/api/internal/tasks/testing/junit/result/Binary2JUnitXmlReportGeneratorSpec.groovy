@@ -101,4 +101,57 @@ class Binary2JUnitXmlReportGeneratorSpec extends Specification {
         ex.causes[0].message.startsWith('Could not write XML test results for FooTest')
         ex.causes[0].cause.message == "Boo!"
     }
+
+    def "only regenerates results of classes whose results changed"() {
+        generator = generatorWithMaxThreads(1)
+
+        def fooTest = new TestClassResult(1, 'FooTest', 100)
+            .add(new TestMethodResult(1, "foo"))
+        def barTest = new TestClassResult(2, 'BarTest', 100)
+            .add(new TestMethodResult(2, "bar"))
+        def changedBarTest = new TestClassResult(2, 'BarTest', 200)
+            .add(new TestMethodResult(2, "bar"))
+
+        resultsProvider.visitClasses(_) >> { Action action ->
+            action.execute(fooTest)
+            action.execute(barTest)
+        } >> { Action action ->
+            action.execute(fooTest)
+            action.execute(changedBarTest)
+        }
+
+        when:
+        generator.generate()
+        generator.generate()
+
+        then:
+        1 * generator.xmlWriter.write(fooTest, _)
+        1 * generator.xmlWriter.write(barTest, _)
+        1 * generator.xmlWriter.write(changedBarTest, _)
+        0 * generator.xmlWriter._
+    }
+
+    def "removes results of classes that are no longer reported"() {
+        generator = generatorWithMaxThreads(1)
+
+        def fooTest = new TestClassResult(1, 'FooTest', 100)
+            .add(new TestMethodResult(1, "foo"))
+        def barTest = new TestClassResult(2, 'BarTest', 100)
+            .add(new TestMethodResult(2, "bar"))
+
+        resultsProvider.visitClasses(_) >> { Action action ->
+            action.execute(fooTest)
+            action.execute(barTest)
+        } >> { Action action ->
+            action.execute(fooTest)
+        }
+
+        when:
+        generator.generate()
+        generator.generate()
+
+        then:
+        temp.testDirectory.file("TEST-FooTest.xml").exists()
+        !temp.testDirectory.file("TEST-BarTest.xml").exists()
+    }
 }
@@ -41,4 +41,21 @@ class AllTestResultsTest extends Specification {
         test.classResults.packageResults.name == 'default-package'
         results.packages.contains(test.classResults.packageResults)
     }
+
+    def addsTestSummaryRetainingOnlyCounters() {
+        when:
+        def passed = results.addTestSummary(1, 'org.gradle.Test', 'org.gradle.Test', 'passed', 'passed', 90)
+        def failed = results.addTestSummary(1, 'org.gradle.Test', 'org.gradle.Test', 'failed', 'failed', 10)
+        failed.markFailed()
+
+        then:
+        def classResults = passed.classResults
+        classResults.testResults.empty
+        classResults.testCount == 2
+        classResults.failureCount == 1
+        classResults.duration == 100
+        results.testCount == 2
+        results.failures == [failed] as Set
+        failed.failures.empty
+    }
 }
@@ -466,6 +466,82 @@ class DefaultTestReportTest extends Specification {
         numThreads << [ 1, 4 ]
     }
 
+    def "keeps class pages of unchanged classes and removes pages of classes no longer reported"() {
+        given:
+        report = reportWithMaxThreads(1)
+        report.generateReport(passingBuildResults(), reportDir)
+        def passedClassFile = reportDir.file('classes/org.gradle.passing.Passed.html')
+        passedClassFile.text = "unchanged"
+
+        when:
+        report.generateReport(buildResults {
+            testClassResult("org.gradle.passing.Passed") {
+                testcase("passed") {
+                    duration = 1000;
+                }
+            }
+        }, reportDir)
+
+        then:
+        passedClassFile.text == "unchanged"
+        !reportDir.file('classes/org.gradle.passing.subpackage.AlsoPassed.html').exists()
+        def index = results(indexFile)
+        index.assertHasTests(1)
+    }
+
+    def "renders one class page for a class that is visited several times"() {
+        given:
+        report = reportWithMaxThreads(1)
+        def resultsInParts = { String secondMethod ->
+            buildResults {
+                testClassResult("org.gradle.parts.PartsTest") {
+                    testcase("first") {
+                        duration = 1000;
+                    }
+                }
+                testClassResult("org.gradle.parts.OtherTest") {
+                    testcase("other") {
+                        duration = 1000;
+                    }
+                }
+                testClassResult("org.gradle.parts.PartsTest") {
+                    testcase(secondMethod) {
+                        duration = 1000;
+                        failure("something failed", "this is the failure\nat someClass")
+                    }
+                }
+            }
+        }
+
+        when:
+        report.generateReport(resultsInParts("second"), reportDir)
+
+        then:
+        def classFile = reportDir.file('classes/org.gradle.parts.PartsTest.html')
+        def partsClassFile = results(classFile)
+        partsClassFile.assertHasTests(2)
+        partsClassFile.assertHasFailures(1)
+        partsClassFile.testDetails('first').assertPassed()
+        partsClassFile.testDetails('second').assertFailed()
+        results(indexFile).assertHasTests(3)
+
+        when:
+        classFile.text = "unchanged"
+        report.generateReport(resultsInParts("second"), reportDir)
+
+        then:
+        classFile.text == "unchanged"
+
+        when:
+        report.generateReport(resultsInParts("secondChanged"), reportDir)
+
+        then:
+        def changedClassFile = results(classFile)
+        changedClassFile.assertHasTests(2)
+        changedClassFile.testDetails('first').assertPassed()
+        changedClassFile.testDetails('secondChanged').assertFailed()
+    }
+
     def reportsOnClassesInDefaultPackage() {
         given:
         report = reportWithMaxThreads(1)
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.tooling.internal.adapter;
+
+import org.gradle.tooling.model.eclipse.EclipseProject;
+import org.gradle.tooling.model.eclipse.EclipseSourceDirectory;
+import org.gradle.tooling.model.idea.IdeaModule;
+import org.gradle.tooling.model.idea.IdeaProject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Adapts and traverses large synthetic Eclipse and IDEA models, similar to what an IDE does during sync of a build with many projects.
+ * Every traversal creates new views, so each property read goes through the method lookup cache of the adapter. Comparing the single
+ * threaded benchmarks with the others shows how much threads adapting models at the same time slow each other down.
+ */
+@Fork(2)
+@Threads(4)
+@Warmup(iterations = 10)
+@State(Scope.Benchmark)
+public class ProtocolToModelAdapterBenchmark {
+
+    @Param({"600"})
+    int projectCount;
+
+    private final ProtocolToModelAdapter adapter = new ProtocolToModelAdapter();
+    private PartialEclipseProject eclipseProject;
+    private PartialIdeaProject ideaProject;
+
+    @Setup
+    public void setup() {
+        eclipseProject = new PartialEclipseProject("root");
+        ideaProject = new PartialIdeaProject();
+        for (int i = 0; i < projectCount; i++) {
+            PartialEclipseProject child = new PartialEclipseProject("project" + i);
+            for (int j = 0; j < 4; j++) {
+                child.sourceDirectories.add(new PartialEclipseSourceDirectory("src/" + j));
+            }
+            eclipseProject.children.add(child);
+            ideaProject.modules.add(new PartialIdeaModule("project" + i));
+        }
+    }
+
+    @Benchmark
+    public void adaptEclipseProject(Blackhole bh) {
+        EclipseProject root = adapter.adapt(EclipseProject.class, eclipseProject);
+        for (EclipseProject child : root.getChildren()) {
+            bh.consume(child.getName());
+            bh.consume(child.getProjectDirectory());
+            for (EclipseSourceDirectory sourceDirectory : child.getSourceDirectories()) {
+                bh.consume(sourceDirectory.getPath());
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void adaptEclipseProjectSingleThreaded(Blackhole bh) {
+        adaptEclipseProject(bh);
+    }
+
+    @Benchmark
+    public void adaptIdeaProject(Blackhole bh) {
+        IdeaProject project = adapter.adapt(IdeaProject.class, ideaProject);
+        for (IdeaModule module : project.getModules()) {
+            bh.consume(module.getName());
+            bh.consume(module.getDescription());
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void adaptIdeaProjectSingleThreaded(Blackhole bh) {
+        adaptIdeaProject(bh);
+    }
+
+    public static class PartialEclipseProject {
+        private final String name;
+        private final File projectDirectory;
+        private final List<PartialEclipseProject> children = new ArrayList<PartialEclipseProject>();
+        private final List<PartialEclipseSourceDirectory> sourceDirectories = new ArrayList<PartialEclipseSourceDirectory>();
+
+        PartialEclipseProject(String name) {
+            this.name = name;
+            this.projectDirectory = new File(name);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public File getProjectDirectory() {
+            return projectDirectory;
+        }
+
+        public List<PartialEclipseProject> getChildren() {
+            return children;
+        }
+
+        public List<PartialEclipseSourceDirectory> getSourceDirectories() {
+            return sourceDirectories;
+        }
+    }
+
+    public static class PartialEclipseSourceDirectory {
+        private final String path;
+
+        PartialEclipseSourceDirectory(String path) {
+            this.path = path;
+        }
+
+        public String getPath() {
+            return path;
+        }
+    }
+
+    public static class PartialIdeaProject {
+        private final List<PartialIdeaModule> modules = new ArrayList<PartialIdeaModule>();
+
+        public List<PartialIdeaModule> getModules() {
+            return modules;
+        }
+    }
+
+    public static class PartialIdeaModule {
+        private final String name;
+
+        PartialIdeaModule(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getDescription() {
+            return "description of " + name;
+        }
+    }
+}
@@ -16,10 +16,11 @@
 package org.gradle.tooling.internal.adapter;
 
 import com.google.common.base.Optional;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import org.gradle.internal.UncheckedException;
 import org.gradle.internal.reflect.DirectInstantiator;
-import org.gradle.internal.time.CountdownTimer;
-import org.gradle.internal.time.Time;
 import org.gradle.internal.typeconversion.EnumFromCharSequenceNotationParser;
 import org.gradle.internal.typeconversion.NotationConverterToNotationParserAdapter;
 import org.gradle.internal.typeconversion.NotationParser;
@@ -31,7 +32,6 @@ import org.gradle.tooling.model.internal.ImmutableDomainObjectSet;
 import javax.annotation.Nullable;
 import java.io.IOException;
 import java.io.Serializable;
-import java.lang.ref.SoftReference;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -48,7 +48,8 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Adapts some source object to some target view type.
@@ -152,7 +153,8 @@ public class ProtocolToModelAdapter implements ObjectGraphAdapter {
             return targetType.cast(view);
         }
 
-        // Create a proxy
+        // Create a proxy. Views are not generated classes, as they need to be serializable and a deserialized proxy is recreated from its view interface,
+        // which does not require the receiving side to load a class generated by the sending side
         InvocationHandlerImpl handler = new InvocationHandlerImpl(targetType, sourceObject, decorationsForThisType, graphDetails);
         Object proxy = Proxy.newProxyInstance(viewType.getClassLoader(), new Class<?>[]{viewType}, handler);
         handler.attachProxy(proxy);
@@ -402,38 +404,34 @@ public class ProtocolToModelAdapter implements ObjectGraphAdapter {
         }
     }
 
+    /**
+     * Caches the source method resolved for each method invoked on a source type. The resolved methods are held in a separate map per source class, so that lookups
+     * from many threads and many views do not contend on a single lock. The maps are softly referenced, as they strongly reference the methods of their source class.
+     */
     private static class MethodInvocationCache {
-        private final Map<MethodInvocationKey, Optional<Method>> store = new HashMap<MethodInvocationKey, Optional<Method>>();
-        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
-        private final static long MINIMAL_CLEANUP_INTERVAL = 30000;
+        private final LoadingCache<Class<?>, ConcurrentMap<MethodSignature, Optional<Method>>> store = CacheBuilder.newBuilder()
+            .weakKeys()
+            .softValues()
+            .build(new CacheLoader<Class<?>, ConcurrentMap<MethodSignature, Optional<Method>>>() {
+                @Override
+                public ConcurrentMap<MethodSignature, Optional<Method>> load(Class<?> sourceClass) {
+                    return new ConcurrentHashMap<MethodSignature, Optional<Method>>();
+                }
+            });
 
         // For stats we don't really care about thread safety
         private int cacheMiss;
         private int cacheHit;
-        private int evict;
 
-        private CountdownTimer cleanupTimer = Time.startCountdownTimer(MINIMAL_CLEANUP_INTERVAL);
-
-        private static class MethodInvocationKey {
-            private final SoftReference<Class<?>> lookupClass;
+        private static class MethodSignature {
             private final String methodName;
-            private final SoftReference<Class<?>[]> parameterTypes;
+            private final Class<?>[] parameterTypes;
             private final int hashCode;
 
-            private MethodInvocationKey(Class<?> lookupClass, String methodName, Class<?>[] parameterTypes) {
-                this.lookupClass = new SoftReference<Class<?>>(lookupClass);
+            private MethodSignature(String methodName, Class<?>[] parameterTypes) {
                 this.methodName = methodName;
-                this.parameterTypes = new SoftReference<Class<?>[]>(parameterTypes);
-                // hashcode will always be used, so we precompute it in order to make sure we
-                // won't compute it multiple times during comparisons
-                int result = lookupClass != null ? lookupClass.hashCode() : 0;
-                result = 31 * result + (methodName != null ? methodName.hashCode() : 0);
-                result = 31 * result + Arrays.hashCode(parameterTypes);
-                this.hashCode = result;
-            }
-
-            public boolean isDirty() {
-                return lookupClass.get() == null || parameterTypes.get() == null;
+                this.parameterTypes = parameterTypes;
+                this.hashCode = 31 * methodName.hashCode() + Arrays.hashCode(parameterTypes);
             }
 
             @Override
@@ -444,39 +442,8 @@ public class ProtocolToModelAdapter implements ObjectGraphAdapter {
                 if (o == null || getClass() != o.getClass()) {
                     return false;
                 }
-
-                MethodInvocationKey that = (MethodInvocationKey) o;
-
-                if (isDirty() && that.isDirty()) {
-                    return true;
-                }
-                if (!eq(lookupClass, that.lookupClass)) {
-                    return false;
-                }
-                if (!methodName.equals(that.methodName)) {
-                    return false;
-                }
-                return eq(parameterTypes, that.parameterTypes);
-
-            }
-
-            private static boolean eq(SoftReference<?> aRef, SoftReference<?> bRef) {
-                Object a = aRef.get();
-                Object b = bRef.get();
-                return eq(a, b);
-            }
-
-            private static boolean eq(Object a, Object b) {
-                if (a == b) {
-                    return true;
-                }
-                if (a == null) {
-                    return false;
-                }
-                if (a.getClass().isArray()) {
-                    return Arrays.equals((Object[]) a, (Object[]) b);
-                }
-                return a.equals(b);
+                MethodSignature that = (MethodSignature) o;
+                return methodName.equals(that.methodName) && Arrays.equals(parameterTypes, that.parameterTypes);
             }
 
             @Override
@@ -487,62 +454,21 @@ public class ProtocolToModelAdapter implements ObjectGraphAdapter {
 
         public Method get(MethodInvocation invocation) {
             Class<?> owner = invocation.getDelegate().getClass();
-            String name = invocation.getName();
             Class<?>[] parameterTypes = invocation.getParameterTypes();
-            MethodInvocationKey key = new MethodInvocationKey(
-                owner,
-                name,
-                parameterTypes
-            );
-            lock.readLock().lock();
-            Optional<Method> cached = store.get(key);
+            ConcurrentMap<MethodSignature, Optional<Method>> methods = store.getUnchecked(owner);
+            MethodSignature signature = new MethodSignature(invocation.getName(), parameterTypes);
+            Optional<Method> cached = methods.get(signature);
             if (cached == null) {
                 cacheMiss++;
-                lock.readLock().unlock();
-                lock.writeLock().lock();
-                try {
-                    cached = store.get(key);
-                    if (cached == null) {
-                        cached = lookup(owner, name, parameterTypes);
-                        if (cacheMiss % 10 == 0) {
-                            removeDirtyEntries();
-                        }
-                        store.put(key, cached);
-                    }
-                    lock.readLock().lock();
-                } finally {
-                    lock.writeLock().unlock();
+                cached = lookup(owner, invocation.getName(), parameterTypes);
+                Optional<Method> existing = methods.putIfAbsent(signature, cached);
+                if (existing != null) {
+                    cached = existing;
                 }
             } else {
                 cacheHit++;
             }
-            try {
-                return cached.orNull();
-            } finally {
-                lock.readLock().unlock();
-            }
-        }
-
-        /**
-         * Removes dirty entries from the cache. Calling System.currentTimeMillis() is costly so we should try to limit calls to this method. This method will only trigger cleanup at most once per
-         * 30s.
-         */
-        private void removeDirtyEntries() {
-            if (!cleanupTimer.hasExpired()) {
-                return;
-            }
-            lock.writeLock().lock();
-            try {
-                for (MethodInvocationKey key : new LinkedList<MethodInvocationKey>(store.keySet())) {
-                    if (key.isDirty()) {
-                        evict++;
-                        store.remove(key);
-                    }
-                }
-            } finally {
-                cleanupTimer.reset();
-                lock.writeLock().unlock();
-            }
+            return cached.orNull();
         }
 
         private static Optional<Method> lookup(Class<?> sourceClass, String methodName, Class<?>[] parameterTypes) {
@@ -575,7 +501,7 @@ public class ProtocolToModelAdapter implements ObjectGraphAdapter {
 
         @Override
         public String toString() {
-            return "Cache size: " + store.size() + " Hits: " + cacheHit + " Miss: " + cacheMiss + " Evicted: " + evict;
+            return "Cache size: " + store.size() + " Hits: " + cacheHit + " Miss: " + cacheMiss;
         }
     }
 
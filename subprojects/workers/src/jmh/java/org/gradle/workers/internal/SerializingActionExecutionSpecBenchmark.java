@@ -0,0 +1,94 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.workers.internal;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures the per item overhead of submitting a worker action, by creating an action execution spec for a typical set of parameters and reading
+ * the parameters back, as the worker does.
+ */
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class SerializingActionExecutionSpecBenchmark {
+
+    @Param({"common", "custom"})
+    String paramTypes;
+
+    private Object[] params;
+    private File workingDir;
+
+    @Setup
+    public void setup() {
+        workingDir = new File("build");
+        List<File> files = new ArrayList<File>();
+        Map<String, String> options = new LinkedHashMap<String, String>();
+        for (int i = 0; i < 20; i++) {
+            files.add(new File("src/main/resources/file" + i + ".txt"));
+            options.put("option" + i, "value" + i);
+        }
+        File outputDir = new File("build/output");
+        if (paramTypes.equals("common")) {
+            params = new Object[]{files, outputDir, options, 42, true};
+        } else {
+            params = new Object[]{new CustomParams(files, outputDir, options), 42, true};
+        }
+    }
+
+    @Benchmark
+    public Object[] submitAndReceive() {
+        SerializingActionExecutionSpec spec = new SerializingActionExecutionSpec(TestAction.class, "action", workingDir, params);
+        return spec.getParams(getClass().getClassLoader());
+    }
+
+    public static class TestAction implements Runnable {
+        @Override
+        public void run() {
+        }
+    }
+
+    private static class CustomParams implements Serializable {
+        private static final long serialVersionUID = 0;
+
+        private final List<File> files;
+        private final File outputDir;
+        private final Map<String, String> options;
+
+        CustomParams(List<File> files, File outputDir, Map<String, String> options) {
+            this.files = files;
+            this.outputDir = outputDir;
+            this.options = options;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.workers.internal;
+
+import org.gradle.internal.io.ClassLoaderObjectInputStream;
+import org.gradle.internal.serialize.AbstractSerializer;
+import org.gradle.internal.serialize.Decoder;
+import org.gradle.internal.serialize.DefaultSerializerRegistry;
+import org.gradle.internal.serialize.Encoder;
+import org.gradle.internal.serialize.ListSerializer;
+import org.gradle.internal.serialize.MapSerializer;
+import org.gradle.internal.serialize.Serializer;
+import org.gradle.internal.serialize.SetSerializer;
+import org.gradle.internal.serialize.kryo.KryoBackedDecoder;
+import org.gradle.internal.serialize.kryo.KryoBackedEncoder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.gradle.internal.serialize.BaseSerializerFactory.BOOLEAN_SERIALIZER;
+import static org.gradle.internal.serialize.BaseSerializerFactory.BYTE_ARRAY_SERIALIZER;
+import static org.gradle.internal.serialize.BaseSerializerFactory.BYTE_SERIALIZER;
+import static org.gradle.internal.serialize.BaseSerializerFactory.DOUBLE_SERIALIZER;
+import static org.gradle.internal.serialize.BaseSerializerFactory.FILE_SERIALIZER;
+import static org.gradle.internal.serialize.BaseSerializerFactory.FLOAT_SERIALIZER;
+import static org.gradle.internal.serialize.BaseSerializerFactory.INTEGER_SERIALIZER;
+import static org.gradle.internal.serialize.BaseSerializerFactory.LONG_SERIALIZER;
+import static org.gradle.internal.serialize.BaseSerializerFactory.SHORT_SERIALIZER;
+import static org.gradle.internal.serialize.BaseSerializerFactory.STRING_SERIALIZER;
+
+/**
+ * Serializes the constructor parameters of a worker action. Parameters that are made up of strings, files, primitive wrappers and collections of
+ * these are written with the serializers from a {@link DefaultSerializerRegistry}. Any other parameters, or a byte array or collection that is
+ * referenced more than once, cause the whole parameter array to be written using Java serialization, exactly as before, so that shared references
+ * between parameters are preserved.
+ */
+class ParamsSerializer {
+    private static final byte JAVA_SERIALIZATION = 0;
+    private static final byte REGISTRY_SERIALIZATION = 1;
+
+    private final Serializer<Object> valueSerializer;
+
+    ParamsSerializer() {
+        ValueSerializer valueSerializer = new ValueSerializer();
+        DefaultSerializerRegistry registry = new DefaultSerializerRegistry(false);
+        registry.register(String.class, STRING_SERIALIZER);
+        registry.register(Boolean.class, BOOLEAN_SERIALIZER);
+        registry.register(Byte.class, BYTE_SERIALIZER);
+        registry.register(Short.class, SHORT_SERIALIZER);
+        registry.register(Integer.class, INTEGER_SERIALIZER);
+        registry.register(Long.class, LONG_SERIALIZER);
+        registry.register(Float.class, FLOAT_SERIALIZER);
+        registry.register(Double.class, DOUBLE_SERIALIZER);
+        registry.register(File.class, FILE_SERIALIZER);
+        registry.register(byte[].class, BYTE_ARRAY_SERIALIZER);
+        register(registry, ArrayList.class, new ListSerializer<Object>(valueSerializer));
+        register(registry, LinkedHashSet.class, new SetSerializer<Object>(valueSerializer, true));
+        register(registry, HashSet.class, new SetSerializer<Object>(valueSerializer, false));
+        register(registry, LinkedHashMap.class, new MapSerializer<Object, Object>(valueSerializer, valueSerializer));
+        register(registry, HashMap.class, new HashMapSerializer(new MapSerializer<Object, Object>(valueSerializer, valueSerializer)));
+        valueSerializer.delegate = registry.build(Object.class);
+        this.valueSerializer = valueSerializer;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void register(DefaultSerializerRegistry registry, Class<T> type, Serializer<?> serializer) {
+        registry.register(type, (Serializer<T>) serializer);
+    }
+
+    byte[] serialize(Object[] params) throws Exception {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        if (canSerializeAll(params)) {
+            bos.write(REGISTRY_SERIALIZATION);
+            KryoBackedEncoder encoder = new KryoBackedEncoder(bos);
+            encoder.writeSmallInt(params.length);
+            for (Object param : params) {
+                encoder.writeBoolean(param != null);
+                if (param != null) {
+                    valueSerializer.write(encoder, param);
+                }
+            }
+            encoder.flush();
+        } else {
+            bos.write(JAVA_SERIALIZATION);
+            ObjectOutputStream oos = new ObjectOutputStream(bos);
+            oos.writeObject(params);
+            oos.flush();
+        }
+        return bos.toByteArray();
+    }
+
+    Object[] deserialize(byte[] serialized, ClassLoader classLoader) throws Exception {
+        ByteArrayInputStream bis = new ByteArrayInputStream(serialized, 1, serialized.length - 1);
+        if (serialized[0] == REGISTRY_SERIALIZATION) {
+            KryoBackedDecoder decoder = new KryoBackedDecoder(bis);
+            Object[] params = new Object[decoder.readSmallInt()];
+            for (int i = 0; i < params.length; i++) {
+                if (decoder.readBoolean()) {
+                    params[i] = valueSerializer.read(decoder);
+                }
+            }
+            return params;
+        }
+        ObjectInputStream ois = new ClassLoaderObjectInputStream(bis, classLoader);
+        return (Object[]) ois.readObject();
+    }
+
+    private static boolean canSerializeAll(Object[] params) {
+        Set<Object> mutableValues = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+        for (Object param : params) {
+            if (param != null && !canSerialize(param, mutableValues)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Only accepts values that the registry serializers read back as an instance of the same type. Empty lists and sets are left to Java
+     * serialization, as they are read back as immutable empty collections. Byte arrays and collections that have already been seen are rejected too,
+     * as the registry serializers would read each reference back as a separate copy.
+     */
+    private static boolean canSerialize(Object value, Set<Object> mutableValues) {
+        Class<?> type = value.getClass();
+        if (type == String.class || type == Boolean.class || type == Byte.class || type == Short.class || type == Integer.class || type == Long.class
+            || type == Float.class || type == Double.class || type == File.class) {
+            return true;
+        }
+        if (type == byte[].class) {
+            return mutableValues.add(value);
+        }
+        if (type == ArrayList.class || type == LinkedHashSet.class || type == HashSet.class) {
+            Collection<?> collection = (Collection<?>) value;
+            return !collection.isEmpty() && mutableValues.add(value) && canSerializeElements(collection, mutableValues);
+        }
+        if (type == LinkedHashMap.class || type == HashMap.class) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            return mutableValues.add(value) && canSerializeElements(map.keySet(), mutableValues) && canSerializeElements(map.values(), mutableValues);
+        }
+        return false;
+    }
+
+    private static boolean canSerializeElements(Collection<?> elements, Set<Object> mutableValues) {
+        for (Object element : elements) {
+            if (element == null || !canSerialize(element, mutableValues)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static class ValueSerializer extends AbstractSerializer<Object> {
+        private Serializer<Object> delegate;
+
+        @Override
+        public Object read(Decoder decoder) throws Exception {
+            return delegate.read(decoder);
+        }
+
+        @Override
+        public void write(Encoder encoder, Object value) throws Exception {
+            delegate.write(encoder, value);
+        }
+    }
+
+    private static class HashMapSerializer extends AbstractSerializer<Map<Object, Object>> {
+        private final Serializer<Map<Object, Object>> mapSerializer;
+
+        HashMapSerializer(Serializer<Map<Object, Object>> mapSerializer) {
+            this.mapSerializer = mapSerializer;
+        }
+
+        @Override
+        public Map<Object, Object> read(Decoder decoder) throws Exception {
+            return new HashMap<Object, Object>(mapSerializer.read(decoder));
+        }
+
+        @Override
+        public void write(Encoder encoder, Map<Object, Object> value) throws Exception {
+            mapSerializer.write(encoder, value);
+        }
+    }
+}
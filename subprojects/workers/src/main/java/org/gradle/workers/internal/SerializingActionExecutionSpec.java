@@ -17,19 +17,15 @@
 package org.gradle.workers.internal;
 
 import org.gradle.internal.exceptions.Contextual;
-import org.gradle.internal.io.ClassLoaderObjectInputStream;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 
 /**
  * Represents a {@link WorkSpec} that contains constructor parameters.
  */
 public class SerializingActionExecutionSpec implements ActionExecutionSpec {
+    private static final ParamsSerializer PARAMS_SERIALIZER = new ParamsSerializer();
+
     private final String displayName;
     private final Class<? extends Runnable> implementationClass;
     private final File executionWorkingDir;
@@ -62,25 +58,18 @@ public class SerializingActionExecutionSpec implements ActionExecutionSpec {
         return deserialize(classLoader);
     }
 
-    private byte[] serialize(Object[] params) {
-        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    private static byte[] serialize(Object[] params) {
         try {
-            ObjectOutputStream oos = new ObjectOutputStream(bos);
-            oos.writeObject(params);
-        } catch (IOException e) {
+            return PARAMS_SERIALIZER.serialize(params);
+        } catch (Exception e) {
             throw new ParameterSerializationException("Could not serialize parameters", e);
         }
-        return bos.toByteArray();
     }
 
     private Object[] deserialize(ClassLoader classLoader) {
-        ByteArrayInputStream bis = new ByteArrayInputStream(params);
         try {
-            ObjectInputStream ois = new ClassLoaderObjectInputStream(bis, classLoader);
-            return (Object[])ois.readObject();
-        } catch (IOException e) {
-            throw new ParameterSerializationException("Could not deserialize parameters", e);
-        } catch (ClassNotFoundException e) {
+            return PARAMS_SERIALIZER.deserialize(params, classLoader);
+        } catch (Exception e) {
             throw new ParameterSerializationException("Could not deserialize parameters", e);
         }
     }
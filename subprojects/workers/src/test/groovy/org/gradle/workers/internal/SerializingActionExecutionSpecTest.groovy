@@ -0,0 +1,89 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.workers.internal
+
+import spock.lang.Specification
+
+class SerializingActionExecutionSpecTest extends Specification {
+    def "can round trip common parameter types"() {
+        def params = ["string", true, 12 as byte, 12 as short, 12, 12L, 1.5f, 1.5d, new File("file"),
+                      ["a", "b"], ["a", "b"] as LinkedHashSet, ["a"] as HashSet, [a: [new File("a")], b: [[1, 2]]], [1: "one"] as HashMap, null]
+
+        when:
+        def spec = new SerializingActionExecutionSpec(Runnable, "action", new File("dir"), params as Object[])
+        def result = spec.getParams(getClass().classLoader)
+
+        then:
+        result as List == params
+        result.collect { it?.getClass() } == params.collect { it?.getClass() }
+    }
+
+    def "can round trip byte arrays"() {
+        when:
+        def spec = new SerializingActionExecutionSpec(Runnable, "action", new File("dir"), [[1, 2, 3] as byte[]] as Object[])
+        def result = spec.getParams(getClass().classLoader)
+
+        then:
+        result[0] == [1, 2, 3] as byte[]
+    }
+
+    def "falls back to Java serialization for other parameter types"() {
+        def custom = new CustomParam(value: "value")
+        def params = ["string", custom, [custom], []]
+
+        when:
+        def spec = new SerializingActionExecutionSpec(Runnable, "action", new File("dir"), params as Object[])
+        def result = spec.getParams(getClass().classLoader)
+
+        then:
+        result[0] == "string"
+        result[1] instanceof CustomParam
+        result[1].value == "value"
+        result[2][0].is(result[1])
+        result[3] == []
+    }
+
+    def "preserves shared references between common parameter types"() {
+        def files = [new File("a"), new File("b")]
+        def bytes = [1, 2] as byte[]
+        def params = [files, [files: files], bytes, bytes]
+
+        when:
+        def spec = new SerializingActionExecutionSpec(Runnable, "action", new File("dir"), params as Object[])
+        def result = spec.getParams(getClass().classLoader)
+
+        then:
+        result as List == params
+        result[1].files.is(result[0])
+        result[3].is(result[2])
+    }
+
+    def "reports parameters that cannot be serialized"() {
+        when:
+        new SerializingActionExecutionSpec(Runnable, "action", new File("dir"), [new Object()] as Object[])
+
+        then:
+        def e = thrown(SerializingActionExecutionSpec.ParameterSerializationException)
+        e.message == "Could not serialize parameters"
+        e.cause instanceof NotSerializableException
+    }
+
+    static class CustomParam implements Serializable {
+        String value
+    }
+}